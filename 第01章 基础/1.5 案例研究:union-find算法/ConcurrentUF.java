@@ -0,0 +1,142 @@
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+public class ConcurrentUF {
+    private final AtomicIntegerArray parent;  // parent[i] = parent of i
+    private final AtomicInteger count;        // number of components
+
+    /**
+     * Initializes an empty union-find data structure with
+     * {@code n} elements {@code 0} through {@code n-1}.
+     * Initially, each elements is in its own set.
+     * Any number of threads may call {@code find()}, {@code union()} and
+     * {@code connected()} at the same time, without locks.
+     *
+     * @param  n the number of elements
+     * @throws IllegalArgumentException if {@code n < 0}
+     */
+    public ConcurrentUF(int n) {
+        if (n < 0) throw new IllegalArgumentException();
+        count = new AtomicInteger(n);
+        parent = new AtomicIntegerArray(n);
+        for (int i = 0; i < n; i++) {
+            parent.set(i, i);
+        }
+    }
+
+    /**
+     * Returns the number of sets. While other threads are merging sets,
+     * this is a snapshot that is never less than the final count.
+     *
+     * @return the number of sets (between {@code 1} and {@code n})
+     */
+    public int count() {
+        return count.get();
+    }
+
+    /**
+     * Returns the canonical element of the set containing element {@code p}.
+     * While other threads are merging sets, it is the canonical element at
+     * some moment during the call.
+     *
+     * @param  p an element
+     * @return the canonical element of the set containing {@code p}
+     * @throws IllegalArgumentException unless {@code 0 <= p < n}
+     */
+    public int find(int p) {
+        validate(p);
+        while (true) {
+            int next = parent.get(p);
+            if (next == p) return p;
+            int grandparent = parent.get(next);
+            // path splitting; if another thread got there first, its parent is as good
+            if (next != grandparent) parent.compareAndSet(p, next, grandparent);
+            p = next;
+        }
+    }
+
+    /**
+     * Returns true if the two elements are in the same set.
+     * Once it returns {@code true}, it always will; a {@code false} means the
+     * elements were in different sets at some moment during the call.
+     *
+     * @param  p one element
+     * @param  q the other element
+     * @return {@code true} if {@code p} and {@code q} are in the same set;
+     *         {@code false} otherwise
+     * @throws IllegalArgumentException unless
+     *         both {@code 0 <= p < n} and {@code 0 <= q < n}
+     */
+    public boolean connected(int p, int q) {
+        while (true) {
+            p = find(p);
+            q = find(q);
+            if (p == q) return true;
+            // p was a root when q was found, so the sets were different then
+            if (parent.get(p) == p) return false;
+        }
+    }
+
+    // validate that p is a valid index
+    private void validate(int p) {
+        int n = parent.length();
+        if (p < 0 || p >= n) {
+            throw new IllegalArgumentException("index " + p + " is not between 0 and " + (n-1));
+        }
+    }
+
+    /**
+     * Merges the set containing element {@code p} with the
+     * the set containing element {@code q}.
+     * Links by index: the root with the smaller index becomes a child of the
+     * other, with a compare-and-set that fails, and is retried from the new roots,
+     * only if another thread linked that root first. Every link goes up in index,
+     * so no cycle can form however the threads interleave.
+     *
+     * @param  p one element
+     * @param  q the other element
+     * @return {@code true} if this call merged two sets, and {@code false}
+     *         if {@code p} and {@code q} were already in the same set
+     * @throws IllegalArgumentException unless
+     *         both {@code 0 <= p < n} and {@code 0 <= q < n}
+     */
+    public boolean union(int p, int q) {
+        while (true) {
+            int rootP = find(p);
+            int rootQ = find(q);
+            if (rootP == rootQ) return false;
+            if (rootP > rootQ) {
+                int t = rootP;
+                rootP = rootQ;
+                rootQ = t;
+            }
+            if (parent.compareAndSet(rootP, rootP, rootQ)) {
+                count.decrementAndGet();
+                return true;
+            }
+            p = rootP;
+            q = rootQ;
+        }
+    }
+
+    /**
+     * Reads an integer {@code n} and a sequence of pairs of integers
+     * (between {@code 0} and {@code n-1}) from standard input, where each integer
+     * in the pair represents some element;
+     * if the elements are in different sets, merge the two sets
+     * and print the pair to standard output.
+     *
+     * @param args the command-line arguments
+     */
+    public static void main(String[] args) {
+        int n = StdIn.readInt();
+        ConcurrentUF uf = new ConcurrentUF(n);
+        while (!StdIn.isEmpty()) {
+            int p = StdIn.readInt();
+            int q = StdIn.readInt();
+            if (uf.union(p, q)) StdOut.println(p + " " + q);
+        }
+        StdOut.println(uf.count() + " components");
+    }
+
+}
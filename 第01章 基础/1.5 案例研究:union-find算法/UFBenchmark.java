@@ -0,0 +1,127 @@
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+public class UFBenchmark {
+    // untimed runs of each variant, so the JIT compiles it first
+    private static final int WARMUP = 3;
+
+    // timed runs of each variant; the median is reported
+    private static final int TRIALS = 7;
+
+    // union at most this many pairs in one fork-join task
+    private static final int CUTOFF = 1 << 14;
+
+    // This class should not be instantiated.
+    private UFBenchmark() { }
+
+    // one run of a union-find variant on n elements and the pairs p[i]-q[i]; returns the count
+    private interface Variant {
+        int run(int n, int[] p, int[] q);
+    }
+
+    // union pairs lo..hi-1 in parallel
+    private static class Pairs extends RecursiveAction {
+        private final ConcurrentUF uf;
+        private final int[] p, q;
+        private final int lo, hi;
+
+        Pairs(ConcurrentUF uf, int[] p, int[] q, int lo, int hi) {
+            this.uf = uf;
+            this.p = p;
+            this.q = q;
+            this.lo = lo;
+            this.hi = hi;
+        }
+
+        @Override
+        protected void compute() {
+            if (hi - lo > CUTOFF) {
+                int mid = lo + (hi - lo) / 2;
+                invokeAll(new Pairs(uf, p, q, lo, mid), new Pairs(uf, p, q, mid, hi));
+                return;
+            }
+            for (int i = lo; i < hi; i++)
+                uf.union(p[i], q[i]);
+        }
+    }
+
+    // the median time, in seconds, of TRIALS runs of variant after WARMUP untimed ones;
+    // every run must find the expected number of sets
+    private static double time(Variant variant, int n, int[] p, int[] q, int expected) {
+        double[] times = new double[TRIALS];
+        for (int t = -WARMUP; t < TRIALS; t++) {
+            Stopwatch timer = new Stopwatch();
+            int count = variant.run(n, p, q);
+            double time = timer.elapsedTime();
+            if (count != expected)
+                throw new IllegalStateException("found " + count + " sets instead of " + expected);
+            if (t >= 0) times[t] = time;
+        }
+        java.util.Arrays.sort(times);
+        return times[TRIALS / 2];
+    }
+
+    /**
+     * Times the union-find variants on {@code n} elements and {@code m} random pairs,
+     * serially and, for {@code ConcurrentUF}, on the common fork-join pool, and prints
+     * the median time of each and its speedup over {@code WeightedQuickUnionPathCompressionUF}.
+     *
+     * @param args the command-line arguments: {@code n} and {@code m}
+     */
+    public static void main(String[] args) {
+        int n = Integer.parseInt(args[0]);
+        int m = Integer.parseInt(args[1]);
+        int[] p = new int[m];
+        int[] q = new int[m];
+        for (int i = 0; i < m; i++) {
+            p[i] = StdRandom.uniform(n);
+            q[i] = StdRandom.uniform(n);
+        }
+        WeightedQuickUnionPathCompressionUF reference = new WeightedQuickUnionPathCompressionUF(n);
+        for (int i = 0; i < m; i++)
+            reference.union(p[i], q[i]);
+        int expected = reference.count();
+
+        String[] names = {
+            "QuickUnionPathSplittingUF",
+            "WeightedQuickUnionPathCompressionUF",
+            "UF",
+            "ConcurrentUF (serial)",
+            "ConcurrentUF (" + ForkJoinPool.commonPool().getParallelism() + " threads)"
+        };
+        Variant[] variants = {
+            (size, a, b) -> {
+                QuickUnionPathSplittingUF uf = new QuickUnionPathSplittingUF(size);
+                for (int i = 0; i < a.length; i++) uf.union(a[i], b[i]);
+                return uf.count();
+            },
+            (size, a, b) -> {
+                WeightedQuickUnionPathCompressionUF uf = new WeightedQuickUnionPathCompressionUF(size);
+                for (int i = 0; i < a.length; i++) uf.union(a[i], b[i]);
+                return uf.count();
+            },
+            (size, a, b) -> {
+                UF uf = new UF(size);
+                for (int i = 0; i < a.length; i++) uf.union(a[i], b[i]);
+                return uf.count();
+            },
+            (size, a, b) -> {
+                ConcurrentUF uf = new ConcurrentUF(size);
+                for (int i = 0; i < a.length; i++) uf.union(a[i], b[i]);
+                return uf.count();
+            },
+            (size, a, b) -> {
+                ConcurrentUF uf = new ConcurrentUF(size);
+                ForkJoinPool.commonPool().invoke(new Pairs(uf, a, b, 0, a.length));
+                return uf.count();
+            }
+        };
+
+        StdOut.printf("n = %d, m = %d, %d sets\n", n, m, expected);
+        double[] times = new double[variants.length];
+        for (int k = 0; k < variants.length; k++)
+            times[k] = time(variants[k], n, p, q, expected);
+        for (int k = 0; k < variants.length; k++)
+            StdOut.printf("%-40s %8.3f s %6.2fx\n", names[k], times[k], times[1] / times[k]);
+    }
+}
@@ -13,7 +13,7 @@ public class BaconHistogram {
 
         // run breadth-first search from s
         int s = sg.indexOf(source);
-        BreadthFirstPaths bfs = new BreadthFirstPaths(G, s);
+        DirectionOptimizingBFS bfs = new DirectionOptimizingBFS(G, s);
 
 
         // compute histogram of Kevin Bacon numbers - 100 for infinity
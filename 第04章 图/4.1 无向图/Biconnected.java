@@ -3,46 +3,50 @@ public class Biconnected {
     private int[] pre;
     private int cnt;
     private boolean[] articulation;
+    private int[] parent;          // parent[v] = vertex v was reached from, or -1
+    private int children;          // number of children of the root of the current search
 
     public Biconnected(Graph G) {
         low = new int[G.V()];
         pre = new int[G.V()];
         articulation = new boolean[G.V()];
+        parent = new int[G.V()];
         for (int v = 0; v < G.V(); v++)
             low[v] = -1;
         for (int v = 0; v < G.V(); v++)
             pre[v] = -1;
         
-        for (int v = 0; v < G.V(); v++)
-            if (pre[v] == -1)
-                dfs(G, v, v);
-    }
+        new DepthFirstTraversal(G).searchAll(new DepthFirstTraversal.Visitor() {
+            public void pre(int v, int u) {
+                pre[v] = cnt++;
+                low[v] = pre[v];
+                parent[v] = u;
+                if (u == -1) children = 0;
+                else if (parent[u] == -1) children++;
+            }
+
+            // update low number - ignore reverse of edge leading to v
+            public void edge(int v, int w) {
+                if (w != parent[v])
+                    low[v] = Math.min(low[v], pre[w]);
+            }
+
+            public void post(int w, int v) {
 
-    private void dfs(Graph G, int u, int v) {
-        int children = 0;
-        pre[v] = cnt++;
-        low[v] = pre[v];
-        for (int w : G.adj(v)) {
-            if (pre[w] == -1) {
-                children++;
-                dfs(G, v, w);
+                // root of DFS is an articulation point if it has more than 1 child
+                if (v == -1) {
+                    if (children > 1) articulation[w] = true;
+                    return;
+                }
 
                 // update low number
                 low[v] = Math.min(low[v], low[w]);
 
                 // non-root of DFS is an articulation point if low[w] >= pre[v]
-                if (low[w] >= pre[v] && u != v) 
+                if (low[w] >= pre[v] && parent[v] != -1)
                     articulation[v] = true;
             }
-
-            // update low number - ignore reverse of edge leading to v
-            else if (w != u)
-                low[v] = Math.min(low[v], pre[w]);
-        }
-
-        // root of DFS is an articulation point if it has more than 1 child
-        if (u == v && children > 1)
-            articulation[v] = true;
+        });
     }
 
     // is vertex v an articulation point?
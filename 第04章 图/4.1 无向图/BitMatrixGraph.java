@@ -0,0 +1,332 @@
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+public class BitMatrixGraph {
+    private static final String NEWLINE = System.getProperty("line.separator");
+
+    private final int V;            // number of vertices
+    private int E;                  // number of edges
+    private final int words;        // number of longs in each row
+    private final long[] bits;      // bits v of row w and w of row v are set iff there is an edge v-w
+
+    /**
+     * Initializes an empty graph with {@code V} vertices and 0 edges, as a
+     * symmetric matrix of bits: row {@code v} is {@code (V+63)/64} {@code long}s,
+     * one bit for each possible neighbor of {@code v}, so it takes
+     * <em>V</em><sup>2</sup>/8 bytes, an eighth of an {@code AdjMatrixGraph}, and the
+     * operations on whole rows handle 64 vertices at a time.
+     * @param  V the number of vertices
+     * @throws IllegalArgumentException if {@code V < 0}
+     * @throws IllegalArgumentException if the matrix has more than
+     *         {@code Integer.MAX_VALUE} words
+     */
+    public BitMatrixGraph(int V) {
+        if (V < 0) throw new IllegalArgumentException("Number of vertices must be nonnegative");
+        this.V = V;
+        this.words = (V + 63) >>> 6;
+        if ((long) V * words > Integer.MAX_VALUE - 8)
+            throw new IllegalArgumentException("too many vertices for a bit matrix: " + V);
+        this.bits = new long[V * words];
+    }
+
+    /**
+     * Initializes a random graph with {@code V} vertices and {@code E} distinct edges.
+     * @param  V the number of vertices
+     * @param  E the number of edges
+     * @throws IllegalArgumentException if {@code V < 0}
+     * @throws IllegalArgumentException unless {@code 0 <= E <= V*(V-1)/2 + V}
+     */
+    public BitMatrixGraph(int V, int E) {
+        this(V);
+        if (E > (long) V*(V-1)/2 + V) throw new IllegalArgumentException("Too many edges");
+        if (E < 0)                    throw new IllegalArgumentException("Too few edges");
+
+        // can be inefficient
+        while (this.E != E) {
+            int v = StdRandom.uniformInt(V);
+            int w = StdRandom.uniformInt(V);
+            addEdge(v, w);
+        }
+    }
+
+    /**
+     * Initializes a bit matrix with the edges of the graph {@code G};
+     * parallel edges become one edge.
+     * @param  G the graph
+     * @throws IllegalArgumentException if the matrix has more than
+     *         {@code Integer.MAX_VALUE} words
+     */
+    public BitMatrixGraph(Graph G) {
+        this(G.V());
+        for (int v = 0; v < V; v++)
+            for (int w : G.adj(v))
+                addEdge(v, w);
+    }
+
+    /**
+     * Returns the number of vertices in this graph.
+     * @return the number of vertices in this graph
+     */
+    public int V() {
+        return V;
+    }
+
+    /**
+     * Returns the number of edges in this graph.
+     * @return the number of edges in this graph
+     */
+    public int E() {
+        return E;
+    }
+
+    // throw an IllegalArgumentException unless {@code 0 <= v < V}
+    private void validateVertex(int v) {
+        if (v < 0 || v >= V)
+            throw new IllegalArgumentException("vertex " + v + " is not between 0 and " + (V-1));
+    }
+
+    /**
+     * Adds the undirected edge v-w to this graph, unless it is already there.
+     * @param  v one vertex in the edge
+     * @param  w the other vertex in the edge
+     * @throws IllegalArgumentException unless both {@code 0 <= v < V} and {@code 0 <= w < V}
+     */
+    public void addEdge(int v, int w) {
+        validateVertex(v);
+        validateVertex(w);
+        int i = v * words + (w >>> 6);
+        if ((bits[i] & (1L << w)) == 0) E++;
+        bits[i] |= 1L << w;
+        bits[w * words + (v >>> 6)] |= 1L << v;
+    }
+
+    /**
+     * Does this graph contain the edge v-w?
+     * @param  v one vertex
+     * @param  w the other vertex
+     * @return {@code true} if this graph contains the edge v-w, and {@code false} otherwise
+     * @throws IllegalArgumentException unless both {@code 0 <= v < V} and {@code 0 <= w < V}
+     */
+    public boolean contains(int v, int w) {
+        validateVertex(v);
+        validateVertex(w);
+        return (bits[v * words + (w >>> 6)] & (1L << w)) != 0;
+    }
+
+    /**
+     * Returns the vertices adjacent to vertex {@code v}, in increasing order.
+     * @param  v the vertex
+     * @return the vertices adjacent to vertex {@code v}, as an iterable
+     * @throws IllegalArgumentException unless {@code 0 <= v < V}
+     */
+    public Iterable<Integer> adj(int v) {
+        validateVertex(v);
+        return () -> new RowIterator(v, v);
+    }
+
+    /**
+     * Returns the number of vertices adjacent to vertex {@code v}, with a population
+     * count of its row; a self-loop counts once.
+     * @param  v the vertex
+     * @return the number of vertices adjacent to vertex {@code v}
+     * @throws IllegalArgumentException unless {@code 0 <= v < V}
+     */
+    public int degree(int v) {
+        validateVertex(v);
+        int count = 0;
+        for (int i = v * words, end = i + words; i < end; i++)
+            count += Long.bitCount(bits[i]);
+        return count;
+    }
+
+    /**
+     * Returns the common neighbors of {@code v} and {@code w}, in increasing order,
+     * from the AND of their rows.
+     * @param  v one vertex
+     * @param  w the other vertex
+     * @return the vertices adjacent to both {@code v} and {@code w}, as an iterable
+     * @throws IllegalArgumentException unless both {@code 0 <= v < V} and {@code 0 <= w < V}
+     */
+    public Iterable<Integer> commonNeighbors(int v, int w) {
+        validateVertex(v);
+        validateVertex(w);
+        return () -> new RowIterator(v, w);
+    }
+
+    /**
+     * Returns the number of common neighbors of {@code v} and {@code w}:
+     * the population count of the AND of their rows.
+     * @param  v one vertex
+     * @param  w the other vertex
+     * @return the number of vertices adjacent to both {@code v} and {@code w}
+     * @throws IllegalArgumentException unless both {@code 0 <= v < V} and {@code 0 <= w < V}
+     */
+    public int commonNeighborCount(int v, int w) {
+        validateVertex(v);
+        validateVertex(w);
+        return andCount(v * words, w * words, 0);
+    }
+
+    /**
+     * Returns the number of vertices adjacent to {@code v} or {@code w}:
+     * the population count of the OR of their rows.
+     * @param  v one vertex
+     * @param  w the other vertex
+     * @return the number of vertices adjacent to {@code v} or {@code w}
+     * @throws IllegalArgumentException unless both {@code 0 <= v < V} and {@code 0 <= w < V}
+     */
+    public int unionCount(int v, int w) {
+        validateVertex(v);
+        validateVertex(w);
+        int count = 0;
+        for (int i = v * words, j = w * words, end = i + words; i < end; i++, j++)
+            count += Long.bitCount(bits[i] | bits[j]);
+        return count;
+    }
+
+    /**
+     * Returns the number of triangles in this graph. Each triangle {@code u-v-w} with
+     * {@code u < v < w} is counted once, at its edge {@code u-v}, as a bit above {@code v}
+     * in the AND of rows {@code u} and {@code v}, so it takes time proportional to
+     * <em>E</em> <em>V</em> / 64. Self-loops are not part of any triangle.
+     * @return the number of triangles in this graph
+     */
+    public long triangles() {
+        long count = 0;
+        for (int u = 0; u < V; u++) {
+            int row = u * words;
+            // the neighbors v > u of u
+            for (int k = (u + 1) >>> 6; k < words; k++) {
+                long word = bits[row + k];
+                if (k == (u + 1) >>> 6) word &= -1L << (u + 1);
+                while (word != 0) {
+                    int v = (k << 6) + Long.numberOfTrailingZeros(word);
+                    word &= word - 1;
+                    count += andCount(row, v * words, v + 1);
+                }
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Returns the number of triangles that contain vertex {@code v}: the number of
+     * edges between its neighbors other than itself.
+     * @param  v the vertex
+     * @return the number of triangles that contain vertex {@code v}
+     * @throws IllegalArgumentException unless {@code 0 <= v < V}
+     */
+    public long triangles(int v) {
+        validateVertex(v);
+        int row = v * words;
+        long count = 0;
+        for (int k = 0; k < words; k++) {
+            long word = bits[row + k];
+            while (word != 0) {
+                int w = (k << 6) + Long.numberOfTrailingZeros(word);
+                word &= word - 1;
+                if (w == v) continue;
+                // the common neighbors other than v and w, each found from both ends
+                int common = andCount(row, w * words, 0);
+                if (contains(v, v)) common--;
+                if (contains(w, w)) common--;
+                count += common;
+            }
+        }
+        return count / 2;
+    }
+
+    // the number of bits set in the AND of the rows starting at indices i and j,
+    // counting only the vertices from {@code from} on
+    private int andCount(int i, int j, int from) {
+        int k = from >>> 6;
+        if (k >= words) return 0;
+        int count = Long.bitCount(bits[i + k] & bits[j + k] & (-1L << from));
+        for (k++; k < words; k++)
+            count += Long.bitCount(bits[i + k] & bits[j + k]);
+        return count;
+    }
+
+    // iterates over the set bits of the AND of rows v and w, one word at a time
+    private class RowIterator implements Iterator<Integer> {
+        private final int a, b;     // the first index of each row
+        private int k = -1;         // the index in the rows of the current word
+        private long word;          // the bits of the current word not yet returned
+
+        RowIterator(int v, int w) {
+            a = v * words;
+            b = w * words;
+        }
+
+        public boolean hasNext() {
+            while (word == 0) {
+                if (++k >= words) return false;
+                word = bits[a + k] & bits[b + k];
+            }
+            return true;
+        }
+
+        public Integer next() {
+            if (!hasNext()) throw new NoSuchElementException();
+            int w = (k << 6) + Long.numberOfTrailingZeros(word);
+            word &= word - 1;
+            return w;
+        }
+    }
+
+    /**
+     * Returns a string representation of this graph.
+     * @return the number of vertices <em>V</em>, followed by the number of edges <em>E</em>,
+     *         followed by the <em>V</em> adjacency lists
+     */
+    public String toString() {
+        StringBuilder s = new StringBuilder();
+        s.append(V + " " + E + NEWLINE);
+        for (int v = 0; v < V; v++) {
+            s.append(v + ": ");
+            for (int w : adj(v)) {
+                s.append(w + " ");
+            }
+            s.append(NEWLINE);
+        }
+        return s.toString();
+    }
+
+    /**
+     * Unit tests the {@code BitMatrixGraph} data type: builds a random graph, counts
+     * its triangles, and compares the count with one over an {@code AdjMatrixGraph}
+     * with the same edges.
+     *
+     * @param args the command-line arguments: <em>V</em> and <em>E</em>
+     */
+    public static void main(String[] args) {
+        int V = Integer.parseInt(args[0]);
+        int E = Integer.parseInt(args[1]);
+        BitMatrixGraph G = new BitMatrixGraph(V, E);
+        if (V <= 20) StdOut.println(G);
+
+        Stopwatch sw = new Stopwatch();
+        long triangles = G.triangles();
+        double t1 = sw.elapsedTime();
+
+        // the same count over boolean[][], one pair of neighbors at a time
+        AdjMatrixGraph matrix = new AdjMatrixGraph(V);
+        for (int v = 0; v < V; v++)
+            for (int w : G.adj(v))
+                matrix.addEdge(v, w);
+        sw = new Stopwatch();
+        long expected = 0;
+        for (int u = 0; u < V; u++)
+            for (int v : matrix.adj(u))
+                if (v > u)
+                    for (int w : matrix.adj(v))
+                        if (w > v && matrix.contains(u, w)) expected++;
+        double t2 = sw.elapsedTime();
+
+        long sum = 0;
+        for (int v = 0; v < V; v++)
+            sum += G.triangles(v);
+        StdOut.printf("%d triangles (%d expected, %d from the vertices)\n", triangles, expected, sum / 3);
+        StdOut.printf("BitMatrixGraph %.3f s, AdjMatrixGraph %.3f s\n", t1, t2);
+    }
+}
@@ -3,39 +3,48 @@ public class Bridge {
     private int cnt;          // counter
     private int[] pre;        // pre[v] = order in which dfs examines v
     private int[] low;        // low[v] = lowest preorder of any vertex connected to v
+    private int[] parent;     // parent[v] = vertex v was reached from, or -1
 
     public Bridge(Graph G) {
         low = new int[G.V()];
         pre = new int[G.V()];
+        parent = new int[G.V()];
         for (int v = 0; v < G.V(); v++)
             low[v] = -1;
         for (int v = 0; v < G.V(); v++)
             pre[v] = -1;
         
+        DepthFirstTraversal traversal = new DepthFirstTraversal(G);
         for (int v = 0; v < G.V(); v++)
             if (pre[v] == -1)
-                dfs(G, v, v);
+                dfs(traversal, v);
     }
 
     public int components() { return bridges + 1; }
 
-    private void dfs(Graph G, int u, int v) {
-        pre[v] = cnt++;
-        low[v] = pre[v];
-        for (int w : G.adj(v)) {
-            if (pre[w] == -1) {
-                dfs(G, v, w);
+    private void dfs(DepthFirstTraversal traversal, int s) {
+        traversal.search(s, new DepthFirstTraversal.Visitor() {
+            public void pre(int v, int u) {
+                pre[v] = cnt++;
+                low[v] = pre[v];
+                parent[v] = u;
+            }
+
+            // update low number - ignore reverse of edge leading to v
+            public void edge(int v, int w) {
+                if (w != parent[v])
+                    low[v] = Math.min(low[v], pre[w]);
+            }
+
+            public void post(int w, int v) {
+                if (v == -1) return;
                 low[v] = Math.min(low[v], low[w]);
                 if (low[w] == pre[w]) {
                     StdOut.println(v + "-" + w + " is a bridge");
                     bridges++;
                 }
             }
-
-            // update low number - ignore reverse of edge leading to v
-            else if (w != u)
-                low[v] = Math.min(low[v], pre[w]);
-        }
+        });
     }
 
     // test client
@@ -0,0 +1,203 @@
+public class CSRBreadthFirstPaths {
+    private static final int INFINITY = Integer.MAX_VALUE;
+    private boolean[] marked;  // marked[v] = is there an s-v path
+    private int[] edgeTo;      // edgeTo[v] = previous edge on shortest s-v path
+    private int[] distTo;      // distTo[v] = number of edges shortest s-v path
+
+    /**
+     * Computes the shortest path between the source vertex {@code s}
+     * and every other vertex in the graph {@code G}.
+     * @param G the graph
+     * @param s the source vertex
+     * @throws IllegalArgumentException unless {@code 0 <= s < V}
+     */
+    public CSRBreadthFirstPaths(CSRGraph G, int s) {
+        marked = new boolean[G.V()];
+        distTo = new int[G.V()];
+        edgeTo = new int[G.V()];
+        validateVertex(s);
+        bfs(G, new int[] { s });
+
+        assert check(G, s);
+    }
+
+    /**
+     * Computes the shortest path between any one of the source vertices in {@code sources}
+     * and every other vertex in graph {@code G}.
+     * @param G the graph
+     * @param sources the source vertices
+     * @throws IllegalArgumentException if {@code sources} is {@code null}
+     * @throws IllegalArgumentException unless {@code 0 <= s < V} for each vertex
+     *         {@code s} in {@code sources}
+     */
+    public CSRBreadthFirstPaths(CSRGraph G, int[] sources) {
+        marked = new boolean[G.V()];
+        distTo = new int[G.V()];
+        edgeTo = new int[G.V()];
+        validateVertices(sources);
+        bfs(G, sources);
+    }
+
+    // breadth-first search from one or more sources, using an int[] as the queue
+    private void bfs(CSRGraph G, int[] sources) {
+        for (int v = 0; v < G.V(); v++)
+            distTo[v] = INFINITY;
+
+        // each vertex is enqueued at most once, so a queue of length V never wraps
+        int[] queue = new int[G.V()];
+        int head = 0, tail = 0;
+        for (int s : sources) {
+            if (marked[s]) continue;
+            marked[s] = true;
+            distTo[s] = 0;
+            queue[tail++] = s;
+        }
+        while (head < tail) {
+            int v = queue[head++];
+            for (int i = G.begin(v), end = G.end(v); i < end; i++) {
+                int w = G.target(i);
+                if (!marked[w]) {
+                    edgeTo[w] = v;
+                    distTo[w] = distTo[v] + 1;
+                    marked[w] = true;
+                    queue[tail++] = w;
+                }
+            }
+        }
+    }
+
+    /**
+     * Is there a path between the source vertex {@code s} (or sources) and vertex {@code v}?
+     * @param v the vertex
+     * @return {@code true} if there is a path, and {@code false} otherwise
+     * @throws IllegalArgumentException unless {@code 0 <= v < V}
+     */
+    public boolean hasPathTo(int v) {
+        validateVertex(v);
+        return marked[v];
+    }
+
+    /**
+     * Returns the number of edges in a shortest path between the source vertex {@code s}
+     * (or sources) and vertex {@code v}?
+     * @param v the vertex
+     * @return the number of edges in a shortest path
+     * @throws IllegalArgumentException unless {@code 0 <= v < V}
+     */
+    public int distTo(int v) {
+        validateVertex(v);
+        return distTo[v];
+    }
+
+    /**
+     * Returns a shortest path between the source vertex {@code s} (or sources)
+     * and {@code v}, or {@code null} if no such path.
+     * @param  v the vertex
+     * @return the sequence of vertices on a shortest path, as an Iterable
+     * @throws IllegalArgumentException unless {@code 0 <= v < V}
+     */
+    public Iterable<Integer> pathTo(int v) {
+        validateVertex(v);
+        if (!hasPathTo(v)) return null;
+        Stack<Integer> path = new Stack<Integer>();
+        int x;
+        for (x = v; distTo[x] != 0; x = edgeTo[x])
+            path.push(x);
+        path.push(x);
+        return path;
+    }
+
+
+    // check optimality conditions for single source
+    private boolean check(CSRGraph G, int s) {
+
+        // check that the distance of s = 0
+        if (distTo[s] != 0) {
+            StdOut.println("distance of source " + s + " to itself = " + distTo[s]);
+            return false;
+        }
+
+        // check that for each edge v-w dist[w] <= dist[v] + 1
+        // provided v is reachable from s
+        for (int v = 0; v < G.V(); v++) {
+            for (int i = G.begin(v); i < G.end(v); i++) {
+                int w = G.target(i);
+                if (hasPathTo(v) != hasPathTo(w)) {
+                    StdOut.println("edge " + v + "-" + w);
+                    StdOut.println("hasPathTo(" + v + ") = " + hasPathTo(v));
+                    StdOut.println("hasPathTo(" + w + ") = " + hasPathTo(w));
+                    return false;
+                }
+                if (hasPathTo(v) && (distTo[w] > distTo[v] + 1)) {
+                    StdOut.println("edge " + v + "-" + w);
+                    StdOut.println("distTo[" + v + "] = " + distTo[v]);
+                    StdOut.println("distTo[" + w + "] = " + distTo[w]);
+                    return false;
+                }
+            }
+        }
+
+        // check that v = edgeTo[w] satisfies distTo[w] = distTo[v] + 1
+        // provided v is reachable from s
+        for (int w = 0; w < G.V(); w++) {
+            if (!hasPathTo(w) || w == s) continue;
+            int v = edgeTo[w];
+            if (distTo[w] != distTo[v] + 1) {
+                StdOut.println("shortest path edge " + v + "-" + w);
+                StdOut.println("distTo[" + v + "] = " + distTo[v]);
+                StdOut.println("distTo[" + w + "] = " + distTo[w]);
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    // throw an IllegalArgumentException unless {@code 0 <= v < V}
+    private void validateVertex(int v) {
+        int V = marked.length;
+        if (v < 0 || v >= V)
+            throw new IllegalArgumentException("vertex " + v + " is not between 0 and " + (V-1));
+    }
+
+    // throw an IllegalArgumentException unless {@code 0 <= v < V}
+    private void validateVertices(int[] vertices) {
+        if (vertices == null) {
+            throw new IllegalArgumentException("argument is null");
+        }
+        for (int v : vertices) {
+            validateVertex(v);
+        }
+    }
+
+    /**
+     * Unit tests the {@code CSRBreadthFirstPaths} data type.
+     *
+     * @param args the command-line arguments
+     */
+    public static void main(String[] args) {
+        In in = new In(args[0]);
+        CSRGraph G = new CSRGraph(in);
+
+        int s = Integer.parseInt(args[1]);
+        CSRBreadthFirstPaths bfs = new CSRBreadthFirstPaths(G, s);
+
+        for (int v = 0; v < G.V(); v++) {
+            if (bfs.hasPathTo(v)) {
+                StdOut.printf("%d to %d (%d):  ", s, v, bfs.distTo(v));
+                for (int x : bfs.pathTo(v)) {
+                    if (x == s) StdOut.print(x);
+                    else        StdOut.print("-" + x);
+                }
+                StdOut.println();
+            }
+
+            else {
+                StdOut.printf("%d to %d (-):  not connected\n", s, v);
+            }
+
+        }
+    }
+
+
+}
\ No newline at end of file
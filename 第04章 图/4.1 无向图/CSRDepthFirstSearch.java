@@ -0,0 +1,89 @@
+public class CSRDepthFirstSearch {
+    private boolean[] marked;    // marked[v] = is there an s-v path?
+    private int count;           // number of vertices connected to s
+
+    /**
+     * Computes the vertices in graph {@code G} that are
+     * connected to the source vertex {@code s}.
+     * @param G the graph
+     * @param s the source vertex
+     * @throws IllegalArgumentException unless {@code 0 <= s < V}
+     */
+    public CSRDepthFirstSearch(CSRGraph G, int s) {
+        marked = new boolean[G.V()];
+        validateVertex(s);
+        dfs(G, s);
+    }
+
+    // depth first search from s, using an explicit stack of (vertex, next arc) frames
+    private void dfs(CSRGraph G, int s) {
+        int[] stack = new int[G.V()];   // vertices on the current path
+        int[] next  = new int[G.V()];   // next[k] = index of next arc to scan from stack[k]
+        int top = 0;
+        stack[0] = s;
+        next[0] = G.begin(s);
+        marked[s] = true;
+        count++;
+        while (top >= 0) {
+            int v = stack[top];
+            if (next[top] == G.end(v)) {
+                top--;
+                continue;
+            }
+            int w = G.target(next[top]++);
+            if (!marked[w]) {
+                marked[w] = true;
+                count++;
+                stack[++top] = w;
+                next[top] = G.begin(w);
+            }
+        }
+    }
+
+    /**
+     * Is there a path between the source vertex {@code s} and vertex {@code v}?
+     * @param v the vertex
+     * @return {@code true} if there is a path, {@code false} otherwise
+     * @throws IllegalArgumentException unless {@code 0 <= v < V}
+     */
+    public boolean marked(int v) {
+        validateVertex(v);
+        return marked[v];
+    }
+
+    /**
+     * Returns the number of vertices connected to the source vertex {@code s}.
+     * @return the number of vertices connected to the source vertex {@code s}
+     */
+    public int count() {
+        return count;
+    }
+
+    // throw an IllegalArgumentException unless {@code 0 <= v < V}
+    private void validateVertex(int v) {
+        int V = marked.length;
+        if (v < 0 || v >= V)
+            throw new IllegalArgumentException("vertex " + v + " is not between 0 and " + (V-1));
+    }
+
+    /**
+     * Unit tests the {@code CSRDepthFirstSearch} data type.
+     *
+     * @param args the command-line arguments
+     */
+    public static void main(String[] args) {
+        In in = new In(args[0]);
+        CSRGraph G = new CSRGraph(in);
+        int s = Integer.parseInt(args[1]);
+        CSRDepthFirstSearch search = new CSRDepthFirstSearch(G, s);
+        for (int v = 0; v < G.V(); v++) {
+            if (search.marked(v))
+                StdOut.print(v + " ");
+        }
+
+        StdOut.println();
+        if (search.count() != G.V()) StdOut.println("NOT connected");
+        else                         StdOut.println("connected");
+    }
+
+}
\ No newline at end of file
@@ -0,0 +1,290 @@
+import java.util.NoSuchElementException;
+
+public class CSRGraph {
+    private static final String NEWLINE = System.getProperty("line.separator");
+
+    private final int V;           // number of vertices in this graph
+    private final int E;           // number of edges in this graph
+    private final int[] offsets;   // adjacency list of v is targets[offsets[v]..offsets[v+1])
+    private final int[] targets;   // concatenated adjacency lists, 2E entries
+
+    /**
+     * Initializes a graph from the specified input stream.
+     * The format is the number of vertices <em>V</em>,
+     * followed by the number of edges <em>E</em>,
+     * followed by <em>E</em> pairs of vertices, with each entry separated by whitespace.
+     *
+     * @param  in the input stream
+     * @throws IllegalArgumentException if {@code in} is {@code null}
+     * @throws IllegalArgumentException if the endpoints of any edge are not in prescribed range
+     * @throws IllegalArgumentException if the number of vertices or edges is negative
+     * @throws IllegalArgumentException if the input stream is in the wrong format
+     */
+    public CSRGraph(In in) {
+        if (in == null) throw new IllegalArgumentException("argument is null");
+        int[] tails, heads;
+        try {
+            this.V = in.readInt();
+            if (V < 0) throw new IllegalArgumentException("number of vertices in a Graph must be nonnegative");
+            this.E = in.readInt();
+            if (E < 0) throw new IllegalArgumentException("number of edges in a Graph must be nonnegative");
+            tails = new int[E];
+            heads = new int[E];
+            for (int i = 0; i < E; i++) {
+                tails[i] = in.readInt();
+                heads[i] = in.readInt();
+            }
+        }
+        catch (NoSuchElementException e) {
+            throw new IllegalArgumentException("invalid input format in CSRGraph constructor", e);
+        }
+        offsets = new int[V+1];
+        targets = new int[arcs(E)];
+        build(tails, heads);
+    }
+
+    /**
+     * Initializes a graph with {@code V} vertices from a stream of edges,
+     * given as two parallel arrays: edge {@code i} is {@code tails[i]-heads[i]}.
+     * The arrays are not retained.
+     *
+     * @param  V the number of vertices
+     * @param  tails one endpoint of each edge
+     * @param  heads the other endpoint of each edge
+     * @throws IllegalArgumentException if {@code V < 0}
+     * @throws IllegalArgumentException if either array is {@code null}
+     *         or the arrays have different lengths
+     * @throws IllegalArgumentException if the endpoints of any edge are not in prescribed range
+     */
+    public CSRGraph(int V, int[] tails, int[] heads) {
+        if (V < 0) throw new IllegalArgumentException("Number of vertices must be nonnegative");
+        if (tails == null || heads == null) throw new IllegalArgumentException("argument is null");
+        if (tails.length != heads.length) throw new IllegalArgumentException("edge arrays have different lengths");
+        this.V = V;
+        this.E = tails.length;
+        offsets = new int[V+1];
+        targets = new int[arcs(E)];
+        build(tails, heads);
+    }
+
+    /**
+     * Initializes a new graph that is a compact copy of {@code G}.
+     * The adjacency lists are in the same order as in {@code G}.
+     *
+     * @param  G the graph to copy
+     * @throws IllegalArgumentException if {@code G} is {@code null}
+     */
+    public CSRGraph(Graph G) {
+        if (G == null) throw new IllegalArgumentException("argument is null");
+        this.V = G.V();
+        this.E = G.E();
+        offsets = new int[V+1];
+        targets = new int[arcs(E)];
+        for (int v = 0; v < V; v++)
+            offsets[v+1] = offsets[v] + G.degree(v);
+        for (int v = 0; v < V; v++) {
+            int i = offsets[v];
+            for (int w : G.adj(v))
+                targets[i++] = w;
+        }
+    }
+
+    // initializes a graph directly from its CSR arrays, which hold both entries of each
+    // edge and are retained
+    CSRGraph(int[] offsets, int[] targets) {
+        this.V = offsets.length - 1;
+        this.E = targets.length / 2;
+        this.offsets = offsets;
+        this.targets = targets;
+    }
+
+    // number of adjacency entries needed for E undirected edges
+    private static int arcs(int E) {
+        if (2L * E > Integer.MAX_VALUE)
+            throw new IllegalArgumentException("too many edges for a CSRGraph: " + E);
+        return 2 * E;
+    }
+
+    // fill offsets[] and targets[] from the edge arrays with a counting sort on the endpoints
+    private void build(int[] tails, int[] heads) {
+        for (int i = 0; i < E; i++) {
+            validateVertex(tails[i]);
+            validateVertex(heads[i]);
+            offsets[tails[i]+1]++;
+            offsets[heads[i]+1]++;
+        }
+        for (int v = 0; v < V; v++)
+            offsets[v+1] += offsets[v];
+
+        int[] next = new int[V];
+        System.arraycopy(offsets, 0, next, 0, V);
+        for (int i = 0; i < E; i++) {
+            int v = tails[i];
+            int w = heads[i];
+            targets[next[v]++] = w;
+            targets[next[w]++] = v;
+        }
+    }
+
+    /**
+     * Returns the number of vertices in this graph.
+     *
+     * @return the number of vertices in this graph
+     */
+    public int V() {
+        return V;
+    }
+
+    /**
+     * Returns the number of edges in this graph.
+     *
+     * @return the number of edges in this graph
+     */
+    public int E() {
+        return E;
+    }
+
+    // throw an IllegalArgumentException unless {@code 0 <= v < V}
+    private void validateVertex(int v) {
+        if (v < 0 || v >= V)
+            throw new IllegalArgumentException("vertex " + v + " is not between 0 and " + (V-1));
+    }
+
+    /**
+     * Returns the vertices adjacent to vertex {@code v}, as a primitive cursor.
+     *
+     * @param  v the vertex
+     * @return a cursor over the vertices adjacent to vertex {@code v}
+     * @throws IllegalArgumentException unless {@code 0 <= v < V}
+     */
+    public Cursor adj(int v) {
+        Cursor cursor = new Cursor();
+        cursor.reset(v);
+        return cursor;
+    }
+
+    /**
+     * Returns the index in {@link #target(int)} of the first vertex adjacent to {@code v}.
+     * The vertices adjacent to {@code v} are {@code target(i)} for
+     * {@code begin(v) <= i < end(v)}.
+     *
+     * @param  v the vertex
+     * @return the index of the first vertex adjacent to {@code v}
+     * @throws IllegalArgumentException unless {@code 0 <= v < V}
+     */
+    public int begin(int v) {
+        validateVertex(v);
+        return offsets[v];
+    }
+
+    /**
+     * Returns one past the index in {@link #target(int)} of the last vertex adjacent to {@code v}.
+     *
+     * @param  v the vertex
+     * @return one past the index of the last vertex adjacent to {@code v}
+     * @throws IllegalArgumentException unless {@code 0 <= v < V}
+     */
+    public int end(int v) {
+        validateVertex(v);
+        return offsets[v+1];
+    }
+
+    /**
+     * Returns the adjacency entry at index {@code i}.
+     *
+     * @param  i the index, between {@code 0} and {@code 2E - 1}
+     * @return the vertex stored at index {@code i} of the adjacency array
+     */
+    public int target(int i) {
+        return targets[i];
+    }
+
+    /**
+     * Returns the degree of vertex {@code v}.
+     *
+     * @param  v the vertex
+     * @return the degree of vertex {@code v}
+     * @throws IllegalArgumentException unless {@code 0 <= v < V}
+     */
+    public int degree(int v) {
+        validateVertex(v);
+        return offsets[v+1] - offsets[v];
+    }
+
+    /**
+     * A reusable cursor over one adjacency list that returns primitive {@code int}s.
+     */
+    public final class Cursor {
+        private int i;      // index of next entry in targets[]
+        private int end;    // one past the last entry in targets[]
+
+        private Cursor() { }
+
+        /**
+         * Repositions this cursor at the start of the adjacency list of {@code v}.
+         *
+         * @param  v the vertex
+         * @throws IllegalArgumentException unless {@code 0 <= v < V}
+         */
+        public void reset(int v) {
+            validateVertex(v);
+            i = offsets[v];
+            end = offsets[v+1];
+        }
+
+        /**
+         * Are there more adjacent vertices?
+         *
+         * @return {@code true} if there are more adjacent vertices; {@code false} otherwise
+         */
+        public boolean hasNext() {
+            return i < end;
+        }
+
+        /**
+         * Returns the next adjacent vertex.
+         *
+         * @return the next adjacent vertex
+         * @throws NoSuchElementException if there are no more adjacent vertices
+         */
+        public int next() {
+            if (!hasNext()) throw new NoSuchElementException();
+            return targets[i++];
+        }
+    }
+
+    // the arrays themselves, not copies, for engines that scan them directly; do not modify
+    int[] offsets() { return offsets; }
+    int[] targets() { return targets; }
+
+    /**
+     * Returns a string representation of this graph.
+     *
+     * @return the number of vertices <em>V</em>, followed by the number of edges <em>E</em>,
+     *         followed by the <em>V</em> adjacency lists
+     */
+    public String toString() {
+        StringBuilder s = new StringBuilder();
+        s.append(V + " vertices, " + E + " edges " + NEWLINE);
+        for (int v = 0; v < V; v++) {
+            s.append(v + ": ");
+            for (int i = offsets[v]; i < offsets[v+1]; i++) {
+                s.append(targets[i] + " ");
+            }
+            s.append(NEWLINE);
+        }
+        return s.toString();
+    }
+
+    /**
+     * Unit tests the {@code CSRGraph} data type.
+     *
+     * @param args the command-line arguments
+     */
+    public static void main(String[] args) {
+        In in = new In(args[0]);
+        CSRGraph G = new CSRGraph(in);
+        StdOut.println(G);
+    }
+
+}
\ No newline at end of file
@@ -0,0 +1,296 @@
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+
+public class CSRSymbolGraph {
+    private static final int PAGE = 1 << 24;       // bytes in one page of the dictionary
+    private static final int BUFFER = 1 << 20;     // bytes read from the file at a time
+
+    // the dictionary: the UTF-8 bytes of the names, in direct buffers off the heap
+    private ByteBuffer[] pages = new ByteBuffer[1];
+    private int page;              // the page being filled
+    private long[] address;        // address[v] = page of name v, shifted left 32, plus its position
+    private int[] length;          // length[v]  = number of bytes in name v
+    private int[] hash;            // hash[v]    = hash code of the bytes of name v
+    private int[] table;           // open-addressing hash index: vertex + 1, or 0 if the slot is empty
+    private int n;                 // number of names
+
+    // the edges, in the order they are read, until the graph is built
+    private int[] tails = new int[16];
+    private int[] heads = new int[16];
+    private int E;
+
+    private CSRGraph graph;        // the underlying graph
+
+    /**
+     * Initializes a graph from a file using the specified delimiter.
+     * Each line in the file contains
+     * the name of a vertex, followed by a list of the names
+     * of the vertices adjacent to that vertex, separated by the delimiter.
+     * <p>
+     * Unlike {@code SymbolGraph}, this reads the file only once, as raw bytes: it
+     * interns each name as it first sees it into a dictionary that keeps the UTF-8 bytes
+     * off the heap, with a hash index of {@code int}s, and appends each edge to two
+     * growable {@code int} arrays, which become a {@code CSRGraph} at the end. No
+     * {@code String} is made until {@link #nameOf(int)} asks for one. The vertices are
+     * numbered in order of first appearance, as {@code SymbolGraph} numbers them.
+     * The delimiter is a literal string, not a regular expression; as with
+     * {@code String.split()}, empty fields at the end of a line are ignored, and so
+     * is a line with no fields.
+     * @param filename the name of the file
+     * @param delimiter the delimiter between fields
+     * @throws IllegalArgumentException if either argument is {@code null}
+     *         or {@code delimiter} is empty
+     * @throws UncheckedIOException if the file cannot be read
+     */
+    public CSRSymbolGraph(String filename, String delimiter) {
+        if (filename == null || delimiter == null) throw new IllegalArgumentException("argument is null");
+        if (delimiter.isEmpty()) throw new IllegalArgumentException("delimiter is empty");
+        byte[] d = delimiter.getBytes(StandardCharsets.UTF_8);
+        address = new long[16];
+        length = new int[16];
+        hash = new int[16];
+        table = new int[32];
+        pages[0] = ByteBuffer.allocateDirect(PAGE);
+
+        int[] bounds = new int[32];                // the fields of the current line
+        byte[] buffer = new byte[BUFFER];
+        int filled = 0;                            // buffer[0..filled) holds bytes not yet parsed
+        try (FileChannel channel = FileChannel.open(Paths.get(filename), StandardOpenOption.READ)) {
+            boolean eof = false;
+            while (!eof || filled > 0) {
+                if (!eof) {
+                    if (filled == buffer.length) buffer = java.util.Arrays.copyOf(buffer, 2 * buffer.length);
+                    int r = channel.read(ByteBuffer.wrap(buffer, filled, buffer.length - filled));
+                    if (r < 0) eof = true;
+                    else filled += r;
+                }
+
+                // parse each complete line; at the end of the file, the last line need not end in '\n'
+                int start = 0;
+                while (true) {
+                    int end = start;
+                    while (end < filled && buffer[end] != '\n') end++;
+                    if (end == filled && !(eof && end > start)) break;
+                    int next = end + 1;
+                    if (end > start && buffer[end-1] == '\r') end--;
+
+                    // split the line into fields, field i being buffer[bounds[2i]..bounds[2i+1]),
+                    // and drop the empty ones at the end
+                    int fields = 0;
+                    int from = start;
+                    while (true) {
+                        int to = indexOf(buffer, d, from, end);
+                        if (2 * fields == bounds.length) bounds = java.util.Arrays.copyOf(bounds, 4 * fields);
+                        bounds[2*fields] = from;
+                        bounds[2*fields + 1] = to;
+                        fields++;
+                        if (to == end) break;
+                        from = to + d.length;
+                    }
+                    while (fields > 0 && bounds[2*fields - 2] == bounds[2*fields - 1]) fields--;
+
+                    // connect the first vertex on the line to all the others
+                    if (fields > 0) {
+                        int v = intern(buffer, bounds[0], bounds[1]);
+                        for (int i = 1; i < fields; i++)
+                            addEdge(v, intern(buffer, bounds[2*i], bounds[2*i + 1]));
+                    }
+                    start = Math.min(next, filled);
+                }
+                System.arraycopy(buffer, start, buffer, 0, filled - start);
+                filled -= start;
+            }
+        }
+        catch (IOException e) {
+            throw new UncheckedIOException("could not read " + filename, e);
+        }
+
+        graph = new CSRGraph(n, java.util.Arrays.copyOf(tails, E), java.util.Arrays.copyOf(heads, E));
+        tails = null;
+        heads = null;
+    }
+
+    // the index of the first occurrence of d in a[from..end), or end if there is none
+    private static int indexOf(byte[] a, byte[] d, int from, int end) {
+        outer:
+        for (int i = from; i <= end - d.length; i++) {
+            for (int j = 0; j < d.length; j++)
+                if (a[i+j] != d[j]) continue outer;
+            return i;
+        }
+        return end;
+    }
+
+    // append the edge v-w to the growable edge arrays
+    private void addEdge(int v, int w) {
+        if (E == tails.length) {
+            tails = java.util.Arrays.copyOf(tails, 2 * E);
+            heads = java.util.Arrays.copyOf(heads, 2 * E);
+        }
+        tails[E] = v;
+        heads[E] = w;
+        E++;
+    }
+
+   /***************************************************************************
+    *  The dictionary.
+    ***************************************************************************/
+
+    // the vertex named by the bytes a[lo..hi), which is added if it is new
+    private int intern(byte[] a, int lo, int hi) {
+        int h = hash(a, lo, hi);
+        int mask = table.length - 1;
+        int slot = h & mask;
+        while (table[slot] != 0) {
+            int v = table[slot] - 1;
+            if (hash[v] == h && equals(v, a, lo, hi)) return v;
+            slot = (slot + 1) & mask;
+        }
+
+        // a new name: copy its bytes to the current page, or to a new one if it does not fit
+        int len = hi - lo;
+        ByteBuffer p = pages[page];
+        if (p.remaining() < len) {
+            if (++page == pages.length) pages = java.util.Arrays.copyOf(pages, 2 * page);
+            p = pages[page] = ByteBuffer.allocateDirect(Math.max(PAGE, len));
+        }
+        if (n == address.length) {
+            address = java.util.Arrays.copyOf(address, 2 * n);
+            length = java.util.Arrays.copyOf(length, 2 * n);
+            hash = java.util.Arrays.copyOf(hash, 2 * n);
+        }
+        address[n] = ((long) page << 32) | p.position();
+        length[n] = len;
+        hash[n] = h;
+        p.put(a, lo, len);
+        table[slot] = n + 1;
+        n++;
+        if (2 * n > table.length) resize();
+        return n - 1;
+    }
+
+    // double the hash index, at most half full
+    private void resize() {
+        table = new int[2 * table.length];
+        int mask = table.length - 1;
+        for (int v = 0; v < n; v++) {
+            int slot = hash[v] & mask;
+            while (table[slot] != 0) slot = (slot + 1) & mask;
+            table[slot] = v + 1;
+        }
+    }
+
+    // a hash code of the bytes a[lo..hi), with the high bits mixed into the low ones
+    private static int hash(byte[] a, int lo, int hi) {
+        int h = 0;
+        for (int i = lo; i < hi; i++)
+            h = 31 * h + a[i];
+        return h ^ (h >>> 16);
+    }
+
+    // is name v the bytes a[lo..hi)?
+    private boolean equals(int v, byte[] a, int lo, int hi) {
+        if (length[v] != hi - lo) return false;
+        ByteBuffer p = pages[(int) (address[v] >>> 32)];
+        int position = (int) address[v];
+        for (int i = lo; i < hi; i++)
+            if (p.get(position++) != a[i]) return false;
+        return true;
+    }
+
+    // the vertex named s, or -1 if there is none
+    private int find(String s) {
+        if (s == null) throw new IllegalArgumentException("argument to contains() is null");
+        byte[] a = s.getBytes(StandardCharsets.UTF_8);
+        int h = hash(a, 0, a.length);
+        int mask = table.length - 1;
+        for (int slot = h & mask; table[slot] != 0; slot = (slot + 1) & mask) {
+            int v = table[slot] - 1;
+            if (hash[v] == h && equals(v, a, 0, a.length)) return v;
+        }
+        return -1;
+    }
+
+    /**
+     * Does the graph contain the vertex named {@code s}?
+     * @param s the name of a vertex
+     * @return {@code true} if {@code s} is the name of a vertex, and {@code false} otherwise
+     * @throws IllegalArgumentException if {@code s} is {@code null}
+     */
+    public boolean contains(String s) {
+        return find(s) != -1;
+    }
+
+    /**
+     * Returns the integer associated with the vertex named {@code s}.
+     * @param s the name of a vertex
+     * @return the integer (between 0 and <em>V</em> - 1) associated with the vertex named {@code s},
+     *         or -1 if there is no such vertex
+     * @throws IllegalArgumentException if {@code s} is {@code null}
+     */
+    public int indexOf(String s) {
+        return find(s);
+    }
+
+    /**
+     * Returns the name of the vertex associated with the integer {@code v}.
+     * @param  v the integer corresponding to a vertex (between 0 and <em>V</em> - 1)
+     * @throws IllegalArgumentException unless {@code 0 <= v < V}
+     * @return the name of the vertex associated with the integer {@code v}
+     */
+    public String nameOf(int v) {
+        validateVertex(v);
+        byte[] a = new byte[length[v]];
+        ByteBuffer p = pages[(int) (address[v] >>> 32)];
+        int position = (int) address[v];
+        for (int i = 0; i < a.length; i++)
+            a[i] = p.get(position++);
+        return new String(a, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Returns the graph assoicated with the symbol graph. Its adjacency lists are in
+     * the order the edges appear in the file.
+     * @return the graph associated with the symbol graph
+     */
+    public CSRGraph graph() {
+        return graph;
+    }
+
+    // throw an IllegalArgumentException unless {@code 0 <= v < V}
+    private void validateVertex(int v) {
+        int V = graph.V();
+        if (v < 0 || v >= V)
+            throw new IllegalArgumentException("vertex " + v + " is not between 0 and " + (V-1));
+    }
+
+
+    /**
+     * Unit tests the {@code CSRSymbolGraph} data type.
+     *
+     * @param args the command-line arguments
+     */
+    public static void main(String[] args) {
+        String filename  = args[0];
+        String delimiter = args[1];
+        CSRSymbolGraph sg = new CSRSymbolGraph(filename, delimiter);
+        CSRGraph graph = sg.graph();
+        while (StdIn.hasNextLine()) {
+            String source = StdIn.readLine();
+            if (sg.contains(source)) {
+                int s = sg.indexOf(source);
+                for (CSRGraph.Cursor it = graph.adj(s); it.hasNext(); ) {
+                    StdOut.println("   " + sg.nameOf(it.next()));
+                }
+            }
+            else {
+                StdOut.println("input not contain '" + source + "'");
+            }
+        }
+    }
+}
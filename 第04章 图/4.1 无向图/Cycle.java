@@ -14,9 +14,26 @@ public class Cycle {
         if (hasParallelEdges(G)) return;
         marked = new boolean[G.V()];
         edgeTo = new int[G.V()];
-        for (int v = 0; v < G.V(); v++)
-            if (!marked[v])
-                dfs(G, -1, v);
+        final DepthFirstTraversal dfs = new DepthFirstTraversal(G);
+        dfs.searchAll(new DepthFirstTraversal.Visitor() {
+            public void pre(int v, int parent) {
+                marked[v] = true;
+                edgeTo[v] = parent;
+            }
+
+            // check for cycle (but disregard reverse of edge leading to v)
+            public void edge(int v, int w) {
+                if (w != edgeTo[v]) {
+                    cycle = new Stack<Integer>();
+                    for (int x = v; x != w; x = edgeTo[x]) {
+                        cycle.push(x);
+                    }
+                    cycle.push(w);
+                    cycle.push(v);
+                    dfs.stop();
+                }
+            }
+        });
     }
 
 
@@ -81,30 +98,6 @@ public class Cycle {
         return cycle;
     }
 
-    private void dfs(Graph G, int u, int v) {
-        marked[v] = true;
-        for (int w : G.adj(v)) {
-
-            // short circuit if cycle already found
-            if (cycle != null) return;
-
-            if (!marked[w]) {
-                edgeTo[w] = v;
-                dfs(G, v, w);
-            }
-
-            // check for cycle (but disregard reverse of edge leading to v)
-            else if (w != u) {
-                cycle = new Stack<Integer>();
-                for (int x = v; x != w; x = edgeTo[x]) {
-                    cycle.push(x);
-                }
-                cycle.push(w);
-                cycle.push(v);
-            }
-        }
-    }
-
     /**
      * Unit tests the {@code Cycle} data type.
      *
@@ -30,7 +30,7 @@ public class DegreesOfSeparation {
         }
 
         int s = sg.indexOf(source);
-        BreadthFirstPaths bfs = new BreadthFirstPaths(G, s);
+        DirectionOptimizingBFS bfs = new DirectionOptimizingBFS(G, s);
 
         while (!StdIn.isEmpty()) {
             String sink = StdIn.readLine();
@@ -30,29 +30,17 @@ public class DepthFirstPaths {
 
         validateVertex(s);
 
-        dfs(G, s);
+        new DepthFirstTraversal(G).search(s, new DepthFirstTraversal.Visitor() {
 
-    }
-
-
-
-    // depth first search from v
-
-    private void dfs(Graph G, int v) {
+            public void pre(int v, int parent) {
 
-        marked[v] = true;
+                marked[v] = true;
 
-        for (int w : G.adj(v)) {
-
-            if (!marked[w]) {
-
-                edgeTo[w] = v;
-
-                dfs(G, w);
+                if (parent != -1) edgeTo[v] = parent;
 
             }
 
-        }
+        });
 
     }
 
@@ -26,29 +26,17 @@ public class DepthFirstSearch {
 
         validateVertex(s);
 
-        dfs(G, s);
+        new DepthFirstTraversal(G).search(s, new DepthFirstTraversal.Visitor() {
 
-    }
-
-
-
-    // depth first search from v
-
-    private void dfs(Graph G, int v) {
+            public void pre(int v, int parent) {
 
-        count++;
+                count++;
 
-        marked[v] = true;
-
-        for (int w : G.adj(v)) {
-
-            if (!marked[w]) {
-
-                dfs(G, w);
+                marked[v] = true;
 
             }
 
-        }
+        });
 
     }
 
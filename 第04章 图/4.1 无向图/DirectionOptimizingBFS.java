@@ -0,0 +1,375 @@
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+public class DirectionOptimizingBFS {
+    private static final int INFINITY = Integer.MAX_VALUE;
+
+    // switch to bottom-up when the frontier has more than 1/ALPHA of the unexplored edges,
+    // and back to top-down when it shrinks below 1/BETA of the vertices (Beamer et al.)
+    private static final int ALPHA = 14;
+    private static final int BETA = 24;
+
+    // scan at most this many frontier vertices (top-down) or bitmap words (bottom-up) in one task
+    private static final int CUTOFF = 512;
+
+    private int[] edgeTo;      // edgeTo[v] = previous vertex on shortest path to v
+    private int[] distTo;      // distTo[v] = number of edges on shortest path to v
+    private int levels;        // number of levels
+    private int bottomUpLevels; // number of levels expanded bottom-up
+
+    // the graph: out-neighbors for top-down steps, in-neighbors for bottom-up steps
+    private int V;
+    private int[] outOffsets, outTargets, inOffsets, inTargets;
+
+    // state shared with the tasks of one level
+    private AtomicLongArray visited;    // bit v is set iff v has been reached
+    private long[] frontierBits;        // bit v is set iff v is on the frontier (bottom-up)
+    private long[] nextBits;            // the next frontier (bottom-up)
+    private int[] next;                 // the next frontier (top-down)
+    private AtomicInteger nextSize;
+    private AtomicLong nextEdges;       // out-edges of the next frontier
+    private AtomicLong nextInEdges;     // in-edges of the vertices reached in this level
+    private int level;
+    private int previousSize;           // size of the frontier one level earlier
+
+    /**
+     * Computes the shortest path between the source vertex {@code s}
+     * and every other vertex in the graph {@code G}, using the common fork-join pool.
+     * @param G the graph
+     * @param s the source vertex
+     * @throws IllegalArgumentException unless {@code 0 <= s < V}
+     */
+    public DirectionOptimizingBFS(Graph G, int s) {
+        this(new CSRGraph(G), new int[] { s }, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Computes the shortest path between any one of the source vertices in {@code sources}
+     * and every other vertex in graph {@code G}, using the common fork-join pool.
+     * @param G the graph
+     * @param sources the source vertices
+     * @throws IllegalArgumentException if {@code sources} is {@code null}
+     * @throws IllegalArgumentException unless {@code 0 <= s < V} for each vertex
+     *         {@code s} in {@code sources}
+     */
+    public DirectionOptimizingBFS(Graph G, Iterable<Integer> sources) {
+        this(new CSRGraph(G), toArray(sources), ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Computes the shortest path between any one of the source vertices in {@code sources}
+     * and every other vertex in graph {@code G}.
+     * @param G the graph
+     * @param sources the source vertices
+     * @param pool the pool that expands each level
+     * @throws IllegalArgumentException if {@code sources} or {@code pool} is {@code null}
+     * @throws IllegalArgumentException unless {@code 0 <= s < V} for each vertex
+     *         {@code s} in {@code sources}
+     */
+    public DirectionOptimizingBFS(CSRGraph G, int[] sources, ForkJoinPool pool) {
+        bfs(G.V(), G.offsets(), G.targets(), G.offsets(), G.targets(), sources, pool);
+    }
+
+    private static int[] toArray(Iterable<Integer> sources) {
+        if (sources == null) throw new IllegalArgumentException("argument is null");
+        int n = 0;
+        for (Integer s : sources) {
+            if (s == null) throw new IllegalArgumentException("vertex is null");
+            n++;
+        }
+        int[] a = new int[n];
+        n = 0;
+        for (int s : sources)
+            a[n++] = s;
+        return a;
+    }
+
+    // level-synchronous breadth-first search that expands each level either top-down,
+    // from the frontier along out-edges, or bottom-up, from every unreached vertex
+    // along in-edges until one leads to the frontier, whichever looks at fewer edges
+    private void bfs(int V, int[] outOffsets, int[] outTargets, int[] inOffsets, int[] inTargets,
+                     int[] sources, ForkJoinPool pool) {
+        if (sources == null || pool == null) throw new IllegalArgumentException("argument is null");
+        this.V = V;
+        this.outOffsets = outOffsets;
+        this.outTargets = outTargets;
+        this.inOffsets = inOffsets;
+        this.inTargets = inTargets;
+        distTo = new int[V];
+        edgeTo = new int[V];
+        for (int v = 0; v < V; v++)
+            distTo[v] = INFINITY;
+        for (int s : sources)
+            validateVertex(s);
+
+        // bits past V in the last word count as visited, so bottom-up steps skip them
+        int words = (V + 63) >>> 6;
+        visited = new AtomicLongArray(words);
+        if ((V & 63) != 0) visited.set(words - 1, -1L << (V & 63));
+        frontierBits = new long[words];
+        nextBits = new long[words];
+        next = new int[V];
+        nextSize = new AtomicInteger();
+        nextEdges = new AtomicLong();
+        nextInEdges = new AtomicLong();
+
+        int[] frontier = new int[V];
+        int size = 0;
+        long frontierEdges = 0;                   // out-edges of the frontier
+        long unexploredEdges = inOffsets[V];      // in-edges of the vertices not yet reached
+        for (int s : sources) {
+            if (distTo[s] == 0) continue;
+            distTo[s] = 0;
+            visited.set(s >>> 6, visited.get(s >>> 6) | (1L << s));
+            frontier[size++] = s;
+            frontierEdges += outOffsets[s+1] - outOffsets[s];
+            unexploredEdges -= inOffsets[s+1] - inOffsets[s];
+        }
+
+        boolean bottomUp = false;
+        for (level = 0; size > 0; level++) {
+            levels++;
+            nextSize.set(0);
+            nextEdges.set(0);
+            nextInEdges.set(0);
+            int previous = size;
+
+            if (!bottomUp && frontierEdges > unexploredEdges / ALPHA) {
+                // switch to bottom-up: the frontier becomes a bitmap
+                bottomUp = true;
+                java.util.Arrays.fill(frontierBits, 0L);
+                for (int i = 0; i < size; i++)
+                    frontierBits[frontier[i] >>> 6] |= 1L << frontier[i];
+            }
+            else if (bottomUp && size < V / BETA && size < previousSize) {
+                // switch back to top-down: the frontier becomes a list
+                bottomUp = false;
+                size = 0;
+                for (int i = 0; i < words; i++)
+                    for (long bits = frontierBits[i]; bits != 0; bits &= bits - 1)
+                        frontier[size++] = (i << 6) + Long.numberOfTrailingZeros(bits);
+            }
+
+            if (bottomUp) {
+                bottomUpLevels++;
+                pool.invoke(new BottomUp(0, words));
+                long[] swap = frontierBits;
+                frontierBits = nextBits;
+                nextBits = swap;
+            }
+            else {
+                pool.invoke(new TopDown(frontier, 0, size));
+                int[] swap = frontier;
+                frontier = next;
+                next = swap;
+            }
+            previousSize = previous;
+            size = nextSize.get();
+            frontierEdges = nextEdges.get();
+            unexploredEdges -= nextInEdges.get();
+        }
+
+        visited = null;
+        frontierBits = nextBits = null;
+        next = null;
+        this.outOffsets = this.outTargets = this.inOffsets = this.inTargets = null;
+    }
+
+    // claim each unreached out-neighbor of frontier[lo..hi-1] with an atomic update of its bit
+    private class TopDown extends RecursiveAction {
+        private final int[] frontier;
+        private final int lo, hi;
+
+        TopDown(int[] frontier, int lo, int hi) {
+            this.frontier = frontier;
+            this.lo = lo;
+            this.hi = hi;
+        }
+
+        @Override
+        protected void compute() {
+            if (hi - lo > CUTOFF) {
+                int mid = lo + (hi - lo) / 2;
+                invokeAll(new TopDown(frontier, lo, mid), new TopDown(frontier, mid, hi));
+                return;
+            }
+            int[] claimed = new int[16];
+            int n = 0;
+            long edges = 0, inEdges = 0;
+            for (int k = lo; k < hi; k++) {
+                int v = frontier[k];
+                for (int i = outOffsets[v], end = outOffsets[v+1]; i < end; i++) {
+                    int w = outTargets[i];
+                    int word = w >>> 6;
+                    long bit = 1L << w;
+                    long old = visited.get(word);
+                    while ((old & bit) == 0) {
+                        if (visited.compareAndSet(word, old, old | bit)) {
+                            edgeTo[w] = v;
+                            distTo[w] = level + 1;
+                            if (n == claimed.length) claimed = java.util.Arrays.copyOf(claimed, 2*n);
+                            claimed[n++] = w;
+                            edges += outOffsets[w+1] - outOffsets[w];
+                            inEdges += inOffsets[w+1] - inOffsets[w];
+                            break;
+                        }
+                        old = visited.get(word);
+                    }
+                }
+            }
+            int start = nextSize.getAndAdd(n);
+            System.arraycopy(claimed, 0, next, start, n);
+            nextEdges.addAndGet(edges);
+            nextInEdges.addAndGet(inEdges);
+        }
+    }
+
+    // each unreached vertex in words lo..hi-1 of the bitmap looks for an in-neighbor on
+    // the frontier; every word belongs to one task, so no atomic updates are needed
+    private class BottomUp extends RecursiveAction {
+        private final int lo, hi;
+
+        BottomUp(int lo, int hi) {
+            this.lo = lo;
+            this.hi = hi;
+        }
+
+        @Override
+        protected void compute() {
+            if (hi - lo > CUTOFF) {
+                int mid = lo + (hi - lo) / 2;
+                invokeAll(new BottomUp(lo, mid), new BottomUp(mid, hi));
+                return;
+            }
+            int n = 0;
+            long edges = 0, inEdges = 0;
+            for (int word = lo; word < hi; word++) {
+                long seen = visited.get(word);
+                long found = 0;
+                for (long bits = ~seen; bits != 0; bits &= bits - 1) {
+                    int v = (word << 6) + Long.numberOfTrailingZeros(bits);
+                    for (int i = inOffsets[v], end = inOffsets[v+1]; i < end; i++) {
+                        int u = inTargets[i];
+                        if ((frontierBits[u >>> 6] & (1L << u)) != 0) {
+                            edgeTo[v] = u;
+                            distTo[v] = level + 1;
+                            found |= 1L << v;
+                            n++;
+                            edges += outOffsets[v+1] - outOffsets[v];
+                            inEdges += end - inOffsets[v];
+                            break;
+                        }
+                    }
+                }
+                nextBits[word] = found;
+                if (found != 0) visited.set(word, seen | found);
+            }
+            nextSize.addAndGet(n);
+            nextEdges.addAndGet(edges);
+            nextInEdges.addAndGet(inEdges);
+        }
+    }
+
+    /**
+     * Is there a path between the source vertex {@code s} (or sources) and vertex {@code v}?
+     * @param v the vertex
+     * @return {@code true} if there is a path, and {@code false} otherwise
+     * @throws IllegalArgumentException unless {@code 0 <= v < V}
+     */
+    public boolean hasPathTo(int v) {
+        validateVertex(v);
+        return distTo[v] != INFINITY;
+    }
+
+    /**
+     * Returns the number of edges in a shortest path between the source vertex {@code s}
+     * (or sources) and vertex {@code v}.
+     * @param v the vertex
+     * @return the number of edges in a shortest path; {@code Integer.MAX_VALUE} if there is none
+     * @throws IllegalArgumentException unless {@code 0 <= v < V}
+     */
+    public int distTo(int v) {
+        validateVertex(v);
+        return distTo[v];
+    }
+
+    /**
+     * Returns a shortest path between the source vertex {@code s} (or sources)
+     * and {@code v}, or {@code null} if no such path.
+     * @param  v the vertex
+     * @return the sequence of vertices on a shortest path, as an Iterable
+     * @throws IllegalArgumentException unless {@code 0 <= v < V}
+     */
+    public Iterable<Integer> pathTo(int v) {
+        validateVertex(v);
+        if (!hasPathTo(v)) return null;
+        Stack<Integer> path = new Stack<Integer>();
+        int x;
+        for (x = v; distTo[x] != 0; x = edgeTo[x])
+            path.push(x);
+        path.push(x);
+        return path;
+    }
+
+    /**
+     * Returns the number of levels the search expanded.
+     * @return the number of levels
+     */
+    public int levels() {
+        return levels;
+    }
+
+    /**
+     * Returns the number of levels the search expanded bottom-up.
+     * @return the number of levels expanded bottom-up
+     */
+    public int bottomUpLevels() {
+        return bottomUpLevels;
+    }
+
+    // throw an IllegalArgumentException unless {@code 0 <= v < V}
+    private void validateVertex(int v) {
+        int V = distTo.length;
+        if (v < 0 || v >= V)
+            throw new IllegalArgumentException("vertex " + v + " is not between 0 and " + (V-1));
+    }
+
+    /**
+     * Unit tests the {@code DirectionOptimizingBFS} data type: compares the distances
+     * with those of {@code BreadthFirstPaths}, checks that every path is a shortest
+     * path in the graph, and compares the running times.
+     *
+     * @param args the command-line arguments
+     */
+    public static void main(String[] args) {
+        In in = new In(args[0]);
+        Graph G = new Graph(in);
+        int s = Integer.parseInt(args[1]);
+
+        Stopwatch sw = new Stopwatch();
+        BreadthFirstPaths expected = new BreadthFirstPaths(G, s);
+        double t1 = sw.elapsedTime();
+        CSRGraph csr = new CSRGraph(G);
+        sw = new Stopwatch();
+        DirectionOptimizingBFS bfs = new DirectionOptimizingBFS(csr, new int[] { s }, ForkJoinPool.commonPool());
+        double t2 = sw.elapsedTime();
+
+        int errors = 0;
+        for (int v = 0; v < G.V(); v++) {
+            if (bfs.distTo(v) != expected.distTo(v)) errors++;
+            else if (bfs.hasPathTo(v) && v != s) {
+                int u = bfs.edgeTo[v];
+                boolean adjacent = false;
+                for (int w : G.adj(v))
+                    if (w == u) adjacent = true;
+                if (!adjacent || bfs.distTo(u) + 1 != bfs.distTo(v)) errors++;
+            }
+        }
+        StdOut.printf("%d vertices, %d levels (%d bottom-up), %d errors\n",
+                      G.V(), bfs.levels(), bfs.bottomUpLevels(), errors);
+        StdOut.printf("BreadthFirstPaths %.3f s, DirectionOptimizingBFS %.3f s\n", t1, t2);
+    }
+}
@@ -90,6 +90,19 @@ public class Graph {
         }
     }
 
+    // initializes a graph from CSR arrays holding both entries of each edge, so that
+    // adj(v) is targets[offsets[v]..offsets[v+1]) in that order; the arrays are not retained
+    Graph(int[] offsets, int[] targets) {
+        this(offsets.length - 1);
+        this.E = targets.length / 2;
+        for (int v = 0; v < V; v++) {
+            // add in reverse, since a bag returns the last item added first
+            for (int i = offsets[v+1] - 1; i >= offsets[v]; i--) {
+                adj[v].add(targets[i]);
+            }
+        }
+    }
+
     /**
      * Returns the number of vertices in this graph.
      *
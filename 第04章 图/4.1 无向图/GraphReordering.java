@@ -0,0 +1,364 @@
+public class GraphReordering {
+    private final int[] permutation;    // permutation[v] = new index of vertex v
+    private final int[] inverse;        // inverse[i]     = vertex with new index i
+
+    // order[i] is the vertex that gets new index i
+    private GraphReordering(int[] order) {
+        int V = order.length;
+        inverse = order;
+        permutation = new int[V];
+        for (int i = 0; i < V; i++)
+            permutation[order[i]] = i;
+    }
+
+   /***************************************************************************
+    *  Orderings.
+    ***************************************************************************/
+
+    /**
+     * Returns the ordering that gives vertex {@code v} the new index {@code permutation[v]}.
+     *
+     * @param  permutation the new index of each vertex
+     * @return the ordering given by {@code permutation}
+     * @throws IllegalArgumentException if {@code permutation} is {@code null}
+     * @throws IllegalArgumentException unless {@code permutation} is a permutation
+     *         of {@code 0} through {@code permutation.length - 1}
+     */
+    public static GraphReordering fromPermutation(int[] permutation) {
+        if (permutation == null) throw new IllegalArgumentException("argument is null");
+        int V = permutation.length;
+        int[] order = new int[V];
+        java.util.Arrays.fill(order, -1);
+        for (int v = 0; v < V; v++) {
+            int i = permutation[v];
+            if (i < 0 || i >= V || order[i] != -1)
+                throw new IllegalArgumentException("not a permutation: entry " + v + " is " + i);
+            order[i] = v;
+        }
+        return new GraphReordering(order);
+    }
+
+    /**
+     * Returns the reverse Cuthill-McKee ordering of the graph {@code G}, which keeps
+     * the indices of adjacent vertices close, so a traversal touches memory in nearly
+     * increasing order. Each component is searched breadth-first from a pseudo-peripheral
+     * vertex, found by searching again from a vertex of least degree in the last level
+     * until the number of levels stops growing (George and Liu); the unnumbered
+     * neighbors of each vertex are numbered in increasing order of degree; and the
+     * whole order is then reversed.
+     *
+     * @param  G the graph
+     * @return the reverse Cuthill-McKee ordering of {@code G}
+     */
+    public static GraphReordering reverseCuthillMcKee(CSRGraph G) {
+        int V = G.V();
+        int[] offsets = G.offsets();
+        int[] targets = G.targets();
+        int[] order = new int[V];
+        int[] level = new int[V];             // level[v] = distance from the current root, or -1
+        java.util.Arrays.fill(level, -1);
+        boolean[] numbered = new boolean[V];
+        long[] buffer = new long[16];         // degree and index of the neighbors to number
+        int n = 0;
+
+        // start the components from the vertices in increasing order of degree
+        for (int seed : byDegree(G, false)) {
+            if (numbered[seed]) continue;
+
+            // find a pseudo-peripheral vertex: the last level of a search from it is
+            // as deep as that of a search from any vertex of least degree in that level
+            int root = seed;
+            int size = levels(offsets, targets, root, level, order, n);
+            int depth = level[order[n + size - 1]];
+            while (true) {
+                int candidate = order[n + size - 1];
+                for (int i = n + size - 1; i >= n && level[order[i]] == depth; i--)
+                    if (degree(offsets, order[i]) < degree(offsets, candidate)) candidate = order[i];
+                for (int i = n; i < n + size; i++)
+                    level[order[i]] = -1;
+                levels(offsets, targets, candidate, level, order, n);
+                int d = level[order[n + size - 1]];
+                if (d <= depth) break;
+                root = candidate;
+                depth = d;
+            }
+            for (int i = n; i < n + size; i++)
+                level[order[i]] = -1;
+
+            // Cuthill-McKee from the root, numbering the neighbors by increasing degree
+            int head = n, tail = n;
+            order[tail++] = root;
+            numbered[root] = true;
+            while (head < tail) {
+                int v = order[head++];
+                int k = 0;
+                for (int i = offsets[v]; i < offsets[v+1]; i++) {
+                    int w = targets[i];
+                    if (numbered[w]) continue;
+                    numbered[w] = true;
+                    if (k == buffer.length) buffer = java.util.Arrays.copyOf(buffer, 2 * k);
+                    buffer[k++] = ((long) degree(offsets, w) << 32) | w;
+                }
+                java.util.Arrays.sort(buffer, 0, k);
+                for (int i = 0; i < k; i++)
+                    order[tail++] = (int) buffer[i];
+            }
+            n = tail;
+        }
+
+        // reverse
+        for (int i = 0, j = V-1; i < j; i++, j--) {
+            int t = order[i];
+            order[i] = order[j];
+            order[j] = t;
+        }
+        return new GraphReordering(order);
+    }
+
+    // breadth-first search from s, recording the levels of its component in level[] and
+    // its vertices, in order of level, in order[n..]; return the number of vertices
+    private static int levels(int[] offsets, int[] targets, int s, int[] level, int[] order, int n) {
+        int head = n, tail = n;
+        order[tail++] = s;
+        level[s] = 0;
+        while (head < tail) {
+            int v = order[head++];
+            for (int i = offsets[v]; i < offsets[v+1]; i++) {
+                int w = targets[i];
+                if (level[w] == -1) {
+                    level[w] = level[v] + 1;
+                    order[tail++] = w;
+                }
+            }
+        }
+        return tail - n;
+    }
+
+    // the degree of v
+    private static int degree(int[] offsets, int v) {
+        return offsets[v+1] - offsets[v];
+    }
+
+    /**
+     * Returns the ordering of the vertices of {@code G} in decreasing order of degree,
+     * with ties in increasing order of vertex, which packs the adjacency lists of the
+     * hubs, visited most often, together at the front.
+     *
+     * @param  G the graph
+     * @return the degree-descending ordering of {@code G}
+     */
+    public static GraphReordering degreeDescending(CSRGraph G) {
+        return new GraphReordering(byDegree(G, true));
+    }
+
+    // the vertices sorted by degree with a stable counting sort, descending or ascending
+    private static int[] byDegree(CSRGraph G, boolean descending) {
+        int V = G.V();
+        int[] offsets = G.offsets();
+        int max = 0;
+        for (int v = 0; v < V; v++)
+            max = Math.max(max, degree(offsets, v));
+        int[] count = new int[max + 2];
+        for (int v = 0; v < V; v++) {
+            int d = descending ? max - degree(offsets, v) : degree(offsets, v);
+            count[d+1]++;
+        }
+        for (int d = 0; d <= max; d++)
+            count[d+1] += count[d];
+        int[] order = new int[V];
+        for (int v = 0; v < V; v++) {
+            int d = descending ? max - degree(offsets, v) : degree(offsets, v);
+            order[count[d]++] = v;
+        }
+        return order;
+    }
+
+    /**
+     * Returns the breadth-first ordering of {@code G}: the order in which a
+     * breadth-first search from each unnumbered vertex, in increasing order,
+     * reaches the vertices.
+     *
+     * @param  G the graph
+     * @return the breadth-first ordering of {@code G}
+     */
+    public static GraphReordering breadthFirst(CSRGraph G) {
+        int V = G.V();
+        int[] offsets = G.offsets();
+        int[] targets = G.targets();
+        int[] order = new int[V];
+        boolean[] marked = new boolean[V];
+        int tail = 0;
+        for (int s = 0; s < V; s++) {
+            if (marked[s]) continue;
+            int head = tail;
+            order[tail++] = s;
+            marked[s] = true;
+            while (head < tail) {
+                int v = order[head++];
+                for (int i = offsets[v]; i < offsets[v+1]; i++) {
+                    int w = targets[i];
+                    if (!marked[w]) {
+                        marked[w] = true;
+                        order[tail++] = w;
+                    }
+                }
+            }
+        }
+        return new GraphReordering(order);
+    }
+
+    /**
+     * Returns the depth-first ordering of {@code G}: the preorder of a depth-first
+     * search from each unnumbered vertex, in increasing order.
+     *
+     * @param  G the graph
+     * @return the depth-first ordering of {@code G}
+     */
+    public static GraphReordering depthFirst(CSRGraph G) {
+        int[] order = new int[G.V()];
+        int[] n = new int[1];
+        new DepthFirstTraversal(G).searchAll(new DepthFirstTraversal.Visitor() {
+            public void pre(int v, int parent) {
+                order[n[0]++] = v;
+            }
+        });
+        return new GraphReordering(order);
+    }
+
+   /***************************************************************************
+    *  Permutations.
+    ***************************************************************************/
+
+    /**
+     * Returns the new index of vertex {@code v}.
+     *
+     * @param  v the vertex
+     * @return the new index of vertex {@code v}
+     * @throws IllegalArgumentException unless {@code 0 <= v < V}
+     */
+    public int newIndex(int v) {
+        validateVertex(v);
+        return permutation[v];
+    }
+
+    /**
+     * Returns the vertex with new index {@code i}.
+     *
+     * @param  i the new index
+     * @return the vertex with new index {@code i}
+     * @throws IllegalArgumentException unless {@code 0 <= i < V}
+     */
+    public int oldIndex(int i) {
+        validateVertex(i);
+        return inverse[i];
+    }
+
+    /**
+     * Returns the forward permutation: entry {@code v} is the new index of vertex {@code v}.
+     *
+     * @return a copy of the forward permutation
+     */
+    public int[] permutation() {
+        return permutation.clone();
+    }
+
+    /**
+     * Returns the inverse permutation: entry {@code i} is the vertex with new index {@code i}.
+     *
+     * @return a copy of the inverse permutation
+     */
+    public int[] inverse() {
+        return inverse.clone();
+    }
+
+    /**
+     * Returns the graph {@code G} with its vertices relabeled: vertex {@code v}
+     * becomes {@code newIndex(v)}. The adjacency list of {@code newIndex(v)} is that
+     * of {@code v}, relabeled, in the same order.
+     *
+     * @param  G the graph
+     * @return the relabeled graph
+     * @throws IllegalArgumentException unless {@code G} has as many vertices as this ordering
+     */
+    public CSRGraph permute(CSRGraph G) {
+        validateSize(G.V());
+        return new CSRGraph(permuteOffsets(G.offsets()), permuteTargets(G.offsets(), G.targets()));
+    }
+
+    /**
+     * Returns the graph {@code G} with its vertices relabeled: vertex {@code v}
+     * becomes {@code newIndex(v)}. The adjacency list of {@code newIndex(v)} is that
+     * of {@code v}, relabeled, in the same order.
+     *
+     * @param  G the graph
+     * @return the relabeled graph
+     * @throws IllegalArgumentException unless {@code G} has as many vertices as this ordering
+     */
+    public Graph permute(Graph G) {
+        CSRGraph csr = new CSRGraph(G);
+        validateSize(csr.V());
+        return new Graph(permuteOffsets(csr.offsets()), permuteTargets(csr.offsets(), csr.targets()));
+    }
+
+    // the offsets of the relabeled adjacency lists
+    private int[] permuteOffsets(int[] offsets) {
+        int V = permutation.length;
+        int[] permuted = new int[V+1];
+        for (int i = 0; i < V; i++)
+            permuted[i+1] = permuted[i] + degree(offsets, inverse[i]);
+        return permuted;
+    }
+
+    // the relabeled adjacency lists, concatenated in the new order of the vertices
+    private int[] permuteTargets(int[] offsets, int[] targets) {
+        int[] permuted = new int[targets.length];
+        int k = 0;
+        for (int i = 0; i < permutation.length; i++) {
+            int v = inverse[i];
+            for (int j = offsets[v]; j < offsets[v+1]; j++)
+                permuted[k++] = permutation[targets[j]];
+        }
+        return permuted;
+    }
+
+    // throw an IllegalArgumentException unless {@code 0 <= v < V}
+    private void validateVertex(int v) {
+        int V = permutation.length;
+        if (v < 0 || v >= V)
+            throw new IllegalArgumentException("vertex " + v + " is not between 0 and " + (V-1));
+    }
+
+    // throw an IllegalArgumentException unless a graph with V vertices can be relabeled
+    private void validateSize(int V) {
+        if (V != permutation.length)
+            throw new IllegalArgumentException("graph has " + V + " vertices, ordering has " + permutation.length);
+    }
+
+    /**
+     * Unit tests the {@code GraphReordering} data type: prints the bandwidth
+     * (the largest difference between adjacent vertices) and the average
+     * difference between adjacent vertices of the graph in each ordering.
+     *
+     * @param args the command-line arguments
+     */
+    public static void main(String[] args) {
+        In in = new In(args[0]);
+        CSRGraph G = new CSRGraph(in);
+        String[] names = { "original", "reverse Cuthill-McKee", "degree descending", "breadth-first", "depth-first" };
+        GraphReordering[] orders = {
+            null, reverseCuthillMcKee(G), degreeDescending(G), breadthFirst(G), depthFirst(G)
+        };
+        for (int k = 0; k < names.length; k++) {
+            CSRGraph H = (orders[k] == null) ? G : orders[k].permute(G);
+            long max = 0, sum = 0;
+            for (int v = 0; v < H.V(); v++) {
+                for (int i = H.begin(v); i < H.end(v); i++) {
+                    long gap = Math.abs(v - H.target(i));
+                    max = Math.max(max, gap);
+                    sum += gap;
+                }
+            }
+            StdOut.printf("%-22s bandwidth %8d  average gap %12.1f\n", names[k], max, (double) sum / Math.max(1, 2L * H.E()));
+        }
+    }
+}
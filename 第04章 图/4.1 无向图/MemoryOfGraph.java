@@ -65,6 +65,47 @@ public class MemoryOfGraph {
                       regression.beta(0), regression.beta(1), regression.beta(2), regression.R2());
     }
 
+    // memory of CSRGraph - assuming adjacency lists are packed into int[] offsets and targets
+    public static void memoryOfCSRGraph() {
+        int n = 40;
+        int[] V = new int[n];
+        int[] E = new int[n];
+
+        // build random graphs and compute memory usage
+        long[] memory = new long[n];
+        for (int i = 0; i < n; i++) {
+            V[i] = 128 + 1 + 2 * StdRandom.uniform(500);  // number of vertices
+            E[i] = V[i] * (2 + StdRandom.uniform(10));    // number of edges
+            int[] tails = new int[E[i]];
+            int[] heads = new int[E[i]];
+            for (int j = 0; j < E[i]; j++) {
+                tails[j] = StdRandom.uniform(V[i]);
+                heads[j] = StdRandom.uniform(V[i]);
+            }
+            CSRGraph G = new CSRGraph(V[i], tails, heads);
+            memory[i] = MemoryUtil.deepMemoryUsageOf(G);
+        }
+
+        double[][] x = new double[n][3];
+        for (int i = 0; i < n; i++) {
+            x[i][0] = 1.0;
+            x[i][1] = V[i];
+            x[i][2] = E[i];
+        }
+
+
+        // build multiple linear regression coefficients
+        double[] y = new double[n];
+        for (int i = 0; i < n; i++) {
+            y[i] = memory[i];
+        }
+
+        MultipleLinearRegression regression = new MultipleLinearRegression(x, y);
+        StdOut.print("memory of a CSRGraph with V vertices and E edges:  ");
+        StdOut.printf("%.2f + %.2f V + %.2f E bytes (R^2 = %.3f)\n",
+                      regression.beta(0), regression.beta(1), regression.beta(2), regression.R2());
+    }
+
     // min memory of GraphX - assuming adjacency lists use resizing array representation
     // and uses primitive type int (so don't need to worry about caching Integers)
     public static void minMemoryOfGraphX() {
@@ -148,6 +189,7 @@ public class MemoryOfGraph {
         Integer a = new Integer(123456);
         StdOut.println("size of Integer = " + MemoryUtil.memoryUsageOf(a) + " bytes");
         memoryOfGraph();
+        memoryOfCSRGraph();
         minMemoryOfGraphX();
         maxMemoryOfGraphX();
     }
@@ -0,0 +1,278 @@
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+public class MultiSourceBFS {
+    // number of sources searched together, one per bit of a long
+    private static final int BATCH = 64;
+
+    private final int V;            // number of vertices
+    private final int[] sources;    // the sources, in the order given
+    private final int[][] hist;     // hist[i][d] = number of vertices at distance d from sources[i]
+    private final int[] ecc;        // ecc[i] = eccentricity of sources[i] within its component
+
+    // the graph
+    private final int[] offsets, targets;
+
+    /**
+     * Computes the number of vertices at each distance from each vertex in {@code sources}
+     * in the graph {@code G}, using the common fork-join pool.
+     * @param G the graph
+     * @param sources the source vertices
+     * @throws IllegalArgumentException if {@code sources} is {@code null}
+     * @throws IllegalArgumentException unless {@code 0 <= s < V} for each vertex
+     *         {@code s} in {@code sources}
+     */
+    public MultiSourceBFS(Graph G, int[] sources) {
+        this(new CSRGraph(G), sources, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Computes the number of vertices at each distance from each vertex in {@code sources}
+     * in the graph {@code G}. The sources are searched {@value #BATCH} at a time, with one bit
+     * per source in a {@code long} per vertex: a single pass over the graph per level
+     * advances all the searches of a batch, and a vertex adjacent to the frontiers of many
+     * searches is scanned once for all of them. The batches are independent, so they
+     * are spread across the pool.
+     * @param G the graph
+     * @param sources the source vertices
+     * @param pool the pool that runs the batches
+     * @throws IllegalArgumentException if {@code sources} or {@code pool} is {@code null}
+     * @throws IllegalArgumentException unless {@code 0 <= s < V} for each vertex
+     *         {@code s} in {@code sources}
+     */
+    public MultiSourceBFS(CSRGraph G, int[] sources, ForkJoinPool pool) {
+        if (sources == null || pool == null) throw new IllegalArgumentException("argument is null");
+        V = G.V();
+        offsets = G.offsets();
+        targets = G.targets();
+        this.sources = sources.clone();
+        for (int s : this.sources)
+            validateVertex(s);
+        hist = new int[this.sources.length][];
+        ecc = new int[this.sources.length];
+        int batches = (this.sources.length + BATCH - 1) / BATCH;
+        pool.invoke(new Batches(0, batches));
+    }
+
+    // search batches lo..hi-1, with one set of bitmaps per leaf task
+    private class Batches extends RecursiveAction {
+        private final int lo, hi;
+
+        Batches(int lo, int hi) {
+            this.lo = lo;
+            this.hi = hi;
+        }
+
+        @Override
+        protected void compute() {
+            if (hi - lo > 1) {
+                int mid = lo + (hi - lo) / 2;
+                invokeAll(new Batches(lo, mid), new Batches(mid, hi));
+                return;
+            }
+            search(lo * BATCH, Math.min(sources.length, (lo + 1) * BATCH));
+        }
+    }
+
+    // breadth-first search from sources[first..last-1] together: bit i of seen[v] is set
+    // iff v has been reached from sources[first+i], and of visit[v] iff it was reached
+    // in the last level
+    private void search(int first, int last) {
+        int n = last - first;
+        long[] seen = new long[V];
+        long[] visit = new long[V];
+        long[] next = new long[V];
+        int[][] counts = new int[n][];
+        int[] sizes = new int[n];
+        for (int i = 0; i < n; i++) {
+            int s = sources[first + i];
+            seen[s] |= 1L << i;
+            visit[s] |= 1L << i;
+            counts[i] = new int[8];
+            counts[i][0] = 1;
+            sizes[i] = 1;
+        }
+
+        for (int level = 1; ; level++) {
+            // extend every search by one level; D holds the searches that reach w through v first
+            for (int v = 0; v < V; v++) {
+                long frontier = visit[v];
+                if (frontier == 0) continue;
+                visit[v] = 0;
+                for (int i = offsets[v], end = offsets[v+1]; i < end; i++) {
+                    int w = targets[i];
+                    long D = frontier & ~seen[w];
+                    if (D != 0) next[w] |= D;
+                }
+            }
+
+            // mark the vertices reached in this level, and count them for each search
+            boolean reached = false;
+            for (int w = 0; w < V; w++) {
+                long bits = next[w];
+                if (bits == 0) continue;
+                reached = true;
+                seen[w] |= bits;
+                while (bits != 0) {
+                    int i = Long.numberOfTrailingZeros(bits);
+                    bits &= bits - 1;
+                    if (sizes[i] == level) {
+                        if (level == counts[i].length) counts[i] = java.util.Arrays.copyOf(counts[i], 2*level);
+                        sizes[i]++;
+                    }
+                    counts[i][level]++;
+                }
+            }
+            if (!reached) break;
+            long[] temp = visit;
+            visit = next;
+            next = temp;
+        }
+
+        for (int i = 0; i < n; i++) {
+            hist[first + i] = java.util.Arrays.copyOf(counts[i], sizes[i]);
+            ecc[first + i] = sizes[i] - 1;
+        }
+    }
+
+    /**
+     * Returns the number of sources.
+     * @return the number of sources
+     */
+    public int size() {
+        return sources.length;
+    }
+
+    /**
+     * Returns the {@code i}th source vertex.
+     * @param i the index of the source, in the order given to the constructor
+     * @return the {@code i}th source vertex
+     * @throws IllegalArgumentException unless {@code 0 <= i < size()}
+     */
+    public int source(int i) {
+        validateIndex(i);
+        return sources[i];
+    }
+
+    /**
+     * Returns the histogram of distances from the {@code i}th source: entry {@code d}
+     * is the number of vertices at distance {@code d}, and the entries add up to the
+     * number of vertices reachable from the source, including itself.
+     * @param i the index of the source, in the order given to the constructor
+     * @return the histogram of distances from the {@code i}th source
+     * @throws IllegalArgumentException unless {@code 0 <= i < size()}
+     */
+    public int[] histogram(int i) {
+        validateIndex(i);
+        return hist[i].clone();
+    }
+
+    /**
+     * Returns the eccentricity of the {@code i}th source: the greatest distance
+     * from it to any vertex it reaches.
+     * @param i the index of the source, in the order given to the constructor
+     * @return the eccentricity of the {@code i}th source
+     * @throws IllegalArgumentException unless {@code 0 <= i < size()}
+     */
+    public int eccentricity(int i) {
+        validateIndex(i);
+        return ecc[i];
+    }
+
+    /**
+     * Returns the number of vertices reachable from the {@code i}th source, including itself.
+     * @param i the index of the source, in the order given to the constructor
+     * @return the number of vertices reachable from the {@code i}th source
+     * @throws IllegalArgumentException unless {@code 0 <= i < size()}
+     */
+    public int reached(int i) {
+        validateIndex(i);
+        int count = 0;
+        for (int c : hist[i])
+            count += c;
+        return count;
+    }
+
+    /**
+     * Returns the sum of the distances from the {@code i}th source to
+     * the vertices it reaches.
+     * @param i the index of the source, in the order given to the constructor
+     * @return the sum of the distances from the {@code i}th source
+     * @throws IllegalArgumentException unless {@code 0 <= i < size()}
+     */
+    public long distanceSum(int i) {
+        validateIndex(i);
+        long sum = 0;
+        for (int d = 1; d < hist[i].length; d++)
+            sum += (long) d * hist[i][d];
+        return sum;
+    }
+
+    // throw an IllegalArgumentException unless {@code 0 <= v < V}
+    private void validateVertex(int v) {
+        if (v < 0 || v >= V)
+            throw new IllegalArgumentException("vertex " + v + " is not between 0 and " + (V-1));
+    }
+
+    // throw an IllegalArgumentException unless {@code 0 <= i < size()}
+    private void validateIndex(int i) {
+        if (i < 0 || i >= sources.length)
+            throw new IllegalArgumentException("index " + i + " is not between 0 and " + (sources.length-1));
+    }
+
+    /**
+     * Unit tests the {@code MultiSourceBFS} data type: searches from the {@code k}
+     * vertices of highest degree of a symbol graph, checks the histograms against
+     * {@code BreadthFirstPaths}, and prints the closeness of the first few sources.
+     *
+     * @param args the command-line arguments
+     */
+    public static void main(String[] args) {
+        String filename  = args[0];
+        String delimiter = args[1];
+        int k            = Integer.parseInt(args[2]);
+
+        SymbolGraph sg = new SymbolGraph(filename, delimiter);
+        Graph G = sg.graph();
+        CSRGraph csr = new CSRGraph(G);
+
+        // the k vertices of highest degree
+        Integer[] byDegree = new Integer[G.V()];
+        for (int v = 0; v < G.V(); v++)
+            byDegree[v] = v;
+        java.util.Arrays.sort(byDegree, (v, w) -> Integer.compare(csr.degree(w), csr.degree(v)));
+        int[] sources = new int[Math.min(k, G.V())];
+        for (int i = 0; i < sources.length; i++)
+            sources[i] = byDegree[i];
+
+        Stopwatch sw = new Stopwatch();
+        MultiSourceBFS msbfs = new MultiSourceBFS(csr, sources, ForkJoinPool.commonPool());
+        double t1 = sw.elapsedTime();
+
+        sw = new Stopwatch();
+        int errors = 0;
+        for (int i = 0; i < sources.length; i++) {
+            BreadthFirstPaths bfs = new BreadthFirstPaths(G, sources[i]);
+            int[] expected = new int[msbfs.eccentricity(i) + 2];
+            for (int v = 0; v < G.V(); v++) {
+                if (!bfs.hasPathTo(v)) continue;
+                int d = bfs.distTo(v);
+                if (d >= expected.length) errors++;
+                else expected[d]++;
+            }
+            if (!java.util.Arrays.equals(java.util.Arrays.copyOf(expected, expected.length - 1), msbfs.histogram(i))
+                || expected[expected.length - 1] != 0)
+                errors++;
+        }
+        double t2 = sw.elapsedTime();
+        StdOut.printf("%d sources: MultiSourceBFS %.3f s, BreadthFirstPaths %.3f s, %d errors\n",
+                      sources.length, t1, t2, errors);
+
+        for (int i = 0; i < Math.min(10, sources.length); i++) {
+            long sum = msbfs.distanceSum(i);
+            double closeness = (sum == 0) ? 0.0 : (msbfs.reached(i) - 1.0) / sum;
+            StdOut.printf("%-40s  eccentricity %2d  closeness %.4f\n",
+                          sg.nameOf(msbfs.source(i)), msbfs.eccentricity(i), closeness);
+        }
+    }
+}
@@ -0,0 +1,174 @@
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+public class ParallelCC {
+    // union the edges of at most this many adjacency entries in one fork-join task
+    private static final int CUTOFF = 1 << 14;
+
+    private int[] id;           // id[v] = id of connected component containing v
+    private int[] size;         // size[id] = number of vertices in given component
+    private int count;          // number of connected components
+
+    /**
+     * Computes the connected components of the undirected graph {@code G},
+     * using the common fork-join pool.
+     *
+     * @param G the undirected graph
+     */
+    public ParallelCC(Graph G) {
+        this(new CSRGraph(G), ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Computes the connected components of the undirected graph {@code G} by
+     * merging the endpoints of every edge in a {@code ConcurrentUF}, with the
+     * adjacency arrays split into chunks of about the same number of edges that
+     * are processed in parallel. The components are numbered as {@code CC} numbers
+     * them, in order of their smallest vertex.
+     *
+     * @param G the undirected graph
+     * @param pool the pool that processes the edges
+     * @throws IllegalArgumentException if {@code pool} is {@code null}
+     */
+    public ParallelCC(CSRGraph G, ForkJoinPool pool) {
+        if (pool == null) throw new IllegalArgumentException("argument is null");
+        int V = G.V();
+        ConcurrentUF uf = new ConcurrentUF(V);
+        pool.invoke(new Edges(uf, G.offsets(), G.targets(), 0, V));
+
+        // number the roots in order of their smallest vertex
+        id = new int[V];
+        size = new int[V];
+        int[] label = new int[V];
+        java.util.Arrays.fill(label, -1);
+        for (int v = 0; v < V; v++) {
+            int root = uf.find(v);
+            if (label[root] == -1) label[root] = count++;
+            id[v] = label[root];
+            size[id[v]]++;
+        }
+    }
+
+    // union each edge v-w with v in lo..hi-1 and v < w; split by adjacency entries, not vertices
+    private static class Edges extends RecursiveAction {
+        private final ConcurrentUF uf;
+        private final int[] offsets, targets;
+        private final int lo, hi;
+
+        Edges(ConcurrentUF uf, int[] offsets, int[] targets, int lo, int hi) {
+            this.uf = uf;
+            this.offsets = offsets;
+            this.targets = targets;
+            this.lo = lo;
+            this.hi = hi;
+        }
+
+        @Override
+        protected void compute() {
+            if (offsets[hi] - offsets[lo] > CUTOFF && hi - lo > 1) {
+                // the vertex that splits the adjacency entries in half
+                int half = offsets[lo] + (offsets[hi] - offsets[lo]) / 2;
+                int a = lo + 1, b = hi - 1;
+                while (a < b) {
+                    int m = (a + b) >>> 1;
+                    if (offsets[m] < half) a = m + 1;
+                    else                   b = m;
+                }
+                invokeAll(new Edges(uf, offsets, targets, lo, a), new Edges(uf, offsets, targets, a, hi));
+                return;
+            }
+            for (int v = lo; v < hi; v++) {
+                for (int i = offsets[v]; i < offsets[v+1]; i++) {
+                    int w = targets[i];
+                    if (v < w) uf.union(v, w);
+                }
+            }
+        }
+    }
+
+    /**
+     * Returns the component id of the connected component containing vertex {@code v}.
+     *
+     * @param  v the vertex
+     * @return the component id of the connected component containing vertex {@code v}
+     * @throws IllegalArgumentException unless {@code 0 <= v < V}
+     */
+    public int id(int v) {
+        validateVertex(v);
+        return id[v];
+    }
+
+    /**
+     * Returns the number of vertices in the connected component containing vertex {@code v}.
+     *
+     * @param  v the vertex
+     * @return the number of vertices in the connected component containing vertex {@code v}
+     * @throws IllegalArgumentException unless {@code 0 <= v < V}
+     */
+    public int size(int v) {
+        validateVertex(v);
+        return size[id[v]];
+    }
+
+    /**
+     * Returns the number of connected components in the graph {@code G}.
+     *
+     * @return the number of connected components in the graph {@code G}
+     */
+    public int count() {
+        return count;
+    }
+
+    /**
+     * Returns true if vertices {@code v} and {@code w} are in the same
+     * connected component.
+     *
+     * @param  v one vertex
+     * @param  w the other vertex
+     * @return {@code true} if vertices {@code v} and {@code w} are in the same
+     *         connected component; {@code false} otherwise
+     * @throws IllegalArgumentException unless {@code 0 <= v < V}
+     * @throws IllegalArgumentException unless {@code 0 <= w < V}
+     */
+    public boolean connected(int v, int w) {
+        validateVertex(v);
+        validateVertex(w);
+        return id(v) == id(w);
+    }
+
+    // throw an IllegalArgumentException unless {@code 0 <= v < V}
+    private void validateVertex(int v) {
+        int V = id.length;
+        if (v < 0 || v >= V)
+            throw new IllegalArgumentException("vertex " + v + " is not between 0 and " + (V-1));
+    }
+
+    /**
+     * Unit tests the {@code ParallelCC} data type: compares it with {@code CC}
+     * and {@code CSRCC}, and times all three.
+     *
+     * @param args the command-line arguments
+     */
+    public static void main(String[] args) {
+        In in = new In(args[0]);
+        Graph G = new Graph(in);
+        CSRGraph csr = new CSRGraph(G);
+
+        Stopwatch sw = new Stopwatch();
+        ParallelCC parallel = new ParallelCC(csr, ForkJoinPool.commonPool());
+        double t1 = sw.elapsedTime();
+        sw = new Stopwatch();
+        CSRCC serial = new CSRCC(csr);
+        double t2 = sw.elapsedTime();
+        sw = new Stopwatch();
+        CC cc = new CC(G);
+        double t3 = sw.elapsedTime();
+
+        int errors = 0;
+        if (parallel.count() != cc.count()) errors++;
+        for (int v = 0; v < G.V(); v++)
+            if (parallel.id(v) != cc.id(v) || parallel.size(v) != serial.size(v)) errors++;
+        StdOut.printf("%d components, %d errors\n", parallel.count(), errors);
+        StdOut.printf("ParallelCC %.3f s, CSRCC %.3f s, CC %.3f s\n", t1, t2, t3);
+    }
+}
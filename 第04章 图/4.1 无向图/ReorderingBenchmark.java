@@ -0,0 +1,111 @@
+public class ReorderingBenchmark {
+    // untimed runs of each traversal, so the JIT compiles it first
+    private static final int WARMUP = 2;
+
+    // timed runs of each traversal; the median is reported
+    private static final int TRIALS = 5;
+
+    // This class should not be instantiated.
+    private ReorderingBenchmark() { }
+
+    // one traversal from each source; returns a checksum of the results
+    private interface Traversal {
+        double run(int[] sources);
+    }
+
+    // the median time, in seconds, of TRIALS runs of traversal after WARMUP untimed ones;
+    // every run must give the checksum in checksum[0], which the first run sets if it is NaN,
+    // up to rounding: relabeling changes the order in which the distances are added
+    private static double time(Traversal traversal, int[] sources, double[] checksum) {
+        double[] times = new double[TRIALS];
+        for (int t = -WARMUP; t < TRIALS; t++) {
+            Stopwatch timer = new Stopwatch();
+            double sum = traversal.run(sources);
+            double time = timer.elapsedTime();
+            if (Double.isNaN(checksum[0])) checksum[0] = sum;
+            if (Math.abs(sum - checksum[0]) > 1.0E-9 * Math.max(1.0, Math.abs(checksum[0])))
+                throw new IllegalStateException("checksum " + sum + " instead of " + checksum[0]);
+            if (t >= 0) times[t] = time;
+        }
+        java.util.Arrays.sort(times);
+        return times[TRIALS / 2];
+    }
+
+    /**
+     * Reads a graph from the file named on the command line, relabels it with each
+     * ordering of {@code GraphReordering}, and prints the median time of breadth-first
+     * search and depth-first search from the same random sources in each, and the
+     * speedup over the original labels. A random relabeling shows what the
+     * traversals cost with no locality at all.
+     *
+     * @param args the command-line arguments: the graph file and the number of sources
+     */
+    public static void main(String[] args) {
+        In in = new In(args[0]);
+        int k = Integer.parseInt(args[1]);
+        CSRGraph G = new CSRGraph(in);
+        int V = G.V();
+
+        int[] sources = new int[k];
+        for (int i = 0; i < k; i++)
+            sources[i] = StdRandom.uniformInt(V);
+
+        int[] shuffle = new int[V];
+        for (int v = 0; v < V; v++)
+            shuffle[v] = v;
+        StdRandom.shuffle(shuffle);
+
+        String[] names = {
+            "original", "random", "reverse Cuthill-McKee", "degree descending", "breadth-first", "depth-first"
+        };
+        Stopwatch sw = new Stopwatch();
+        GraphReordering[] orders = {
+            null,
+            GraphReordering.fromPermutation(shuffle),
+            GraphReordering.reverseCuthillMcKee(G),
+            GraphReordering.degreeDescending(G),
+            GraphReordering.breadthFirst(G),
+            GraphReordering.depthFirst(G)
+        };
+        StdOut.printf("V = %d, E = %d, %d sources, orderings computed in %.3f s\n", V, G.E(), k, sw.elapsedTime());
+        StdOut.printf("%-22s %9s %9s %8s %8s\n", "ordering", "BFS", "DFS", "speedup", "");
+
+        double[] base = new double[2];
+        // each traversal must give the same results, relabeled, in every ordering
+        double[] bfsSum = { Double.NaN }, dfsSum = { Double.NaN };
+        for (int o = 0; o < names.length; o++) {
+            CSRGraph H;
+            int[] s = new int[k];
+            if (orders[o] == null) {
+                H = G;
+                s = sources;
+            }
+            else {
+                GraphReordering order = orders[o];
+                H = order.permute(G);
+                for (int i = 0; i < k; i++)
+                    s[i] = order.newIndex(sources[i]);
+            }
+
+            double[] t = new double[2];
+            t[0] = time(x -> {
+                double sum = 0;
+                for (int v : x) {
+                    CSRBreadthFirstPaths bfs = new CSRBreadthFirstPaths(H, v);
+                    for (int w : x)
+                        if (bfs.hasPathTo(w)) sum += bfs.distTo(w);
+                }
+                return sum;
+            }, s, bfsSum);
+            t[1] = time(x -> {
+                double sum = 0;
+                for (int v : x)
+                    sum += new CSRDepthFirstSearch(H, v).count();
+                return sum;
+            }, s, dfsSum);
+            if (o == 0) base = t;
+            StdOut.printf("%-22s %8.3fs %8.3fs %7.2fx %7.2fx\n", names[o],
+                          t[0], t[1], base[0] / t[0], base[1] / t[1]);
+        }
+    }
+}
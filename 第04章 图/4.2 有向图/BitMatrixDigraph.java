@@ -0,0 +1,344 @@
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+public class BitMatrixDigraph {
+    private static final String NEWLINE = System.getProperty("line.separator");
+
+    private final int V;            // number of vertices
+    private int E;                  // number of edges
+    private final int words;        // number of longs in each row
+    private final long[] bits;      // bit w of row v is set iff there is an edge v->w
+
+    /**
+     * Initializes an empty digraph with {@code V} vertices and 0 edges, as a
+     * matrix of bits: row {@code v} is {@code (V+63)/64} {@code long}s, one bit
+     * for each possible edge from {@code v}, so it takes <em>V</em><sup>2</sup>/8
+     * bytes, an eighth of an {@code AdjMatrixDigraph}, and the operations on
+     * whole rows handle 64 vertices at a time.
+     * @param  V the number of vertices
+     * @throws IllegalArgumentException if {@code V < 0}
+     * @throws IllegalArgumentException if the matrix has more than
+     *         {@code Integer.MAX_VALUE} words
+     */
+    public BitMatrixDigraph(int V) {
+        if (V < 0) throw new IllegalArgumentException("Number of vertices must be nonnegative");
+        this.V = V;
+        this.words = (V + 63) >>> 6;
+        if ((long) V * words > Integer.MAX_VALUE - 8)
+            throw new IllegalArgumentException("too many vertices for a bit matrix: " + V);
+        this.bits = new long[V * words];
+    }
+
+    /**
+     * Initializes a random digraph with {@code V} vertices and {@code E} distinct edges.
+     * @param  V the number of vertices
+     * @param  E the number of edges
+     * @throws IllegalArgumentException if {@code V < 0}
+     * @throws IllegalArgumentException unless {@code 0 <= E <= V*V}
+     */
+    public BitMatrixDigraph(int V, int E) {
+        this(V);
+        if (E < 0) throw new IllegalArgumentException("Number of edges must be nonnegative");
+        if (E > (long) V*V) throw new IllegalArgumentException("Too many edges");
+
+        // can be inefficient
+        while (this.E != E) {
+            int v = StdRandom.uniformInt(V);
+            int w = StdRandom.uniformInt(V);
+            addEdge(v, w);
+        }
+    }
+
+    /**
+     * Initializes a bit matrix with the edges of the digraph {@code G};
+     * parallel edges become one edge.
+     * @param  G the digraph
+     * @throws IllegalArgumentException if the matrix has more than
+     *         {@code Integer.MAX_VALUE} words
+     */
+    public BitMatrixDigraph(Digraph G) {
+        this(G.V());
+        for (int v = 0; v < V; v++)
+            for (int w : G.adj(v))
+                addEdge(v, w);
+    }
+
+    /**
+     * Returns the number of vertices in this digraph.
+     * @return the number of vertices in this digraph
+     */
+    public int V() {
+        return V;
+    }
+
+    /**
+     * Returns the number of edges in this digraph.
+     * @return the number of edges in this digraph
+     */
+    public int E() {
+        return E;
+    }
+
+    // throw an IllegalArgumentException unless {@code 0 <= v < V}
+    private void validateVertex(int v) {
+        if (v < 0 || v >= V)
+            throw new IllegalArgumentException("vertex " + v + " is not between 0 and " + (V-1));
+    }
+
+    /**
+     * Adds the directed edge v->w to this digraph, unless it is already there.
+     * @param  v the tail vertex
+     * @param  w the head vertex
+     * @throws IllegalArgumentException unless both {@code 0 <= v < V} and {@code 0 <= w < V}
+     */
+    public void addEdge(int v, int w) {
+        validateVertex(v);
+        validateVertex(w);
+        int i = v * words + (w >>> 6);
+        long bit = 1L << w;
+        if ((bits[i] & bit) == 0) E++;
+        bits[i] |= bit;
+    }
+
+    /**
+     * Does this digraph contain the edge v->w?
+     * @param  v the tail vertex
+     * @param  w the head vertex
+     * @return {@code true} if this digraph contains the edge v->w, and {@code false} otherwise
+     * @throws IllegalArgumentException unless both {@code 0 <= v < V} and {@code 0 <= w < V}
+     */
+    public boolean contains(int v, int w) {
+        validateVertex(v);
+        validateVertex(w);
+        return (bits[v * words + (w >>> 6)] & (1L << w)) != 0;
+    }
+
+    /**
+     * Returns the vertices adjacent from vertex {@code v}, in increasing order.
+     * @param  v the vertex
+     * @return the vertices adjacent from vertex {@code v}, as an iterable
+     * @throws IllegalArgumentException unless {@code 0 <= v < V}
+     */
+    public Iterable<Integer> adj(int v) {
+        validateVertex(v);
+        return () -> new RowIterator(v, v);
+    }
+
+    /**
+     * Returns the number of edges from vertex {@code v}, with a population count of its row.
+     * @param  v the vertex
+     * @return the outdegree of vertex {@code v}
+     * @throws IllegalArgumentException unless {@code 0 <= v < V}
+     */
+    public int outdegree(int v) {
+        validateVertex(v);
+        int count = 0;
+        for (int i = v * words, end = i + words; i < end; i++)
+            count += Long.bitCount(bits[i]);
+        return count;
+    }
+
+    /**
+     * Returns the vertices adjacent from both {@code v} and {@code w}, in increasing
+     * order, from the AND of their rows.
+     * @param  v one vertex
+     * @param  w the other vertex
+     * @return the vertices adjacent from both {@code v} and {@code w}, as an iterable
+     * @throws IllegalArgumentException unless both {@code 0 <= v < V} and {@code 0 <= w < V}
+     */
+    public Iterable<Integer> common(int v, int w) {
+        validateVertex(v);
+        validateVertex(w);
+        return () -> new RowIterator(v, w);
+    }
+
+    /**
+     * Returns the number of vertices adjacent from both {@code v} and {@code w}:
+     * the population count of the AND of their rows.
+     * @param  v one vertex
+     * @param  w the other vertex
+     * @return the number of vertices adjacent from both {@code v} and {@code w}
+     * @throws IllegalArgumentException unless both {@code 0 <= v < V} and {@code 0 <= w < V}
+     */
+    public int commonCount(int v, int w) {
+        validateVertex(v);
+        validateVertex(w);
+        int count = 0;
+        for (int i = v * words, j = w * words, end = i + words; i < end; i++, j++)
+            count += Long.bitCount(bits[i] & bits[j]);
+        return count;
+    }
+
+    /**
+     * Returns the number of vertices adjacent from {@code v} or {@code w}:
+     * the population count of the OR of their rows.
+     * @param  v one vertex
+     * @param  w the other vertex
+     * @return the number of vertices adjacent from {@code v} or {@code w}
+     * @throws IllegalArgumentException unless both {@code 0 <= v < V} and {@code 0 <= w < V}
+     */
+    public int unionCount(int v, int w) {
+        validateVertex(v);
+        validateVertex(w);
+        int count = 0;
+        for (int i = v * words, j = w * words, end = i + words; i < end; i++, j++)
+            count += Long.bitCount(bits[i] | bits[j]);
+        return count;
+    }
+
+    /**
+     * Returns the Boolean product of this digraph and {@code that}: the digraph with
+     * an edge v->w if and only if there is a vertex {@code u} with an edge v->u
+     * in this digraph and an edge u->w in {@code that}. Row {@code v} of the product is
+     * the OR of the rows of {@code that} for the vertices adjacent from {@code v}, so it
+     * takes time proportional to <em>E</em> <em>V</em> / 64.
+     * @param  that the other digraph
+     * @return the Boolean product of this digraph and {@code that}
+     * @throws IllegalArgumentException unless {@code that} has the same number of vertices
+     */
+    public BitMatrixDigraph multiply(BitMatrixDigraph that) {
+        if (that.V != V) throw new IllegalArgumentException("digraphs have different numbers of vertices");
+        BitMatrixDigraph product = new BitMatrixDigraph(V);
+        for (int v = 0; v < V; v++) {
+            int row = v * words;
+            for (int k = 0; k < words; k++) {
+                long word = bits[row + k];
+                while (word != 0) {
+                    int u = (k << 6) + Long.numberOfTrailingZeros(word);
+                    word &= word - 1;
+                    product.or(row, that.bits, u * words);
+                }
+            }
+            product.E += product.rowCount(row);
+        }
+        return product;
+    }
+
+    /**
+     * Returns the reflexive transitive closure of this digraph: the digraph with an
+     * edge v->w if and only if there is a directed path from {@code v} to {@code w},
+     * of length 0 or more. It uses Warshall's algorithm on whole rows: for each vertex
+     * {@code k}, every row with bit {@code k} set takes the OR of row {@code k}, so it
+     * takes time proportional to <em>V</em><sup>3</sup> / 64, the same as one
+     * {@link #multiply} of dense matrices, instead of the log <em>V</em> products
+     * that repeated squaring would take.
+     * @return the reflexive transitive closure of this digraph
+     */
+    public BitMatrixDigraph closure() {
+        BitMatrixDigraph closure = new BitMatrixDigraph(V);
+        System.arraycopy(bits, 0, closure.bits, 0, bits.length);
+        for (int v = 0; v < V; v++)
+            closure.bits[v * words + (v >>> 6)] |= 1L << v;
+        for (int k = 0; k < V; k++) {
+            int word = k >>> 6;
+            long bit = 1L << k;
+            for (int v = 0; v < V; v++)
+                if (v != k && (closure.bits[v * words + word] & bit) != 0)
+                    closure.or(v * words, closure.bits, k * words);
+        }
+        for (int v = 0; v < V; v++)
+            closure.E += closure.rowCount(v * words);
+        return closure;
+    }
+
+    // OR the row of b starting at index from into the row of this matrix starting at index to
+    private void or(int to, long[] b, int from) {
+        for (int k = 0; k < words; k++)
+            bits[to + k] |= b[from + k];
+    }
+
+    // the number of bits set in the row starting at index row
+    private int rowCount(int row) {
+        int count = 0;
+        for (int k = 0; k < words; k++)
+            count += Long.bitCount(bits[row + k]);
+        return count;
+    }
+
+    // iterates over the set bits of the AND of rows v and w, one word at a time
+    private class RowIterator implements Iterator<Integer> {
+        private final int a, b;     // the first index of each row
+        private int k = -1;         // the index in the rows of the current word
+        private long word;          // the bits of the current word not yet returned
+
+        RowIterator(int v, int w) {
+            a = v * words;
+            b = w * words;
+        }
+
+        public boolean hasNext() {
+            while (word == 0) {
+                if (++k >= words) return false;
+                word = bits[a + k] & bits[b + k];
+            }
+            return true;
+        }
+
+        public Integer next() {
+            if (!hasNext()) throw new NoSuchElementException();
+            int w = (k << 6) + Long.numberOfTrailingZeros(word);
+            word &= word - 1;
+            return w;
+        }
+    }
+
+    /**
+     * Returns a string representation of this digraph.
+     * @return the number of vertices <em>V</em>, followed by the number of edges <em>E</em>,
+     *         followed by the <em>V</em> adjacency lists
+     */
+    public String toString() {
+        StringBuilder s = new StringBuilder();
+        s.append(V + " " + E + NEWLINE);
+        for (int v = 0; v < V; v++) {
+            s.append(v + ": ");
+            for (int w : adj(v)) {
+                s.append(w + " ");
+            }
+            s.append(NEWLINE);
+        }
+        return s.toString();
+    }
+
+    /**
+     * Unit tests the {@code BitMatrixDigraph} data type: builds a random digraph,
+     * computes its closure, and compares it with {@code TransitiveClosure} and with
+     * repeated squaring.
+     *
+     * @param args the command-line arguments: <em>V</em> and <em>E</em>
+     */
+    public static void main(String[] args) {
+        int V = Integer.parseInt(args[0]);
+        int E = Integer.parseInt(args[1]);
+        BitMatrixDigraph G = new BitMatrixDigraph(V, E);
+        Digraph digraph = new Digraph(V);
+        for (int v = 0; v < V; v++)
+            for (int w : G.adj(v))
+                digraph.addEdge(v, w);
+        if (V <= 20) StdOut.println(G);
+
+        Stopwatch sw = new Stopwatch();
+        BitMatrixDigraph closure = G.closure();
+        double t1 = sw.elapsedTime();
+
+        // repeated squaring of the digraph with a self-loop on every vertex
+        sw = new Stopwatch();
+        BitMatrixDigraph squared = new BitMatrixDigraph(V);
+        for (int v = 0; v < V; v++) {
+            squared.addEdge(v, v);
+            for (int w : G.adj(v))
+                squared.addEdge(v, w);
+        }
+        for (long length = 1; length < V; length *= 2)
+            squared = squared.multiply(squared);
+        double t2 = sw.elapsedTime();
+
+        TransitiveClosure tc = new TransitiveClosure(digraph);
+        int errors = 0;
+        for (int v = 0; v < V; v++)
+            for (int w = 0; w < V; w++)
+                if (closure.contains(v, w) != tc.reachable(v, w) || squared.contains(v, w) != tc.reachable(v, w)) errors++;
+        StdOut.printf("closure has %d edges, %d errors\n", closure.E(), errors);
+        StdOut.printf("Warshall %.3f s, repeated squaring %.3f s\n", t1, t2);
+    }
+}
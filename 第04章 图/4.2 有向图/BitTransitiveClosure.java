@@ -0,0 +1,201 @@
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+public class BitTransitiveClosure {
+    // compute at most this many components' rows in one fork-join task
+    private static final int CUTOFF = 64;
+
+    private final int V;            // number of vertices
+    private final int[] id;         // id[v] = strong component containing v
+    private final int C;            // number of strong components
+    private final int words;        // number of longs in each row
+    private final long[] reach;     // bit d of row c is set iff component d is reachable from component c
+
+    // the condensation, while the rows are being computed
+    private Digraph dag;
+
+    /**
+     * Computes the transitive closure of the digraph {@code G}, using the common fork-join pool.
+     * @param G the digraph
+     * @throws IllegalArgumentException if the closure of the condensation has more than
+     *         {@code Integer.MAX_VALUE} words
+     */
+    public BitTransitiveClosure(Digraph G) {
+        this(G, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Computes the transitive closure of the digraph {@code G}.
+     * All the vertices of a strong component reach the same vertices, so the closure is
+     * computed for the condensation of {@code G}, the DAG of its strong components
+     * (from {@code KosarajuSharirSCC}), with one row of bits per component: the row of a
+     * component is its own bit ORed with the rows of its successors. The rows are filled
+     * in reverse topological order (from {@code Topological}), level by level from the
+     * sinks up, and the components on one level, which cannot reach each other, in parallel.
+     * This needs <em>C</em><sup>2</sup>/8 bytes for <em>C</em> components, against
+     * <em>V</em><sup>2</sup> {@code boolean}s for {@code TransitiveClosure}.
+     *
+     * @param  G the digraph
+     * @param  pool the pool that computes the rows
+     * @throws IllegalArgumentException if {@code pool} is {@code null}
+     * @throws IllegalArgumentException if the closure of the condensation has more than
+     *         {@code Integer.MAX_VALUE} words
+     */
+    public BitTransitiveClosure(Digraph G, ForkJoinPool pool) {
+        if (pool == null) throw new IllegalArgumentException("argument is null");
+        V = G.V();
+        KosarajuSharirSCC scc = new KosarajuSharirSCC(G);
+        C = scc.count();
+        id = new int[V];
+        for (int v = 0; v < V; v++)
+            id[v] = scc.id(v);
+        words = (C + 63) >>> 6;
+        if ((long) C * words > Integer.MAX_VALUE - 8)
+            throw new IllegalArgumentException("too many strong components: " + C);
+        reach = new long[C * words];
+
+        // the condensation, without parallel edges
+        dag = new Digraph(C);
+        int[] seen = new int[C];
+        java.util.Arrays.fill(seen, -1);
+        Bag<Integer>[] members = (Bag<Integer>[]) new Bag[C];
+        for (int c = 0; c < C; c++)
+            members[c] = new Bag<Integer>();
+        for (int v = 0; v < V; v++)
+            members[id[v]].add(v);
+        for (int c = 0; c < C; c++) {
+            for (int v : members[c]) {
+                for (int w : G.adj(v)) {
+                    int d = id[w];
+                    if (d != c && seen[d] != c) {
+                        seen[d] = c;
+                        dag.addEdge(c, d);
+                    }
+                }
+            }
+        }
+
+        // level[c] = length of the longest path from c to a sink, in reverse topological order
+        Topological topological = new Topological(dag);
+        int[] order = new int[C];
+        int n = 0;
+        for (int c : topological.order())
+            order[n++] = c;
+        int[] level = new int[C];
+        int levels = 0;
+        for (int i = C-1; i >= 0; i--) {
+            int c = order[i];
+            for (int d : dag.adj(c))
+                level[c] = Math.max(level[c], level[d] + 1);
+            levels = Math.max(levels, level[c] + 1);
+        }
+
+        // the components on each level, sinks first
+        int[] start = new int[levels + 1];
+        for (int c = 0; c < C; c++)
+            start[level[c] + 1]++;
+        for (int i = 0; i < levels; i++)
+            start[i+1] += start[i];
+        int[] byLevel = new int[C];
+        int[] next = java.util.Arrays.copyOf(start, levels);
+        for (int i = C-1; i >= 0; i--)
+            byLevel[next[level[order[i]]]++] = order[i];
+
+        for (int i = 0; i < levels; i++)
+            pool.invoke(new Rows(byLevel, start[i], start[i+1]));
+        dag = null;
+    }
+
+    // fill the rows of components[lo..hi-1], whose successors' rows are complete
+    private class Rows extends RecursiveAction {
+        private final int[] components;
+        private final int lo, hi;
+
+        Rows(int[] components, int lo, int hi) {
+            this.components = components;
+            this.lo = lo;
+            this.hi = hi;
+        }
+
+        @Override
+        protected void compute() {
+            if (hi - lo > CUTOFF) {
+                int mid = lo + (hi - lo) / 2;
+                invokeAll(new Rows(components, lo, mid), new Rows(components, mid, hi));
+                return;
+            }
+            for (int k = lo; k < hi; k++) {
+                int c = components[k];
+                int row = c * words;
+                reach[row + (c >>> 6)] |= 1L << c;
+                for (int d : dag.adj(c)) {
+                    int other = d * words;
+                    for (int i = 0; i < words; i++)
+                        reach[row + i] |= reach[other + i];
+                }
+            }
+        }
+    }
+
+    /**
+     * Is there a directed path from vertex {@code v} to vertex {@code w} in the digraph?
+     * Takes constant time.
+     * @param  v the source vertex
+     * @param  w the target vertex
+     * @return {@code true} if there is a directed path from {@code v} to {@code w},
+     *         {@code false} otherwise
+     * @throws IllegalArgumentException unless {@code 0 <= v < V}
+     * @throws IllegalArgumentException unless {@code 0 <= w < V}
+     */
+    public boolean reachable(int v, int w) {
+        validateVertex(v);
+        validateVertex(w);
+        int d = id[w];
+        return (reach[id[v] * words + (d >>> 6)] & (1L << d)) != 0;
+    }
+
+    /**
+     * Returns the number of strong components, that is, of vertices in the condensation.
+     * @return the number of strong components
+     */
+    public int components() {
+        return C;
+    }
+
+    // throw an IllegalArgumentException unless {@code 0 <= v < V}
+    private void validateVertex(int v) {
+        if (v < 0 || v >= V)
+            throw new IllegalArgumentException("vertex " + v + " is not between 0 and " + (V-1));
+    }
+
+    /**
+     * Unit tests the {@code BitTransitiveClosure} data type.
+     *
+     * @param args the command-line arguments
+     */
+    public static void main(String[] args) {
+        In in = new In(args[0]);
+        Digraph G = new Digraph(in);
+
+        BitTransitiveClosure tc = new BitTransitiveClosure(G);
+        StdOut.println(tc.components() + " strong components");
+
+        // print header
+        StdOut.print("     ");
+        for (int v = 0; v < G.V(); v++)
+            StdOut.printf("%3d", v);
+        StdOut.println();
+        StdOut.println("--------------------------------------------");
+
+        // print transitive closure
+        for (int v = 0; v < G.V(); v++) {
+            StdOut.printf("%3d: ", v);
+            for (int w = 0; w < G.V(); w++) {
+                if (tc.reachable(v, w)) StdOut.printf("  T");
+                else                    StdOut.printf("   ");
+            }
+            StdOut.println();
+        }
+    }
+
+}
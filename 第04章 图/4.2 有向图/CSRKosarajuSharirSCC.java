@@ -0,0 +1,158 @@
+public class CSRKosarajuSharirSCC {
+    private boolean[] marked;     // marked[v] = has vertex v been visited?
+    private int[] id;             // id[v] = id of strong component containing v
+    private int count;            // number of strongly-connected components
+
+    /**
+     * Computes the strong components of the digraph {@code G}.
+     * @param G the digraph
+     */
+    public CSRKosarajuSharirSCC(CSRDigraph G) {
+        int V = G.V();
+
+        // explicit stack shared by both passes; deep digraphs do not overflow the call stack
+        int[] stack = new int[V];
+        int[] next  = new int[V];
+
+        // compute postorder of reverse graph
+        CSRDigraph R = G.reverse();
+        marked = new boolean[V];
+        int[] postorder = new int[V];
+        int n = 0;
+        for (int v = 0; v < V; v++)
+            if (!marked[v]) n = postorder(R, v, stack, next, postorder, n);
+        R = null;
+
+        // run DFS on G, using reverse postorder to guide calculation
+        marked = new boolean[V];
+        id = new int[V];
+        for (int k = V-1; k >= 0; k--) {
+            int v = postorder[k];
+            if (!marked[v]) {
+                dfs(G, v, stack, next);
+                count++;
+            }
+        }
+    }
+
+    // DFS on graph G from s, appending vertices to post[] in postorder; returns new length
+    private int postorder(CSRDigraph G, int s, int[] stack, int[] next, int[] post, int n) {
+        int top = 0;
+        stack[0] = s;
+        next[0] = G.begin(s);
+        marked[s] = true;
+        while (top >= 0) {
+            int v = stack[top];
+            if (next[top] == G.end(v)) {
+                post[n++] = v;
+                top--;
+                continue;
+            }
+            int w = G.target(next[top]++);
+            if (!marked[w]) {
+                marked[w] = true;
+                stack[++top] = w;
+                next[top] = G.begin(w);
+            }
+        }
+        return n;
+    }
+
+    // DFS on graph G from s, labeling every vertex reached with the current count
+    private void dfs(CSRDigraph G, int s, int[] stack, int[] next) {
+        int top = 0;
+        stack[0] = s;
+        next[0] = G.begin(s);
+        marked[s] = true;
+        id[s] = count;
+        while (top >= 0) {
+            int v = stack[top];
+            if (next[top] == G.end(v)) {
+                top--;
+                continue;
+            }
+            int w = G.target(next[top]++);
+            if (!marked[w]) {
+                marked[w] = true;
+                id[w] = count;
+                stack[++top] = w;
+                next[top] = G.begin(w);
+            }
+        }
+    }
+
+    /**
+     * Returns the number of strong components.
+     * @return the number of strong components
+     */
+    public int count() {
+        return count;
+    }
+
+    /**
+     * Are vertices {@code v} and {@code w} in the same strong component?
+     * @param  v one vertex
+     * @param  w the other vertex
+     * @return {@code true} if vertices {@code v} and {@code w} are in the same
+     *         strong component, and {@code false} otherwise
+     * @throws IllegalArgumentException unless {@code 0 <= v < V}
+     * @throws IllegalArgumentException unless {@code 0 <= w < V}
+     */
+    public boolean stronglyConnected(int v, int w) {
+        validateVertex(v);
+        validateVertex(w);
+        return id[v] == id[w];
+    }
+
+    /**
+     * Returns the component id of the strong component containing vertex {@code v}.
+     * @param  v the vertex
+     * @return the component id of the strong component containing vertex {@code v}
+     * @throws IllegalArgumentException unless {@code 0 <= s < V}
+     */
+    public int id(int v) {
+        validateVertex(v);
+        return id[v];
+    }
+
+    // throw an IllegalArgumentException unless {@code 0 <= v < V}
+    private void validateVertex(int v) {
+        int V = marked.length;
+        if (v < 0 || v >= V)
+            throw new IllegalArgumentException("vertex " + v + " is not between 0 and " + (V-1));
+    }
+
+    /**
+     * Unit tests the {@code CSRKosarajuSharirSCC} data type.
+     *
+     * @param args the command-line arguments
+     */
+    public static void main(String[] args) {
+        In in = new In(args[0]);
+        CSRDigraph G = new CSRDigraph(in);
+        CSRKosarajuSharirSCC scc = new CSRKosarajuSharirSCC(G);
+
+        // number of connected components
+        int m = scc.count();
+        StdOut.println(m + " strong components");
+
+        // compute list of vertices in each strong component
+        Queue<Integer>[] components = (Queue<Integer>[]) new Queue[m];
+        for (int i = 0; i < m; i++) {
+            components[i] = new Queue<Integer>();
+        }
+        for (int v = 0; v < G.V(); v++) {
+            components[scc.id(v)].enqueue(v);
+        }
+
+        // print results
+        for (int i = 0; i < m; i++) {
+            for (int v : components[i]) {
+                StdOut.print(v + " ");
+            }
+            StdOut.println();
+        }
+
+    }
+
+}
\ No newline at end of file
@@ -17,8 +17,7 @@ public class DepthFirstOrder {
         postorder = new Queue<Integer>();
         preorder  = new Queue<Integer>();
         marked    = new boolean[G.V()];
-        for (int v = 0; v < G.V(); v++)
-            if (!marked[v]) dfs(G, v);
+        new DepthFirstTraversal(G).searchAll(new Orders());
 
         assert check();
     }
@@ -33,37 +32,21 @@ public class DepthFirstOrder {
         postorder = new Queue<Integer>();
         preorder  = new Queue<Integer>();
         marked    = new boolean[G.V()];
-        for (int v = 0; v < G.V(); v++)
-            if (!marked[v]) dfs(G, v);
+        new DepthFirstTraversal(G).searchAll(new Orders());
     }
 
-    // run DFS in digraph G from vertex v and compute preorder/postorder
-    private void dfs(Digraph G, int v) {
-        marked[v] = true;
-        pre[v] = preCounter++;
-        preorder.enqueue(v);
-        for (int w : G.adj(v)) {
-            if (!marked[w]) {
-                dfs(G, w);
-            }
+    // compute preorder/postorder as DFS reaches and leaves each vertex
+    private class Orders implements DepthFirstTraversal.Visitor {
+        public void pre(int v, int parent) {
+            marked[v] = true;
+            pre[v] = preCounter++;
+            preorder.enqueue(v);
         }
-        postorder.enqueue(v);
-        post[v] = postCounter++;
-    }
 
-    // run DFS in edge-weighted digraph G from vertex v and compute preorder/postorder
-    private void dfs(EdgeWeightedDigraph G, int v) {
-        marked[v] = true;
-        pre[v] = preCounter++;
-        preorder.enqueue(v);
-        for (DirectedEdge e : G.adj(v)) {
-            int w = e.to();
-            if (!marked[w]) {
-                dfs(G, w);
-            }
+        public void post(int v, int parent) {
+            postorder.enqueue(v);
+            post[v] = postCounter++;
         }
-        postorder.enqueue(v);
-        post[v] = postCounter++;
     }
 
     /**
@@ -0,0 +1,300 @@
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+
+/**
+ *  The {@code DigraphFile} class reads and writes digraphs in the compact binary graph
+ *  file format of {@code GraphFile}, so that a large digraph can be loaded in time
+ *  proportional to <em>V</em> + <em>E</em> without tokenizing any text. A file is a
+ *  32-byte header followed by the adjacency lists in compressed sparse row form, all in
+ *  little-endian byte order:
+ *  <ul>
+ *  <li> the header: the magic number {@code 0x48504752}, the format version,
+ *       the type of graph, <em>V</em>, <em>E</em>, the number <em>A</em> of
+ *       adjacency entries, and 8 reserved bytes, all {@code int}s;
+ *  <li> the offsets section: <em>V</em>+1 {@code int}s, where the adjacency list
+ *       of {@code v} is entries {@code offsets[v]} through {@code offsets[v+1]-1};
+ *  <li> the target section: <em>A</em> {@code int}s, the other endpoint of each entry;
+ *  </ul>
+ *  <p>
+ *  The adjacency lists are stored in the order that {@code adj(v)} returns them, and
+ *  the loaders rebuild them in that order, so a digraph read back from a file is
+ *  identical to the one written. Each edge has one entry, in the list of its tail
+ *  (<em>A</em> = <em>E</em>).
+ *  <p>
+ *  The loaders map the file with {@link FileChannel#map}, in pieces of at most
+ *  1 GB, and copy each section into an array with a bulk get. They check the header
+ *  and every entry, and throw an {@code IllegalArgumentException} if the file is not
+ *  a valid digraph file.
+ */
+public class DigraphFile {
+    private static final int MAGIC = 0x48504752;           // "RGPH" in little-endian bytes
+    private static final int VERSION = 1;
+    private static final int HEADER = 32;                  // bytes in the header
+    private static final int CHUNK = 1 << 30;              // bytes in one mapping
+    private static final int BUFFER = 1 << 16;             // bytes in the write buffer
+
+    // the types of graph
+    private static final int GRAPH = 1;
+    private static final int DIGRAPH = 2;
+    private static final int EDGE_WEIGHTED_GRAPH = 3;
+    private static final int EDGE_WEIGHTED_DIGRAPH = 4;
+    private static final int FLOW_NETWORK = 5;
+
+    private static final String[] NAMES = {
+        null, "Graph", "Digraph", "EdgeWeightedGraph", "EdgeWeightedDigraph", "FlowNetwork"
+    };
+
+    // This class should not be instantiated.
+    private DigraphFile() { }
+
+    // the sections of a graph file, as read from or written to disk
+    private static class Sections {
+        int type;
+        int E;
+        int[] offsets;
+        int[] targets;
+        double[] weights;     // null unless the type has weights
+    }
+
+   /***************************************************************************
+    *  Writers.
+    ***************************************************************************/
+
+    /**
+     * Writes the digraph {@code G} to the file {@code filename}.
+     *
+     * @param  G the digraph
+     * @param  filename the name of the file
+     * @throws IllegalArgumentException if either argument is {@code null}
+     * @throws UncheckedIOException if the file cannot be written
+     */
+    public static void write(Digraph G, String filename) {
+        if (G == null) throw new IllegalArgumentException("argument is null");
+        Sections s = sections(DIGRAPH, G.V(), G.E(), G.E(), false);
+        for (int v = 0; v < G.V(); v++) {
+            s.offsets[v+1] = s.offsets[v] + G.outdegree(v);
+            int i = s.offsets[v];
+            for (int w : G.adj(v))
+                s.targets[i++] = w;
+        }
+        write(s, filename);
+    }
+
+    // empty sections for a graph with V vertices, E edges and A adjacency entries
+    private static Sections sections(int type, int V, int E, long A, boolean weighted) {
+        if (A > Integer.MAX_VALUE)
+            throw new IllegalArgumentException("too many edges for a graph file: " + E);
+        Sections s = new Sections();
+        s.type = type;
+        s.E = E;
+        s.offsets = new int[V+1];
+        s.targets = new int[(int) A];
+        if (weighted) s.weights = new double[(int) A];
+        return s;
+    }
+
+    // write the header and the sections, through a direct buffer of BUFFER bytes
+    private static void write(Sections s, String filename) {
+        if (filename == null) throw new IllegalArgumentException("argument is null");
+        int V = s.offsets.length - 1;
+        int A = s.targets.length;
+        StandardOpenOption[] options = {
+            StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE
+        };
+        try (FileChannel channel = FileChannel.open(Paths.get(filename), options)) {
+            ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER).order(ByteOrder.LITTLE_ENDIAN);
+            buffer.putInt(MAGIC).putInt(VERSION).putInt(s.type).putInt(V).putInt(s.E).putInt(A).putLong(0);
+            for (int x : s.offsets) {
+                if (!buffer.hasRemaining()) flush(buffer, channel);
+                buffer.putInt(x);
+            }
+            for (int x : s.targets) {
+                if (!buffer.hasRemaining()) flush(buffer, channel);
+                buffer.putInt(x);
+            }
+            if (s.weights != null) {
+                // the buffer holds a multiple of 8 bytes whenever it is flushed
+                if (buffer.position() % 8 != 0) buffer.putInt(0);
+                for (double x : s.weights) {
+                    if (!buffer.hasRemaining()) flush(buffer, channel);
+                    buffer.putDouble(x);
+                }
+            }
+            flush(buffer, channel);
+        }
+        catch (IOException e) {
+            throw new UncheckedIOException("could not write " + filename, e);
+        }
+    }
+
+    // write out and clear the buffer
+    private static void flush(ByteBuffer buffer, FileChannel channel) throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining())
+            channel.write(buffer);
+        buffer.clear();
+    }
+
+   /***************************************************************************
+    *  Loaders.
+    ***************************************************************************/
+
+    /**
+     * Reads a digraph from the file {@code filename}, written by {@link #write(Digraph, String)}.
+     *
+     * @param  filename the name of the file
+     * @return the digraph
+     * @throws IllegalArgumentException if {@code filename} is {@code null}
+     * @throws IllegalArgumentException if the file is not a valid graph file of this type
+     * @throws UncheckedIOException if the file cannot be read
+     */
+    public static Digraph readDigraph(String filename) {
+        Sections s = read(filename, DIGRAPH);
+        int V = s.offsets.length - 1;
+        Digraph G = new Digraph(V);
+        for (int v = 0; v < V; v++) {
+            // add in reverse, since a bag returns the last item added first
+            for (int i = s.offsets[v+1] - 1; i >= s.offsets[v]; i--)
+                G.addEdge(v, s.targets[i]);
+        }
+        return G;
+    }
+
+    /**
+     * Reads a digraph from the file {@code filename}, written by {@link #write(Digraph, String)},
+     * into a {@code CSRDigraph}, which keeps the arrays read from the file as they are.
+     *
+     * @param  filename the name of the file
+     * @return the digraph
+     * @throws IllegalArgumentException if {@code filename} is {@code null}
+     * @throws IllegalArgumentException if the file is not a valid graph file of this type
+     * @throws UncheckedIOException if the file cannot be read
+     */
+    public static CSRDigraph readCSRDigraph(String filename) {
+        Sections s = read(filename, DIGRAPH);
+        return new CSRDigraph(s.offsets, s.targets);
+    }
+
+    // read and check the header and the sections of a file of the given type
+    private static Sections read(String filename, int type) {
+        if (filename == null) throw new IllegalArgumentException("argument is null");
+        Path path = Paths.get(filename);
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size < HEADER) throw new IllegalArgumentException("invalid input format: file too short");
+            ByteBuffer header = channel.map(FileChannel.MapMode.READ_ONLY, 0, HEADER).order(ByteOrder.LITTLE_ENDIAN);
+            if (header.getInt() != MAGIC) throw new IllegalArgumentException("invalid input format: not a graph file");
+            int version = header.getInt();
+            if (version != VERSION) throw new IllegalArgumentException("unsupported graph file version " + version);
+            int actual = header.getInt();
+            if (actual != type) {
+                String name = (actual > 0 && actual < NAMES.length) ? NAMES[actual] : "unknown type " + actual;
+                throw new IllegalArgumentException("file holds a " + name + ", not a " + NAMES[type]);
+            }
+            int V = header.getInt();
+            int E = header.getInt();
+            int A = header.getInt();
+            boolean weighted = type != GRAPH && type != DIGRAPH;
+            long directedArcs = (type == DIGRAPH || type == EDGE_WEIGHTED_DIGRAPH) ? E : 2L * E;
+            if (V < 0 || E < 0 || A != directedArcs)
+                throw new IllegalArgumentException("invalid input format: V = " + V + ", E = " + E + ", A = " + A);
+
+            long position = HEADER;
+            long targetsAt = position + 4L * (V + 1);
+            long weightsAt = (targetsAt + 4L * A + 7) & ~7L;
+            long expected = weighted ? weightsAt + 8L * A : targetsAt + 4L * A;
+            if (size != expected)
+                throw new IllegalArgumentException("invalid input format: " + size + " bytes, expected " + expected);
+
+            Sections s = new Sections();
+            s.type = type;
+            s.E = E;
+            s.offsets = new int[V+1];
+            s.targets = new int[A];
+            readInts(channel, position, s.offsets);
+            readInts(channel, targetsAt, s.targets);
+            if (weighted) {
+                s.weights = new double[A];
+                readDoubles(channel, weightsAt, s.weights);
+            }
+            check(s, weighted && type != EDGE_WEIGHTED_DIGRAPH);
+            return s;
+        }
+        catch (IOException e) {
+            throw new UncheckedIOException("could not read " + filename, e);
+        }
+    }
+
+    // check that the offsets are nondecreasing from 0 to A, and every entry is a vertex
+    // (or the complement of a vertex, in the files that mark the second entry of an edge)
+    private static void check(Sections s, boolean marked) {
+        int[] offsets = s.offsets;
+        int[] targets = s.targets;
+        int V = offsets.length - 1;
+        if (offsets[0] != 0 || offsets[V] != targets.length)
+            throw new IllegalArgumentException("invalid input format: offsets do not span the entries");
+        for (int v = 0; v < V; v++) {
+            if (offsets[v+1] < offsets[v])
+                throw new IllegalArgumentException("invalid input format: offsets decrease at vertex " + v);
+        }
+        for (int i = 0; i < targets.length; i++) {
+            int w = (marked && targets[i] < 0) ? ~targets[i] : targets[i];
+            if (w < 0 || w >= V)
+                throw new IllegalArgumentException("vertex " + w + " is not between 0 and " + (V-1));
+        }
+        if (s.weights != null) {
+            for (double x : s.weights)
+                if (Double.isNaN(x)) throw new IllegalArgumentException("Weight is NaN");
+        }
+    }
+
+    // read a.length ints starting at byte position, mapping at most CHUNK bytes at a time
+    private static void readInts(FileChannel channel, long position, int[] a) throws IOException {
+        int chunk = CHUNK / 4;
+        for (int i = 0; i < a.length; i += chunk) {
+            int n = Math.min(chunk, a.length - i);
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, position + 4L * i, 4L * n);
+            buffer.order(ByteOrder.LITTLE_ENDIAN).asIntBuffer().get(a, i, n);
+        }
+    }
+
+    // read a.length doubles starting at byte position, mapping at most CHUNK bytes at a time
+    private static void readDoubles(FileChannel channel, long position, double[] a) throws IOException {
+        int chunk = CHUNK / 8;
+        for (int i = 0; i < a.length; i += chunk) {
+            int n = Math.min(chunk, a.length - i);
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, position + 8L * i, 8L * n);
+            buffer.order(ByteOrder.LITTLE_ENDIAN).asDoubleBuffer().get(a, i, n);
+        }
+    }
+
+    /**
+     * Converts a digraph from the text format read by its {@code In} constructor to the
+     * binary format, then reads it back, checks that it is the same, and prints the
+     * time to load each format. The arguments are the text file and the binary file.
+     *
+     * @param args the command-line arguments
+     */
+    public static void main(String[] args) {
+        String text = args[0];
+        String binary = args[1];
+        Stopwatch sw = new Stopwatch();
+        Digraph original = new Digraph(new In(text));
+        double parse = sw.elapsedTime();
+
+        write(original, binary);
+        sw = new Stopwatch();
+        Digraph copy = readDigraph(binary);
+        double load = sw.elapsedTime();
+
+        boolean same = original.toString().equals(copy.toString());
+        StdOut.printf("text %.3f s, binary %.3f s, %s\n", parse, load, same ? "identical" : "DIFFERENT");
+    }
+}
@@ -13,37 +13,32 @@ public class DirectedCycle {
         marked  = new boolean[G.V()];
         onStack = new boolean[G.V()];
         edgeTo  = new int[G.V()];
-        for (int v = 0; v < G.V(); v++)
-            if (!marked[v] && cycle == null) dfs(G, v);
-    }
-
-    // check that algorithm computes either the topological order or finds a directed cycle
-    private void dfs(Digraph G, int v) {
-        onStack[v] = true;
-        marked[v] = true;
-        for (int w : G.adj(v)) {
-
-            // short circuit if directed cycle found
-            if (cycle != null) return;
-
-            // found new vertex, so recur
-            else if (!marked[w]) {
-                edgeTo[w] = v;
-                dfs(G, w);
+        final DepthFirstTraversal dfs = new DepthFirstTraversal(G);
+        dfs.searchAll(new DepthFirstTraversal.Visitor() {
+            public void pre(int v, int parent) {
+                onStack[v] = true;
+                marked[v] = true;
+                if (parent != -1) edgeTo[v] = parent;
             }
 
             // trace back directed cycle
-            else if (onStack[w]) {
-                cycle = new Stack<Integer>();
-                for (int x = v; x != w; x = edgeTo[x]) {
-                    cycle.push(x);
+            public void edge(int v, int w) {
+                if (onStack[w]) {
+                    cycle = new Stack<Integer>();
+                    for (int x = v; x != w; x = edgeTo[x]) {
+                        cycle.push(x);
+                    }
+                    cycle.push(w);
+                    cycle.push(v);
+                    assert check();
+                    dfs.stop();
                 }
-                cycle.push(w);
-                cycle.push(v);
-                assert check();
             }
-        }
-        onStack[v] = false;
+
+            public void post(int v, int parent) {
+                onStack[v] = false;
+            }
+        });
     }
 
     /**
@@ -15,9 +15,16 @@ public class KosarajuSharirSCC {
         // run DFS on G, using reverse postorder to guide calculation
         marked = new boolean[G.V()];
         id = new int[G.V()];
+        DepthFirstTraversal traversal = new DepthFirstTraversal(G);
+        DepthFirstTraversal.Visitor visitor = new DepthFirstTraversal.Visitor() {
+            public void pre(int v, int parent) {
+                marked[v] = true;
+                id[v] = count;
+            }
+        };
         for (int v : dfs.reversePost()) {
             if (!marked[v]) {
-                dfs(G, v);
+                traversal.search(v, visitor);
                 count++;
             }
         }
@@ -26,15 +33,6 @@ public class KosarajuSharirSCC {
         assert check(G);
     }
 
-    // DFS on graph G
-    private void dfs(Digraph G, int v) { 
-        marked[v] = true;
-        id[v] = count;
-        for (int w : G.adj(v)) {
-            if (!marked[w]) dfs(G, w);
-        }
-    }
-
     /**
      * Returns the number of strong components.
      * @return the number of strong components
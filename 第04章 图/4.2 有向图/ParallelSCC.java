@@ -0,0 +1,379 @@
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.function.IntConsumer;
+
+public class ParallelSCC {
+    // process at most this many vertices in one fork-join task
+    private static final int CUTOFF = 1024;
+
+    // give up on coloring, and finish with PearceSCC, after this many propagation rounds
+    private static final int MAX_ROUNDS = 64;
+
+    // finish with PearceSCC once fewer than this many vertices are left
+    private static final int SERIAL = 4096;
+
+    private int[] id;             // id[v] = id of strong component containing v
+    private int count;            // number of strongly-connected components
+
+    // state while the components are being computed
+    private final CSRDigraph G;
+    private final ForkJoinPool pool;
+    private final int V;
+    private final int[] outOffsets, outTargets, inOffsets, inTargets;
+    private final AtomicIntegerArray comp;    // comp[v] = component of v, or -1 if not known yet
+    private final AtomicInteger components;   // number of components found
+
+    /**
+     * Computes the strong components of the digraph {@code G}, using the common fork-join pool.
+     * @param G the digraph
+     */
+    public ParallelSCC(Digraph G) {
+        this(new CSRDigraph(G), ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Computes the strong components of the digraph {@code G} in parallel, in three phases.
+     * <em>Trimming</em> repeatedly removes the vertices with no edges in or no edges out
+     * among the vertices left, each a component by itself. <em>Forward-backward</em>
+     * search from a vertex of high in- and outdegree finds its component, the intersection
+     * of the vertices it reaches and the vertices that reach it, which in most large
+     * digraphs is the giant one. <em>Coloring</em> then gives every vertex left the largest
+     * vertex that reaches it, by rounds of propagation along the edges; a vertex that keeps
+     * its own color is the root of a component, the vertices of its color that reach it,
+     * which a backward search from every root finds at once. Coloring repeats on the
+     * vertices left until none are, or it converges too slowly, in which case
+     * {@code PearceSCC} finishes the job on the vertices left.
+     * The component ids are not in any particular order.
+     * @param G the digraph
+     * @param pool the pool that runs each phase
+     * @throws IllegalArgumentException if {@code pool} is {@code null}
+     */
+    public ParallelSCC(CSRDigraph G, ForkJoinPool pool) {
+        if (pool == null) throw new IllegalArgumentException("argument is null");
+        this.G = G;
+        this.pool = pool;
+        V = G.V();
+        CSRDigraph R = G.reverse();
+        outOffsets = G.offsets();
+        outTargets = G.targets();
+        inOffsets = R.offsets();
+        inTargets = R.targets();
+        comp = new AtomicIntegerArray(V);
+        components = new AtomicInteger();
+        for (int v = 0; v < V; v++)
+            comp.set(v, -1);
+
+        trim();
+        forwardBackward();
+        color();
+
+        id = new int[V];
+        for (int v = 0; v < V; v++)
+            id[v] = comp.get(v);
+        count = components.get();
+    }
+
+    // run body.accept(a[i]) for i = lo..hi-1, in parallel
+    private static class ForEach extends RecursiveAction {
+        private final int[] a;
+        private final int lo, hi, cutoff;
+        private final IntConsumer body;
+
+        ForEach(int[] a, int lo, int hi, int cutoff, IntConsumer body) {
+            this.a = a;
+            this.lo = lo;
+            this.hi = hi;
+            this.cutoff = cutoff;
+            this.body = body;
+        }
+
+        @Override
+        protected void compute() {
+            if (hi - lo > cutoff) {
+                int mid = lo + (hi - lo) / 2;
+                invokeAll(new ForEach(a, lo, mid, cutoff, body), new ForEach(a, mid, hi, cutoff, body));
+                return;
+            }
+            for (int i = lo; i < hi; i++)
+                body.accept(a[i]);
+        }
+    }
+
+    private void forEach(int[] a, int n, IntConsumer body) {
+        pool.invoke(new ForEach(a, 0, n, CUTOFF, body));
+    }
+
+    // give v a component of its own, unless it already has one
+    private boolean claim(int v) {
+        if (!comp.compareAndSet(v, -1, -2)) return false;
+        comp.set(v, components.getAndIncrement());
+        return true;
+    }
+
+    // the vertices whose component is not known yet
+    private int[] remaining(int[] vertices, int n, AtomicInteger size) {
+        int[] left = new int[n];
+        size.set(0);
+        forEach(vertices, n, v -> {
+            if (comp.get(v) == -1) left[size.getAndIncrement()] = v;
+        });
+        return left;
+    }
+
+    // remove the vertices with indegree or outdegree 0 among the vertices left, until there are none
+    private void trim() {
+        AtomicIntegerArray indegree = new AtomicIntegerArray(V);
+        AtomicIntegerArray outdegree = new AtomicIntegerArray(V);
+        int[] all = new int[V];
+        for (int v = 0; v < V; v++) {
+            all[v] = v;
+            indegree.set(v, inOffsets[v+1] - inOffsets[v]);
+            outdegree.set(v, outOffsets[v+1] - outOffsets[v]);
+        }
+
+        int[] sources = new int[V];
+        AtomicInteger size = new AtomicInteger();
+        forEach(all, V, v -> {
+            if ((indegree.get(v) == 0 || outdegree.get(v) == 0) && claim(v))
+                sources[size.getAndIncrement()] = v;
+        });
+
+        int[] frontier = sources;
+        int[] next = new int[V];
+        while (size.get() > 0) {
+            int n = size.get();
+            int[] current = frontier;
+            int[] found = next;
+            size.set(0);
+            forEach(current, n, v -> {
+                for (int i = outOffsets[v]; i < outOffsets[v+1]; i++) {
+                    int w = outTargets[i];
+                    if (comp.get(w) == -1 && indegree.decrementAndGet(w) == 0 && claim(w))
+                        found[size.getAndIncrement()] = w;
+                }
+                for (int i = inOffsets[v]; i < inOffsets[v+1]; i++) {
+                    int u = inTargets[i];
+                    if (comp.get(u) == -1 && outdegree.decrementAndGet(u) == 0 && claim(u))
+                        found[size.getAndIncrement()] = u;
+                }
+            });
+            next = frontier;
+            frontier = found;
+        }
+    }
+
+    // find the component of the vertex left with the largest product of indegree and outdegree
+    private void forwardBackward() {
+        int pivot = -1;
+        long best = -1;
+        for (int v = 0; v < V; v++) {
+            if (comp.get(v) != -1) continue;
+            long product = (long) (outOffsets[v+1] - outOffsets[v]) * (inOffsets[v+1] - inOffsets[v]);
+            if (product > best) {
+                best = product;
+                pivot = v;
+            }
+        }
+        if (pivot == -1) return;
+
+        AtomicIntegerArray reached = new AtomicIntegerArray(V);   // bit 1: forward, bit 2: backward
+        reach(pivot, outOffsets, outTargets, reached, 1);
+        reach(pivot, inOffsets, inTargets, reached, 2);
+        int c = components.getAndIncrement();
+        for (int v = 0; v < V; v++)
+            if (reached.get(v) == 3) comp.set(v, c);
+    }
+
+    // level-synchronous breadth-first search from s among the vertices left, setting bit in reached
+    private void reach(int s, int[] offsets, int[] targets, AtomicIntegerArray reached, int bit) {
+        int[] frontier = new int[V];
+        int[] next = new int[V];
+        AtomicInteger size = new AtomicInteger();
+        reached.set(s, reached.get(s) | bit);
+        frontier[0] = s;
+        int n = 1;
+        while (n > 0) {
+            int[] found = next;
+            size.set(0);
+            forEach(frontier, n, v -> {
+                for (int i = offsets[v]; i < offsets[v+1]; i++) {
+                    int w = targets[i];
+                    if (comp.get(w) != -1) continue;
+                    while (true) {
+                        int r = reached.get(w);
+                        if ((r & bit) != 0) break;
+                        if (reached.compareAndSet(w, r, r | bit)) {
+                            found[size.getAndIncrement()] = w;
+                            break;
+                        }
+                    }
+                }
+            });
+            next = frontier;
+            frontier = found;
+            n = size.get();
+        }
+    }
+
+    // find the components of the vertices left by rounds of coloring
+    private void color() {
+        AtomicInteger size = new AtomicInteger();
+        int[] all = new int[V];
+        for (int v = 0; v < V; v++)
+            all[v] = v;
+        int[] left = remaining(all, V, size);
+        int n = size.get();
+        AtomicIntegerArray color = new AtomicIntegerArray(V);
+        AtomicBoolean changed = new AtomicBoolean();
+
+        while (n > 0) {
+            if (n < SERIAL) {
+                finish();
+                return;
+            }
+
+            // color[v] = largest vertex left that reaches v among the vertices left
+            int[] vertices = left;
+            forEach(vertices, n, v -> color.set(v, v));
+            int rounds = 0;
+            do {
+                if (++rounds > MAX_ROUNDS) {
+                    finish();
+                    return;
+                }
+                changed.set(false);
+                forEach(vertices, n, v -> {
+                    int c = color.get(v);
+                    for (int i = outOffsets[v]; i < outOffsets[v+1]; i++) {
+                        int w = outTargets[i];
+                        if (comp.get(w) != -1) continue;
+                        int d = color.get(w);
+                        while (d < c && !color.compareAndSet(w, d, c))
+                            d = color.get(w);
+                        if (d < c) changed.set(true);
+                    }
+                });
+            } while (changed.get());
+
+            // the component of each root: the vertices of its color that reach it
+            int[] roots = new int[n];
+            size.set(0);
+            forEach(vertices, n, v -> {
+                if (color.get(v) == v) roots[size.getAndIncrement()] = v;
+            });
+            pool.invoke(new ForEach(roots, 0, size.get(), 1, r -> {
+                int c = components.getAndIncrement();
+                comp.set(r, c);
+                int[] stack = new int[16];
+                int top = 0;
+                stack[top++] = r;
+                while (top > 0) {
+                    int v = stack[--top];
+                    for (int i = inOffsets[v]; i < inOffsets[v+1]; i++) {
+                        int u = inTargets[i];
+                        if (comp.get(u) == -1 && color.get(u) == r) {
+                            comp.set(u, c);
+                            if (top == stack.length) stack = java.util.Arrays.copyOf(stack, 2*top);
+                            stack[top++] = u;
+                        }
+                    }
+                }
+            }));
+
+            left = remaining(vertices, n, size);
+            n = size.get();
+        }
+    }
+
+    // find the components of the vertices left with PearceSCC
+    private void finish() {
+        boolean[] excluded = new boolean[V];
+        for (int v = 0; v < V; v++)
+            excluded[v] = comp.get(v) != -1;
+        PearceSCC scc = new PearceSCC(G, excluded);
+        int first = components.getAndAdd(scc.count());
+        for (int v = 0; v < V; v++)
+            if (!excluded[v]) comp.set(v, first + scc.id(v));
+    }
+
+    /**
+     * Returns the number of strong components.
+     * @return the number of strong components
+     */
+    public int count() {
+        return count;
+    }
+
+    /**
+     * Are vertices {@code v} and {@code w} in the same strong component?
+     * @param  v one vertex
+     * @param  w the other vertex
+     * @return {@code true} if vertices {@code v} and {@code w} are in the same
+     *         strong component, and {@code false} otherwise
+     * @throws IllegalArgumentException unless {@code 0 <= v < V}
+     * @throws IllegalArgumentException unless {@code 0 <= w < V}
+     */
+    public boolean stronglyConnected(int v, int w) {
+        validateVertex(v);
+        validateVertex(w);
+        return id[v] == id[w];
+    }
+
+    /**
+     * Returns the component id of the strong component containing vertex {@code v}.
+     * @param  v the vertex
+     * @return the component id of the strong component containing vertex {@code v}
+     * @throws IllegalArgumentException unless {@code 0 <= v < V}
+     */
+    public int id(int v) {
+        validateVertex(v);
+        return id[v];
+    }
+
+    // throw an IllegalArgumentException unless {@code 0 <= v < V}
+    private void validateVertex(int v) {
+        if (v < 0 || v >= V)
+            throw new IllegalArgumentException("vertex " + v + " is not between 0 and " + (V-1));
+    }
+
+    /**
+     * Unit tests the {@code ParallelSCC} data type: compares it with
+     * {@code PearceSCC} and {@code CSRKosarajuSharirSCC}, and times all three.
+     *
+     * @param args the command-line arguments
+     */
+    public static void main(String[] args) {
+        In in = new In(args[0]);
+        CSRDigraph G = new CSRDigraph(in);
+
+        Stopwatch sw = new Stopwatch();
+        ParallelSCC parallel = new ParallelSCC(G, ForkJoinPool.commonPool());
+        double t1 = sw.elapsedTime();
+        sw = new Stopwatch();
+        PearceSCC pearce = new PearceSCC(G);
+        double t2 = sw.elapsedTime();
+        sw = new Stopwatch();
+        CSRKosarajuSharirSCC kosaraju = new CSRKosarajuSharirSCC(G);
+        double t3 = sw.elapsedTime();
+
+        // the ids differ, but must induce the same partition
+        int errors = 0;
+        int[] map1 = new int[G.V()], map2 = new int[G.V()];
+        java.util.Arrays.fill(map1, -1);
+        java.util.Arrays.fill(map2, -1);
+        for (int v = 0; v < G.V(); v++) {
+            int c = parallel.id(v), p = pearce.id(v), k = kosaraju.id(v);
+            if (map1[c] == -1) map1[c] = k;
+            else if (map1[c] != k) errors++;
+            if (map2[p] == -1) map2[p] = k;
+            else if (map2[p] != k) errors++;
+        }
+        if (parallel.count() != kosaraju.count() || pearce.count() != kosaraju.count()) errors++;
+
+        StdOut.printf("%d strong components, %d errors\n", parallel.count(), errors);
+        StdOut.printf("ParallelSCC %.3f s, PearceSCC %.3f s, CSRKosarajuSharirSCC %.3f s\n", t1, t2, t3);
+    }
+}
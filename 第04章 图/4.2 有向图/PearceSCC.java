@@ -0,0 +1,193 @@
+public class PearceSCC {
+    private int[] id;             // id[v] = id of strong component containing v
+    private int count;            // number of strongly-connected components
+
+    /**
+     * Computes the strong components of the digraph {@code G}.
+     * @param G the digraph
+     */
+    public PearceSCC(Digraph G) {
+        this(new CSRDigraph(G));
+    }
+
+    /**
+     * Computes the strong components of the digraph {@code G} with Pearce's
+     * iterative version of Tarjan's algorithm: a single depth-first search, without
+     * the reverse digraph, whose only state is an {@code int} per vertex that holds
+     * first its preorder number, then the lowest one it reaches, and finally its
+     * component, plus a {@code boolean} per vertex and two stacks that share one array.
+     * The components are numbered in reverse topological order, as with {@code KosarajuSharirSCC}.
+     * @param G the digraph
+     */
+    public PearceSCC(CSRDigraph G) {
+        this(G, null);
+    }
+
+    /**
+     * Computes the strong components of the subdigraph of {@code G} induced by the
+     * vertices {@code v} with {@code excluded[v] == false}; the excluded vertices
+     * get id {@code -1}.
+     * @param G the digraph
+     * @param excluded the vertices to leave out, or {@code null} for none
+     */
+    PearceSCC(CSRDigraph G, boolean[] excluded) {
+        int V = G.V();
+
+        // rindex[v] = 0 if v is unvisited; its (lowest reachable) preorder number, counting
+        // up from 1, while it is on a stack; and V-1-c once it is in component c, counting
+        // down from V-1. A vertex is given to a component only when index is decremented,
+        // so the preorder numbers in use always stay below the component numbers.
+        int[] rindex = new int[V];
+        boolean[] root = new boolean[V];       // root[v] = is v still the root of its component?
+        int[] stack = new int[V];              // the DFS stack grows up from 0, the component
+                                               // stack down from V-1; a vertex is on at most one
+        int[] next = new int[V];               // next[k] = next edge of the vertex at stack[k]
+        int index = 1;
+        int c = V - 1;
+        int bottom = V;                        // the component stack is stack[bottom..V-1]
+
+        for (int s = 0; s < V; s++) {
+            if (rindex[s] != 0 || (excluded != null && excluded[s])) continue;
+            int top = 0;
+            stack[0] = s;
+            next[0] = G.begin(s);
+            rindex[s] = index++;
+            root[s] = true;
+            while (top >= 0) {
+                int v = stack[top];
+                if (next[top] < G.end(v)) {
+                    int w = G.target(next[top]);
+                    if (excluded != null && excluded[w]) {
+                        next[top]++;
+                    }
+                    else if (rindex[w] == 0) {
+                        stack[++top] = w;
+                        next[top] = G.begin(w);
+                        rindex[w] = index++;
+                        root[w] = true;
+                    }
+                    else {
+                        if (rindex[w] < rindex[v]) {
+                            rindex[v] = rindex[w];
+                            root[v] = false;
+                        }
+                        next[top]++;
+                    }
+                    continue;
+                }
+
+                // v is done: pop it, and either close its component or leave it for its root
+                top--;
+                if (root[v]) {
+                    index--;
+                    while (bottom < V && rindex[v] <= rindex[stack[bottom]]) {
+                        rindex[stack[bottom++]] = c;
+                        index--;
+                    }
+                    rindex[v] = c--;
+                }
+                else {
+                    stack[--bottom] = v;
+                }
+
+                // finish the edge from v's parent to v
+                if (top >= 0) {
+                    int u = stack[top];
+                    if (rindex[v] < rindex[u]) {
+                        rindex[u] = rindex[v];
+                        root[u] = false;
+                    }
+                    next[top]++;
+                }
+            }
+        }
+
+        // renumber the components 0, 1, 2, ... in the order they were found
+        id = rindex;
+        count = V - 1 - c;
+        for (int v = 0; v < V; v++)
+            id[v] = (excluded != null && excluded[v]) ? -1 : V - 1 - rindex[v];
+    }
+
+    /**
+     * Returns the number of strong components.
+     * @return the number of strong components
+     */
+    public int count() {
+        return count;
+    }
+
+    /**
+     * Are vertices {@code v} and {@code w} in the same strong component?
+     * @param  v one vertex
+     * @param  w the other vertex
+     * @return {@code true} if vertices {@code v} and {@code w} are in the same
+     *         strong component, and {@code false} otherwise
+     * @throws IllegalArgumentException unless {@code 0 <= v < V}
+     * @throws IllegalArgumentException unless {@code 0 <= w < V}
+     */
+    public boolean stronglyConnected(int v, int w) {
+        validateVertex(v);
+        validateVertex(w);
+        return id[v] == id[w];
+    }
+
+    /**
+     * Returns the component id of the strong component containing vertex {@code v}.
+     * @param  v the vertex
+     * @return the component id of the strong component containing vertex {@code v}
+     * @throws IllegalArgumentException unless {@code 0 <= v < V}
+     */
+    public int id(int v) {
+        validateVertex(v);
+        return id[v];
+    }
+
+    // throw an IllegalArgumentException unless {@code 0 <= v < V}
+    private void validateVertex(int v) {
+        int V = id.length;
+        if (v < 0 || v >= V)
+            throw new IllegalArgumentException("vertex " + v + " is not between 0 and " + (V-1));
+    }
+
+    /**
+     * Unit tests the {@code PearceSCC} data type.
+     *
+     * @param args the command-line arguments
+     */
+    public static void main(String[] args) {
+        In in = new In(args[0]);
+        Digraph G = new Digraph(in);
+        PearceSCC scc = new PearceSCC(G);
+
+        // number of connected components
+        int m = scc.count();
+        StdOut.println(m + " strong components");
+
+        // compute list of vertices in each strong component
+        Queue<Integer>[] components = (Queue<Integer>[]) new Queue[m];
+        for (int i = 0; i < m; i++) {
+            components[i] = new Queue<Integer>();
+        }
+        for (int v = 0; v < G.V(); v++) {
+            components[scc.id(v)].enqueue(v);
+        }
+
+        // print results
+        for (int i = 0; i < m; i++) {
+            for (int v : components[i]) {
+                StdOut.print(v + " ");
+            }
+            StdOut.println();
+        }
+
+        // compare with Kosaraju-Sharir
+        KosarajuSharirSCC kosaraju = new KosarajuSharirSCC(G);
+        int errors = 0;
+        for (int v = 0; v < G.V(); v++)
+            for (int w = 0; w < G.V(); w++)
+                if (scc.stronglyConnected(v, w) != kosaraju.stronglyConnected(v, w)) errors++;
+        StdOut.println(errors + " disagreements with KosarajuSharirSCC");
+    }
+
+}
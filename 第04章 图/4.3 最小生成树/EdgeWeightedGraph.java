@@ -103,6 +103,19 @@ public class EdgeWeightedGraph {
         }
     }
 
+    // initializes an edge-weighted graph from CSR arrays holding both entries of each edge,
+    // so that adj(v) is arcs[offsets[v]..offsets[v+1]) in that order; the arrays are not retained
+    EdgeWeightedGraph(int[] offsets, Edge[] arcs) {
+        this(offsets.length - 1);
+        this.E = arcs.length / 2;
+        for (int v = 0; v < V; v++) {
+            // add in reverse, since a bag returns the last item added first
+            for (int i = offsets[v+1] - 1; i >= offsets[v]; i--) {
+                adj[v].add(arcs[i]);
+            }
+        }
+    }
+
 
     /**
      * Returns the number of vertices in this edge-weighted graph.
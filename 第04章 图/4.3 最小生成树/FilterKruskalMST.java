@@ -0,0 +1,228 @@
+public class FilterKruskalMST {
+    private static final double FLOATING_POINT_EPSILON = 1E-12;
+
+    // sort subarrays of at most this many edges by insertion sort
+    private static final int CUTOFF = 16;
+
+    private double weight;                        // weight of MST
+    private Queue<Edge> mst = new Queue<Edge>();  // edges in MST
+
+    // the edges, in the order of G.edges(), which breaks ties between equal weights
+    private Edge[] edges;
+    private int[] from, to;
+    private double[] weights;
+    private UF uf;
+    private int V;
+
+    /**
+     * Compute a minimum spanning tree (or forest) of an edge-weighted graph with
+     * Filter-Kruskal. Instead of sorting all the edges up front, it partitions them
+     * around a random pivot as in quicksort and runs on the lighter part first; then,
+     * before going on with the heavier part, it filters out the edges whose endpoints
+     * the lighter part has already connected. On most graphs that discards the bulk of
+     * the heavy edges without ever sorting them. The edges are indices into primitive
+     * arrays, not {@code Edge} objects in a {@code MinPQ}, and the tree is the same one,
+     * in the same order, that {@code KruskalMST} finds.
+     * @param G the edge-weighted graph
+     */
+    public FilterKruskalMST(EdgeWeightedGraph G) {
+        V = G.V();
+        int E = G.E();
+        edges = new Edge[E];
+        from = new int[E];
+        to = new int[E];
+        weights = new double[E];
+        int[] a = new int[E];
+        int t = 0;
+        for (Edge e : G.edges()) {
+            int v = e.either();
+            edges[t] = e;
+            from[t] = v;
+            to[t] = e.other(v);
+            weights[t] = e.weight();
+            a[t] = t;
+            t++;
+        }
+
+        uf = new UF(V);
+        filterKruskal(a, 0, E);
+
+        // check optimality conditions
+        assert check(G);
+    }
+
+    // run Kruskal's algorithm on the edges a[lo..hi-1]
+    private void filterKruskal(int[] a, int lo, int hi) {
+        while (hi - lo > CUTOFF) {
+            if (mst.size() == V - 1) return;
+
+            // partition around the median of three random edges: a[lo..m-1] < a[m] < a[m+1..hi-1]
+            int p = median(a, lo + StdRandom.uniform(hi - lo), lo + StdRandom.uniform(hi - lo),
+                           lo + StdRandom.uniform(hi - lo));
+            exch(a, p, hi - 1);
+            int pivot = a[hi - 1];
+            int m = lo;
+            for (int i = lo; i < hi - 1; i++)
+                if (less(a[i], pivot)) exch(a, i, m++);
+            exch(a, m, hi - 1);
+
+            // the lighter edges, then the pivot, then the heavier edges that survive the filter
+            filterKruskal(a, lo, m);
+            add(pivot);
+            lo = m + 1;
+            hi = filter(a, lo, hi);
+        }
+        if (mst.size() == V - 1) return;
+
+        for (int i = lo + 1; i < hi; i++)
+            for (int j = i; j > lo && less(a[j], a[j-1]); j--)
+                exch(a, j, j-1);
+        for (int i = lo; i < hi; i++)
+            add(a[i]);
+    }
+
+    // add edge e to the tree, unless it creates a cycle
+    private void add(int e) {
+        int v = uf.find(from[e]);
+        int w = uf.find(to[e]);
+        if (v != w) {
+            uf.union(v, w);              // merge v and w components
+            mst.enqueue(edges[e]);       // add edge e to mst
+            weight += weights[e];
+        }
+    }
+
+    // move the edges a[lo..hi-1] whose endpoints are not yet connected to the front; return the new end
+    private int filter(int[] a, int lo, int hi) {
+        int n = lo;
+        for (int i = lo; i < hi; i++)
+            if (uf.find(from[a[i]]) != uf.find(to[a[i]])) a[n++] = a[i];
+        return n;
+    }
+
+    // is edge e lighter than edge f? equal weights are ordered as in G.edges()
+    private boolean less(int e, int f) {
+        if (weights[e] < weights[f]) return true;
+        if (weights[e] > weights[f]) return false;
+        return e < f;
+    }
+
+    // the index, among i, j and k, of the median edge
+    private int median(int[] a, int i, int j, int k) {
+        if (less(a[i], a[j])) {
+            if (less(a[j], a[k])) return j;
+            return less(a[i], a[k]) ? k : i;
+        }
+        if (less(a[i], a[k])) return i;
+        return less(a[j], a[k]) ? k : j;
+    }
+
+    private static void exch(int[] a, int i, int j) {
+        int t = a[i];
+        a[i] = a[j];
+        a[j] = t;
+    }
+
+    /**
+     * Returns the edges in a minimum spanning tree (or forest).
+     * @return the edges in a minimum spanning tree (or forest) as
+     *    an iterable of edges
+     */
+    public Iterable<Edge> edges() {
+        return mst;
+    }
+
+    /**
+     * Returns the sum of the edge weights in a minimum spanning tree (or forest).
+     * @return the sum of the edge weights in a minimum spanning tree (or forest)
+     */
+    public double weight() {
+        return weight;
+    }
+
+    // check optimality conditions (takes time proportional to E V lg* V)
+    private boolean check(EdgeWeightedGraph G) {
+
+        // check total weight
+        double total = 0.0;
+        for (Edge e : edges()) {
+            total += e.weight();
+        }
+        if (Math.abs(total - weight()) > FLOATING_POINT_EPSILON) {
+            System.err.printf("Weight of edges does not equal weight(): %f vs. %f\n", total, weight());
+            return false;
+        }
+
+        // check that it is acyclic
+        UF uf = new UF(G.V());
+        for (Edge e : edges()) {
+            int v = e.either(), w = e.other(v);
+            if (uf.find(v) == uf.find(w)) {
+                System.err.println("Not a forest");
+                return false;
+            }
+            uf.union(v, w);
+        }
+
+        // check that it is a spanning forest
+        for (Edge e : G.edges()) {
+            int v = e.either(), w = e.other(v);
+            if (uf.find(v) != uf.find(w)) {
+                System.err.println("Not a spanning forest");
+                return false;
+            }
+        }
+
+        // check that it is a minimal spanning forest (cut optimality conditions)
+        for (Edge e : edges()) {
+
+            // all edges in MST except e
+            uf = new UF(G.V());
+            for (Edge f : mst) {
+                int x = f.either(), y = f.other(x);
+                if (f != e) uf.union(x, y);
+            }
+            
+            // check that e is min weight edge in crossing cut
+            for (Edge f : G.edges()) {
+                int x = f.either(), y = f.other(x);
+                if (uf.find(x) != uf.find(y)) {
+                    if (f.weight() < e.weight()) {
+                        System.err.println("Edge " + f + " violates cut optimality conditions");
+                        return false;
+                    }
+                }
+            }
+
+        }
+
+        return true;
+    }
+
+
+    /**
+     * Unit tests the {@code FilterKruskalMST} data type: compares it with
+     * {@code KruskalMST} and times both.
+     *
+     * @param args the command-line arguments
+     */
+    public static void main(String[] args) {
+        In in = new In(args[0]);
+        EdgeWeightedGraph G = new EdgeWeightedGraph(in);
+        Stopwatch sw = new Stopwatch();
+        FilterKruskalMST mst = new FilterKruskalMST(G);
+        double t1 = sw.elapsedTime();
+        sw = new Stopwatch();
+        KruskalMST kruskal = new KruskalMST(G);
+        double t2 = sw.elapsedTime();
+        if (G.V() <= 100) {
+            for (Edge e : mst.edges()) {
+                StdOut.println(e);
+            }
+        }
+        StdOut.printf("%.5f\n", mst.weight());
+        StdOut.printf("FilterKruskalMST %.3f s (%.5f), KruskalMST %.3f s (%.5f)\n",
+                      t1, mst.weight(), t2, kruskal.weight());
+    }
+
+}
@@ -0,0 +1,281 @@
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+public class ParallelBoruvkaMST {
+    private static final double FLOATING_POINT_EPSILON = 1E-12;
+
+    // process at most this many edges in one fork-join task
+    private static final int CUTOFF = 1 << 13;
+
+    private double weight;                        // weight of MST
+    private Queue<Edge> mst = new Queue<Edge>();  // edges in MST
+
+    // the edges, in the order of G.edges(), which breaks ties between equal weights;
+    // from[e] and to[e] are the components of the endpoints of e in the current round
+    private final Edge[] edges;
+    private final int[] from, to;
+    private final double[] weights;
+
+    // state of the current round
+    private final ConcurrentUF uf;
+    private final AtomicIntegerArray best;    // best[c] = lightest edge leaving component c, or -1
+    private final int[] chosen;               // the tree edges found so far
+    private final AtomicInteger size;         // number of tree edges found so far
+    private int[] live;                       // the edges between different components
+    private int[] next;                       // the edges that survive contraction
+    private final AtomicInteger count;        // number of edges that survive contraction
+
+    /**
+     * Compute a minimum spanning tree (or forest) of an edge-weighted graph,
+     * using the common fork-join pool.
+     * @param G the edge-weighted graph
+     */
+    public ParallelBoruvkaMST(EdgeWeightedGraph G) {
+        this(G, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Compute a minimum spanning tree (or forest) of an edge-weighted graph with
+     * Bor&#367;vka's algorithm, in parallel. In each round every component picks the
+     * lightest edge that leaves it, with an atomic minimum on a per-component slot;
+     * the picked edges are added to the tree and their components merged in a
+     * {@code ConcurrentUF}; then the edges are contracted, relabeling each endpoint by
+     * its new component and dropping the edges inside one component. Each round at
+     * least halves the number of components, and each phase of it runs on the pool.
+     * Ties between equal weights are broken by position in {@code G.edges()}, so the
+     * tree is the same one that {@code KruskalMST} finds.
+     * @param G the edge-weighted graph
+     * @param pool the pool that runs each round
+     * @throws IllegalArgumentException if {@code pool} is {@code null}
+     */
+    public ParallelBoruvkaMST(EdgeWeightedGraph G, ForkJoinPool pool) {
+        if (pool == null) throw new IllegalArgumentException("argument is null");
+        int V = G.V();
+        int E = G.E();
+        edges = new Edge[E];
+        from = new int[E];
+        to = new int[E];
+        weights = new double[E];
+        live = new int[E];
+        int n = 0;
+        for (Edge e : G.edges()) {
+            int v = e.either();
+            edges[n] = e;
+            from[n] = v;
+            to[n] = e.other(v);
+            weights[n] = e.weight();
+            live[n] = n;
+            n++;
+        }
+        next = new int[E];
+        count = new AtomicInteger();
+        uf = new ConcurrentUF(V);
+        best = new AtomicIntegerArray(V);
+        for (int v = 0; v < V; v++)
+            best.set(v, -1);
+        chosen = new int[Math.max(V - 1, 0)];
+        size = new AtomicInteger();
+
+        // drop self-loops, then contract until no edge is left between two components
+        pool.invoke(new Round(Round.CONTRACT, 0, n));
+        n = swap();
+        while (n > 0) {
+            pool.invoke(new Round(Round.PICK, 0, n));
+            pool.invoke(new Round(Round.LINK, 0, n));
+            pool.invoke(new Round(Round.CONTRACT, 0, n));
+            n = swap();
+        }
+
+        // the tree edges, in order of their position in G.edges()
+        int[] tree = java.util.Arrays.copyOf(chosen, size.get());
+        java.util.Arrays.sort(tree);
+        for (int e : tree) {
+            mst.enqueue(edges[e]);
+            weight += weights[e];
+        }
+
+        // check optimality conditions
+        assert check(G);
+    }
+
+    // make the surviving edges live; return how many there are
+    private int swap() {
+        int[] temp = live;
+        live = next;
+        next = temp;
+        int n = count.get();
+        count.set(0);
+        return n;
+    }
+
+    // one phase of a round, on the live edges lo..hi-1
+    private class Round extends RecursiveAction {
+        static final int PICK = 0, LINK = 1, CONTRACT = 2;
+        private final int phase, lo, hi;
+
+        Round(int phase, int lo, int hi) {
+            this.phase = phase;
+            this.lo = lo;
+            this.hi = hi;
+        }
+
+        @Override
+        protected void compute() {
+            if (hi - lo > CUTOFF) {
+                int mid = lo + (hi - lo) / 2;
+                invokeAll(new Round(phase, lo, mid), new Round(phase, mid, hi));
+                return;
+            }
+            if (phase == PICK) {
+                for (int i = lo; i < hi; i++) {
+                    int e = live[i];
+                    pick(from[e], e);
+                    pick(to[e], e);
+                }
+            }
+            else if (phase == LINK) {
+                // an edge picked by both its components is linked once; the picked edges form
+                // a forest, since the lightest edge out of each component is unique
+                for (int i = lo; i < hi; i++) {
+                    int e = live[i];
+                    if ((best.get(from[e]) == e || best.get(to[e]) == e) && uf.union(from[e], to[e]))
+                        chosen[size.getAndIncrement()] = e;
+                }
+            }
+            else {
+                int[] kept = new int[hi - lo];
+                int k = 0;
+                for (int i = lo; i < hi; i++) {
+                    int e = live[i];
+                    best.set(from[e], -1);
+                    best.set(to[e], -1);
+                    from[e] = uf.find(from[e]);
+                    to[e] = uf.find(to[e]);
+                    if (from[e] != to[e]) kept[k++] = e;
+                }
+                System.arraycopy(kept, 0, next, count.getAndAdd(k), k);
+            }
+        }
+    }
+
+    // make e the lightest edge leaving component c, if it is lighter than the current one
+    private void pick(int c, int e) {
+        while (true) {
+            int current = best.get(c);
+            if (current != -1 && !less(e, current)) return;
+            if (best.compareAndSet(c, current, e)) return;
+        }
+    }
+
+    // is edge e lighter than edge f? equal weights are ordered as in G.edges()
+    private boolean less(int e, int f) {
+        if (weights[e] < weights[f]) return true;
+        if (weights[e] > weights[f]) return false;
+        return e < f;
+    }
+
+    /**
+     * Returns the edges in a minimum spanning tree (or forest).
+     * @return the edges in a minimum spanning tree (or forest) as
+     *    an iterable of edges
+     */
+    public Iterable<Edge> edges() {
+        return mst;
+    }
+
+    /**
+     * Returns the sum of the edge weights in a minimum spanning tree (or forest).
+     * @return the sum of the edge weights in a minimum spanning tree (or forest)
+     */
+    public double weight() {
+        return weight;
+    }
+
+    // check optimality conditions (takes time proportional to E V lg* V)
+    private boolean check(EdgeWeightedGraph G) {
+
+        // check total weight
+        double total = 0.0;
+        for (Edge e : edges()) {
+            total += e.weight();
+        }
+        if (Math.abs(total - weight()) > FLOATING_POINT_EPSILON) {
+            System.err.printf("Weight of edges does not equal weight(): %f vs. %f\n", total, weight());
+            return false;
+        }
+
+        // check that it is acyclic
+        UF uf = new UF(G.V());
+        for (Edge e : edges()) {
+            int v = e.either(), w = e.other(v);
+            if (uf.find(v) == uf.find(w)) {
+                System.err.println("Not a forest");
+                return false;
+            }
+            uf.union(v, w);
+        }
+
+        // check that it is a spanning forest
+        for (Edge e : G.edges()) {
+            int v = e.either(), w = e.other(v);
+            if (uf.find(v) != uf.find(w)) {
+                System.err.println("Not a spanning forest");
+                return false;
+            }
+        }
+
+        // check that it is a minimal spanning forest (cut optimality conditions)
+        for (Edge e : edges()) {
+
+            // all edges in MST except e
+            uf = new UF(G.V());
+            for (Edge f : mst) {
+                int x = f.either(), y = f.other(x);
+                if (f != e) uf.union(x, y);
+            }
+            
+            // check that e is min weight edge in crossing cut
+            for (Edge f : G.edges()) {
+                int x = f.either(), y = f.other(x);
+                if (uf.find(x) != uf.find(y)) {
+                    if (f.weight() < e.weight()) {
+                        System.err.println("Edge " + f + " violates cut optimality conditions");
+                        return false;
+                    }
+                }
+            }
+
+        }
+
+        return true;
+    }
+
+
+    /**
+     * Unit tests the {@code ParallelBoruvkaMST} data type: compares it with
+     * {@code KruskalMST} and times both.
+     *
+     * @param args the command-line arguments
+     */
+    public static void main(String[] args) {
+        In in = new In(args[0]);
+        EdgeWeightedGraph G = new EdgeWeightedGraph(in);
+        Stopwatch sw = new Stopwatch();
+        ParallelBoruvkaMST mst = new ParallelBoruvkaMST(G);
+        double t1 = sw.elapsedTime();
+        sw = new Stopwatch();
+        KruskalMST kruskal = new KruskalMST(G);
+        double t2 = sw.elapsedTime();
+        if (G.V() <= 100) {
+            for (Edge e : mst.edges()) {
+                StdOut.println(e);
+            }
+        }
+        StdOut.printf("%.5f\n", mst.weight());
+        StdOut.printf("ParallelBoruvkaMST %.3f s (%.5f), KruskalMST %.3f s (%.5f)\n",
+                      t1, mst.weight(), t2, kruskal.weight());
+    }
+
+}
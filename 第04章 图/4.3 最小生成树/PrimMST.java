@@ -4,7 +4,7 @@ public class PrimMST {
     private Edge[] edgeTo;        // edgeTo[v] = shortest edge from tree vertex to non-tree vertex
     private double[] distTo;      // distTo[v] = weight of shortest such edge
     private boolean[] marked;     // marked[v] = true if v on tree, false otherwise
-    private IndexMinPQ<Double> pq;
+    private IndexDoubleMinPQ pq;  // priority queue of vertices, keyed by distTo[]
 
     /**
      * Compute a minimum spanning tree (or forest) of an edge-weighted graph.
@@ -14,7 +14,7 @@ public class PrimMST {
         edgeTo = new Edge[G.V()];
         distTo = new double[G.V()];
         marked = new boolean[G.V()];
-        pq = new IndexMinPQ<Double>(G.V());
+        pq = new IndexDoubleMinPQ(G.V());
         for (int v = 0; v < G.V(); v++)
             distTo[v] = Double.POSITIVE_INFINITY;
 
@@ -2,6 +2,10 @@ public class AcyclicLP {
     private double[] distTo;          // distTo[v] = distance  of longest s->v path
     private DirectedEdge[] edgeTo;    // edgeTo[v] = last edge on longest s->v path
 
+    // packed representation: edgeIndexTo[v] = index in packed of last edge on longest s->v path
+    private PackedEdgeWeightedDigraph packed;
+    private int[] edgeIndexTo;
+
     /**
      * Computes a longest paths tree from {@code s} to every other vertex in
      * the directed acyclic graph {@code G}.
@@ -30,6 +34,41 @@ public class AcyclicLP {
         }
     }
 
+    /**
+     * Computes a longest paths tree from {@code s} to every other vertex in
+     * the packed directed acyclic graph {@code G}.
+     * Edges are relaxed by index, so no object is allocated per edge.
+     * @param G the packed acyclic digraph
+     * @param s the source vertex
+     * @throws IllegalArgumentException if the digraph is not acyclic
+     * @throws IllegalArgumentException unless {@code 0 <= s < V}
+     */
+    public AcyclicLP(PackedEdgeWeightedDigraph G, int s) {
+        packed = G;
+        distTo = new double[G.V()];
+        edgeIndexTo = new int[G.V()];
+
+        validateVertex(s);
+
+        for (int v = 0; v < G.V(); v++) {
+            distTo[v] = Double.NEGATIVE_INFINITY;
+            edgeIndexTo[v] = -1;
+        }
+        distTo[s] = 0.0;
+
+        // relax vertices in topological order
+        Topological topological = new Topological(G);
+        if (!topological.hasOrder())
+            throw new IllegalArgumentException("Digraph is not acyclic.");
+        int[] order = new int[G.V()];
+        for (int v = 0; v < G.V(); v++)
+            order[topological.rank(v)] = v;
+        for (int v : order) {
+            for (int e = G.begin(v), end = G.end(v); e < end; e++)
+                relax(G, e);
+        }
+    }
+
     // relax edge e, but update if you find a *longer* path
     private void relax(DirectedEdge e) {
         int v = e.from(), w = e.to();
@@ -39,6 +78,15 @@ public class AcyclicLP {
         }       
     }
 
+    // relax edge with index e in packed digraph G, but update if you find a *longer* path
+    private void relax(PackedEdgeWeightedDigraph G, int e) {
+        int v = G.from(e), w = G.to(e);
+        if (distTo[w] < distTo[v] + G.weight(e)) {
+            distTo[w] = distTo[v] + G.weight(e);
+            edgeIndexTo[w] = e;
+        }
+    }
+
     /**
      * Returns the length of a longest path from the source vertex {@code s} to vertex {@code v}.
      * @param  v the destination vertex
@@ -74,6 +122,12 @@ public class AcyclicLP {
         validateVertex(v);
         if (!hasPathTo(v)) return null;
         Stack<DirectedEdge> path = new Stack<DirectedEdge>();
+        if (packed != null) {
+            for (int e = edgeIndexTo[v]; e != -1; e = edgeIndexTo[packed.from(e)]) {
+                path.push(packed.edge(e));
+            }
+            return path;
+        }
         for (DirectedEdge e = edgeTo[v]; e != null; e = edgeTo[e.from()]) {
             path.push(e);
         }
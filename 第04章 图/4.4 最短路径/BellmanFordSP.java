@@ -1,3 +1,5 @@
+import java.util.Arrays;
+
 public class BellmanFordSP {
     // for floating-point precision issues
     private static final double EPSILON = 1E-14;
@@ -9,6 +11,10 @@ public class BellmanFordSP {
     private int cost;                      // number of calls to relax()
     private Iterable<DirectedEdge> cycle;  // negative cycle (or null if no such cycle)
 
+    // packed representation: edgeIndexTo[v] = index in packed of last edge on shortest s->v path
+    private PackedEdgeWeightedDigraph packed;
+    private int[] edgeIndexTo;
+
     /**
      * Computes a shortest paths tree from {@code s} to every other vertex in
      * the edge-weighted digraph {@code G}.
@@ -37,6 +43,59 @@ public class BellmanFordSP {
         assert check(G, s);
     }
 
+    /**
+     * Computes a shortest paths tree from {@code s} to every other vertex in
+     * the packed edge-weighted digraph {@code G}.
+     * Edges are relaxed by index, and negative cycles are detected by walking the
+     * parent pointers in {@code edgeIndexTo[]}, so no object is allocated per edge.
+     * @param G the packed edge-weighted digraph
+     * @param s the source vertex
+     * @throws IllegalArgumentException unless {@code 0 <= s < V}
+     */
+    public BellmanFordSP(PackedEdgeWeightedDigraph G, int s) {
+        packed      = G;
+        distTo      = new double[G.V()];
+        edgeIndexTo = new int[G.V()];
+        onQueue     = new boolean[G.V()];
+        validateVertex(s);
+        for (int v = 0; v < G.V(); v++) {
+            distTo[v] = Double.POSITIVE_INFINITY;
+            edgeIndexTo[v] = -1;
+        }
+        distTo[s] = 0.0;
+
+        // Bellman-Ford algorithm, with a circular int[] queue (each vertex is on it at most once)
+        int[] q = new int[G.V()];
+        int[] stamp = new int[G.V()];
+        int head = 0, size = 1;
+        q[0] = s;
+        onQueue[s] = true;
+        while (size > 0 && !hasNegativeCycle()) {
+            int v = q[head];
+            head = (head + 1) % q.length;
+            size--;
+            onQueue[v] = false;
+            for (int e = G.begin(v), end = G.end(v); e < end; e++) {
+                int w = G.to(e);
+                if (distTo[w] > distTo[v] + G.weight(e) + EPSILON) {
+                    distTo[w] = distTo[v] + G.weight(e);
+                    edgeIndexTo[w] = e;
+                    if (!onQueue[w]) {
+                        q[(head + size) % q.length] = w;
+                        size++;
+                        onQueue[w] = true;
+                    }
+                }
+                if (++cost % G.V() == 0) {
+                    findNegativeCycle(G, stamp);
+                    if (hasNegativeCycle()) break;  // found a negative cycle
+                }
+            }
+        }
+
+        assert check(G, s);
+    }
+
     // relax vertex v and put other endpoints on queue if changed
     private void relax(EdgeWeightedDigraph G, int v) {
         for (DirectedEdge e : G.adj(v)) {
@@ -87,6 +146,34 @@ public class BellmanFordSP {
         cycle = finder.cycle();
     }
 
+    // by finding a cycle in the predecessor graph given by edgeIndexTo[]; every vertex has
+    // at most one parent, so following parent pointers from each vertex finds any cycle in O(V)
+    private void findNegativeCycle(PackedEdgeWeightedDigraph G, int[] stamp) {
+        int V = edgeIndexTo.length;
+        Arrays.fill(stamp, 0);
+        for (int v = 0; v < V; v++) {
+            if (stamp[v] != 0) continue;
+            int x = v;
+            while (x != -1 && stamp[x] == 0) {
+                stamp[x] = v + 1;
+                x = edgeIndexTo[x] == -1 ? -1 : G.from(edgeIndexTo[x]);
+            }
+
+            // reached a vertex first seen on this walk, so it lies on a cycle
+            if (x != -1 && stamp[x] == v + 1) {
+                Stack<DirectedEdge> path = new Stack<DirectedEdge>();
+                int y = x;
+                do {
+                    int e = edgeIndexTo[y];
+                    path.push(G.edge(e));
+                    y = G.from(e);
+                } while (y != x);
+                cycle = path;
+                return;
+            }
+        }
+    }
+
     /**
      * Returns the length of a shortest path from the source vertex {@code s} to vertex {@code v}.
      * @param  v the destination vertex
@@ -130,6 +217,12 @@ public class BellmanFordSP {
             throw new UnsupportedOperationException("Negative cost cycle exists");
         if (!hasPathTo(v)) return null;
         Stack<DirectedEdge> path = new Stack<DirectedEdge>();
+        if (packed != null) {
+            for (int e = edgeIndexTo[v]; e != -1; e = edgeIndexTo[packed.from(e)]) {
+                path.push(packed.edge(e));
+            }
+            return path;
+        }
         for (DirectedEdge e = edgeTo[v]; e != null; e = edgeTo[e.from()]) {
             path.push(e);
         }
@@ -200,6 +293,62 @@ public class BellmanFordSP {
         return true;
     }
 
+    // check optimality conditions for a packed edge-weighted digraph
+    private boolean check(PackedEdgeWeightedDigraph G, int s) {
+
+        // has a negative cycle
+        if (hasNegativeCycle()) {
+            double weight = 0.0;
+            for (DirectedEdge e : negativeCycle()) {
+                weight += e.weight();
+            }
+            if (weight >= 0.0) {
+                System.err.println("error: weight of negative cycle = " + weight);
+                return false;
+            }
+        }
+
+        // no negative cycle reachable from source
+        else {
+
+            // check that distTo[v] and edgeIndexTo[v] are consistent
+            if (distTo[s] != 0.0 || edgeIndexTo[s] != -1) {
+                System.err.println("distanceTo[s] and edgeTo[s] inconsistent");
+                return false;
+            }
+            for (int v = 0; v < G.V(); v++) {
+                if (v == s) continue;
+                if (edgeIndexTo[v] == -1 && distTo[v] != Double.POSITIVE_INFINITY) {
+                    System.err.println("distTo[] and edgeTo[] inconsistent");
+                    return false;
+                }
+            }
+
+            // check that all edges e = v->w satisfy distTo[w] <= distTo[v] + e.weight()
+            for (int e = 0; e < G.E(); e++) {
+                if (distTo[G.from(e)] + G.weight(e) < distTo[G.to(e)]) {
+                    System.err.println("edge " + G.edge(e) + " not relaxed");
+                    return false;
+                }
+            }
+
+            // check that all edges e = v->w on SPT satisfy distTo[w] == distTo[v] + e.weight()
+            for (int w = 0; w < G.V(); w++) {
+                int e = edgeIndexTo[w];
+                if (e == -1) continue;
+                if (w != G.to(e)) return false;
+                if (distTo[G.from(e)] + G.weight(e) != distTo[w]) {
+                    System.err.println("edge " + G.edge(e) + " on shortest path not tight");
+                    return false;
+                }
+            }
+        }
+
+        StdOut.println("Satisfies optimality conditions");
+        StdOut.println();
+        return true;
+    }
+
     // throw an IllegalArgumentException unless {@code 0 <= v < V}
     private void validateVertex(int v) {
         int V = distTo.length;
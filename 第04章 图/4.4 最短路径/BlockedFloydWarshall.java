@@ -0,0 +1,356 @@
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+public class BlockedFloydWarshall {
+    private static final int DEFAULT_BLOCK = 64;
+    private static final double FLOATING_POINT_EPSILON = 1.0E-12;
+
+    private final PackedEdgeWeightedDigraph G;
+    private final int V;
+    private final int B;               // side of each block
+    private final double[] dist;       // dist[s*V + t] = length of shortest s->t path
+    private final int[] via;           // via[s*V + t] = a vertex the shortest s->t path goes through,
+                                       // -2-e if it is edge e of G, or -1 if there is no such path
+    private boolean hasNegativeCycle;  // is there a negative cycle?
+
+    /**
+     * Computes a shortest paths tree from each vertex to every other vertex in
+     * the edge-weighted digraph {@code G}, using the common fork-join pool.
+     * If no such shortest path exists for some pair of vertices, it computes
+     * a negative cycle.
+     *
+     * @param  G the edge-weighted digraph
+     * @throws IllegalArgumentException if <em>V</em><sup>2</sup> entries do not fit in an array
+     */
+    public BlockedFloydWarshall(EdgeWeightedDigraph G) {
+        this(new PackedEdgeWeightedDigraph(G), DEFAULT_BLOCK, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Computes a shortest paths tree from each vertex to every other vertex in the
+     * packed edge-weighted digraph {@code G} with the Floyd-Warshall algorithm, on a
+     * flat <em>V</em>-by-<em>V</em> array. The matrix is processed in {@code blockSize}-by-{@code blockSize}
+     * tiles that fit in cache: for each diagonal tile in turn, the tile itself is closed
+     * first, then the tiles in its row and column, then all the others, and the tiles of
+     * each of the last two phases are independent, so they are updated in parallel.
+     *
+     * @param  G the packed edge-weighted digraph
+     * @param  blockSize the side of each tile
+     * @param  pool the pool that updates the tiles
+     * @throws IllegalArgumentException unless {@code blockSize >= 1}
+     * @throws IllegalArgumentException if {@code pool} is {@code null}
+     * @throws IllegalArgumentException if <em>V</em><sup>2</sup> entries do not fit in an array
+     */
+    public BlockedFloydWarshall(PackedEdgeWeightedDigraph G, int blockSize, ForkJoinPool pool) {
+        if (blockSize < 1) throw new IllegalArgumentException("block size must be positive: " + blockSize);
+        if (pool == null) throw new IllegalArgumentException("argument is null");
+        if ((long) G.V() * G.V() > Integer.MAX_VALUE - 8)
+            throw new IllegalArgumentException("too many vertices for a matrix on the heap: " + G.V());
+        this.G = G;
+        this.V = G.V();
+        this.B = blockSize;
+        dist = new double[V*V];
+        via = new int[V*V];
+
+        // initialize distances to infinity, and to the lightest edge (or 0 on the diagonal)
+        java.util.Arrays.fill(dist, Double.POSITIVE_INFINITY);
+        java.util.Arrays.fill(via, -1);
+        for (int e = 0; e < G.E(); e++) {
+            int i = G.from(e)*V + G.to(e);
+            if (G.weight(e) < dist[i]) {
+                dist[i] = G.weight(e);
+                via[i] = -2 - e;
+            }
+        }
+        for (int v = 0; v < V; v++) {
+            if (dist[v*V + v] >= 0.0) {
+                dist[v*V + v] = 0.0;
+                via[v*V + v] = -1;
+            }
+        }
+
+        int blocks = (V + B - 1) / B;
+        for (int k = 0; k < blocks; k++) {
+            update(k, k, k);
+            pool.invoke(new Phase(k, blocks, true, 0, blocks));
+            pool.invoke(new Phase(k, blocks, false, 0, blocks));
+        }
+
+        for (int v = 0; v < V; v++)
+            if (dist[v*V + v] < 0.0) hasNegativeCycle = true;
+
+        assert check();
+    }
+
+    // update, in parallel, the tiles in the row and column of diagonal tile k (cross),
+    // or all the others (!cross), for tile rows lo..hi-1
+    private class Phase extends RecursiveAction {
+        private final int k, blocks, lo, hi;
+        private final boolean cross;
+
+        Phase(int k, int blocks, boolean cross, int lo, int hi) {
+            this.k = k;
+            this.blocks = blocks;
+            this.cross = cross;
+            this.lo = lo;
+            this.hi = hi;
+        }
+
+        @Override
+        protected void compute() {
+            if (hi - lo > 1) {
+                int mid = lo + (hi - lo) / 2;
+                invokeAll(new Phase(k, blocks, cross, lo, mid),
+                          new Phase(k, blocks, cross, mid, hi));
+                return;
+            }
+            int i = lo;
+            if (cross) {
+                if (i == k) {
+                    for (int j = 0; j < blocks; j++)
+                        if (j != k) update(k, j, k);
+                }
+                else update(i, k, k);
+            }
+            else if (i != k) {
+                for (int j = 0; j < blocks; j++)
+                    if (j != k) update(i, j, k);
+            }
+        }
+    }
+
+    // relax tile (bi, bj) through the vertices of tile bk; an improved entry records k
+    // itself, since the last edge of the k->j path may change again before i->j is read
+    private void update(int bi, int bj, int bk) {
+        int iLo = bi*B, iHi = Math.min(iLo + B, V);
+        int jLo = bj*B, jHi = Math.min(jLo + B, V);
+        int kLo = bk*B, kHi = Math.min(kLo + B, V);
+        for (int k = kLo; k < kHi; k++) {
+            int kRow = k*V;
+            for (int i = iLo; i < iHi; i++) {
+                int iRow = i*V;
+                double dik = dist[iRow + k];
+                if (dik == Double.POSITIVE_INFINITY) continue;
+                for (int j = jLo; j < jHi; j++) {
+                    double d = dik + dist[kRow + j];
+                    if (d < dist[iRow + j]) {
+                        dist[iRow + j] = d;
+                        via[iRow + j] = k;
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Is there a negative cycle?
+     * @return {@code true} if there is a negative cycle, and {@code false} otherwise
+     */
+    public boolean hasNegativeCycle() {
+        return hasNegativeCycle;
+    }
+
+    /**
+     * Returns a negative cycle, or {@code null} if there is no such cycle.
+     * @return a negative cycle as an iterable of edges,
+     * or {@code null} if there is no such cycle
+     */
+    public Iterable<DirectedEdge> negativeCycle() {
+        // the predecessors are not reliable once a cycle is negative, so search from a
+        // vertex on one with the Bellman-Ford algorithm, which stops as soon as it closes it
+        for (int v = 0; v < V; v++) {
+            if (dist[v*V + v] < 0.0)
+                return new FastBellmanFordSP(G, v).negativeCycle();
+        }
+        return null;
+    }
+
+    /**
+     * Is there a path from the vertex {@code s} to vertex {@code t}?
+     * @param  s the source vertex
+     * @param  t the destination vertex
+     * @return {@code true} if there is a path from vertex {@code s}
+     *         to vertex {@code t}, and {@code false} otherwise
+     * @throws IllegalArgumentException unless {@code 0 <= s < V}
+     * @throws IllegalArgumentException unless {@code 0 <= t < V}
+     */
+    public boolean hasPath(int s, int t) {
+        validateVertex(s);
+        validateVertex(t);
+        return dist[s*V + t] < Double.POSITIVE_INFINITY;
+    }
+
+    /**
+     * Returns the length of a shortest path from vertex {@code s} to vertex {@code t}.
+     * @param  s the source vertex
+     * @param  t the destination vertex
+     * @return the length of a shortest path from vertex {@code s} to vertex {@code t};
+     *         {@code Double.POSITIVE_INFINITY} if no such path
+     * @throws UnsupportedOperationException if there is a negative cost cycle
+     * @throws IllegalArgumentException unless {@code 0 <= s < V}
+     * @throws IllegalArgumentException unless {@code 0 <= t < V}
+     */
+    public double dist(int s, int t) {
+        validateVertex(s);
+        validateVertex(t);
+        if (hasNegativeCycle())
+            throw new UnsupportedOperationException("Negative cost cycle exists");
+        return dist[s*V + t];
+    }
+
+    /**
+     * Returns a shortest path from vertex {@code s} to vertex {@code t}.
+     * @param  s the source vertex
+     * @param  t the destination vertex
+     * @return a shortest path from vertex {@code s} to vertex {@code t}
+     *         as an iterable of edges, and {@code null} if no such path
+     * @throws UnsupportedOperationException if there is a negative cost cycle
+     * @throws IllegalArgumentException unless {@code 0 <= s < V}
+     * @throws IllegalArgumentException unless {@code 0 <= t < V}
+     */
+    public Iterable<DirectedEdge> path(int s, int t) {
+        validateVertex(s);
+        validateVertex(t);
+        if (hasNegativeCycle())
+            throw new UnsupportedOperationException("Negative cost cycle exists");
+        if (!hasPath(s, t)) return null;
+
+        // split the path at its intermediate vertices, with an explicit stack of the
+        // pairs still to expand; a zero-weight cycle may appear in it, so cut out the
+        // edges back to a vertex that is reached twice
+        java.util.ArrayList<DirectedEdge> edges = new java.util.ArrayList<DirectedEdge>();
+        java.util.HashMap<Integer, Integer> at = new java.util.HashMap<Integer, Integer>();
+        at.put(s, 0);
+        Stack<Integer> pairs = new Stack<Integer>();
+        if (s != t) pairs.push(s*V + t);
+        while (!pairs.isEmpty()) {
+            int uw = pairs.pop();
+            int k = via[uw];
+            if (k >= 0) {
+                pairs.push(k*V + uw % V);
+                pairs.push(uw / V * V + k);
+                continue;
+            }
+            DirectedEdge e = G.edge(-2 - k);
+            Integer i = at.get(e.to());
+            if (i == null) {
+                edges.add(e);
+                at.put(e.to(), edges.size());
+            }
+            else {
+                while (edges.size() > i)
+                    at.remove(edges.remove(edges.size() - 1).to());
+            }
+        }
+        return edges;
+    }
+
+    /**
+     * Returns the matrix of shortest-path distances. It shares its storage with
+     * this object; use {@link DistanceMatrix#save(String)} to move it to a file.
+     * @return the distance matrix
+     */
+    public DistanceMatrix distances() {
+        return new DistanceMatrix(V, dist);
+    }
+
+    // check optimality conditions
+    private boolean check() {
+
+        // no negative cycle
+        if (!hasNegativeCycle()) {
+            for (int e = 0; e < G.E(); e++) {
+                int v = G.from(e), w = G.to(e);
+                for (int s = 0; s < V; s++) {
+                    double d = dist[s*V + v] + G.weight(e);
+                    if (dist[s*V + w] > d + FLOATING_POINT_EPSILON * Math.max(1.0, Math.abs(d))) {
+                        System.err.println("edge " + G.edge(e) + " is eligible");
+                        return false;
+                    }
+                }
+            }
+        }
+        return true;
+    }
+
+    // throw an IllegalArgumentException unless {@code 0 <= v < V}
+    private void validateVertex(int v) {
+        if (v < 0 || v >= V)
+            throw new IllegalArgumentException("vertex " + v + " is not between 0 and " + (V-1));
+    }
+
+    // count the pairs s, t with a path that is not a simple path from s to t of length dist(s, t)
+    private static int wrongPaths(BlockedFloydWarshall fw, int V) {
+        int errors = 0;
+        int[] marked = new int[V];      // marked[v] == pair iff v is on the path of this pair
+        int pair = 0;
+        for (int s = 0; s < V; s++) {
+            for (int t = 0; t < V; t++) {
+                if (!fw.hasPath(s, t)) continue;
+                marked[s] = ++pair;
+                int v = s;
+                double length = 0.0;
+                for (DirectedEdge e : fw.path(s, t)) {
+                    if (e.from() != v || marked[e.to()] == pair) errors++;
+                    v = e.to();
+                    marked[v] = pair;
+                    length += e.weight();
+                }
+                if (v != t || Math.abs(length - fw.dist(s, t)) > 1E-9) errors++;
+            }
+        }
+        return errors;
+    }
+
+    /**
+     * Unit tests the {@code BlockedFloydWarshall} data type: compares it with
+     * {@code JohnsonAllPairsSP}, checks every path, checks every path again with
+     * the weights set to zero, so that every cycle has zero weight and must be cut
+     * out of the paths, and prints the shortest path between two vertices.
+     *
+     * @param args the command-line arguments
+     */
+    public static void main(String[] args) {
+        In in = new In(args[0]);
+        PackedEdgeWeightedDigraph G = new PackedEdgeWeightedDigraph(in);
+        int B = (args.length > 1) ? Integer.parseInt(args[1]) : DEFAULT_BLOCK;
+
+        Stopwatch sw = new Stopwatch();
+        BlockedFloydWarshall fw = new BlockedFloydWarshall(G, B, ForkJoinPool.commonPool());
+        double t1 = sw.elapsedTime();
+        if (fw.hasNegativeCycle()) {
+            StdOut.println("Negative cost cycle:");
+            for (DirectedEdge e : fw.negativeCycle())
+                StdOut.println(e);
+            return;
+        }
+
+        sw = new Stopwatch();
+        JohnsonAllPairsSP johnson = new JohnsonAllPairsSP(G);
+        double t2 = sw.elapsedTime();
+        int errors = 0;
+        for (int s = 0; s < G.V(); s++)
+            for (int t = 0; t < G.V(); t++)
+                if (Math.abs(fw.dist(s, t) - johnson.dist(s, t)) > 1E-9 && fw.dist(s, t) != johnson.dist(s, t))
+                    errors++;
+        StdOut.printf("%d vertices: Floyd-Warshall %.3f s, Johnson %.3f s, %d disagreements\n",
+                      G.V(), t1, t2, errors);
+
+        // the same edges with weight zero
+        int[] tails = new int[G.E()], heads = new int[G.E()];
+        for (int e = 0; e < G.E(); e++) {
+            tails[e] = G.from(e);
+            heads[e] = G.to(e);
+        }
+        PackedEdgeWeightedDigraph zero = new PackedEdgeWeightedDigraph(G.V(), tails, heads, new double[G.E()]);
+        BlockedFloydWarshall fw0 = new BlockedFloydWarshall(zero, B, ForkJoinPool.commonPool());
+        StdOut.printf("%d wrong paths, %d with zero weights\n", wrongPaths(fw, G.V()), wrongPaths(fw0, G.V()));
+
+        if (G.V() > 1 && fw.hasPath(0, G.V()-1)) {
+            StdOut.printf("0 to %d (%5.2f)  ", G.V()-1, fw.dist(0, G.V()-1));
+            for (DirectedEdge e : fw.path(0, G.V()-1))
+                StdOut.print(e + "  ");
+            StdOut.println();
+        }
+    }
+}
@@ -0,0 +1,319 @@
+import java.util.NoSuchElementException;
+
+public class CSRDigraph {
+    private static final String NEWLINE = System.getProperty("line.separator");
+
+    private final int V;           // number of vertices in this digraph
+    private final int E;           // number of edges in this digraph
+    private final int[] offsets;   // edges from v are targets[offsets[v]..offsets[v+1])
+    private final int[] targets;   // concatenated adjacency lists, E entries
+    private final int[] indegree;  // indegree[v] = indegree of vertex v
+
+    /**
+     * Initializes a digraph from the specified input stream.
+     * The format is the number of vertices <em>V</em>,
+     * followed by the number of edges <em>E</em>,
+     * followed by <em>E</em> pairs of vertices, with each entry separated by whitespace.
+     *
+     * @param  in the input stream
+     * @throws IllegalArgumentException if {@code in} is {@code null}
+     * @throws IllegalArgumentException if the endpoints of any edge are not in prescribed range
+     * @throws IllegalArgumentException if the number of vertices or edges is negative
+     * @throws IllegalArgumentException if the input stream is in the wrong format
+     */
+    public CSRDigraph(In in) {
+        if (in == null) throw new IllegalArgumentException("argument is null");
+        int[] tails, heads;
+        try {
+            this.V = in.readInt();
+            if (V < 0) throw new IllegalArgumentException("number of vertices in a Digraph must be nonnegative");
+            this.E = in.readInt();
+            if (E < 0) throw new IllegalArgumentException("number of edges in a Digraph must be nonnegative");
+            tails = new int[E];
+            heads = new int[E];
+            for (int i = 0; i < E; i++) {
+                tails[i] = in.readInt();
+                heads[i] = in.readInt();
+            }
+        }
+        catch (NoSuchElementException e) {
+            throw new IllegalArgumentException("invalid input format in CSRDigraph constructor", e);
+        }
+        offsets  = new int[V+1];
+        targets  = new int[E];
+        indegree = new int[V];
+        build(tails, heads);
+    }
+
+    /**
+     * Initializes a digraph with {@code V} vertices from a stream of edges,
+     * given as two parallel arrays: edge {@code i} is {@code tails[i]->heads[i]}.
+     * The arrays are not retained.
+     *
+     * @param  V the number of vertices
+     * @param  tails the tail vertex of each edge
+     * @param  heads the head vertex of each edge
+     * @throws IllegalArgumentException if {@code V < 0}
+     * @throws IllegalArgumentException if either array is {@code null}
+     *         or the arrays have different lengths
+     * @throws IllegalArgumentException if the endpoints of any edge are not in prescribed range
+     */
+    public CSRDigraph(int V, int[] tails, int[] heads) {
+        if (V < 0) throw new IllegalArgumentException("Number of vertices in a Digraph must be nonnegative");
+        if (tails == null || heads == null) throw new IllegalArgumentException("argument is null");
+        if (tails.length != heads.length) throw new IllegalArgumentException("edge arrays have different lengths");
+        this.V = V;
+        this.E = tails.length;
+        offsets  = new int[V+1];
+        targets  = new int[E];
+        indegree = new int[V];
+        build(tails, heads);
+    }
+
+    /**
+     * Initializes a new digraph that is a compact copy of {@code G}.
+     * The adjacency lists are in the same order as in {@code G}.
+     *
+     * @param  G the digraph to copy
+     * @throws IllegalArgumentException if {@code G} is {@code null}
+     */
+    public CSRDigraph(Digraph G) {
+        if (G == null) throw new IllegalArgumentException("argument is null");
+        this.V = G.V();
+        this.E = G.E();
+        offsets  = new int[V+1];
+        targets  = new int[E];
+        indegree = new int[V];
+        for (int v = 0; v < V; v++) {
+            offsets[v+1] = offsets[v] + G.outdegree(v);
+            indegree[v] = G.indegree(v);
+        }
+        for (int v = 0; v < V; v++) {
+            int i = offsets[v];
+            for (int w : G.adj(v))
+                targets[i++] = w;
+        }
+    }
+
+    // initializes a digraph directly from its CSR arrays, which are retained
+    CSRDigraph(int[] offsets, int[] targets) {
+        this.V = offsets.length - 1;
+        this.E = targets.length;
+        this.offsets = offsets;
+        this.targets = targets;
+        this.indegree = new int[V];
+        for (int i = 0; i < E; i++)
+            indegree[targets[i]]++;
+    }
+
+    // fill offsets[] and targets[] from the edge arrays with a counting sort on the tails
+    private void build(int[] tails, int[] heads) {
+        for (int i = 0; i < E; i++) {
+            validateVertex(tails[i]);
+            validateVertex(heads[i]);
+            offsets[tails[i]+1]++;
+            indegree[heads[i]]++;
+        }
+        for (int v = 0; v < V; v++)
+            offsets[v+1] += offsets[v];
+
+        int[] next = new int[V];
+        System.arraycopy(offsets, 0, next, 0, V);
+        for (int i = 0; i < E; i++)
+            targets[next[tails[i]]++] = heads[i];
+    }
+
+    /**
+     * Returns the number of vertices in this digraph.
+     *
+     * @return the number of vertices in this digraph
+     */
+    public int V() {
+        return V;
+    }
+
+    /**
+     * Returns the number of edges in this digraph.
+     *
+     * @return the number of edges in this digraph
+     */
+    public int E() {
+        return E;
+    }
+
+    // throw an IllegalArgumentException unless {@code 0 <= v < V}
+    private void validateVertex(int v) {
+        if (v < 0 || v >= V)
+            throw new IllegalArgumentException("vertex " + v + " is not between 0 and " + (V-1));
+    }
+
+    /**
+     * Returns the vertices adjacent from vertex {@code v}, as a primitive cursor.
+     *
+     * @param  v the vertex
+     * @return a cursor over the vertices adjacent from vertex {@code v}
+     * @throws IllegalArgumentException unless {@code 0 <= v < V}
+     */
+    public Cursor adj(int v) {
+        Cursor cursor = new Cursor();
+        cursor.reset(v);
+        return cursor;
+    }
+
+    /**
+     * Returns the index in {@link #target(int)} of the first edge incident from {@code v}.
+     * The vertices adjacent from {@code v} are {@code target(i)} for
+     * {@code begin(v) <= i < end(v)}.
+     *
+     * @param  v the vertex
+     * @return the index of the first edge incident from {@code v}
+     * @throws IllegalArgumentException unless {@code 0 <= v < V}
+     */
+    public int begin(int v) {
+        validateVertex(v);
+        return offsets[v];
+    }
+
+    /**
+     * Returns one past the index in {@link #target(int)} of the last edge incident from {@code v}.
+     *
+     * @param  v the vertex
+     * @return one past the index of the last edge incident from {@code v}
+     * @throws IllegalArgumentException unless {@code 0 <= v < V}
+     */
+    public int end(int v) {
+        validateVertex(v);
+        return offsets[v+1];
+    }
+
+    /**
+     * Returns the head vertex of the edge at index {@code i}.
+     *
+     * @param  i the index, between {@code 0} and {@code E - 1}
+     * @return the head vertex of the edge stored at index {@code i}
+     */
+    public int target(int i) {
+        return targets[i];
+    }
+
+    /**
+     * Returns the number of directed edges incident from vertex {@code v}.
+     * This is known as the <em>outdegree</em> of vertex {@code v}.
+     *
+     * @param  v the vertex
+     * @return the outdegree of vertex {@code v}
+     * @throws IllegalArgumentException unless {@code 0 <= v < V}
+     */
+    public int outdegree(int v) {
+        validateVertex(v);
+        return offsets[v+1] - offsets[v];
+    }
+
+    /**
+     * Returns the number of directed edges incident to vertex {@code v}.
+     * This is known as the <em>indegree</em> of vertex {@code v}.
+     *
+     * @param  v the vertex
+     * @return the indegree of vertex {@code v}
+     * @throws IllegalArgumentException unless {@code 0 <= v < V}
+     */
+    public int indegree(int v) {
+        validateVertex(v);
+        return indegree[v];
+    }
+
+    /**
+     * Returns the reverse of the digraph.
+     *
+     * @return the reverse of the digraph
+     */
+    public CSRDigraph reverse() {
+        int[] rOffsets = new int[V+1];
+        int[] rTargets = new int[E];
+        for (int v = 0; v < V; v++)
+            rOffsets[v+1] = rOffsets[v] + indegree[v];
+        int[] next = new int[V];
+        System.arraycopy(rOffsets, 0, next, 0, V);
+        for (int v = 0; v < V; v++)
+            for (int i = offsets[v]; i < offsets[v+1]; i++)
+                rTargets[next[targets[i]]++] = v;
+        return new CSRDigraph(rOffsets, rTargets);
+    }
+
+    /**
+     * A reusable cursor over one adjacency list that returns primitive {@code int}s.
+     */
+    public final class Cursor {
+        private int i;      // index of next entry in targets[]
+        private int end;    // one past the last entry in targets[]
+
+        private Cursor() { }
+
+        /**
+         * Repositions this cursor at the start of the adjacency list of {@code v}.
+         *
+         * @param  v the vertex
+         * @throws IllegalArgumentException unless {@code 0 <= v < V}
+         */
+        public void reset(int v) {
+            validateVertex(v);
+            i = offsets[v];
+            end = offsets[v+1];
+        }
+
+        /**
+         * Are there more adjacent vertices?
+         *
+         * @return {@code true} if there are more adjacent vertices; {@code false} otherwise
+         */
+        public boolean hasNext() {
+            return i < end;
+        }
+
+        /**
+         * Returns the next adjacent vertex.
+         *
+         * @return the next adjacent vertex
+         * @throws NoSuchElementException if there are no more adjacent vertices
+         */
+        public int next() {
+            if (!hasNext()) throw new NoSuchElementException();
+            return targets[i++];
+        }
+    }
+
+    // the arrays themselves, not copies, for engines that scan them directly; do not modify
+    int[] offsets() { return offsets; }
+    int[] targets() { return targets; }
+
+    /**
+     * Returns a string representation of the graph.
+     *
+     * @return the number of vertices <em>V</em>, followed by the number of edges <em>E</em>,
+     *         followed by the <em>V</em> adjacency lists
+     */
+    public String toString() {
+        StringBuilder s = new StringBuilder();
+        s.append(V + " vertices, " + E + " edges " + NEWLINE);
+        for (int v = 0; v < V; v++) {
+            s.append(String.format("%d: ", v));
+            for (int i = offsets[v]; i < offsets[v+1]; i++) {
+                s.append(String.format("%d ", targets[i]));
+            }
+            s.append(NEWLINE);
+        }
+        return s.toString();
+    }
+
+    /**
+     * Unit tests the {@code CSRDigraph} data type.
+     *
+     * @param args the command-line arguments
+     */
+    public static void main(String[] args) {
+        In in = new In(args[0]);
+        CSRDigraph G = new CSRDigraph(in);
+        StdOut.println(G);
+    }
+
+}
\ No newline at end of file
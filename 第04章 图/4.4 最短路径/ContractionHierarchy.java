@@ -0,0 +1,467 @@
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+
+public class ContractionHierarchy {
+    private static final int MAGIC = 0x43480001;       // "CH", format version 1
+    private static final int SETTLE_LIMIT = 500;       // vertices a witness search may settle
+    private static final int ESTIMATE_LIMIT = 50;      // the same, when only estimating a priority
+
+    private final int V;               // number of vertices
+    private final int E;               // number of edges of the original digraph
+    private final int M;               // number of edges, original and shortcuts
+    private final int[] rank;          // rank[v] = position of v in the contraction order
+    private final int[] from;          // from[e]   = tail vertex of edge e
+    private final int[] to;            // to[e]     = head vertex of edge e
+    private final double[] weight;     // weight[e] = weight of edge e
+    private final int[] first;         // shortcut e stands for edges first[e], second[e]; -1 if e is original
+    private final int[] second;
+
+    // upward edges u->w (rank[u] < rank[w]) are up[upStart[u]..upStart[u+1]-1];
+    // downward edges w->u (rank[w] > rank[u]) are down[downStart[u]..downStart[u+1]-1]
+    private int[] upStart, up;
+    private int[] downStart, down;
+
+    // state used only while contracting
+    private int m;
+    private int[] f, t, c1, c2;
+    private double[] w;
+    private IntList[] out, in;
+    private boolean[] contracted;
+    private int[] deletedNeighbors;
+    private int[] touched;
+    private double[] dist;
+    private int[] seen;
+    private int search;
+    private IndexDoubleMinPQ witnessPQ;
+
+    /**
+     * Preprocesses the edge-weighted digraph {@code G} into a contraction hierarchy.
+     *
+     * @param  G the edge-weighted digraph
+     * @throws IllegalArgumentException if an edge weight is negative
+     */
+    public ContractionHierarchy(EdgeWeightedDigraph G) {
+        this(new PackedEdgeWeightedDigraph(G));
+    }
+
+    /**
+     * Preprocesses the packed edge-weighted digraph {@code G} into a contraction hierarchy.
+     * Vertices are contracted one at a time in increasing order of <em>edge difference</em>
+     * (the number of shortcuts contracting the vertex would add minus the number of edges
+     * it would remove) plus the number of neighbors already contracted, with priorities
+     * updated lazily. Contracting {@code v} adds a shortcut {@code u->w} for each pair of
+     * edges {@code u->v->w} unless a bounded Dijkstra search from {@code u} that avoids
+     * {@code v} finds a path to {@code w} that is no longer (a <em>witness</em>).
+     *
+     * @param  G the packed edge-weighted digraph
+     * @throws IllegalArgumentException if an edge weight is negative
+     */
+    public ContractionHierarchy(PackedEdgeWeightedDigraph G) {
+        V = G.V();
+        E = G.E();
+        rank = new int[V];
+
+        m = 0;
+        f = new int[Math.max(E, 16)];
+        t = new int[f.length];
+        c1 = new int[f.length];
+        c2 = new int[f.length];
+        w = new double[f.length];
+        out = new IntList[V];
+        in = new IntList[V];
+        for (int v = 0; v < V; v++) {
+            out[v] = new IntList();
+            in[v] = new IntList();
+        }
+        for (int e = 0; e < E; e++) {
+            if (G.weight(e) < 0)
+                throw new IllegalArgumentException("edge " + G.edge(e) + " has negative weight");
+            addEdge(G.from(e), G.to(e), G.weight(e), -1, -1);
+        }
+        contract();
+
+        M = m;
+        from = trim(f, m);
+        to = trim(t, m);
+        first = trim(c1, m);
+        second = trim(c2, m);
+        weight = new double[m];
+        System.arraycopy(w, 0, weight, 0, m);
+        f = t = c1 = c2 = null;
+        w = null;
+        out = in = null;
+        contracted = null;
+        deletedNeighbors = null;
+        touched = null;
+        dist = null;
+        seen = null;
+        witnessPQ = null;
+        buildSearchGraphs();
+    }
+
+    // the hierarchy read from a file
+    private ContractionHierarchy(int V, int E, int[] rank, int[] from, int[] to, double[] weight,
+                                 int[] first, int[] second) {
+        this.V = V;
+        this.E = E;
+        this.M = from.length;
+        this.rank = rank;
+        this.from = from;
+        this.to = to;
+        this.weight = weight;
+        this.first = first;
+        this.second = second;
+        buildSearchGraphs();
+    }
+
+    private static int[] trim(int[] a, int n) {
+        int[] b = new int[n];
+        System.arraycopy(a, 0, b, 0, n);
+        return b;
+    }
+
+    // add edge u->v while contracting and return its index
+    private int addEdge(int u, int v, double x, int e1, int e2) {
+        if (m == f.length) {
+            int n = 2*m;
+            f = java.util.Arrays.copyOf(f, n);
+            t = java.util.Arrays.copyOf(t, n);
+            c1 = java.util.Arrays.copyOf(c1, n);
+            c2 = java.util.Arrays.copyOf(c2, n);
+            w = java.util.Arrays.copyOf(w, n);
+        }
+        f[m] = u;
+        t[m] = v;
+        w[m] = x;
+        c1[m] = e1;
+        c2[m] = e2;
+        out[u].add(m);
+        in[v].add(m);
+        return m++;
+    }
+
+    // contract every vertex, in order of lazily updated priority
+    private void contract() {
+        contracted = new boolean[V];
+        deletedNeighbors = new int[V];
+        touched = new int[V];
+        dist = new double[V];
+        seen = new int[V];
+        witnessPQ = new IndexDoubleMinPQ(V);
+        IndexDoubleMinPQ order = new IndexDoubleMinPQ(V);
+        for (int v = 0; v < V; v++)
+            order.insert(v, priority(v));
+
+        int next = 0;
+        while (!order.isEmpty()) {
+            int v = order.minIndex();
+            double p = priority(v);
+            if (p != order.minKey()) {
+                // the priority changed since it was last computed; contract v only if it is still the minimum
+                order.changeKey(v, p);
+                if (order.minIndex() != v) continue;
+            }
+            order.delMin();
+            rank[v] = next++;
+            shortcuts(v, true);
+            contracted[v] = true;
+
+            // the neighbors' priorities change the most, so update them now
+            for (int i = 0; i < out[v].size(); i++)
+                touch(t[out[v].get(i)], next, order);
+            for (int i = 0; i < in[v].size(); i++)
+                touch(f[in[v].get(i)], next, order);
+        }
+    }
+
+    // count the contraction of a neighbor of x, once per contraction
+    private void touch(int x, int stamp, IndexDoubleMinPQ order) {
+        if (contracted[x] || touched[x] == stamp) return;
+        touched[x] = stamp;
+        deletedNeighbors[x]++;
+        order.changeKey(x, priority(x));
+    }
+
+    // edge difference plus number of contracted neighbors
+    private double priority(int v) {
+        int removed = 0;
+        for (int i = 0; i < out[v].size(); i++)
+            if (!contracted[t[out[v].get(i)]]) removed++;
+        for (int i = 0; i < in[v].size(); i++)
+            if (!contracted[f[in[v].get(i)]]) removed++;
+        return shortcuts(v, false) - removed + deletedNeighbors[v];
+    }
+
+    // count, and if add is true also add, the shortcuts needed to contract v
+    private int shortcuts(int v, boolean add) {
+        int count = 0;
+        IntList outs = out[v], ins = in[v];
+        for (int i = 0; i < ins.size(); i++) {
+            int eIn = ins.get(i);
+            int u = f[eIn];
+            if (contracted[u] || u == v) continue;
+
+            double max = -1.0;
+            for (int j = 0; j < outs.size(); j++) {
+                int x = t[outs.get(j)];
+                if (!contracted[x] && x != v && x != u) max = Math.max(max, w[eIn] + w[outs.get(j)]);
+            }
+            if (max < 0.0) continue;
+            witnessSearch(u, v, max, add ? SETTLE_LIMIT : ESTIMATE_LIMIT);
+
+            for (int j = 0; j < outs.size(); j++) {
+                int eOut = outs.get(j);
+                int x = t[eOut];
+                if (contracted[x] || x == v || x == u) continue;
+                double length = w[eIn] + w[eOut];
+                if (seen[x] == search && dist[x] <= length) continue;    // there is a witness
+                count++;
+                if (add) {
+                    addEdge(u, x, length, eIn, eOut);
+                    // later pairs through v may use this shortcut as their witness
+                    dist[x] = length;
+                    seen[x] = search;
+                }
+            }
+        }
+        return count;
+    }
+
+    // Dijkstra from s in the remaining digraph, avoiding vertex skip, that stops
+    // after settling limit vertices or passing distance max
+    private void witnessSearch(int s, int skip, double max, int limit) {
+        search++;
+        dist[s] = 0.0;
+        seen[s] = search;
+        witnessPQ.insert(s, 0.0);
+        int settled = 0;
+        while (!witnessPQ.isEmpty() && settled < limit) {
+            if (witnessPQ.minKey() > max) break;
+            int v = witnessPQ.delMin();
+            settled++;
+            for (int i = 0; i < out[v].size(); i++) {
+                int e = out[v].get(i);
+                int x = t[e];
+                if (contracted[x] || x == skip) continue;
+                double d = dist[v] + w[e];
+                if (seen[x] != search || d < dist[x]) {
+                    dist[x] = d;
+                    seen[x] = search;
+                    if (witnessPQ.contains(x)) witnessPQ.decreaseKey(x, d);
+                    else                       witnessPQ.insert(x, d);
+                }
+            }
+        }
+        witnessPQ.clear();
+    }
+
+    // the upward and downward search graphs, in compressed sparse row form
+    private void buildSearchGraphs() {
+        upStart = new int[V+1];
+        downStart = new int[V+1];
+        for (int e = 0; e < M; e++) {
+            if      (rank[from[e]] < rank[to[e]]) upStart[from[e]+1]++;
+            else if (rank[from[e]] > rank[to[e]]) downStart[to[e]+1]++;
+        }
+        for (int v = 0; v < V; v++) {
+            upStart[v+1] += upStart[v];
+            downStart[v+1] += downStart[v];
+        }
+        up = new int[upStart[V]];
+        down = new int[downStart[V]];
+        int[] nextUp = java.util.Arrays.copyOf(upStart, V);
+        int[] nextDown = java.util.Arrays.copyOf(downStart, V);
+        for (int e = 0; e < M; e++) {
+            if      (rank[from[e]] < rank[to[e]]) up[nextUp[from[e]]++] = e;
+            else if (rank[from[e]] > rank[to[e]]) down[nextDown[to[e]]++] = e;
+        }
+    }
+
+    /**
+     * Returns the number of vertices.
+     * @return the number of vertices
+     */
+    public int V() {
+        return V;
+    }
+
+    /**
+     * Returns the number of edges of the original digraph.
+     * @return the number of edges of the original digraph
+     */
+    public int E() {
+        return E;
+    }
+
+    /**
+     * Returns the number of shortcuts added by the preprocessing.
+     * @return the number of shortcuts
+     */
+    public int shortcuts() {
+        return M - E;
+    }
+
+    /**
+     * Returns the rank of vertex {@code v}: the number of vertices contracted before it.
+     *
+     * @param  v the vertex
+     * @return the rank of {@code v}
+     * @throws IllegalArgumentException unless {@code 0 <= v < V}
+     */
+    public int rank(int v) {
+        validateVertex(v);
+        return rank[v];
+    }
+
+    // the search graphs and edges, for ContractionHierarchySP
+    int upBegin(int v)      { return upStart[v];     }
+    int upEnd(int v)        { return upStart[v+1];   }
+    int upEdge(int i)       { return up[i];          }
+    int downBegin(int v)    { return downStart[v];   }
+    int downEnd(int v)      { return downStart[v+1]; }
+    int downEdge(int i)     { return down[i];        }
+    int from(int e)         { return from[e];        }
+    int to(int e)           { return to[e];          }
+    double weight(int e)    { return weight[e];      }
+
+    // append the original edges that edge e stands for to path, in order
+    void unpack(int e, Queue<DirectedEdge> path) {
+        Stack<Integer> stack = new Stack<Integer>();
+        stack.push(e);
+        while (!stack.isEmpty()) {
+            int x = stack.pop();
+            if (first[x] == -1) {
+                path.enqueue(new DirectedEdge(from[x], to[x], weight[x]));
+            }
+            else {
+                stack.push(second[x]);
+                stack.push(first[x]);
+            }
+        }
+    }
+
+    /**
+     * Writes this contraction hierarchy to the named file: a header with a format
+     * number, <em>V</em>, <em>E</em> and the number of edges including shortcuts,
+     * then the ranks, then for each edge its endpoints, weight and the two edges it
+     * shortcuts. The search graphs are rebuilt from the edges when the file is read.
+     *
+     * @param  filename the name of the file
+     * @throws IllegalArgumentException if the file cannot be written
+     */
+    public void write(String filename) {
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(filename)))) {
+            out.writeInt(MAGIC);
+            out.writeInt(V);
+            out.writeInt(E);
+            out.writeInt(M);
+            for (int v = 0; v < V; v++)
+                out.writeInt(rank[v]);
+            for (int e = 0; e < M; e++) {
+                out.writeInt(from[e]);
+                out.writeInt(to[e]);
+                out.writeDouble(weight[e]);
+                out.writeInt(first[e]);
+                out.writeInt(second[e]);
+            }
+        }
+        catch (IOException ioe) {
+            throw new IllegalArgumentException("could not write " + filename, ioe);
+        }
+    }
+
+    /**
+     * Reads a contraction hierarchy from the named file, written by {@link #write(String)}.
+     *
+     * @param  filename the name of the file
+     * @return the contraction hierarchy
+     * @throws IllegalArgumentException if the file cannot be read or is not in the right format
+     */
+    public static ContractionHierarchy read(String filename) {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(filename)))) {
+            if (in.readInt() != MAGIC) throw new IllegalArgumentException(filename + " is not a contraction hierarchy");
+            int V = in.readInt();
+            int E = in.readInt();
+            int M = in.readInt();
+            if (V < 0 || E < 0 || M < E) throw new IllegalArgumentException("invalid header in " + filename);
+            int[] rank = new int[V];
+            boolean[] ranked = new boolean[V];
+            for (int v = 0; v < V; v++) {
+                rank[v] = in.readInt();
+                if (rank[v] < 0 || rank[v] >= V || ranked[rank[v]])
+                    throw new IllegalArgumentException("ranks are not a permutation in " + filename);
+                ranked[rank[v]] = true;
+            }
+            int[] from = new int[M], to = new int[M], first = new int[M], second = new int[M];
+            double[] weight = new double[M];
+            for (int e = 0; e < M; e++) {
+                from[e] = in.readInt();
+                to[e] = in.readInt();
+                weight[e] = in.readDouble();
+                first[e] = in.readInt();
+                second[e] = in.readInt();
+                if (from[e] < 0 || from[e] >= V || to[e] < 0 || to[e] >= V)
+                    throw new IllegalArgumentException("invalid edge " + e + " in " + filename);
+
+                // the first E edges are original; a shortcut u->w stands for two earlier
+                // edges u->v and v->w
+                boolean original = first[e] == -1 && second[e] == -1;
+                boolean shortcut = first[e] >= 0 && first[e] < e && second[e] >= 0 && second[e] < e
+                                && from[first[e]] == from[e] && to[first[e]] == from[second[e]]
+                                && to[second[e]] == to[e];
+                if (e < E ? !original : !shortcut)
+                    throw new IllegalArgumentException("invalid edge " + e + " in " + filename);
+            }
+            return new ContractionHierarchy(V, E, rank, from, to, weight, first, second);
+        }
+        catch (IOException ioe) {
+            throw new IllegalArgumentException("could not read " + filename, ioe);
+        }
+    }
+
+    // throw an IllegalArgumentException unless {@code 0 <= v < V}
+    private void validateVertex(int v) {
+        if (v < 0 || v >= V)
+            throw new IllegalArgumentException("vertex " + v + " is not between 0 and " + (V-1));
+    }
+
+    // a growable list of edge indices
+    private static class IntList {
+        private int[] a = new int[4];
+        private int size;
+
+        void add(int x) {
+            if (size == a.length) {
+                int[] copy = new int[2*a.length];
+                System.arraycopy(a, 0, copy, 0, size);
+                a = copy;
+            }
+            a[size++] = x;
+        }
+
+        int get(int i)  { return a[i]; }
+        int size()      { return size; }
+    }
+
+    /**
+     * Unit tests the {@code ContractionHierarchy} data type: preprocesses the digraph,
+     * writes it to the file named by the second argument and reads it back.
+     *
+     * @param args the command-line arguments
+     */
+    public static void main(String[] args) {
+        In in = new In(args[0]);
+        EdgeWeightedDigraph G = new EdgeWeightedDigraph(in);
+        Stopwatch sw = new Stopwatch();
+        ContractionHierarchy ch = new ContractionHierarchy(G);
+        StdOut.printf("%d vertices, %d edges, %d shortcuts (%.2f s)\n", ch.V(), ch.E(), ch.shortcuts(), sw.elapsedTime());
+        ch.write(args[1]);
+        ContractionHierarchy copy = ContractionHierarchy.read(args[1]);
+        StdOut.printf("read back %d vertices, %d edges, %d shortcuts\n", copy.V(), copy.E(), copy.shortcuts());
+    }
+}
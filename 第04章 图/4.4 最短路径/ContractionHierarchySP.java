@@ -0,0 +1,198 @@
+public class ContractionHierarchySP {
+    private final ContractionHierarchy ch;
+
+    // scratch space reused by every query; an entry is valid only if its stamp equals query
+    private int query;
+    private final double[] distF, distB;   // distances in the upward searches from s and from t
+    private final int[] edgeF, edgeB;      // last hierarchy edge on the path found to (from) each vertex
+    private final int[] seenF, seenB;      // seenF[v] == query if distF[v] is set in this query
+    private final IndexDoubleMinPQ pqF, pqB;
+
+    // the result of the last query
+    private int s = -1, t = -1;
+    private double distance;
+    private int meet;
+
+    /**
+     * Prepares point-to-point queries over the contraction hierarchy {@code ch}.
+     * The hierarchy can be shared, but each thread needs its own {@code ContractionHierarchySP}.
+     *
+     * @param  ch the contraction hierarchy
+     * @throws IllegalArgumentException if {@code ch} is {@code null}
+     */
+    public ContractionHierarchySP(ContractionHierarchy ch) {
+        if (ch == null) throw new IllegalArgumentException("argument is null");
+        this.ch = ch;
+        int V = ch.V();
+        distF = new double[V];
+        distB = new double[V];
+        edgeF = new int[V];
+        edgeB = new int[V];
+        seenF = new int[V];
+        seenB = new int[V];
+        pqF = new IndexDoubleMinPQ(V);
+        pqB = new IndexDoubleMinPQ(V);
+    }
+
+    /**
+     * Returns the length of a shortest path from {@code s} to {@code t}.
+     *
+     * @param  s the source vertex
+     * @param  t the target vertex
+     * @return the length of a shortest path from {@code s} to {@code t};
+     *         {@code Double.POSITIVE_INFINITY} if no such path
+     * @throws IllegalArgumentException unless {@code 0 <= s < V} and {@code 0 <= t < V}
+     */
+    public double distTo(int s, int t) {
+        search(s, t);
+        return distance;
+    }
+
+    /**
+     * Returns true if there is a path from {@code s} to {@code t}.
+     *
+     * @param  s the source vertex
+     * @param  t the target vertex
+     * @return {@code true} if there is a path from {@code s} to {@code t};
+     *         {@code false} otherwise
+     * @throws IllegalArgumentException unless {@code 0 <= s < V} and {@code 0 <= t < V}
+     */
+    public boolean hasPathTo(int s, int t) {
+        return distTo(s, t) < Double.POSITIVE_INFINITY;
+    }
+
+    /**
+     * Returns a shortest path from {@code s} to {@code t}, with every shortcut
+     * unpacked into the edges of the original digraph.
+     *
+     * @param  s the source vertex
+     * @param  t the target vertex
+     * @return a shortest path from {@code s} to {@code t}
+     *         as an iterable of edges, and {@code null} if no such path
+     * @throws IllegalArgumentException unless {@code 0 <= s < V} and {@code 0 <= t < V}
+     */
+    public Iterable<DirectedEdge> pathTo(int s, int t) {
+        if (!hasPathTo(s, t)) return null;
+
+        // the hierarchy edges from s up to the meeting vertex, then down to t
+        Stack<Integer> up = new Stack<Integer>();
+        for (int e = edgeF[meet]; e != -1; e = edgeF[ch.from(e)])
+            up.push(e);
+        Queue<DirectedEdge> path = new Queue<DirectedEdge>();
+        for (int e : up)
+            ch.unpack(e, path);
+        for (int e = edgeB[meet]; e != -1; e = edgeB[ch.to(e)])
+            ch.unpack(e, path);
+        return path;
+    }
+
+    // bidirectional Dijkstra in which both searches only go up the hierarchy
+    private void search(int s, int t) {
+        validateVertex(s);
+        validateVertex(t);
+        if (s == this.s && t == this.t) return;
+        this.s = s;
+        this.t = t;
+
+        query++;
+        if (query == Integer.MAX_VALUE) {
+            java.util.Arrays.fill(seenF, 0);
+            java.util.Arrays.fill(seenB, 0);
+            query = 1;
+        }
+        reach(distF, edgeF, seenF, pqF, s, 0.0, -1);
+        reach(distB, edgeB, seenB, pqB, t, 0.0, -1);
+        distance = Double.POSITIVE_INFINITY;
+        meet = -1;
+
+        // the searches may not stop when they meet, only once neither can do better
+        while (!pqF.isEmpty() || !pqB.isEmpty()) {
+            if (!pqF.isEmpty() && pqF.minKey() >= distance) pqF.clear();
+            if (!pqB.isEmpty() && pqB.minKey() >= distance) pqB.clear();
+
+            if (!pqF.isEmpty()) {
+                int v = pqF.delMin();
+                if (seenB[v] == query && distF[v] + distB[v] < distance) {
+                    distance = distF[v] + distB[v];
+                    meet = v;
+                }
+                for (int i = ch.upBegin(v), end = ch.upEnd(v); i < end; i++) {
+                    int e = ch.upEdge(i);
+                    int w = ch.to(e);
+                    double d = distF[v] + ch.weight(e);
+                    if (seenF[w] != query || d < distF[w]) reach(distF, edgeF, seenF, pqF, w, d, e);
+                }
+            }
+            if (!pqB.isEmpty()) {
+                int v = pqB.delMin();
+                if (seenF[v] == query && distF[v] + distB[v] < distance) {
+                    distance = distF[v] + distB[v];
+                    meet = v;
+                }
+                for (int i = ch.downBegin(v), end = ch.downEnd(v); i < end; i++) {
+                    int e = ch.downEdge(i);
+                    int w = ch.from(e);
+                    double d = distB[v] + ch.weight(e);
+                    if (seenB[w] != query || d < distB[w]) reach(distB, edgeB, seenB, pqB, w, d, e);
+                }
+            }
+        }
+    }
+
+    // record a (shorter) path of length d to w whose last edge is e, and update pq
+    private void reach(double[] dist, int[] edge, int[] seen, IndexDoubleMinPQ pq, int w, double d, int e) {
+        dist[w] = d;
+        edge[w] = e;
+        seen[w] = query;
+        if (pq.contains(w)) pq.decreaseKey(w, d);
+        else                pq.insert(w, d);
+    }
+
+    // throw an IllegalArgumentException unless {@code 0 <= v < V}
+    private void validateVertex(int v) {
+        int V = distF.length;
+        if (v < 0 || v >= V)
+            throw new IllegalArgumentException("vertex " + v + " is not between 0 and " + (V-1));
+    }
+
+    /**
+     * Unit tests the {@code ContractionHierarchySP} data type: preprocesses the digraph,
+     * writes the hierarchy to the file named by the second argument, reads it back, and
+     * checks random queries, distances and unpacked paths alike, against {@code DijkstraSP}.
+     *
+     * @param args the command-line arguments
+     */
+    public static void main(String[] args) {
+        In in = new In(args[0]);
+        int queries = Integer.parseInt(args[2]);
+        EdgeWeightedDigraph G = new EdgeWeightedDigraph(in);
+        new ContractionHierarchy(G).write(args[1]);
+        ContractionHierarchySP sp = new ContractionHierarchySP(ContractionHierarchy.read(args[1]));
+
+        int errors = 0;
+        for (int i = 0; i < queries; i++) {
+            int s = StdRandom.uniform(G.V());
+            int t = StdRandom.uniform(G.V());
+            DijkstraSP dijkstra = new DijkstraSP(G, s);
+            double expected = dijkstra.distTo(t);
+            double actual = sp.distTo(s, t);
+            boolean ok = (expected == actual) || Math.abs(expected - actual) <= 1E-9;
+            if (ok && sp.hasPathTo(s, t)) {
+                // the unpacked path must be a path from s to t in G of the same length
+                double length = 0.0;
+                int v = s;
+                for (DirectedEdge e : sp.pathTo(s, t)) {
+                    if (e.from() != v) ok = false;
+                    length += e.weight();
+                    v = e.to();
+                }
+                if (v != t || Math.abs(length - expected) > 1E-9) ok = false;
+            }
+            if (!ok) {
+                StdOut.printf("%d to %d: expected %.2f, got %.2f\n", s, t, expected, actual);
+                errors++;
+            }
+        }
+        StdOut.println(queries + " queries, " + errors + " errors");
+    }
+}
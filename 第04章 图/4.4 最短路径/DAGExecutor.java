@@ -0,0 +1,382 @@
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.function.IntConsumer;
+
+public class DAGExecutor {
+    private final Digraph G;             // edge v->w: task v must finish before task w starts
+    private final double[] start;        // start[v]  = earliest start time of task v
+    private final double[] slack;        // slack[v]  = how long task v can be delayed
+    private final int[] rank;            // rank[v]   = priority of task v among ready tasks, 0 first
+    private double length;               // length of a critical path
+
+    // metrics of the last run, in nanoseconds from its start
+    private long[] ready;                // ready[v]  = when the last predecessor of v finished
+    private long[] began;                // began[v]  = when task v started
+    private long[] ended;                // ended[v]  = when task v finished
+    private long makespan;               // when the last task finished
+
+    // state of a run in progress
+    private IntConsumer task;
+    private Executor pool;
+    private AtomicIntegerArray pending;  // pending[v] = number of predecessors of v still to finish
+    private IndexMinPQ<Integer> queue;   // the ready tasks, by rank
+    private AtomicInteger outstanding;   // number of dispatched tasks not yet finished
+    private CountDownLatch done;
+    private volatile Throwable failure;  // the first exception thrown by a task
+    private volatile int failed;         // the task that threw it
+    private long zero;                   // System.nanoTime() at the start of the run
+
+    /**
+     * Initializes an executor for the tasks {@code 0} through {@code V-1} of
+     * the DAG {@code G}, all with the same duration.
+     * @param G the DAG: an edge {@code v->w} means task {@code v} must finish
+     *        before task {@code w} starts
+     * @throws IllegalArgumentException if {@code G} has a directed cycle
+     */
+    public DAGExecutor(Digraph G) {
+        this(G, ones(G.V()));
+    }
+
+    // an array of n ones
+    private static double[] ones(int n) {
+        double[] a = new double[n];
+        java.util.Arrays.fill(a, 1.0);
+        return a;
+    }
+
+    /**
+     * Initializes an executor for the tasks {@code 0} through {@code V-1} of
+     * the DAG {@code G}, where task {@code v} is expected to take {@code duration[v]}.
+     * The constructor runs the critical path method over a topological order of
+     * {@code G}: the earliest start of each task is the longest path to it, and
+     * its slack is how far it can start after that without delaying the end of the
+     * last task. While tasks run, the ready ones are dispatched in order of least
+     * slack, then longest path from the start of the task to the end, so that a
+     * task on the critical path is never left waiting behind one that is not.
+     * @param G the DAG: an edge {@code v->w} means task {@code v} must finish
+     *        before task {@code w} starts
+     * @param duration the estimated duration of each task
+     * @throws IllegalArgumentException if {@code G} has a directed cycle
+     * @throws IllegalArgumentException unless {@code duration.length == G.V()}
+     * @throws IllegalArgumentException if any duration is negative or NaN
+     */
+    public DAGExecutor(Digraph G, double[] duration) {
+        if (G == null || duration == null) throw new IllegalArgumentException("argument is null");
+        int V = G.V();
+        if (duration.length != V) throw new IllegalArgumentException("need one duration per vertex");
+        for (int v = 0; v < V; v++)
+            if (!(duration[v] >= 0.0)) throw new IllegalArgumentException("duration of task " + v + " is " + duration[v]);
+        Topological topological = new Topological(G);
+        if (!topological.hasOrder()) throw new IllegalArgumentException("digraph is not acyclic");
+        this.G = G;
+
+        // forward pass: earliest start times
+        int[] order = new int[V];
+        int n = 0;
+        for (int v : topological.order())
+            order[n++] = v;
+        start = new double[V];
+        for (int v : order) {
+            for (int w : G.adj(v))
+                start[w] = Math.max(start[w], start[v] + duration[v]);
+            length = Math.max(length, start[v] + duration[v]);
+        }
+
+        // backward pass: tail[v] = longest path from the start of v to the end
+        double[] tail = new double[V];
+        for (int i = V-1; i >= 0; i--) {
+            int v = order[i];
+            tail[v] = duration[v];
+            for (int w : G.adj(v))
+                tail[v] = Math.max(tail[v], duration[v] + tail[w]);
+        }
+        slack = new double[V];
+        for (int v = 0; v < V; v++)
+            slack[v] = length - tail[v] - start[v];
+
+        // rank the tasks by least slack, then longest tail, then index
+        Integer[] tasks = new Integer[V];
+        for (int v = 0; v < V; v++)
+            tasks[v] = v;
+        java.util.Arrays.sort(tasks, (a, b) -> {
+            if (slack[a] != slack[b]) return Double.compare(slack[a], slack[b]);
+            if (tail[a] != tail[b]) return Double.compare(tail[b], tail[a]);
+            return Integer.compare(a, b);
+        });
+        rank = new int[V];
+        for (int i = 0; i < V; i++)
+            rank[tasks[i]] = i;
+    }
+
+    /**
+     * Returns a pool that runs each task in a virtual thread of its own, where the
+     * JDK has them (Java 21 or later), and otherwise a pool that grows a platform
+     * thread for each task that finds no idle one. Either suits tasks that spend
+     * most of their time blocked on I/O; for compute-bound tasks a fixed pool of
+     * about as many threads as processors dispatches in priority order more faithfully.
+     * The caller should shut the pool down when it is done with it.
+     * @return a pool with a thread per task
+     */
+    public static ExecutorService virtualThreadPool() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        }
+        catch (ReflectiveOperationException e) {
+            return Executors.newCachedThreadPool();
+        }
+    }
+
+    /**
+     * Runs {@code task.accept(v)} once for every task {@code v}, on {@code pool},
+     * each only after all its predecessors have finished, and returns when all have
+     * finished. When a task finishes, the counter of unfinished predecessors of each
+     * successor is decremented atomically, and a successor whose counter reaches 0
+     * becomes ready. Each ready task submits one runnable to the pool, which runs
+     * whichever ready task has the highest priority when it gets a thread, so the
+     * priorities hold whatever the order of the queue of the pool.
+     * If a task throws an exception, or the pool refuses the runnable of a task,
+     * no more tasks are started, and this method throws once the ones already
+     * running have finished.
+     * @param task the work of each task
+     * @param pool the pool that runs the tasks
+     * @throws IllegalArgumentException if either argument is {@code null}
+     * @throws IllegalStateException if a task throws an exception, the pool refuses
+     *         to run a task, or the calling thread is interrupted while it waits
+     */
+    public synchronized void run(IntConsumer task, Executor pool) {
+        if (task == null || pool == null) throw new IllegalArgumentException("argument is null");
+        int V = G.V();
+        this.task = task;
+        this.pool = pool;
+        pending = new AtomicIntegerArray(V);
+        queue = new IndexMinPQ<Integer>(V);
+        outstanding = new AtomicInteger();
+        done = new CountDownLatch(1);
+        failure = null;
+        ready = new long[V];
+        began = new long[V];
+        ended = new long[V];
+        makespan = 0;
+        if (V == 0) return;
+
+        zero = System.nanoTime();
+        for (int v = 0; v < V; v++)
+            for (int w : G.adj(v))
+                pending.incrementAndGet(w);
+        // count all the sources before dispatching any, so none can finish the run early
+        int[] sources = new int[V];
+        int n = 0;
+        for (int v = 0; v < V; v++)
+            if (pending.get(v) == 0) sources[n++] = v;
+        outstanding.set(n);
+        for (int i = 0; i < n; i++)
+            dispatch(sources[i]);
+
+        try {
+            done.await();
+        }
+        catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("interrupted while waiting for tasks", e);
+        }
+        finally {
+            this.task = null;
+            this.pool = null;
+        }
+        if (failure != null) throw new IllegalStateException("task " + failed + " failed", failure);
+        for (int v = 0; v < V; v++)
+            makespan = Math.max(makespan, ended[v]);
+    }
+
+    // make task v ready, and submit a runnable for it; the caller has counted it in outstanding
+    private void dispatch(int v) {
+        ready[v] = System.nanoTime() - zero;
+        synchronized (queue) {
+            queue.insert(v, rank[v]);
+        }
+        try {
+            pool.execute(this::next);
+        }
+        catch (RuntimeException e) {
+            // nothing will run v (the pool may be shut down), so it ends here, as a failure
+            fail(v, e);
+            if (outstanding.decrementAndGet() == 0) done.countDown();
+        }
+    }
+
+    // record the first failure of the run
+    private void fail(int v, Throwable t) {
+        synchronized (queue) {
+            if (failure == null) {
+                failed = v;
+                failure = t;
+            }
+        }
+    }
+
+    // run the ready task of highest priority, then make ready its successors with no
+    // predecessors left to finish
+    private void next() {
+        int v;
+        synchronized (queue) {
+            v = queue.delMin();
+        }
+        if (failure == null) {
+            began[v] = System.nanoTime() - zero;
+            try {
+                task.accept(v);
+            }
+            catch (Throwable t) {
+                fail(v, t);
+            }
+            ended[v] = System.nanoTime() - zero;
+            if (failure == null) {
+                for (int w : G.adj(v)) {
+                    if (pending.decrementAndGet(w) == 0) {
+                        outstanding.incrementAndGet();
+                        dispatch(w);
+                    }
+                }
+            }
+        }
+        if (outstanding.decrementAndGet() == 0) done.countDown();
+    }
+
+    /**
+     * Returns the length of a critical path: the least time to run all the tasks,
+     * given their estimated durations and enough threads.
+     * @return the length of a critical path
+     */
+    public double criticalPathLength() {
+        return length;
+    }
+
+    /**
+     * Returns the earliest time that task {@code v} can start.
+     * @param  v the task
+     * @return the earliest time that task {@code v} can start
+     * @throws IllegalArgumentException unless {@code 0 <= v < V}
+     */
+    public double earliestStart(int v) {
+        validateVertex(v);
+        return start[v];
+    }
+
+    /**
+     * Returns the slack of task {@code v}: how much later than its earliest start
+     * it can start without delaying the end of the last task.
+     * @param  v the task
+     * @return the slack of task {@code v}; 0 if it is on a critical path
+     * @throws IllegalArgumentException unless {@code 0 <= v < V}
+     */
+    public double slack(int v) {
+        validateVertex(v);
+        return slack[v];
+    }
+
+    /**
+     * Returns how long task {@code v} waited, in the last run, from when it became
+     * ready to when it started, in seconds.
+     * @param  v the task
+     * @return how long task {@code v} waited for a thread
+     * @throws IllegalArgumentException unless {@code 0 <= v < V}
+     */
+    public double waitTime(int v) {
+        validateVertex(v);
+        return (began[v] - ready[v]) * 1e-9;
+    }
+
+    /**
+     * Returns how long task {@code v} ran, in the last run, in seconds.
+     * @param  v the task
+     * @return how long task {@code v} ran
+     * @throws IllegalArgumentException unless {@code 0 <= v < V}
+     */
+    public double runTime(int v) {
+        validateVertex(v);
+        return (ended[v] - began[v]) * 1e-9;
+    }
+
+    /**
+     * Returns when task {@code v} finished, in the last run, in seconds from its start.
+     * @param  v the task
+     * @return when task {@code v} finished
+     * @throws IllegalArgumentException unless {@code 0 <= v < V}
+     */
+    public double finishTime(int v) {
+        validateVertex(v);
+        return ended[v] * 1e-9;
+    }
+
+    /**
+     * Returns how long the last run took, from its start to the end of its last task,
+     * in seconds.
+     * @return how long the last run took
+     */
+    public double makespan() {
+        return makespan * 1e-9;
+    }
+
+    // throw an IllegalArgumentException unless {@code 0 <= v < V}
+    private void validateVertex(int v) {
+        int V = G.V();
+        if (v < 0 || v >= V)
+            throw new IllegalArgumentException("vertex " + v + " is not between 0 and " + (V-1));
+    }
+
+    /**
+     *  Reads jobs in the format of {@code CPM} from standard input, runs each
+     *  as a sleep of one millisecond per unit of duration, with the number of
+     *  threads given on the command line (or in virtual threads, if it is {@code 0}),
+     *  and prints the metrics of each job and the makespan.
+     *
+     * @param args the command-line arguments
+     */
+    public static void main(String[] args) {
+        int threads = Integer.parseInt(args[0]);
+
+        // number of jobs
+        int n = StdIn.readInt();
+
+        // jobs and precedence constraints
+        Digraph G = new Digraph(n);
+        double[] duration = new double[n];
+        for (int i = 0; i < n; i++) {
+            duration[i] = StdIn.readDouble();
+            int m = StdIn.readInt();
+            for (int j = 0; j < m; j++) {
+                int successor = StdIn.readInt();
+                G.addEdge(i, successor);
+            }
+        }
+
+        DAGExecutor executor = new DAGExecutor(G, duration);
+        ExecutorService pool = (threads == 0) ? virtualThreadPool() : Executors.newFixedThreadPool(threads);
+        try {
+            executor.run(v -> {
+                try {
+                    Thread.sleep((long) duration[v]);
+                }
+                catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }, pool);
+        }
+        finally {
+            pool.shutdown();
+        }
+
+        StdOut.println(" job   slack    wait     run  finish");
+        StdOut.println("------------------------------------");
+        for (int i = 0; i < n; i++) {
+            StdOut.printf("%4d %7.1f %7.1f %7.1f %7.1f\n", i, executor.slack(i),
+                          1000 * executor.waitTime(i), 1000 * executor.runTime(i), 1000 * executor.finishTime(i));
+        }
+        StdOut.printf("Critical path: %7.1f\n", executor.criticalPathLength());
+        StdOut.printf("Makespan:      %7.1f\n", 1000 * executor.makespan());
+    }
+}
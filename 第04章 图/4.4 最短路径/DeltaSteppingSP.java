@@ -0,0 +1,415 @@
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+public class DeltaSteppingSP {
+    // relax at most this many frontier vertices in one fork-join task
+    private static final int CUTOFF = 256;
+
+    private double[] distTo;          // distTo[v] = distance  of shortest s->v path
+    private int[] edgeIndexTo;        // edgeIndexTo[v] = index in G of last edge on shortest s->v path
+    private PackedEdgeWeightedDigraph G;
+
+    // state shared with the relaxation tasks while the tree is being computed
+    private AtomicLongArray dist;     // dist[v] = bits of tentative distance of v
+    private double delta;             // width of each bucket
+    private int[] updated;            // vertices whose distance decreased in the current step
+    private AtomicInteger n;          // number of entries in updated[]
+
+    /**
+     * Computes a shortest-paths tree from the source vertex {@code s} to every other
+     * vertex in the edge-weighted digraph {@code G}, using the common fork-join pool.
+     *
+     * @param  G the edge-weighted digraph
+     * @param  s the source vertex
+     * @throws IllegalArgumentException if an edge weight is negative
+     * @throws IllegalArgumentException if an edge weight is infinite or NaN
+     * @throws IllegalArgumentException unless {@code 0 <= s < V}
+     */
+    public DeltaSteppingSP(EdgeWeightedDigraph G, int s) {
+        this(new PackedEdgeWeightedDigraph(G), s);
+    }
+
+    /**
+     * Computes a shortest-paths tree from the source vertex {@code s} to every other
+     * vertex in the packed edge-weighted digraph {@code G}, using the common fork-join
+     * pool and a bucket width of the maximum edge weight divided by the average outdegree.
+     *
+     * @param  G the packed edge-weighted digraph
+     * @param  s the source vertex
+     * @throws IllegalArgumentException if an edge weight is negative
+     * @throws IllegalArgumentException if an edge weight is infinite or NaN
+     * @throws IllegalArgumentException unless {@code 0 <= s < V}
+     */
+    public DeltaSteppingSP(PackedEdgeWeightedDigraph G, int s) {
+        this(G, s, defaultDelta(G), ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Computes a shortest-paths tree from the source vertex {@code s} to every other
+     * vertex in the packed edge-weighted digraph {@code G}.
+     * Vertices are kept in buckets of width {@code delta} by tentative distance.
+     * The buckets are emptied in increasing order; the edges of weight at most
+     * {@code delta} ("light" edges) out of a bucket are relaxed in parallel until the
+     * bucket stays empty, and then the remaining ("heavy") edges are relaxed once.
+     * A small {@code delta} behaves like Dijkstra's algorithm; a large one like
+     * Bellman-Ford.
+     *
+     * @param  G the packed edge-weighted digraph
+     * @param  s the source vertex
+     * @param  delta the bucket width
+     * @param  pool the pool that runs the relaxations
+     * @throws IllegalArgumentException if an edge weight is negative
+     * @throws IllegalArgumentException if an edge weight is infinite or NaN
+     * @throws IllegalArgumentException unless {@code delta > 0}
+     * @throws IllegalArgumentException if {@code pool} is {@code null}
+     * @throws IllegalArgumentException unless {@code 0 <= s < V}
+     */
+    public DeltaSteppingSP(PackedEdgeWeightedDigraph G, int s, double delta, ForkJoinPool pool) {
+        if (!(delta > 0)) throw new IllegalArgumentException("delta must be positive: " + delta);
+        if (pool == null) throw new IllegalArgumentException("argument is null");
+        double maxWeight = 0.0;
+        for (int e = 0; e < G.E(); e++) {
+            if (G.weight(e) < 0)
+                throw new IllegalArgumentException("edge " + G.edge(e) + " has negative weight");
+            if (Double.isInfinite(G.weight(e)) || Double.isNaN(G.weight(e)))
+                throw new IllegalArgumentException("edge " + G.edge(e) + " has weight " + G.weight(e));
+            maxWeight = Math.max(maxWeight, G.weight(e));
+        }
+
+        this.G = G;
+        this.delta = delta;
+        distTo = new double[G.V()];
+        edgeIndexTo = new int[G.V()];
+
+        validateVertex(s);
+
+        dist = new AtomicLongArray(G.V());
+        for (int v = 0; v < G.V(); v++)
+            dist.set(v, Double.doubleToRawLongBits(Double.POSITIVE_INFINITY));
+        dist.set(s, Double.doubleToRawLongBits(0.0));
+
+        // every vertex waiting in a bucket is within maxWeight of a settled vertex,
+        // so the non-empty buckets always fit in a circular array of this size
+        double span = Math.floor(maxWeight / delta) + 2;
+        if (span > Integer.MAX_VALUE / 2)
+            throw new IllegalArgumentException("delta is too small for the edge weights: " + delta);
+        IntList[] buckets = new IntList[(int) span];
+        for (int i = 0; i < buckets.length; i++)
+            buckets[i] = new IntList();
+        buckets[0].add(s);
+        long pending = 1;                    // total number of entries in buckets
+
+        updated = new int[Math.max(G.E(), 1)];
+        n = new AtomicInteger();
+        int[] stamp = new int[G.V()];        // stamp[v] == round if v already taken this round
+        int[] settledIn = new int[G.V()];    // settledIn[v] == i+1 if v was settled in bucket i
+        int round = 0;
+        IntList frontier = new IntList();
+        IntList settled = new IntList();
+
+        for (long i = 0; pending > 0; i++) {
+            IntList bucket = buckets[(int) (i % buckets.length)];
+            if (bucket.size() == 0) continue;
+            int label = (int) (i % Integer.MAX_VALUE) + 1;
+            settled.clear();
+
+            // relax light edges until bucket i stays empty
+            while (bucket.size() > 0) {
+                round++;
+                frontier.clear();
+                for (int k = 0; k < bucket.size(); k++) {
+                    int v = bucket.get(k);
+                    if (stamp[v] == round || bucketOf(v) != i) continue;
+                    stamp[v] = round;
+                    frontier.add(v);
+                    if (settledIn[v] != label) {
+                        settledIn[v] = label;
+                        settled.add(v);
+                    }
+                }
+                pending -= bucket.size();
+                bucket.clear();
+                relax(pool, frontier, true);
+                pending += distribute(buckets, ++round, stamp);
+            }
+
+            // relax heavy edges once from every vertex settled in bucket i
+            relax(pool, settled, false);
+            pending += distribute(buckets, ++round, stamp);
+        }
+
+        for (int v = 0; v < G.V(); v++)
+            distTo[v] = Double.longBitsToDouble(dist.get(v));
+        dist = null;
+        updated = null;
+        buildTree(s);
+
+        // check optimality conditions
+        assert check(G, s);
+    }
+
+    // the maximum edge weight divided by the average outdegree
+    private static double defaultDelta(PackedEdgeWeightedDigraph G) {
+        double maxWeight = 0.0;
+        for (int e = 0; e < G.E(); e++)
+            maxWeight = Math.max(maxWeight, G.weight(e));
+        if (maxWeight == 0.0) return 1.0;
+        double degree = Math.max(1.0, (double) G.E() / Math.max(1, G.V()));
+        return maxWeight / degree;
+    }
+
+    // index of the bucket of v's tentative distance
+    private long bucketOf(int v) {
+        return (long) Math.floor(Double.longBitsToDouble(dist.get(v)) / delta);
+    }
+
+    // relax the light (or heavy) edges out of the given vertices in parallel
+    private void relax(ForkJoinPool pool, IntList vertices, boolean light) {
+        n.set(0);
+        if (vertices.size() == 0) return;
+        pool.invoke(new Relaxation(vertices.array(), 0, vertices.size(), light));
+    }
+
+    // move every vertex in updated[] into the bucket of its new distance; returns number moved
+    private int distribute(IntList[] buckets, int round, int[] stamp) {
+        int moved = 0;
+        for (int k = 0, size = n.get(); k < size; k++) {
+            int w = updated[k];
+            if (stamp[w] == round) continue;
+            stamp[w] = round;
+            buckets[(int) (bucketOf(w) % buckets.length)].add(w);
+            moved++;
+        }
+        return moved;
+    }
+
+    // relaxes the edges out of vertices[lo..hi), splitting the range while it is large
+    private class Relaxation extends RecursiveAction {
+        private final int[] vertices;
+        private final int lo, hi;
+        private final boolean light;
+
+        Relaxation(int[] vertices, int lo, int hi, boolean light) {
+            this.vertices = vertices;
+            this.lo = lo;
+            this.hi = hi;
+            this.light = light;
+        }
+
+        @Override
+        protected void compute() {
+            if (hi - lo > CUTOFF) {
+                int mid = lo + (hi - lo) / 2;
+                invokeAll(new Relaxation(vertices, lo, mid, light),
+                          new Relaxation(vertices, mid, hi, light));
+                return;
+            }
+            IntList improved = new IntList();
+            for (int k = lo; k < hi; k++) {
+                int v = vertices[k];
+                double distV = Double.longBitsToDouble(dist.get(v));
+                for (int e = G.begin(v), end = G.end(v); e < end; e++) {
+                    double weight = G.weight(e);
+                    if ((weight <= delta) != light) continue;
+                    int w = G.to(e);
+                    double candidate = distV + weight;
+                    long current = dist.get(w);
+                    while (candidate < Double.longBitsToDouble(current)) {
+                        if (dist.compareAndSet(w, current, Double.doubleToRawLongBits(candidate))) {
+                            improved.add(w);
+                            break;
+                        }
+                        current = dist.get(w);
+                    }
+                }
+            }
+            int start = n.getAndAdd(improved.size());
+            System.arraycopy(improved.array(), 0, updated, start, improved.size());
+        }
+    }
+
+    // choose edgeIndexTo[] by breadth-first search from s over the tight edges,
+    // so that the tree has no cycles even when there are edges of weight 0
+    private void buildTree(int s) {
+        for (int v = 0; v < G.V(); v++)
+            edgeIndexTo[v] = -1;
+        boolean[] marked = new boolean[G.V()];
+        int[] queue = new int[G.V()];
+        int head = 0, tail = 0;
+        queue[tail++] = s;
+        marked[s] = true;
+        while (head < tail) {
+            int v = queue[head++];
+            for (int e = G.begin(v), end = G.end(v); e < end; e++) {
+                int w = G.to(e);
+                if (!marked[w] && distTo[v] + G.weight(e) == distTo[w]) {
+                    marked[w] = true;
+                    edgeIndexTo[w] = e;
+                    queue[tail++] = w;
+                }
+            }
+        }
+    }
+
+    /**
+     * Returns the length of a shortest path from the source vertex {@code s} to vertex {@code v}.
+     * @param  v the destination vertex
+     * @return the length of a shortest path from the source vertex {@code s} to vertex {@code v};
+     *         {@code Double.POSITIVE_INFINITY} if no such path
+     * @throws IllegalArgumentException unless {@code 0 <= v < V}
+     */
+    public double distTo(int v) {
+        validateVertex(v);
+        return distTo[v];
+    }
+
+    /**
+     * Returns true if there is a path from the source vertex {@code s} to vertex {@code v}.
+     *
+     * @param  v the destination vertex
+     * @return {@code true} if there is a path from the source vertex
+     *         {@code s} to vertex {@code v}; {@code false} otherwise
+     * @throws IllegalArgumentException unless {@code 0 <= v < V}
+     */
+    public boolean hasPathTo(int v) {
+        validateVertex(v);
+        return distTo[v] < Double.POSITIVE_INFINITY;
+    }
+
+    /**
+     * Returns a shortest path from the source vertex {@code s} to vertex {@code v}.
+     *
+     * @param  v the destination vertex
+     * @return a shortest path from the source vertex {@code s} to vertex {@code v}
+     *         as an iterable of edges, and {@code null} if no such path
+     * @throws IllegalArgumentException unless {@code 0 <= v < V}
+     */
+    public Iterable<DirectedEdge> pathTo(int v) {
+        validateVertex(v);
+        if (!hasPathTo(v)) return null;
+        Stack<DirectedEdge> path = new Stack<DirectedEdge>();
+        for (int e = edgeIndexTo[v]; e != -1; e = edgeIndexTo[G.from(e)]) {
+            path.push(G.edge(e));
+        }
+        return path;
+    }
+
+
+    // check optimality conditions, as in DijkstraSP:
+    // (i) for all edges e:            distTo[e.to()] <= distTo[e.from()] + e.weight()
+    // (ii) for all edge e on the SPT: distTo[e.to()] == distTo[e.from()] + e.weight()
+    private boolean check(PackedEdgeWeightedDigraph G, int s) {
+
+        // check that edge weights are non-negative
+        for (int e = 0; e < G.E(); e++) {
+            if (G.weight(e) < 0) {
+                System.err.println("negative edge weight detected");
+                return false;
+            }
+        }
+
+        // check that distTo[v] and edgeIndexTo[v] are consistent
+        if (distTo[s] != 0.0 || edgeIndexTo[s] != -1) {
+            System.err.println("distTo[s] and edgeTo[s] inconsistent");
+            return false;
+        }
+        for (int v = 0; v < G.V(); v++) {
+            if (v == s) continue;
+            if (edgeIndexTo[v] == -1 && distTo[v] != Double.POSITIVE_INFINITY) {
+                System.err.println("distTo[] and edgeTo[] inconsistent");
+                return false;
+            }
+        }
+
+        // check that all edges e = v->w satisfy distTo[w] <= distTo[v] + e.weight()
+        for (int e = 0; e < G.E(); e++) {
+            if (distTo[G.from(e)] + G.weight(e) < distTo[G.to(e)]) {
+                System.err.println("edge " + G.edge(e) + " not relaxed");
+                return false;
+            }
+        }
+
+        // check that all edges e = v->w on SPT satisfy distTo[w] == distTo[v] + e.weight()
+        for (int w = 0; w < G.V(); w++) {
+            int e = edgeIndexTo[w];
+            if (e == -1) continue;
+            if (w != G.to(e)) return false;
+            if (distTo[G.from(e)] + G.weight(e) != distTo[w]) {
+                System.err.println("edge " + G.edge(e) + " on shortest path not tight");
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // throw an IllegalArgumentException unless {@code 0 <= v < V}
+    private void validateVertex(int v) {
+        int V = distTo.length;
+        if (v < 0 || v >= V)
+            throw new IllegalArgumentException("vertex " + v + " is not between 0 and " + (V-1));
+    }
+
+    // a resizing array of ints
+    private static class IntList {
+        private int[] a = new int[8];
+        private int size;
+
+        void add(int x) {
+            if (size == a.length) {
+                int[] copy = new int[2*a.length];
+                System.arraycopy(a, 0, copy, 0, size);
+                a = copy;
+            }
+            a[size++] = x;
+        }
+
+        int get(int i)  { return a[i]; }
+        int size()      { return size; }
+        int[] array()   { return a;    }
+        void clear()    { size = 0;    }
+    }
+
+    /**
+     * Unit tests the {@code DeltaSteppingSP} data type: computes shortest paths
+     * with both {@code DijkstraSP} and {@code DeltaSteppingSP} and compares them.
+     *
+     * @param args the command-line arguments
+     */
+    public static void main(String[] args) {
+        In in = new In(args[0]);
+        EdgeWeightedDigraph G = new EdgeWeightedDigraph(in);
+        int s = Integer.parseInt(args[1]);
+
+        // compute shortest paths
+        Stopwatch timer = new Stopwatch();
+        DijkstraSP dijkstra = new DijkstraSP(G, s);
+        double time1 = timer.elapsedTime();
+        timer = new Stopwatch();
+        DeltaSteppingSP sp = new DeltaSteppingSP(G, s);
+        double time2 = timer.elapsedTime();
+
+        for (int t = 0; t < G.V(); t++) {
+            if (sp.distTo(t) != dijkstra.distTo(t))
+                StdOut.printf("%d to %d: %.2f (delta-stepping) != %.2f (Dijkstra)\n",
+                              s, t, sp.distTo(t), dijkstra.distTo(t));
+        }
+
+        // print shortest path
+        for (int t = 0; t < G.V(); t++) {
+            if (sp.hasPathTo(t)) {
+                StdOut.printf("%d to %d (%.2f)  ", s, t, sp.distTo(t));
+                for (DirectedEdge e : sp.pathTo(t)) {
+                    StdOut.print(e + "   ");
+                }
+                StdOut.println();
+            }
+            else {
+                StdOut.printf("%d to %d         no path\n", s, t);
+            }
+        }
+        StdOut.printf("Dijkstra %.3f s, delta-stepping %.3f s\n", time1, time2);
+    }
+
+}
@@ -0,0 +1,223 @@
+import java.util.Iterator;
+import java.util.function.IntFunction;
+
+public class DepthFirstTraversal {
+
+    /**
+     * The callbacks of a depth-first search. A search from {@code s} calls
+     * {@code pre(s, -1)}, then, for each vertex {@code v} in turn, examines the
+     * edges {@code v->w} in the order of the adjacency list:
+     * if {@code w} is unmarked, it calls {@code pre(w, v)} and searches from {@code w}
+     * before going on with {@code v}; otherwise it calls {@code edge(v, w)}. When all
+     * the vertices adjacent to {@code v} have been examined, it calls {@code post(v, u)},
+     * where {@code u} is the vertex {@code v} was reached from, or {@code -1}.
+     * These are exactly the calls a recursive search would make, in the same order.
+     */
+    public interface Visitor {
+        /**
+         * Vertex {@code v} is reached, along the tree edge {@code parent->v}.
+         * @param v the vertex
+         * @param parent the vertex {@code v} is reached from, or {@code -1} if {@code v} is the source
+         */
+        default void pre(int v, int parent) { }
+
+        /**
+         * Edge {@code v->w} is examined, and {@code w} is already marked.
+         * @param v the vertex being searched
+         * @param w the vertex the edge points to
+         */
+        default void edge(int v, int w) { }
+
+        /**
+         * The search from vertex {@code v} is done.
+         * @param v the vertex
+         * @param parent the vertex {@code v} was reached from, or {@code -1} if {@code v} is the source
+         */
+        default void post(int v, int parent) { }
+    }
+
+    private final int V;              // number of vertices
+    private final int[] offsets;      // vertices adjacent to v are targets[offsets[v]..offsets[v+1]),
+    private final int[] targets;      // or null if the lists are read through adj
+    private final IntFunction<Iterator<Integer>> adj;   // adj.apply(v) iterates over the vertices adjacent to v
+    private final boolean[] marked;   // marked[v] = has v been reached?
+    private final int[] stack;        // the vertices whose search is in progress, bottom first
+    private final int[] cursor;       // cursor[v] = index in targets of the next vertex to examine from v
+    private final Iterator<Integer>[] iterators;        // iterators[v] = the rest of the vertices adjacent to v
+    private boolean stopped;          // has a visitor called stop()?
+
+    /**
+     * Initializes a depth-first traversal of the digraph {@code G}, which reads
+     * the adjacency lists of {@code G} in place.
+     * @param G the digraph
+     */
+    public DepthFirstTraversal(Digraph G) {
+        this(G.V(), null, null, v -> G.adj(v).iterator());
+    }
+
+    /**
+     * Initializes a depth-first traversal of the edge-weighted digraph {@code G},
+     * which reads the adjacency lists of {@code G} in place.
+     * @param G the edge-weighted digraph
+     */
+    public DepthFirstTraversal(EdgeWeightedDigraph G) {
+        this(G.V(), null, null, v -> heads(G.adj(v).iterator()));
+    }
+
+    DepthFirstTraversal(CSRDigraph G) {
+        this(G.V(), G.offsets(), G.targets(), null);
+    }
+
+    // an iterator over the heads of the edges that edges iterates over
+    private static Iterator<Integer> heads(Iterator<DirectedEdge> edges) {
+        return new Iterator<Integer>() {
+            public boolean hasNext() { return edges.hasNext();    }
+            public Integer next()    { return edges.next().to();  }
+        };
+    }
+
+    // the arrays are shared with the CSR digraph, which the traversal does not change
+    @SuppressWarnings("unchecked")
+    private DepthFirstTraversal(int V, int[] offsets, int[] targets, IntFunction<Iterator<Integer>> adj) {
+        this.V = V;
+        this.offsets = offsets;
+        this.targets = targets;
+        this.adj = adj;
+        marked = new boolean[V];
+        stack = new int[V];
+        cursor = (adj == null) ? new int[V] : null;
+        iterators = (adj == null) ? null : (Iterator<Integer>[]) new Iterator[V];
+    }
+
+    // mark v and start examining the vertices adjacent to it
+    private void reach(int v) {
+        marked[v] = true;
+        if (adj == null) cursor[v] = offsets[v];
+        else             iterators[v] = adj.apply(v);
+    }
+
+    // the next vertex adjacent to v to examine, or -1 if there is none
+    private int next(int v) {
+        if (adj == null) return (cursor[v] < offsets[v+1]) ? targets[cursor[v]++] : -1;
+        if (iterators[v].hasNext()) return iterators[v].next();
+        iterators[v] = null;
+        return -1;
+    }
+
+    /**
+     * Searches from vertex {@code s}, unless it is already marked, calling the
+     * methods of {@code visitor} as the search goes; the vertices reached stay marked
+     * for later searches. The search uses an explicit stack, so it handles paths of
+     * any length. On a {@code CSRDigraph} it allocates no memory; otherwise it
+     * takes one iterator for each vertex it reaches.
+     * @param s the source vertex
+     * @param visitor the callbacks
+     * @throws IllegalArgumentException unless {@code 0 <= s < V}
+     * @throws IllegalArgumentException if {@code visitor} is {@code null}
+     */
+    public void search(int s, Visitor visitor) {
+        validateVertex(s);
+        if (visitor == null) throw new IllegalArgumentException("argument is null");
+        if (marked[s] || stopped) return;
+        reach(s);
+        stack[0] = s;
+        int top = 0;
+        visitor.pre(s, -1);
+        while (top >= 0 && !stopped) {
+            int v = stack[top];
+            int w = next(v);
+            if (w >= 0) {
+                if (!marked[w]) {
+                    reach(w);
+                    stack[++top] = w;
+                    visitor.pre(w, v);
+                }
+                else visitor.edge(v, w);
+            }
+            else {
+                top--;
+                visitor.post(v, top >= 0 ? stack[top] : -1);
+            }
+        }
+    }
+
+    /**
+     * Searches from every vertex that is not yet marked, in increasing order.
+     * @param visitor the callbacks
+     * @throws IllegalArgumentException if {@code visitor} is {@code null}
+     */
+    public void searchAll(Visitor visitor) {
+        for (int v = 0; v < V && !stopped; v++)
+            if (!marked[v]) search(v, visitor);
+    }
+
+    /**
+     * Stops the traversal: the current search returns as soon as the callback
+     * that calls this method does, with no more callbacks, and later searches do nothing.
+     */
+    public void stop() {
+        stopped = true;
+    }
+
+    /**
+     * Has vertex {@code v} been reached by a search?
+     * @param v the vertex
+     * @return {@code true} if {@code v} is marked, {@code false} otherwise
+     * @throws IllegalArgumentException unless {@code 0 <= v < V}
+     */
+    public boolean marked(int v) {
+        validateVertex(v);
+        return marked[v];
+    }
+
+    /**
+     * Returns the number of vertices.
+     * @return the number of vertices
+     */
+    public int V() {
+        return V;
+    }
+
+    // throw an IllegalArgumentException unless {@code 0 <= v < V}
+    private void validateVertex(int v) {
+        if (v < 0 || v >= V)
+            throw new IllegalArgumentException("vertex " + v + " is not between 0 and " + (V-1));
+    }
+
+    /**
+     * Unit tests the {@code DepthFirstTraversal} data type: prints the calls
+     * of a search of the whole digraph, indented by depth.
+     *
+     * @param args the command-line arguments
+     */
+    public static void main(String[] args) {
+        In in = new In(args[0]);
+        Digraph G = new Digraph(in);
+        DepthFirstTraversal dfs = new DepthFirstTraversal(G);
+        dfs.searchAll(new Visitor() {
+            private int depth;
+
+            private void indent() {
+                for (int i = 0; i < depth; i++)
+                    StdOut.print("  ");
+            }
+
+            public void pre(int v, int parent) {
+                indent();
+                StdOut.println("pre  " + v + (parent == -1 ? "" : " from " + parent));
+                depth++;
+            }
+
+            public void edge(int v, int w) {
+                indent();
+                StdOut.println("edge " + v + "->" + w);
+            }
+
+            public void post(int v, int parent) {
+                depth--;
+                indent();
+                StdOut.println("post " + v);
+            }
+        });
+    }
+}
@@ -0,0 +1,145 @@
+public class DijkstraHeapCompare {
+
+    // This class should not be instantiated.
+    private DijkstraHeapCompare() { }
+
+    /**
+     * Returns a road-network-style digraph: a {@code rows}-by-{@code cols} grid
+     * in which every vertex has roads to and from its (up to four) neighbors,
+     * with random lengths between 1 and 10.
+     *
+     * @param  rows the number of rows in the grid
+     * @param  cols the number of columns in the grid
+     * @return the grid digraph
+     */
+    public static PackedEdgeWeightedDigraph grid(int rows, int cols) {
+        int V = rows * cols;
+        int E = 2 * (rows * (cols-1) + (rows-1) * cols);
+        int[] from = new int[E];
+        int[] to = new int[E];
+        double[] weight = new double[E];
+        int e = 0;
+        for (int r = 0; r < rows; r++) {
+            for (int c = 0; c < cols; c++) {
+                int v = r*cols + c;
+                if (c+1 < cols) {
+                    double length = StdRandom.uniform(1.0, 10.0);
+                    from[e] = v;   to[e] = v+1;   weight[e++] = length;
+                    from[e] = v+1; to[e] = v;     weight[e++] = length;
+                }
+                if (r+1 < rows) {
+                    double length = StdRandom.uniform(1.0, 10.0);
+                    from[e] = v;    to[e] = v+cols; weight[e++] = length;
+                    from[e] = v+cols; to[e] = v;    weight[e++] = length;
+                }
+            }
+        }
+        return new PackedEdgeWeightedDigraph(V, from, to, weight);
+    }
+
+    // Dijkstra's algorithm with the boxed binary heap IndexMinPQ<Double>
+    private static double[] binaryBoxed(PackedEdgeWeightedDigraph G, int s) {
+        double[] distTo = initialDistances(G, s);
+        IndexMinPQ<Double> pq = new IndexMinPQ<Double>(G.V());
+        pq.insert(s, 0.0);
+        while (!pq.isEmpty()) {
+            int v = pq.delMin();
+            for (int e = G.begin(v), end = G.end(v); e < end; e++) {
+                int w = G.to(e);
+                if (distTo[w] > distTo[v] + G.weight(e)) {
+                    distTo[w] = distTo[v] + G.weight(e);
+                    if (pq.contains(w)) pq.decreaseKey(w, distTo[w]);
+                    else                pq.insert(w, distTo[w]);
+                }
+            }
+        }
+        return distTo;
+    }
+
+    // Dijkstra's algorithm with a d-ary heap keyed by primitive doubles
+    private static double[] dary(PackedEdgeWeightedDigraph G, int s, int d) {
+        double[] distTo = initialDistances(G, s);
+        IndexDoubleMinPQ pq = new IndexDoubleMinPQ(G.V(), d);
+        pq.insert(s, 0.0);
+        while (!pq.isEmpty()) {
+            int v = pq.delMin();
+            for (int e = G.begin(v), end = G.end(v); e < end; e++) {
+                int w = G.to(e);
+                if (distTo[w] > distTo[v] + G.weight(e)) {
+                    distTo[w] = distTo[v] + G.weight(e);
+                    if (pq.contains(w)) pq.decreaseKey(w, distTo[w]);
+                    else                pq.insert(w, distTo[w]);
+                }
+            }
+        }
+        return distTo;
+    }
+
+    private static double[] initialDistances(PackedEdgeWeightedDigraph G, int s) {
+        double[] distTo = new double[G.V()];
+        for (int v = 0; v < G.V(); v++)
+            distTo[v] = Double.POSITIVE_INFINITY;
+        distTo[s] = 0.0;
+        return distTo;
+    }
+
+    /**
+     * Returns the time to run Dijkstra's algorithm from each of the given sources
+     * with the named heap: {@code Boxed} for {@code IndexMinPQ<Double>}, or
+     * {@code 2-ary}, {@code 4-ary} or {@code 8-ary} for {@code IndexDoubleMinPQ}.
+     *
+     * @param  heap the name of the heap
+     * @param  G the digraph
+     * @param  sources the source vertices
+     * @return the elapsed time in seconds
+     */
+    public static double time(String heap, PackedEdgeWeightedDigraph G, int[] sources) {
+        Stopwatch sw = new Stopwatch();
+        for (int s : sources) {
+            if      (heap.equals("Boxed")) binaryBoxed(G, s);
+            else if (heap.equals("2-ary")) dary(G, s, 2);
+            else if (heap.equals("4-ary")) dary(G, s, 4);
+            else if (heap.equals("8-ary")) dary(G, s, 8);
+            else throw new IllegalArgumentException("Invalid heap: " + heap);
+        }
+        return sw.elapsedTime();
+    }
+
+    /**
+     * Builds a random grid and compares Dijkstra's algorithm with each heap.
+     * Takes the number of rows and columns of the grid and the number of
+     * sources as command-line arguments.
+     *
+     * @param args the command-line arguments
+     */
+    public static void main(String[] args) {
+        int rows = Integer.parseInt(args[0]);
+        int cols = Integer.parseInt(args[1]);
+        int trials = Integer.parseInt(args[2]);
+        PackedEdgeWeightedDigraph G = grid(rows, cols);
+
+        int[] sources = new int[trials];
+        for (int t = 0; t < trials; t++)
+            sources[t] = StdRandom.uniform(G.V());
+
+        // the heaps must agree before their running times mean anything
+        double[] expected = binaryBoxed(G, sources[0]);
+        for (int d = 2; d <= 8; d *= 2) {
+            double[] distTo = dary(G, sources[0], d);
+            for (int v = 0; v < G.V(); v++)
+                if (Math.abs(distTo[v] - expected[v]) > 1E-9)
+                    throw new IllegalStateException(d + "-ary heap disagrees at vertex " + v);
+        }
+
+        // warm up the JIT compiler, then time each heap
+        String[] heaps = { "Boxed", "2-ary", "4-ary", "8-ary" };
+        for (String heap : heaps)
+            time(heap, G, sources);
+        double base = time("Boxed", G, sources);
+        StdOut.printf("%d vertices, %d edges, %d sources\n", G.V(), G.E(), trials);
+        for (String heap : heaps) {
+            double t = (heap.equals("Boxed")) ? base : time(heap, G, sources);
+            StdOut.printf("%-6s %8.3f s  %5.2fx\n", heap, t, base/t);
+        }
+    }
+}
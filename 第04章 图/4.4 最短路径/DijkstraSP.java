@@ -1,7 +1,11 @@
 public class DijkstraSP {
     private double[] distTo;          // distTo[v] = distance  of shortest s->v path
     private DirectedEdge[] edgeTo;    // edgeTo[v] = last edge on shortest s->v path
-    private IndexMinPQ<Double> pq;    // priority queue of vertices
+    private IndexDoubleMinPQ pq;      // priority queue of vertices, keyed by distTo[]
+
+    // packed representation: edgeIndexTo[v] = index in packed of last edge on shortest s->v path
+    private PackedEdgeWeightedDigraph packed;
+    private int[] edgeIndexTo;
 
     /**
      * Computes a shortest-paths tree from the source vertex {@code s} to every other
@@ -28,7 +32,7 @@ public class DijkstraSP {
         distTo[s] = 0.0;
 
         // relax vertices in order of distance from s
-        pq = new IndexMinPQ<Double>(G.V());
+        pq = new IndexDoubleMinPQ(G.V());
         pq.insert(s, distTo[s]);
         while (!pq.isEmpty()) {
             int v = pq.delMin();
@@ -40,6 +44,47 @@ public class DijkstraSP {
         assert check(G, s);
     }
 
+    /**
+     * Computes a shortest-paths tree from the source vertex {@code s} to every other
+     * vertex in the packed edge-weighted digraph {@code G}.
+     * Edges are relaxed by index, so no object is allocated per edge.
+     *
+     * @param  G the packed edge-weighted digraph
+     * @param  s the source vertex
+     * @throws IllegalArgumentException if an edge weight is negative
+     * @throws IllegalArgumentException unless {@code 0 <= s < V}
+     */
+    public DijkstraSP(PackedEdgeWeightedDigraph G, int s) {
+        for (int e = 0; e < G.E(); e++) {
+            if (G.weight(e) < 0)
+                throw new IllegalArgumentException("edge " + G.edge(e) + " has negative weight");
+        }
+
+        packed = G;
+        distTo = new double[G.V()];
+        edgeIndexTo = new int[G.V()];
+
+        validateVertex(s);
+
+        for (int v = 0; v < G.V(); v++) {
+            distTo[v] = Double.POSITIVE_INFINITY;
+            edgeIndexTo[v] = -1;
+        }
+        distTo[s] = 0.0;
+
+        // relax vertices in order of distance from s
+        pq = new IndexDoubleMinPQ(G.V());
+        pq.insert(s, distTo[s]);
+        while (!pq.isEmpty()) {
+            int v = pq.delMin();
+            for (int e = G.begin(v), end = G.end(v); e < end; e++)
+                relax(G, e);
+        }
+
+        // check optimality conditions
+        assert check(G, s);
+    }
+
     // relax edge e and update pq if changed
     private void relax(DirectedEdge e) {
         int v = e.from(), w = e.to();
@@ -51,6 +96,17 @@ public class DijkstraSP {
         }
     }
 
+    // relax edge with index e in packed digraph G and update pq if changed
+    private void relax(PackedEdgeWeightedDigraph G, int e) {
+        int v = G.from(e), w = G.to(e);
+        if (distTo[w] > distTo[v] + G.weight(e)) {
+            distTo[w] = distTo[v] + G.weight(e);
+            edgeIndexTo[w] = e;
+            if (pq.contains(w)) pq.decreaseKey(w, distTo[w]);
+            else                pq.insert(w, distTo[w]);
+        }
+    }
+
     /**
      * Returns the length of a shortest path from the source vertex {@code s} to vertex {@code v}.
      * @param  v the destination vertex
@@ -88,6 +144,12 @@ public class DijkstraSP {
         validateVertex(v);
         if (!hasPathTo(v)) return null;
         Stack<DirectedEdge> path = new Stack<DirectedEdge>();
+        if (packed != null) {
+            for (int e = edgeIndexTo[v]; e != -1; e = edgeIndexTo[packed.from(e)]) {
+                path.push(packed.edge(e));
+            }
+            return path;
+        }
         for (DirectedEdge e = edgeTo[v]; e != null; e = edgeTo[e.from()]) {
             path.push(e);
         }
@@ -146,6 +208,51 @@ public class DijkstraSP {
         return true;
     }
 
+    // check optimality conditions for a packed edge-weighted digraph
+    private boolean check(PackedEdgeWeightedDigraph G, int s) {
+
+        // check that edge weights are non-negative
+        for (int e = 0; e < G.E(); e++) {
+            if (G.weight(e) < 0) {
+                System.err.println("negative edge weight detected");
+                return false;
+            }
+        }
+
+        // check that distTo[v] and edgeIndexTo[v] are consistent
+        if (distTo[s] != 0.0 || edgeIndexTo[s] != -1) {
+            System.err.println("distTo[s] and edgeTo[s] inconsistent");
+            return false;
+        }
+        for (int v = 0; v < G.V(); v++) {
+            if (v == s) continue;
+            if (edgeIndexTo[v] == -1 && distTo[v] != Double.POSITIVE_INFINITY) {
+                System.err.println("distTo[] and edgeTo[] inconsistent");
+                return false;
+            }
+        }
+
+        // check that all edges e = v->w satisfy distTo[w] <= distTo[v] + e.weight()
+        for (int e = 0; e < G.E(); e++) {
+            if (distTo[G.from(e)] + G.weight(e) < distTo[G.to(e)]) {
+                System.err.println("edge " + G.edge(e) + " not relaxed");
+                return false;
+            }
+        }
+
+        // check that all edges e = v->w on SPT satisfy distTo[w] == distTo[v] + e.weight()
+        for (int w = 0; w < G.V(); w++) {
+            int e = edgeIndexTo[w];
+            if (e == -1) continue;
+            if (w != G.to(e)) return false;
+            if (distTo[G.from(e)] + G.weight(e) != distTo[w]) {
+                System.err.println("edge " + G.edge(e) + " on shortest path not tight");
+                return false;
+            }
+        }
+        return true;
+    }
+
     // throw an IllegalArgumentException unless {@code 0 <= v < V}
     private void validateVertex(int v) {
         int V = distTo.length;
@@ -0,0 +1,259 @@
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+
+public class DistanceMatrix {
+    private static final int MAGIC = 0x41505350;       // "APSP"
+    private static final int HEADER = 16;              // magic, V, and padding to keep rows aligned
+
+    private final int V;               // number of vertices
+    private final double[] a;          // a[s*V + t] = distance from s to t, if on the heap
+
+    // if memory-mapped: the rows are split into segments of rowsPerSegment rows,
+    // since a single mapping cannot exceed 2 GB
+    private final String filename;
+    private final MappedByteBuffer[] segments;
+    private final int rowsPerSegment;
+
+    /**
+     * Initializes a <em>V</em>-by-<em>V</em> distance matrix on the heap,
+     * with every distance {@code Double.POSITIVE_INFINITY}.
+     *
+     * @param  V the number of vertices
+     * @throws IllegalArgumentException if {@code V < 0}
+     * @throws IllegalArgumentException if <em>V</em><sup>2</sup> entries do not fit in an array
+     */
+    public DistanceMatrix(int V) {
+        if (V < 0) throw new IllegalArgumentException("Number of vertices must be non-negative");
+        if ((long) V * V > Integer.MAX_VALUE - 8)
+            throw new IllegalArgumentException("too many vertices for a matrix on the heap: " + V);
+        this.V = V;
+        this.a = new double[V*V];
+        java.util.Arrays.fill(a, Double.POSITIVE_INFINITY);
+        this.filename = null;
+        this.segments = null;
+        this.rowsPerSegment = 0;
+    }
+
+    // wrap a flat V-by-V array
+    DistanceMatrix(int V, double[] a) {
+        this.V = V;
+        this.a = a;
+        this.filename = null;
+        this.segments = null;
+        this.rowsPerSegment = 0;
+    }
+
+    /**
+     * Initializes a <em>V</em>-by-<em>V</em> distance matrix in the named file, mapped
+     * into memory, with every distance {@code Double.POSITIVE_INFINITY}. The operating
+     * system pages the matrix in and out, so it can be much larger than the heap.
+     *
+     * @param  V the number of vertices
+     * @param  filename the name of the file, which is created or overwritten
+     * @throws IllegalArgumentException if {@code V < 0}
+     * @throws IllegalArgumentException if the file cannot be created
+     */
+    public DistanceMatrix(int V, String filename) {
+        this(V, filename, true);
+    }
+
+    private DistanceMatrix(int V, String filename, boolean create) {
+        if (V < 0) throw new IllegalArgumentException("Number of vertices must be non-negative");
+        this.V = V;
+        this.a = null;
+        this.filename = filename;
+        long rowBytes = 8L * Math.max(V, 1);
+        this.rowsPerSegment = (int) Math.max(1, Math.min(V, (Integer.MAX_VALUE - HEADER) / rowBytes));
+        int count = (V + rowsPerSegment - 1) / rowsPerSegment;
+        this.segments = new MappedByteBuffer[count];
+        try (RandomAccessFile file = new RandomAccessFile(filename, "rw")) {
+            FileChannel channel = file.getChannel();
+            if (create) {
+                file.setLength(0);
+                file.setLength(HEADER + rowBytes * V);
+                MappedByteBuffer header = channel.map(FileChannel.MapMode.READ_WRITE, 0, HEADER);
+                header.putInt(0, MAGIC);
+                header.putInt(4, V);
+            }
+            for (int i = 0; i < count; i++) {
+                int rows = Math.min(rowsPerSegment, V - i*rowsPerSegment);
+                segments[i] = channel.map(FileChannel.MapMode.READ_WRITE,
+                                          HEADER + rowBytes * i * rowsPerSegment, rowBytes * rows);
+            }
+        }
+        catch (IOException ioe) {
+            throw new IllegalArgumentException("could not map " + filename, ioe);
+        }
+        if (create) {
+            double[] row = new double[V];
+            java.util.Arrays.fill(row, Double.POSITIVE_INFINITY);
+            for (int s = 0; s < V; s++)
+                setRow(s, row);
+        }
+    }
+
+    /**
+     * Opens a distance matrix that was written to the named file.
+     *
+     * @param  filename the name of the file
+     * @return the distance matrix, mapped into memory
+     * @throws IllegalArgumentException if the file cannot be read or is not a distance matrix
+     */
+    public static DistanceMatrix open(String filename) {
+        int V;
+        try (RandomAccessFile file = new RandomAccessFile(filename, "r")) {
+            if (file.length() < HEADER || file.readInt() != MAGIC)
+                throw new IllegalArgumentException(filename + " is not a distance matrix");
+            V = file.readInt();
+            if (V < 0 || file.length() != HEADER + 8L * V * V)
+                throw new IllegalArgumentException(filename + " has the wrong length");
+        }
+        catch (IOException ioe) {
+            throw new IllegalArgumentException("could not open " + filename, ioe);
+        }
+        return new DistanceMatrix(V, filename, false);
+    }
+
+    /**
+     * Returns a copy of this distance matrix in the named file, mapped into memory.
+     *
+     * @param  filename the name of the file, which is created or overwritten
+     * @return the copy
+     * @throws IllegalArgumentException if the file cannot be created
+     */
+    public DistanceMatrix save(String filename) {
+        DistanceMatrix copy = new DistanceMatrix(V, filename);
+        double[] row = new double[V];
+        for (int s = 0; s < V; s++) {
+            getRow(s, row);
+            copy.setRow(s, row);
+        }
+        copy.flush();
+        return copy;
+    }
+
+    /**
+     * Returns the number of vertices.
+     * @return the number of vertices
+     */
+    public int V() {
+        return V;
+    }
+
+    /**
+     * Is this distance matrix mapped from a file?
+     * @return {@code true} if this matrix is in a file mapped into memory;
+     *         {@code false} if it is on the heap
+     */
+    public boolean isMapped() {
+        return a == null;
+    }
+
+    /**
+     * Returns the distance from {@code s} to {@code t}.
+     *
+     * @param  s the source vertex
+     * @param  t the destination vertex
+     * @return the distance from {@code s} to {@code t}
+     * @throws IllegalArgumentException unless {@code 0 <= s < V} and {@code 0 <= t < V}
+     */
+    public double get(int s, int t) {
+        validateVertex(s);
+        validateVertex(t);
+        if (a != null) return a[s*V + t];
+        return segments[s / rowsPerSegment].getDouble(8 * ((s % rowsPerSegment) * V + t));
+    }
+
+    /**
+     * Sets the distance from {@code s} to {@code t}.
+     *
+     * @param  s the source vertex
+     * @param  t the destination vertex
+     * @param  distance the distance
+     * @throws IllegalArgumentException unless {@code 0 <= s < V} and {@code 0 <= t < V}
+     */
+    public void set(int s, int t, double distance) {
+        validateVertex(s);
+        validateVertex(t);
+        if (a != null) a[s*V + t] = distance;
+        else segments[s / rowsPerSegment].putDouble(8 * ((s % rowsPerSegment) * V + t), distance);
+    }
+
+    /**
+     * Copies the distances from {@code s} into {@code row}.
+     *
+     * @param  s the source vertex
+     * @param  row an array of length at least <em>V</em>
+     * @throws IllegalArgumentException unless {@code 0 <= s < V}
+     */
+    public void getRow(int s, double[] row) {
+        validateVertex(s);
+        if (a != null) {
+            System.arraycopy(a, s*V, row, 0, V);
+            return;
+        }
+        MappedByteBuffer segment = segments[s / rowsPerSegment];
+        int offset = 8 * (s % rowsPerSegment) * V;
+        for (int t = 0; t < V; t++)
+            row[t] = segment.getDouble(offset + 8*t);
+    }
+
+    /**
+     * Sets the distances from {@code s} to those in {@code row}. Different threads may
+     * set different rows at the same time.
+     *
+     * @param  s the source vertex
+     * @param  row an array of length at least <em>V</em>
+     * @throws IllegalArgumentException unless {@code 0 <= s < V}
+     */
+    public void setRow(int s, double[] row) {
+        validateVertex(s);
+        if (a != null) {
+            System.arraycopy(row, 0, a, s*V, V);
+            return;
+        }
+        MappedByteBuffer segment = segments[s / rowsPerSegment];
+        int offset = 8 * (s % rowsPerSegment) * V;
+        for (int t = 0; t < V; t++)
+            segment.putDouble(offset + 8*t, row[t]);
+    }
+
+    /**
+     * Writes any changes to a memory-mapped matrix out to its file.
+     */
+    public void flush() {
+        if (segments == null) return;
+        for (MappedByteBuffer segment : segments)
+            segment.force();
+    }
+
+    // the flat array, if on the heap
+    double[] array() {
+        return a;
+    }
+
+    // throw an IllegalArgumentException unless {@code 0 <= v < V}
+    private void validateVertex(int v) {
+        if (v < 0 || v >= V)
+            throw new IllegalArgumentException("vertex " + v + " is not between 0 and " + (V-1));
+    }
+
+    /**
+     * Returns a string representation of this distance matrix.
+     * @return the distances, one row per line
+     */
+    public String toString() {
+        StringBuilder s = new StringBuilder();
+        for (int v = 0; v < V; v++) {
+            for (int w = 0; w < V; w++) {
+                double d = get(v, w);
+                if (d < Double.POSITIVE_INFINITY) s.append(String.format("%6.2f ", d));
+                else                              s.append("  Inf  ");
+            }
+            s.append(System.getProperty("line.separator"));
+        }
+        return s.toString();
+    }
+}
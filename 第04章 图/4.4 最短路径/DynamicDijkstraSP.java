@@ -0,0 +1,466 @@
+public class DynamicDijkstraSP {
+    private final int s;               // the source vertex
+    private final double[] distTo;     // distTo[v] = distance of shortest s->v path
+    private final int[] edgeTo;        // edgeTo[v] = index of last edge on shortest s->v path, or -1
+    private final IndexDoubleMinPQ pq; // priority queue of vertices, keyed by distTo[]
+
+    // the digraph, which changes: edge e is from[e]->to[e] with weight weight[e]
+    private int E;                     // number of edges, including removed ones
+    private int[] from, to;
+    private double[] weight;
+    private boolean[] removed;         // removed[e] = has edge e been removed?
+    private final IntList[] out, in;   // indices of the edges incident from and to each vertex
+    private int[] outPos, inPos;       // position of edge e in out[from[e]] and in in[to[e]]
+
+    private final int[] mark;          // mark[v] == stamp if v is in the subtree being repaired
+    private int stamp;
+    private int touched;               // number of vertices touched by the last update
+
+    /**
+     * Computes a shortest-paths tree from the source vertex {@code s} to every other
+     * vertex in the edge-weighted digraph {@code G}, which it can then keep up to date
+     * as edges change. Edge {@code e} of {@code G} is the {@code e}th edge in order of
+     * {@code G.adj(0)}, {@code G.adj(1)}, ..., the same as in a {@code PackedEdgeWeightedDigraph}
+     * built from {@code G}. {@code G} itself is not changed or retained.
+     *
+     * @param  G the edge-weighted digraph
+     * @param  s the source vertex
+     * @throws IllegalArgumentException if an edge weight is negative
+     * @throws IllegalArgumentException unless {@code 0 <= s < V}
+     */
+    public DynamicDijkstraSP(EdgeWeightedDigraph G, int s) {
+        this(new PackedEdgeWeightedDigraph(G), s);
+    }
+
+    /**
+     * Computes a shortest-paths tree from the source vertex {@code s} to every other
+     * vertex in the packed edge-weighted digraph {@code G}, which it can then keep up to
+     * date as edges change. Edge {@code e} keeps its index in {@code G}.
+     *
+     * @param  G the packed edge-weighted digraph
+     * @param  s the source vertex
+     * @throws IllegalArgumentException if an edge weight is negative
+     * @throws IllegalArgumentException unless {@code 0 <= s < V}
+     */
+    public DynamicDijkstraSP(PackedEdgeWeightedDigraph G, int s) {
+        int V = G.V();
+        distTo = new double[V];
+        edgeTo = new int[V];
+        validateVertex(s);
+        this.s = s;
+
+        int capacity = Math.max(G.E(), 8);
+        from = new int[capacity];
+        to = new int[capacity];
+        weight = new double[capacity];
+        removed = new boolean[capacity];
+        outPos = new int[capacity];
+        inPos = new int[capacity];
+        out = new IntList[V];
+        in = new IntList[V];
+        for (int v = 0; v < V; v++) {
+            out[v] = new IntList();
+            in[v] = new IntList();
+        }
+        for (int e = 0; e < G.E(); e++) {
+            if (G.weight(e) < 0)
+                throw new IllegalArgumentException("edge " + G.edge(e) + " has negative weight");
+            insertEdge(G.from(e), G.to(e), G.weight(e));
+        }
+
+        mark = new int[V];
+        pq = new IndexDoubleMinPQ(V);
+        for (int v = 0; v < V; v++) {
+            distTo[v] = Double.POSITIVE_INFINITY;
+            edgeTo[v] = -1;
+        }
+        distTo[s] = 0.0;
+        pq.insert(s, 0.0);
+        touched = dijkstra();
+
+        // check optimality conditions
+        assert check();
+    }
+
+    /**
+     * Returns the number of vertices.
+     * @return the number of vertices
+     */
+    public int V() {
+        return distTo.length;
+    }
+
+    /**
+     * Returns the number of edges ever added, including those since removed.
+     * Edge indices are between {@code 0} and {@code E() - 1}.
+     * @return the number of edges ever added
+     */
+    public int E() {
+        return E;
+    }
+
+    /**
+     * Returns edge {@code e}, with its current weight.
+     *
+     * @param  e the edge index
+     * @return edge {@code e} as a directed edge
+     * @throws IllegalArgumentException unless edge {@code e} exists and has not been removed
+     */
+    public DirectedEdge edge(int e) {
+        validateEdge(e);
+        return new DirectedEdge(from[e], to[e], weight[e]);
+    }
+
+    /**
+     * Returns true if edge {@code e} has been removed.
+     *
+     * @param  e the edge index
+     * @return {@code true} if edge {@code e} has been removed; {@code false} otherwise
+     * @throws IllegalArgumentException unless {@code 0 <= e < E()}
+     */
+    public boolean isRemoved(int e) {
+        if (e < 0 || e >= E)
+            throw new IllegalArgumentException("edge " + e + " is not between 0 and " + (E-1));
+        return removed[e];
+    }
+
+    /**
+     * Adds the directed edge {@code v->w} with the given weight, and updates the
+     * shortest paths that it shortens.
+     *
+     * @param  v the tail vertex
+     * @param  w the head vertex
+     * @param  x the weight
+     * @return the index of the new edge
+     * @throws IllegalArgumentException unless both {@code 0 <= v < V} and {@code 0 <= w < V}
+     * @throws IllegalArgumentException if {@code x} is negative or {@code NaN}
+     */
+    public int addEdge(int v, int w, double x) {
+        validateVertex(v);
+        validateVertex(w);
+        validateWeight(x);
+        int e = insertEdge(v, w, x);
+        touched = decrease(e);
+        return e;
+    }
+
+    /**
+     * Removes edge {@code e}, and repairs the shortest paths that used it.
+     *
+     * @param  e the edge index
+     * @throws IllegalArgumentException unless edge {@code e} exists and has not been removed
+     */
+    public void removeEdge(int e) {
+        validateEdge(e);
+        removed[e] = true;
+        delete(out[from[e]], outPos, e);
+        delete(in[to[e]], inPos, e);
+        touched = (edgeTo[to[e]] == e) ? increase(to[e]) : 0;
+    }
+
+    /**
+     * Changes the weight of edge {@code e}. A smaller weight can only shorten paths
+     * through the edge, which are found by a Dijkstra search started at its head;
+     * a larger weight can only lengthen paths to the vertices in the shortest-paths
+     * subtree below it, if it is a tree edge, and only those vertices are recomputed.
+     *
+     * @param  e the edge index
+     * @param  x the new weight
+     * @throws IllegalArgumentException unless edge {@code e} exists and has not been removed
+     * @throws IllegalArgumentException if {@code x} is negative or {@code NaN}
+     */
+    public void updateWeight(int e, double x) {
+        validateEdge(e);
+        validateWeight(x);
+        double old = weight[e];
+        weight[e] = x;
+        if (x < old)                                 touched = decrease(e);
+        else if (x > old && edgeTo[to[e]] == e)      touched = increase(to[e]);
+        else                                         touched = 0;
+    }
+
+    /**
+     * Returns the number of vertices whose distance or last edge the most recent
+     * update (or the constructor) examined and may have changed.
+     *
+     * @return the number of vertices touched by the most recent update
+     */
+    public int touched() {
+        return touched;
+    }
+
+    // edge e got shorter (or is new); propagate the shorter paths through it
+    private int decrease(int e) {
+        int v = from[e], w = to[e];
+        if (!(distTo[v] + weight[e] < distTo[w])) return 0;
+        distTo[w] = distTo[v] + weight[e];
+        edgeTo[w] = e;
+        pq.insert(w, distTo[w]);
+        return dijkstra();
+    }
+
+    // the tree edge into w got longer (or is gone); recompute the subtree rooted at w
+    private int increase(int w) {
+        // the vertices whose shortest path went through the edge: the subtree rooted at w
+        stamp++;
+        Stack<Integer> stack = new Stack<Integer>();
+        Queue<Integer> subtree = new Queue<Integer>();
+        stack.push(w);
+        mark[w] = stamp;
+        while (!stack.isEmpty()) {
+            int v = stack.pop();
+            subtree.enqueue(v);
+            IntList edges = out[v];
+            for (int i = 0; i < edges.size(); i++) {
+                int e = edges.get(i);
+                int x = to[e];
+                if (edgeTo[x] == e && mark[x] != stamp) {
+                    mark[x] = stamp;
+                    stack.push(x);
+                }
+            }
+        }
+        for (int v : subtree) {
+            distTo[v] = Double.POSITIVE_INFINITY;
+            edgeTo[v] = -1;
+        }
+
+        // the best way into each of them from outside the subtree, whose distances are still right
+        for (int v : subtree) {
+            IntList edges = in[v];
+            for (int i = 0; i < edges.size(); i++) {
+                int e = edges.get(i);
+                int u = from[e];
+                if (mark[u] == stamp) continue;
+                if (distTo[u] + weight[e] < distTo[v]) {
+                    distTo[v] = distTo[u] + weight[e];
+                    edgeTo[v] = e;
+                }
+            }
+            if (distTo[v] < Double.POSITIVE_INFINITY) pq.insert(v, distTo[v]);
+        }
+
+        // then settle the subtree in order of distance; only its vertices can improve
+        dijkstra();
+        return subtree.size();
+    }
+
+    // run Dijkstra's algorithm from the vertices on pq; return the number settled
+    private int dijkstra() {
+        int settled = 0;
+        while (!pq.isEmpty()) {
+            int v = pq.delMin();
+            settled++;
+            IntList edges = out[v];
+            for (int i = 0; i < edges.size(); i++) {
+                int e = edges.get(i);
+                int w = to[e];
+                if (distTo[v] + weight[e] < distTo[w]) {
+                    distTo[w] = distTo[v] + weight[e];
+                    edgeTo[w] = e;
+                    if (pq.contains(w)) pq.decreaseKey(w, distTo[w]);
+                    else                pq.insert(w, distTo[w]);
+                }
+            }
+        }
+        return settled;
+    }
+
+    // append edge v->w to the digraph and return its index
+    private int insertEdge(int v, int w, double x) {
+        if (E == from.length) {
+            int n = 2*E;
+            from = java.util.Arrays.copyOf(from, n);
+            to = java.util.Arrays.copyOf(to, n);
+            weight = java.util.Arrays.copyOf(weight, n);
+            removed = java.util.Arrays.copyOf(removed, n);
+            outPos = java.util.Arrays.copyOf(outPos, n);
+            inPos = java.util.Arrays.copyOf(inPos, n);
+        }
+        int e = E++;
+        from[e] = v;
+        to[e] = w;
+        weight[e] = x;
+        outPos[e] = out[v].size();
+        out[v].add(e);
+        inPos[e] = in[w].size();
+        in[w].add(e);
+        return e;
+    }
+
+    // remove edge e from list, moving the last edge of the list into its place
+    private static void delete(IntList list, int[] pos, int e) {
+        int last = list.removeLast();
+        if (last != e) {
+            list.set(pos[e], last);
+            pos[last] = pos[e];
+        }
+    }
+
+    /**
+     * Returns the length of a shortest path from the source vertex {@code s} to vertex {@code v}.
+     * @param  v the destination vertex
+     * @return the length of a shortest path from the source vertex {@code s} to vertex {@code v};
+     *         {@code Double.POSITIVE_INFINITY} if no such path
+     * @throws IllegalArgumentException unless {@code 0 <= v < V}
+     */
+    public double distTo(int v) {
+        validateVertex(v);
+        return distTo[v];
+    }
+
+    /**
+     * Returns true if there is a path from the source vertex {@code s} to vertex {@code v}.
+     *
+     * @param  v the destination vertex
+     * @return {@code true} if there is a path from the source vertex
+     *         {@code s} to vertex {@code v}; {@code false} otherwise
+     * @throws IllegalArgumentException unless {@code 0 <= v < V}
+     */
+    public boolean hasPathTo(int v) {
+        validateVertex(v);
+        return distTo[v] < Double.POSITIVE_INFINITY;
+    }
+
+    /**
+     * Returns a shortest path from the source vertex {@code s} to vertex {@code v}.
+     *
+     * @param  v the destination vertex
+     * @return a shortest path from the source vertex {@code s} to vertex {@code v}
+     *         as an iterable of edges, and {@code null} if no such path
+     * @throws IllegalArgumentException unless {@code 0 <= v < V}
+     */
+    public Iterable<DirectedEdge> pathTo(int v) {
+        validateVertex(v);
+        if (!hasPathTo(v)) return null;
+        Stack<DirectedEdge> path = new Stack<DirectedEdge>();
+        for (int e = edgeTo[v]; e != -1; e = edgeTo[from[e]]) {
+            path.push(new DirectedEdge(from[e], to[e], weight[e]));
+        }
+        return path;
+    }
+
+
+    // check optimality conditions:
+    // (i) for all edges e:            distTo[e.to()] <= distTo[e.from()] + e.weight()
+    // (ii) for all edge e on the SPT: distTo[e.to()] == distTo[e.from()] + e.weight()
+    private boolean check() {
+
+        // check that distTo[v] and edgeTo[v] are consistent
+        if (distTo[s] != 0.0 || edgeTo[s] != -1) {
+            System.err.println("distTo[s] and edgeTo[s] inconsistent");
+            return false;
+        }
+        for (int v = 0; v < V(); v++) {
+            if (v == s) continue;
+            if (edgeTo[v] == -1 && distTo[v] != Double.POSITIVE_INFINITY) {
+                System.err.println("distTo[] and edgeTo[] inconsistent");
+                return false;
+            }
+        }
+
+        // check that all edges e = v->w satisfy distTo[w] <= distTo[v] + e.weight()
+        for (int e = 0; e < E; e++) {
+            if (removed[e]) continue;
+            if (distTo[from[e]] + weight[e] < distTo[to[e]]) {
+                System.err.println("edge " + edge(e) + " not relaxed");
+                return false;
+            }
+        }
+
+        // check that all edges e = v->w on SPT satisfy distTo[w] == distTo[v] + e.weight()
+        for (int w = 0; w < V(); w++) {
+            int e = edgeTo[w];
+            if (e == -1) continue;
+            if (removed[e] || w != to[e]) return false;
+            if (distTo[from[e]] + weight[e] != distTo[w]) {
+                System.err.println("edge " + edge(e) + " on shortest path not tight");
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // throw an IllegalArgumentException unless {@code 0 <= v < V}
+    private void validateVertex(int v) {
+        int V = distTo.length;
+        if (v < 0 || v >= V)
+            throw new IllegalArgumentException("vertex " + v + " is not between 0 and " + (V-1));
+    }
+
+    // throw an IllegalArgumentException unless edge e exists and has not been removed
+    private void validateEdge(int e) {
+        if (e < 0 || e >= E)
+            throw new IllegalArgumentException("edge " + e + " is not between 0 and " + (E-1));
+        if (removed[e])
+            throw new IllegalArgumentException("edge " + e + " has been removed");
+    }
+
+    // throw an IllegalArgumentException if x is not a valid edge weight
+    private static void validateWeight(double x) {
+        if (Double.isNaN(x)) throw new IllegalArgumentException("Weight is NaN");
+        if (x < 0) throw new IllegalArgumentException("edge weight " + x + " is negative");
+    }
+
+    // a growable list of edge indices
+    private static class IntList {
+        private int[] a = new int[4];
+        private int size;
+
+        void add(int x) {
+            if (size == a.length) {
+                int[] copy = new int[2*a.length];
+                System.arraycopy(a, 0, copy, 0, size);
+                a = copy;
+            }
+            a[size++] = x;
+        }
+
+        int get(int i)         { return a[i];     }
+        void set(int i, int x) { a[i] = x;        }
+        int removeLast()       { return a[--size]; }
+        int size()             { return size;     }
+    }
+
+    /**
+     * Unit tests the {@code DynamicDijkstraSP} data type: applies random weight
+     * changes, insertions and removals, and after each one compares the distances
+     * with a {@code DijkstraSP} computed from scratch.
+     *
+     * @param args the command-line arguments
+     */
+    public static void main(String[] args) {
+        In in = new In(args[0]);
+        int s = Integer.parseInt(args[1]);
+        int updates = Integer.parseInt(args[2]);
+        EdgeWeightedDigraph G = new EdgeWeightedDigraph(in);
+        DynamicDijkstraSP sp = new DynamicDijkstraSP(G, s);
+        int V = G.V();
+
+        long touched = 0;
+        for (int i = 0; i < updates; i++) {
+            double r = StdRandom.uniform();
+            if (r < 0.1 || sp.E() == 0) {
+                sp.addEdge(StdRandom.uniform(V), StdRandom.uniform(V), StdRandom.uniform(1, 100));
+            }
+            else {
+                int e = StdRandom.uniform(sp.E());
+                if (sp.isRemoved(e)) continue;
+                if (r < 0.2) sp.removeEdge(e);
+                else         sp.updateWeight(e, StdRandom.uniform(1, 100));
+            }
+            touched += sp.touched();
+
+            // rebuild the current digraph and compare with a full recomputation
+            EdgeWeightedDigraph H = new EdgeWeightedDigraph(V);
+            for (int f = 0; f < sp.E(); f++)
+                if (!sp.isRemoved(f)) H.addEdge(sp.edge(f));
+            DijkstraSP expected = new DijkstraSP(H, s);
+            for (int v = 0; v < V; v++)
+                if (Math.abs(expected.distTo(v) - sp.distTo(v)) > 1E-9 && expected.distTo(v) != sp.distTo(v))
+                    StdOut.printf("update %d: distTo(%d) = %.2f, expected %.2f\n", i, v, sp.distTo(v), expected.distTo(v));
+            assert sp.check();
+        }
+        StdOut.printf("%d updates, %.1f vertices touched per update (V = %d)\n", updates, 1.0 * touched / updates, V);
+    }
+}
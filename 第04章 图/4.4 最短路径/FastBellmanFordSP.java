@@ -0,0 +1,552 @@
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+public class FastBellmanFordSP {
+    // for floating-point precision issues
+    private static final double EPSILON = 1E-14;
+
+    // relax at most this many frontier vertices in one fork-join task
+    private static final int CUTOFF = 256;
+
+    private final PackedEdgeWeightedDigraph G;
+    private final double[] distTo;         // distTo[v] = distance  of shortest s->v path
+    private final int[] edgeTo;            // edgeTo[v] = index of last edge on shortest s->v path, or -1
+    private Iterable<DirectedEdge> cycle;  // negative cycle (or null if no such cycle)
+    private long cost;                     // number of edges relaxed
+
+    // serial mode: the queue, a doubly-linked deque of vertices, and the shortest-paths
+    // tree, threaded in preorder through a doubly-linked list; index V is the sentinel of both
+    private int[] qNext, qPrev;
+    private boolean[] onQueue;
+    private int queued;                    // number of vertices on the queue
+    private double queuedSum;              // sum of their distances, for the LLL test
+    private int[] after, before, depth;
+    private boolean[] inTree;
+
+    // parallel mode: state shared with the relaxation tasks during one round
+    private AtomicLongArray next;          // next[v] = sortable bits of v's distance after this round
+    private AtomicIntegerArray improvedIn; // improvedIn[v] = last round in which v improved
+    private int round;
+    private int[] improved;                // vertices that improved in this round
+    private AtomicInteger n;               // number of entries in improved[]
+
+    /**
+     * Computes a shortest paths tree from {@code s} to every other vertex in
+     * the edge-weighted digraph {@code G}, or finds a negative cycle reachable from {@code s}.
+     * @param G the edge-weighted digraph
+     * @param s the source vertex
+     * @throws IllegalArgumentException unless {@code 0 <= s < V}
+     */
+    public FastBellmanFordSP(EdgeWeightedDigraph G, int s) {
+        this(new PackedEdgeWeightedDigraph(G), s);
+    }
+
+    /**
+     * Computes a shortest paths tree from {@code s} to every other vertex in
+     * the packed edge-weighted digraph {@code G}, or finds a negative cycle reachable from {@code s}.
+     * <p>
+     * This is the queue-based Bellman-Ford algorithm with two heuristics for the
+     * order of the queue: a vertex whose distance is smaller than that of the vertex
+     * at the front goes to the front instead of the back (<em>small label first</em>),
+     * and a vertex at the front whose distance is larger than the average on the queue
+     * goes to the back instead of being relaxed (<em>large label last</em>).
+     * It also keeps the shortest-paths tree in preorder and, when the distance to
+     * {@code w} decreases, takes the subtree below {@code w} out of the tree and off
+     * the queue, since those distances are stale (Tarjan's <em>subtree disassembly</em>).
+     * If the subtree holds the vertex whose edge just decreased the distance to {@code w},
+     * that edge closes a negative cycle, which is found at once and without copying the digraph.
+     *
+     * @param G the packed edge-weighted digraph
+     * @param s the source vertex
+     * @throws IllegalArgumentException unless {@code 0 <= s < V}
+     */
+    public FastBellmanFordSP(PackedEdgeWeightedDigraph G, int s) {
+        this.G = G;
+        int V = G.V();
+        distTo = new double[V];
+        edgeTo = new int[V];
+        validateVertex(s);
+        for (int v = 0; v < V; v++) {
+            distTo[v] = Double.POSITIVE_INFINITY;
+            edgeTo[v] = -1;
+        }
+        distTo[s] = 0.0;
+
+        qNext = new int[V+1];
+        qPrev = new int[V+1];
+        qNext[V] = qPrev[V] = V;
+        onQueue = new boolean[V];
+        after = new int[V+1];
+        before = new int[V+1];
+        depth = new int[V+1];
+        inTree = new boolean[V];
+        after[V] = before[V] = V;
+        depth[V] = -1;
+        insertAfter(V, s);
+        enqueue(s);
+
+        int rotations = 0;
+        while (queued > 0 && cycle == null) {
+            int v = qNext[V];
+
+            // large label last: a vertex farther than average waits at the back; queuedSum
+            // drifts with rounding, so after a whole lap of the queue the front is relaxed anyway
+            if (queued > 1 && rotations < queued && distTo[v] > queuedSum / queued) {
+                dequeue(v);
+                enqueueLast(v);
+                rotations++;
+                continue;
+            }
+            rotations = 0;
+            dequeue(v);
+            for (int e = G.begin(v), end = G.end(v); e < end; e++) {
+                int w = G.to(e);
+                cost++;
+                if (distTo[w] > distTo[v] + G.weight(e) + EPSILON) {
+                    if (inTree[w] && disassemble(w, v)) {
+                        negativeCycle(e);
+                        break;
+                    }
+                    if (onQueue[w]) queuedSum -= distTo[w];
+                    distTo[w] = distTo[v] + G.weight(e);
+                    edgeTo[w] = e;
+                    insertAfter(v, w);
+                    if (onQueue[w]) queuedSum += distTo[w];
+                    else            enqueue(w);
+                }
+            }
+        }
+        qNext = qPrev = after = before = depth = null;
+        onQueue = inTree = null;
+
+        assert check(s);
+    }
+
+    /**
+     * Computes a shortest paths tree from {@code s} to every other vertex in
+     * the packed edge-weighted digraph {@code G}, or finds a negative cycle reachable
+     * from {@code s}, with synchronous rounds of relaxation run in parallel.
+     * Each round relaxes, in parallel, every edge out of a vertex whose distance decreased
+     * in the round before, using the distances from the round before, so the rounds
+     * compute the same distances as the textbook algorithm and need no locks, only an
+     * atomic minimum per vertex. A round that still decreases a distance after <em>V</em>
+     * rounds proves a negative cycle, which is then read off the parent pointers.
+     * This suits dense digraphs, where each round has plenty of edges to share out.
+     *
+     * @param  G the packed edge-weighted digraph
+     * @param  s the source vertex
+     * @param  pool the pool that runs the relaxations
+     * @throws IllegalArgumentException if {@code pool} is {@code null}
+     * @throws IllegalArgumentException unless {@code 0 <= s < V}
+     */
+    public FastBellmanFordSP(PackedEdgeWeightedDigraph G, int s, ForkJoinPool pool) {
+        if (pool == null) throw new IllegalArgumentException("argument is null");
+        this.G = G;
+        int V = G.V();
+        distTo = new double[V];
+        edgeTo = new int[V];
+        validateVertex(s);
+        for (int v = 0; v < V; v++) {
+            distTo[v] = Double.POSITIVE_INFINITY;
+            edgeTo[v] = -1;
+        }
+        distTo[s] = 0.0;
+
+        next = new AtomicLongArray(V);
+        for (int v = 0; v < V; v++)
+            next.set(v, sortable(distTo[v]));
+        improvedIn = new AtomicIntegerArray(V);
+        int[] frontier = { s };
+        int size = 1;
+        improved = new int[V];
+        n = new AtomicInteger();
+
+        for (round = 1; size > 0 && round <= V; round++) {
+            n.set(0);
+            pool.invoke(new Relaxation(frontier, 0, size, false));
+            pool.invoke(new Relaxation(frontier, 0, size, true));
+            size = n.get();
+            for (int i = 0; i < size; i++) {
+                int w = improved[i];
+                distTo[w] = fromSortable(next.get(w));
+            }
+            int[] swap = frontier.length >= size ? frontier : new int[V];
+            System.arraycopy(improved, 0, swap, 0, size);
+            frontier = swap;
+        }
+        if (size > 0) findNegativeCycle();
+        next = null;
+        improvedIn = null;
+        improved = null;
+
+        assert check(s);
+    }
+
+    // relax the edges out of part of the frontier: first every candidate distance is
+    // folded into next[] with an atomic minimum, then the edges that achieved it become parents
+    private class Relaxation extends RecursiveAction {
+        private final int[] vertices;
+        private final int lo, hi;
+        private final boolean parents;
+
+        Relaxation(int[] vertices, int lo, int hi, boolean parents) {
+            this.vertices = vertices;
+            this.lo = lo;
+            this.hi = hi;
+            this.parents = parents;
+        }
+
+        @Override
+        protected void compute() {
+            if (hi - lo > CUTOFF) {
+                int mid = lo + (hi - lo) / 2;
+                invokeAll(new Relaxation(vertices, lo, mid, parents),
+                          new Relaxation(vertices, mid, hi, parents));
+                return;
+            }
+            for (int k = lo; k < hi; k++) {
+                int v = vertices[k];
+                double distV = distTo[v];
+                for (int e = G.begin(v), end = G.end(v); e < end; e++) {
+                    int w = G.to(e);
+                    double candidate = distV + G.weight(e);
+                    if (parents) {
+                        if (improvedIn.get(w) == round && next.get(w) == sortable(candidate))
+                            edgeTo[w] = e;
+                        continue;
+                    }
+                    if (!(distTo[w] > candidate + EPSILON)) continue;
+                    long bits = sortable(candidate);
+                    long current = next.get(w);
+                    while (bits < current) {
+                        if (next.compareAndSet(w, current, bits)) {
+                            if (improvedIn.getAndSet(w, round) != round)
+                                improved[n.getAndIncrement()] = w;
+                            break;
+                        }
+                        current = next.get(w);
+                    }
+                }
+            }
+        }
+    }
+
+    // the bits of x as a long that orders like x, for negative values too
+    private static long sortable(double x) {
+        long bits = Double.doubleToLongBits(x);
+        return bits ^ ((bits >> 63) & 0x7fffffffffffffffL);
+    }
+
+    private static double fromSortable(long bits) {
+        return Double.longBitsToDouble(bits ^ ((bits >> 63) & 0x7fffffffffffffffL));
+    }
+
+    // by finding a cycle in the predecessor graph given by edgeTo[]
+    private void findNegativeCycle() {
+        int V = edgeTo.length;
+        int[] stamp = new int[V];
+        for (int v = 0; v < V; v++) {
+            if (stamp[v] != 0) continue;
+            int x = v;
+            while (x != -1 && stamp[x] == 0) {
+                stamp[x] = v + 1;
+                x = edgeTo[x] == -1 ? -1 : G.from(edgeTo[x]);
+            }
+            if (x != -1 && stamp[x] == v + 1) {
+                Stack<DirectedEdge> path = new Stack<DirectedEdge>();
+                int y = x;
+                do {
+                    int e = edgeTo[y];
+                    path.push(G.edge(e));
+                    y = G.from(e);
+                } while (y != x);
+                cycle = path;
+                return;
+            }
+        }
+    }
+
+    // edge e = v->w closes a cycle with the tree path from w down to v
+    private void negativeCycle(int e) {
+        Stack<DirectedEdge> path = new Stack<DirectedEdge>();
+        path.push(G.edge(e));
+        for (int x = G.from(e); x != G.to(e); x = G.from(edgeTo[x]))
+            path.push(G.edge(edgeTo[x]));
+        cycle = path;
+    }
+
+    // take the subtree below w out of the tree and its vertices off the queue;
+    // return true, leaving the tree alone, if v is w or in the subtree
+    private boolean disassemble(int w, int v) {
+        // a self-loop v->v that decreases distTo[v] is a negative cycle by itself
+        if (w == v) return true;
+        int x = after[w];
+        while (depth[x] > depth[w]) {
+            if (x == v) return true;
+            x = after[x];
+        }
+        for (int y = after[w]; y != x; y = after[y]) {
+            inTree[y] = false;
+            if (onQueue[y]) {
+                dequeue(y);
+            }
+        }
+        // unlink w and its subtree
+        int b = before[w];
+        after[b] = x;
+        before[x] = b;
+        inTree[w] = false;
+        return false;
+    }
+
+    // make w a child of v in the tree, right after v in preorder
+    private void insertAfter(int v, int w) {
+        int a = after[v];
+        after[w] = a;
+        before[a] = w;
+        after[v] = w;
+        before[w] = v;
+        depth[w] = depth[v] + 1;
+        inTree[w] = true;
+    }
+
+    // put v at the back of the queue, or at the front if it is nearer than the front (small label first)
+    private void enqueue(int v) {
+        int V = distTo.length;
+        if (queued > 0 && distTo[v] < distTo[qNext[V]]) link(V, v);
+        else                                            link(qPrev[V], v);
+    }
+
+    private void enqueueLast(int v) {
+        link(qPrev[distTo.length], v);
+    }
+
+    // insert v into the queue after x
+    private void link(int x, int v) {
+        int y = qNext[x];
+        qNext[x] = v;
+        qPrev[v] = x;
+        qNext[v] = y;
+        qPrev[y] = v;
+        onQueue[v] = true;
+        queued++;
+        queuedSum += distTo[v];
+    }
+
+    private void dequeue(int v) {
+        qNext[qPrev[v]] = qNext[v];
+        qPrev[qNext[v]] = qPrev[v];
+        onQueue[v] = false;
+        queued--;
+        queuedSum -= distTo[v];
+        if (queued == 0) queuedSum = 0.0;
+    }
+
+    /**
+     * Is there a negative cycle reachable from the source vertex {@code s}?
+     * @return {@code true} if there is a negative cycle reachable from the
+     *    source vertex {@code s}, and {@code false} otherwise
+     */
+    public boolean hasNegativeCycle() {
+        return cycle != null;
+    }
+
+    /**
+     * Returns a negative cycle reachable from the source vertex {@code s}, or {@code null}
+     * if there is no such cycle.
+     * @return a negative cycle reachable from the source vertex {@code s}
+     *    as an iterable of edges, and {@code null} if there is no such cycle
+     */
+    public Iterable<DirectedEdge> negativeCycle() {
+        return cycle;
+    }
+
+    /**
+     * Returns the number of edge relaxations the serial algorithm performed.
+     * @return the number of edge relaxations, or 0 in parallel mode
+     */
+    public long cost() {
+        return cost;
+    }
+
+    /**
+     * Returns the length of a shortest path from the source vertex {@code s} to vertex {@code v}.
+     * @param  v the destination vertex
+     * @return the length of a shortest path from the source vertex {@code s} to vertex {@code v};
+     *         {@code Double.POSITIVE_INFINITY} if no such path
+     * @throws UnsupportedOperationException if there is a negative cost cycle reachable
+     *         from the source vertex {@code s}
+     * @throws IllegalArgumentException unless {@code 0 <= v < V}
+     */
+    public double distTo(int v) {
+        validateVertex(v);
+        if (hasNegativeCycle())
+            throw new UnsupportedOperationException("Negative cost cycle exists");
+        return distTo[v];
+    }
+
+    /**
+     * Is there a path from the source {@code s} to vertex {@code v}?
+     * @param  v the destination vertex
+     * @return {@code true} if there is a path from the source vertex
+     *         {@code s} to vertex {@code v}, and {@code false} otherwise
+     * @throws IllegalArgumentException unless {@code 0 <= v < V}
+     */
+    public boolean hasPathTo(int v) {
+        validateVertex(v);
+        return distTo[v] < Double.POSITIVE_INFINITY;
+    }
+
+    /**
+     * Returns a shortest path from the source {@code s} to vertex {@code v}.
+     * @param  v the destination vertex
+     * @return a shortest path from the source {@code s} to vertex {@code v}
+     *         as an iterable of edges, and {@code null} if no such path
+     * @throws UnsupportedOperationException if there is a negative cost cycle reachable
+     *         from the source vertex {@code s}
+     * @throws IllegalArgumentException unless {@code 0 <= v < V}
+     */
+    public Iterable<DirectedEdge> pathTo(int v) {
+        validateVertex(v);
+        if (hasNegativeCycle())
+            throw new UnsupportedOperationException("Negative cost cycle exists");
+        if (!hasPathTo(v)) return null;
+        Stack<DirectedEdge> path = new Stack<DirectedEdge>();
+        for (int e = edgeTo[v]; e != -1; e = edgeTo[G.from(e)]) {
+            path.push(G.edge(e));
+        }
+        return path;
+    }
+
+    // check optimality conditions: either
+    // (i) there exists a negative cycle reacheable from s
+    //     or
+    // (ii)  for all edges e = v->w:            distTo[w] <= distTo[v] + e.weight()
+    // (ii') for all edges e = v->w on the SPT: distTo[w] == distTo[v] + e.weight()
+    private boolean check(int s) {
+
+        // has a negative cycle
+        if (hasNegativeCycle()) {
+            double weight = 0.0;
+            for (DirectedEdge e : negativeCycle()) {
+                weight += e.weight();
+            }
+            if (weight >= 0.0) {
+                System.err.println("error: weight of negative cycle = " + weight);
+                return false;
+            }
+        }
+
+        // no negative cycle reachable from source
+        else {
+
+            // check that distTo[v] and edgeTo[v] are consistent
+            if (distTo[s] != 0.0 || edgeTo[s] != -1) {
+                System.err.println("distanceTo[s] and edgeTo[s] inconsistent");
+                return false;
+            }
+            for (int v = 0; v < G.V(); v++) {
+                if (v == s) continue;
+                if (edgeTo[v] == -1 && distTo[v] != Double.POSITIVE_INFINITY) {
+                    System.err.println("distTo[] and edgeTo[] inconsistent");
+                    return false;
+                }
+            }
+
+            // check that all edges e = v->w satisfy distTo[w] <= distTo[v] + e.weight()
+            for (int e = 0; e < G.E(); e++) {
+                if (distTo[G.from(e)] + G.weight(e) + EPSILON < distTo[G.to(e)]) {
+                    System.err.println("edge " + G.edge(e) + " not relaxed");
+                    return false;
+                }
+            }
+
+            // check that all edges e = v->w on SPT satisfy distTo[w] == distTo[v] + e.weight()
+            for (int w = 0; w < G.V(); w++) {
+                int e = edgeTo[w];
+                if (e == -1) continue;
+                if (w != G.to(e)) return false;
+                if (distTo[G.from(e)] + G.weight(e) != distTo[w]) {
+                    System.err.println("edge " + G.edge(e) + " on shortest path not tight");
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    // throw an IllegalArgumentException unless {@code 0 <= v < V}
+    private void validateVertex(int v) {
+        int V = distTo.length;
+        if (v < 0 || v >= V)
+            throw new IllegalArgumentException("vertex " + v + " is not between 0 and " + (V-1));
+    }
+
+    // run the serial and the parallel algorithm from s, compare them with BellmanFordSP,
+    // and return the serial one
+    private static FastBellmanFordSP compare(PackedEdgeWeightedDigraph G, int s, String name) {
+        Stopwatch sw = new Stopwatch();
+        BellmanFordSP expected = new BellmanFordSP(G, s);
+        double t0 = sw.elapsedTime();
+        sw = new Stopwatch();
+        FastBellmanFordSP serial = new FastBellmanFordSP(G, s);
+        double t1 = sw.elapsedTime();
+        sw = new Stopwatch();
+        FastBellmanFordSP parallel = new FastBellmanFordSP(G, s, ForkJoinPool.commonPool());
+        double t2 = sw.elapsedTime();
+
+        int errors = 0;
+        if (expected.hasNegativeCycle() != serial.hasNegativeCycle()
+         || expected.hasNegativeCycle() != parallel.hasNegativeCycle()) {
+            StdOut.println(name + ": negative cycle disagreement");
+            errors++;
+        }
+        else if (!serial.hasNegativeCycle()) {
+            for (int v = 0; v < G.V(); v++) {
+                if (Math.abs(expected.distTo(v) - serial.distTo(v)) > 1E-9 && expected.distTo(v) != serial.distTo(v)
+                 || Math.abs(expected.distTo(v) - parallel.distTo(v)) > 1E-9 && expected.distTo(v) != parallel.distTo(v)) {
+                    StdOut.printf("%s, %d: expected %.4f, got %.4f and %.4f\n", name, v,
+                                  expected.distTo(v), serial.distTo(v), parallel.distTo(v));
+                    errors++;
+                }
+            }
+        }
+        StdOut.printf("%-18s BellmanFordSP %.3f s, serial %.3f s (%d relaxations), parallel %.3f s, %d errors\n",
+                      name, t0, t1, serial.cost(), t2, errors);
+        return serial;
+    }
+
+    /**
+     * Unit tests the {@code FastBellmanFordSP} data type: runs the serial and the
+     * parallel algorithm and compares them with {@code BellmanFordSP}, on the digraph
+     * and on two small digraphs that once sent the serial algorithm into an endless loop.
+     *
+     * @param args the command-line arguments
+     */
+    public static void main(String[] args) {
+        In in = new In(args[0]);
+        int s = Integer.parseInt(args[1]);
+        PackedEdgeWeightedDigraph G = new PackedEdgeWeightedDigraph(in);
+        FastBellmanFordSP sp = compare(G, s, "digraph");
+        if (sp.hasNegativeCycle()) {
+            StdOut.println("negative cycle:");
+            for (DirectedEdge e : sp.negativeCycle())
+                StdOut.println(e);
+        }
+
+        // a negative self-loop at a vertex already in the shortest-paths tree
+        G = new PackedEdgeWeightedDigraph(3,
+            new int[] { 0, 1, 1 }, new int[] { 1, 1, 2 }, new double[] { 1.0, -1.0, 1.0 });
+        compare(G, 0, "negative self-loop");
+
+        // nonnegative weights, where 0->4 is queued first and rounding then leaves the
+        // sum of the queued distances below every one of them
+        G = new PackedEdgeWeightedDigraph(5,
+            new int[] { 0, 0, 0, 0, 3, 4 }, new int[] { 4, 1, 2, 3, 4, 4 },
+            new double[] { 1e17, 2.0, 2.0, 1.0, 1.0, 0.0 });
+        compare(G, 0, "rounded queue sum");
+    }
+}
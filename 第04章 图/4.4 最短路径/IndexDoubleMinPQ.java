@@ -0,0 +1,375 @@
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+public class IndexDoubleMinPQ implements Iterable<Integer> {
+    private static final int DEFAULT_ARITY = 4;
+
+    private final int maxN;     // maximum number of elements on PQ
+    private final int d;        // number of children of each heap node
+    private int n;              // number of elements on PQ
+    private int[] pq;           // d-ary heap using 0-based indexing
+    private int[] qp;           // inverse of pq - qp[pq[i]] = pq[qp[i]] = i
+    private double[] keys;      // keys[i] = priority of i
+
+    /**
+     * Initializes an empty indexed priority queue with indices between {@code 0}
+     * and {@code maxN - 1}, using a 4-ary heap.
+     * @param  maxN the keys on this priority queue are index from {@code 0}
+     *         {@code maxN - 1}
+     * @throws IllegalArgumentException if {@code maxN < 0}
+     */
+    public IndexDoubleMinPQ(int maxN) {
+        this(maxN, DEFAULT_ARITY);
+    }
+
+    /**
+     * Initializes an empty indexed priority queue with indices between {@code 0}
+     * and {@code maxN - 1}, using a {@code d}-ary heap.
+     * A 4-ary or 8-ary heap is shallower than a binary heap and keeps the
+     * children of a node in adjacent array entries, which is kinder to the cache.
+     * @param  maxN the keys on this priority queue are index from {@code 0}
+     *         {@code maxN - 1}
+     * @param  d the number of children of each node: 2, 4 or 8
+     * @throws IllegalArgumentException if {@code maxN < 0}
+     * @throws IllegalArgumentException unless {@code d} is 2, 4 or 8
+     */
+    public IndexDoubleMinPQ(int maxN, int d) {
+        if (maxN < 0) throw new IllegalArgumentException();
+        if (d != 2 && d != 4 && d != 8) throw new IllegalArgumentException("arity must be 2, 4 or 8: " + d);
+        this.maxN = maxN;
+        this.d = d;
+        n = 0;
+        keys = new double[maxN];
+        pq   = new int[maxN];
+        qp   = new int[maxN];
+        for (int i = 0; i < maxN; i++)
+            qp[i] = -1;
+    }
+
+    /**
+     * Returns true if this priority queue is empty.
+     *
+     * @return {@code true} if this priority queue is empty;
+     *         {@code false} otherwise
+     */
+    public boolean isEmpty() {
+        return n == 0;
+    }
+
+    /**
+     * Is {@code i} an index on this priority queue?
+     *
+     * @param  i an index
+     * @return {@code true} if {@code i} is an index on this priority queue;
+     *         {@code false} otherwise
+     * @throws IllegalArgumentException unless {@code 0 <= i < maxN}
+     */
+    public boolean contains(int i) {
+        validateIndex(i);
+        return qp[i] != -1;
+    }
+
+    /**
+     * Returns the number of keys on this priority queue.
+     *
+     * @return the number of keys on this priority queue
+     */
+    public int size() {
+        return n;
+    }
+
+    /**
+     * Returns the number of children of each node in the underlying heap.
+     *
+     * @return the arity of the heap
+     */
+    public int arity() {
+        return d;
+    }
+
+    /**
+     * Associates key with index {@code i}.
+     *
+     * @param  i an index
+     * @param  key the key to associate with index {@code i}
+     * @throws IllegalArgumentException unless {@code 0 <= i < maxN}
+     * @throws IllegalArgumentException if there already is an item associated
+     *         with index {@code i}
+     * @throws IllegalArgumentException if {@code key} is {@code NaN}
+     */
+    public void insert(int i, double key) {
+        validateIndex(i);
+        if (contains(i)) throw new IllegalArgumentException("index is already in the priority queue");
+        if (Double.isNaN(key)) throw new IllegalArgumentException("key is NaN");
+        keys[i] = key;
+        swim(n++, i);
+    }
+
+    /**
+     * Returns an index associated with a minimum key.
+     *
+     * @return an index associated with a minimum key
+     * @throws NoSuchElementException if this priority queue is empty
+     */
+    public int minIndex() {
+        if (n == 0) throw new NoSuchElementException("Priority queue underflow");
+        return pq[0];
+    }
+
+    /**
+     * Returns a minimum key.
+     *
+     * @return a minimum key
+     * @throws NoSuchElementException if this priority queue is empty
+     */
+    public double minKey() {
+        if (n == 0) throw new NoSuchElementException("Priority queue underflow");
+        return keys[pq[0]];
+    }
+
+    /**
+     * Removes a minimum key and returns its associated index.
+     * @return an index associated with a minimum key
+     * @throws NoSuchElementException if this priority queue is empty
+     */
+    public int delMin() {
+        if (n == 0) throw new NoSuchElementException("Priority queue underflow");
+        int min = pq[0];
+        qp[min] = -1;
+        int last = pq[--n];
+        if (n > 0) sink(0, last);
+        return min;
+    }
+
+    /**
+     * Returns the key associated with index {@code i}.
+     *
+     * @param  i the index of the key to return
+     * @return the key associated with index {@code i}
+     * @throws IllegalArgumentException unless {@code 0 <= i < maxN}
+     * @throws NoSuchElementException no key is associated with index {@code i}
+     */
+    public double keyOf(int i) {
+        validateIndex(i);
+        if (!contains(i)) throw new NoSuchElementException("index is not in the priority queue");
+        else return keys[i];
+    }
+
+    /**
+     * Change the key associated with index {@code i} to the specified value.
+     *
+     * @param  i the index of the key to change
+     * @param  key change the key associated with index {@code i} to this key
+     * @throws IllegalArgumentException unless {@code 0 <= i < maxN}
+     * @throws IllegalArgumentException if {@code key} is {@code NaN}
+     * @throws NoSuchElementException no key is associated with index {@code i}
+     */
+    public void changeKey(int i, double key) {
+        validateIndex(i);
+        if (!contains(i)) throw new NoSuchElementException("index is not in the priority queue");
+        if (Double.isNaN(key)) throw new IllegalArgumentException("key is NaN");
+        double old = keys[i];
+        keys[i] = key;
+        if (key < old) swim(qp[i], i);
+        else           sink(qp[i], i);
+    }
+
+    /**
+     * Decrease the key associated with index {@code i} to the specified value.
+     *
+     * @param  i the index of the key to decrease
+     * @param  key decrease the key associated with index {@code i} to this key
+     * @throws IllegalArgumentException unless {@code 0 <= i < maxN}
+     * @throws IllegalArgumentException if {@code key >= keyOf(i)}
+     * @throws NoSuchElementException no key is associated with index {@code i}
+     */
+    public void decreaseKey(int i, double key) {
+        validateIndex(i);
+        if (!contains(i)) throw new NoSuchElementException("index is not in the priority queue");
+        if (keys[i] == key)
+            throw new IllegalArgumentException("Calling decreaseKey() with a key equal to the key in the priority queue");
+        if (!(key < keys[i]))
+            throw new IllegalArgumentException("Calling decreaseKey() with a key strictly greater than the key in the priority queue");
+        keys[i] = key;
+        swim(qp[i], i);
+    }
+
+    /**
+     * Increase the key associated with index {@code i} to the specified value.
+     *
+     * @param  i the index of the key to increase
+     * @param  key increase the key associated with index {@code i} to this key
+     * @throws IllegalArgumentException unless {@code 0 <= i < maxN}
+     * @throws IllegalArgumentException if {@code key <= keyOf(i)}
+     * @throws NoSuchElementException no key is associated with index {@code i}
+     */
+    public void increaseKey(int i, double key) {
+        validateIndex(i);
+        if (!contains(i)) throw new NoSuchElementException("index is not in the priority queue");
+        if (keys[i] == key)
+            throw new IllegalArgumentException("Calling increaseKey() with a key equal to the key in the priority queue");
+        if (!(key > keys[i]))
+            throw new IllegalArgumentException("Calling increaseKey() with a key strictly less than the key in the priority queue");
+        keys[i] = key;
+        sink(qp[i], i);
+    }
+
+    /**
+     * Remove the key associated with index {@code i}.
+     *
+     * @param  i the index of the key to remove
+     * @throws IllegalArgumentException unless {@code 0 <= i < maxN}
+     * @throws NoSuchElementException no key is associated with index {@code i}
+     */
+    public void delete(int i) {
+        validateIndex(i);
+        if (!contains(i)) throw new NoSuchElementException("index is not in the priority queue");
+        int k = qp[i];
+        qp[i] = -1;
+        int last = pq[--n];
+        if (k == n) return;
+        if (keys[last] < keys[i]) swim(k, last);
+        else                      sink(k, last);
+    }
+
+    /**
+     * Removes all keys from this priority queue.
+     * Takes time proportional to the number of keys, not to {@code maxN},
+     * so a large priority queue can be reused cheaply for many small searches.
+     */
+    public void clear() {
+        for (int k = 0; k < n; k++)
+            qp[pq[k]] = -1;
+        n = 0;
+    }
+
+    // throw an IllegalArgumentException if i is an invalid index
+    private void validateIndex(int i) {
+        if (i < 0) throw new IllegalArgumentException("index is negative: " + i);
+        if (i >= maxN) throw new IllegalArgumentException("index >= capacity: " + i);
+    }
+
+
+   /***************************************************************************
+    * Heap helper functions. Rather than exchanging at every level, they move
+    * the displaced entries along the path and write index i once at the end.
+    ***************************************************************************/
+
+    // place index i at heap position k and move it up towards the root
+    private void swim(int k, int i) {
+        double key = keys[i];
+        while (k > 0) {
+            int parent = (k - 1) / d;
+            int p = pq[parent];
+            if (!(keys[p] > key)) break;
+            pq[k] = p;
+            qp[p] = k;
+            k = parent;
+        }
+        pq[k] = i;
+        qp[i] = k;
+    }
+
+    // place index i at heap position k and move it down towards the leaves
+    private void sink(int k, int i) {
+        double key = keys[i];
+        while (true) {
+            int first = d*k + 1;
+            if (first >= n) break;
+            int last = Math.min(first + d, n);
+
+            // find the child with the smallest key
+            int min = first;
+            double minKey = keys[pq[first]];
+            for (int j = first + 1; j < last; j++) {
+                double childKey = keys[pq[j]];
+                if (childKey < minKey) {
+                    min = j;
+                    minKey = childKey;
+                }
+            }
+            if (!(minKey < key)) break;
+            int c = pq[min];
+            pq[k] = c;
+            qp[c] = k;
+            k = min;
+        }
+        pq[k] = i;
+        qp[i] = k;
+    }
+
+
+   /***************************************************************************
+    * Iterators.
+    ***************************************************************************/
+
+    /**
+     * Returns an iterator that iterates over the keys on the
+     * priority queue in ascending order.
+     * The iterator doesn't implement {@code remove()} since it's optional.
+     *
+     * @return an iterator that iterates over the keys in ascending order
+     */
+    public Iterator<Integer> iterator() { return new HeapIterator(); }
+
+    private class HeapIterator implements Iterator<Integer> {
+        // create a new pq
+        private IndexDoubleMinPQ copy;
+
+        // add all elements to copy of heap
+        // takes linear time since already in heap order so no keys move
+        public HeapIterator() {
+            copy = new IndexDoubleMinPQ(maxN, d);
+            for (int k = 0; k < n; k++)
+                copy.insert(pq[k], keys[pq[k]]);
+        }
+
+        public boolean hasNext()  { return !copy.isEmpty();                     }
+        public void remove()      { throw new UnsupportedOperationException();  }
+
+        public Integer next() {
+            if (!hasNext()) throw new NoSuchElementException();
+            return copy.delMin();
+        }
+    }
+
+
+    /**
+     * Unit tests the {@code IndexDoubleMinPQ} data type.
+     *
+     * @param args the command-line arguments
+     */
+    public static void main(String[] args) {
+        // insert a bunch of keys
+        double[] values = { 0.5, 0.25, 0.75, 0.125, 1.0, 0.375, 0.5, 0.875, 0.0625, 0.625 };
+
+        for (int d = 2; d <= 8; d *= 2) {
+            IndexDoubleMinPQ pq = new IndexDoubleMinPQ(values.length, d);
+            for (int i = 0; i < values.length; i++) {
+                pq.insert(i, values[i]);
+            }
+
+            // delete and print each key
+            StdOut.println(d + "-ary heap");
+            while (!pq.isEmpty()) {
+                int i = pq.delMin();
+                StdOut.println(i + " " + values[i]);
+            }
+            StdOut.println();
+
+            // reinsert the same keys
+            for (int i = 0; i < values.length; i++) {
+                pq.insert(i, values[i]);
+            }
+
+            // print each key using the iterator
+            for (int i : pq) {
+                StdOut.println(i + " " + values[i]);
+            }
+            while (!pq.isEmpty()) {
+                pq.delMin();
+            }
+            StdOut.println();
+        }
+    }
+}
@@ -0,0 +1,249 @@
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+public class JohnsonAllPairsSP {
+    // run Dijkstra's algorithm from at most this many sources in one fork-join task
+    private static final int CUTOFF = 4;
+
+    private final PackedEdgeWeightedDigraph G;
+    private final PackedEdgeWeightedDigraph reweighted;   // same edges, weights made non-negative
+    private final double[] h;                             // h[v] = potential of vertex v
+    private final DistanceMatrix dist;                    // distances in G
+    private Iterable<DirectedEdge> cycle;                 // negative cycle (or null if no such cycle)
+
+    /**
+     * Computes the shortest paths between every pair of vertices in the
+     * edge-weighted digraph {@code G}, on the heap, using the common fork-join pool.
+     *
+     * @param  G the edge-weighted digraph
+     * @throws IllegalArgumentException if <em>V</em><sup>2</sup> entries do not fit in an array
+     */
+    public JohnsonAllPairsSP(EdgeWeightedDigraph G) {
+        this(new PackedEdgeWeightedDigraph(G), null, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Computes the shortest paths between every pair of vertices in the
+     * packed edge-weighted digraph {@code G}, on the heap, using the common fork-join pool.
+     *
+     * @param  G the packed edge-weighted digraph
+     * @throws IllegalArgumentException if <em>V</em><sup>2</sup> entries do not fit in an array
+     */
+    public JohnsonAllPairsSP(PackedEdgeWeightedDigraph G) {
+        this(G, null, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Computes the shortest paths between every pair of vertices in the packed
+     * edge-weighted digraph {@code G} with Johnson's algorithm. A {@code BellmanFordSP}
+     * from a new vertex with an edge of weight 0 to every vertex gives each vertex
+     * {@code v} a potential <em>h</em>(<em>v</em>); edge {@code v->w} is then reweighted to
+     * <em>weight</em> + <em>h</em>(<em>v</em>) &minus; <em>h</em>(<em>w</em>), which is
+     * non-negative and changes every path from {@code s} to {@code t} by the same amount,
+     * and Dijkstra's algorithm is run from every source, in parallel.
+     * Each source writes its own row of the distance matrix, so a matrix in a file
+     * lets the result be much larger than the heap.
+     *
+     * @param  G the packed edge-weighted digraph
+     * @param  filename the name of the file for the distance matrix,
+     *         or {@code null} to keep it on the heap
+     * @param  pool the pool that runs Dijkstra's algorithm
+     * @throws IllegalArgumentException if {@code pool} is {@code null}
+     * @throws IllegalArgumentException if {@code filename} is {@code null} and
+     *         <em>V</em><sup>2</sup> entries do not fit in an array
+     */
+    public JohnsonAllPairsSP(PackedEdgeWeightedDigraph G, String filename, ForkJoinPool pool) {
+        if (pool == null) throw new IllegalArgumentException("argument is null");
+        this.G = G;
+        int V = G.V();
+
+        // potentials from Bellman-Ford, on G plus a vertex V with an edge to every vertex
+        int[] tails = new int[G.E() + V], heads = new int[G.E() + V];
+        double[] weights = new double[G.E() + V];
+        for (int e = 0; e < G.E(); e++) {
+            tails[e] = G.from(e);
+            heads[e] = G.to(e);
+            weights[e] = G.weight(e);
+        }
+        for (int v = 0; v < V; v++) {
+            tails[G.E() + v] = V;
+            heads[G.E() + v] = v;
+        }
+        BellmanFordSP bf = new BellmanFordSP(new PackedEdgeWeightedDigraph(V+1, tails, heads, weights), V);
+        h = new double[V];
+        if (bf.hasNegativeCycle()) {
+            cycle = bf.negativeCycle();
+            reweighted = null;
+            dist = null;
+            return;
+        }
+        for (int v = 0; v < V; v++)
+            h[v] = bf.distTo(v);
+
+        // reweight; the packed constructor keeps the edges in the same order, so edge indices agree
+        double[] w = new double[G.E()];
+        for (int e = 0; e < G.E(); e++)
+            w[e] = reweight(e);
+        reweighted = new PackedEdgeWeightedDigraph(V, java.util.Arrays.copyOf(tails, G.E()),
+                                                   java.util.Arrays.copyOf(heads, G.E()), w);
+
+        dist = (filename == null) ? new DistanceMatrix(V) : new DistanceMatrix(V, filename);
+        pool.invoke(new Sources(0, V));
+        dist.flush();
+    }
+
+    // the weight of edge e after reweighting; rounding may leave a tiny negative, which is 0
+    private double reweight(int e) {
+        return Math.max(0.0, G.weight(e) + h[G.from(e)] - h[G.to(e)]);
+    }
+
+    // run Dijkstra's algorithm from sources lo..hi-1 and write their rows
+    private class Sources extends RecursiveAction {
+        private final int lo, hi;
+
+        Sources(int lo, int hi) {
+            this.lo = lo;
+            this.hi = hi;
+        }
+
+        @Override
+        protected void compute() {
+            if (hi - lo > CUTOFF) {
+                int mid = lo + (hi - lo) / 2;
+                invokeAll(new Sources(lo, mid), new Sources(mid, hi));
+                return;
+            }
+            double[] row = new double[G.V()];
+            for (int s = lo; s < hi; s++) {
+                DijkstraSP sp = new DijkstraSP(reweighted, s);
+                for (int t = 0; t < G.V(); t++)
+                    row[t] = sp.hasPathTo(t) ? sp.distTo(t) - h[s] + h[t] : Double.POSITIVE_INFINITY;
+                dist.setRow(s, row);
+            }
+        }
+    }
+
+    /**
+     * Is there a negative cycle?
+     * @return {@code true} if there is a negative cycle, and {@code false} otherwise
+     */
+    public boolean hasNegativeCycle() {
+        return cycle != null;
+    }
+
+    /**
+     * Returns a negative cycle, or {@code null} if there is no such cycle.
+     * @return a negative cycle as an iterable of edges,
+     * or {@code null} if there is no such cycle
+     */
+    public Iterable<DirectedEdge> negativeCycle() {
+        return cycle;
+    }
+
+    /**
+     * Is there a path from the vertex {@code s} to vertex {@code t}?
+     * @param  s the source vertex
+     * @param  t the destination vertex
+     * @return {@code true} if there is a path from vertex {@code s}
+     *         to vertex {@code t}, and {@code false} otherwise
+     * @throws UnsupportedOperationException if there is a negative cost cycle
+     * @throws IllegalArgumentException unless {@code 0 <= s < V}
+     * @throws IllegalArgumentException unless {@code 0 <= t < V}
+     */
+    public boolean hasPath(int s, int t) {
+        return dist(s, t) < Double.POSITIVE_INFINITY;
+    }
+
+    /**
+     * Returns the length of a shortest path from vertex {@code s} to vertex {@code t}.
+     * @param  s the source vertex
+     * @param  t the destination vertex
+     * @return the length of a shortest path from vertex {@code s} to vertex {@code t};
+     *         {@code Double.POSITIVE_INFINITY} if no such path
+     * @throws UnsupportedOperationException if there is a negative cost cycle
+     * @throws IllegalArgumentException unless {@code 0 <= s < V}
+     * @throws IllegalArgumentException unless {@code 0 <= t < V}
+     */
+    public double dist(int s, int t) {
+        if (hasNegativeCycle())
+            throw new UnsupportedOperationException("Negative cost cycle exists");
+        return dist.get(s, t);
+    }
+
+    /**
+     * Returns a shortest path from vertex {@code s} to vertex {@code t}. Only the
+     * distances are stored, so this runs Dijkstra's algorithm from {@code s} again.
+     * @param  s the source vertex
+     * @param  t the destination vertex
+     * @return a shortest path from vertex {@code s} to vertex {@code t}
+     *         as an iterable of edges, and {@code null} if no such path
+     * @throws UnsupportedOperationException if there is a negative cost cycle
+     * @throws IllegalArgumentException unless {@code 0 <= s < V}
+     * @throws IllegalArgumentException unless {@code 0 <= t < V}
+     */
+    public Iterable<DirectedEdge> path(int s, int t) {
+        if (!hasPath(s, t)) return null;
+        DijkstraSP sp = new DijkstraSP(reweighted, s);
+        Queue<DirectedEdge> path = new Queue<DirectedEdge>();
+        for (DirectedEdge r : sp.pathTo(t)) {
+            // the original edge with these endpoints and this reweighted weight
+            int v = r.from();
+            for (int e = G.begin(v), end = G.end(v); e < end; e++) {
+                if (G.to(e) == r.to() && reweighted.weight(e) == r.weight()) {
+                    path.enqueue(G.edge(e));
+                    break;
+                }
+            }
+        }
+        return path;
+    }
+
+    /**
+     * Returns the matrix of shortest-path distances.
+     * @return the distance matrix, or {@code null} if there is a negative cycle
+     */
+    public DistanceMatrix distances() {
+        return dist;
+    }
+
+    /**
+     * Unit tests the {@code JohnsonAllPairsSP} data type: computes the distances
+     * into a memory-mapped file, reopens it, and checks random entries against
+     * {@code BellmanFordSP}.
+     *
+     * @param args the command-line arguments
+     */
+    public static void main(String[] args) {
+        In in = new In(args[0]);
+        PackedEdgeWeightedDigraph G = new PackedEdgeWeightedDigraph(in);
+        Stopwatch sw = new Stopwatch();
+        JohnsonAllPairsSP sp = new JohnsonAllPairsSP(G, args[1], ForkJoinPool.commonPool());
+        StdOut.printf("%d vertices, %d edges: %.3f s\n", G.V(), G.E(), sw.elapsedTime());
+        if (sp.hasNegativeCycle()) {
+            StdOut.println("Negative cost cycle:");
+            for (DirectedEdge e : sp.negativeCycle())
+                StdOut.println(e);
+            return;
+        }
+
+        DistanceMatrix matrix = DistanceMatrix.open(args[1]);
+        int errors = 0;
+        for (int i = 0; i < 10; i++) {
+            int s = StdRandom.uniform(G.V());
+            BellmanFordSP bf = new BellmanFordSP(G, s);
+            for (int t = 0; t < G.V(); t++) {
+                double expected = bf.distTo(t);
+                if (Math.abs(matrix.get(s, t) - expected) > 1E-9 && matrix.get(s, t) != expected)
+                    errors++;
+                if (sp.hasPath(s, t)) {
+                    double length = 0.0;
+                    for (DirectedEdge e : sp.path(s, t))
+                        length += e.weight();
+                    if (Math.abs(length - expected) > 1E-9)
+                        errors++;
+                }
+            }
+        }
+        StdOut.println(errors + " errors");
+    }
+}
@@ -0,0 +1,113 @@
+public class LandmarkHeuristic implements PointToPointSP.Heuristic {
+    private final int[] landmarks;      // the landmark vertices
+    private final double[][] fromL;     // fromL[i][v] = distance from landmark i to v
+    private final double[][] toL;       // toL[i][v]   = distance from v to landmark i
+
+    /**
+     * Chooses {@code k} landmarks in the digraph {@code G} and computes the distances
+     * from and to each of them. The first landmark is chosen at random and each later
+     * one is the vertex farthest from the landmarks chosen so far, which spreads them
+     * towards the edge of the digraph, where they give the tightest bounds.
+     *
+     * @param  G the edge-weighted digraph
+     * @param  R the reverse of {@code G}
+     * @param  k the number of landmarks
+     * @throws IllegalArgumentException if {@code G} and {@code R} have different numbers of vertices
+     * @throws IllegalArgumentException if {@code k < 1}
+     */
+    public LandmarkHeuristic(PackedEdgeWeightedDigraph G, PackedEdgeWeightedDigraph R, int k) {
+        if (G.V() != R.V()) throw new IllegalArgumentException("G and R have different numbers of vertices");
+        if (k < 1) throw new IllegalArgumentException("number of landmarks must be positive: " + k);
+        int V = G.V();
+        k = Math.min(k, V);
+        landmarks = new int[k];
+        fromL = new double[k][];
+        toL = new double[k][];
+
+        // nearest[v] = distance from v to the nearest landmark chosen so far, in either direction
+        double[] nearest = new double[V];
+        for (int v = 0; v < V; v++)
+            nearest[v] = Double.POSITIVE_INFINITY;
+
+        int landmark = (V == 0) ? 0 : StdRandom.uniform(V);
+        for (int i = 0; i < k; i++) {
+            landmarks[i] = landmark;
+            fromL[i] = distances(new DijkstraSP(G, landmark), V);
+            toL[i]   = distances(new DijkstraSP(R, landmark), V);
+
+            // the next landmark is the reachable vertex farthest from all the others
+            int farthest = landmark;
+            double max = -1.0;
+            for (int v = 0; v < V; v++) {
+                double d = Math.min(fromL[i][v], toL[i][v]);
+                if (d < nearest[v]) nearest[v] = d;
+                if (nearest[v] < Double.POSITIVE_INFINITY && nearest[v] > max) {
+                    max = nearest[v];
+                    farthest = v;
+                }
+            }
+            if (max <= 0.0) {
+                // every vertex reachable so far is a landmark; start afresh somewhere unreached
+                for (int v = 0; v < V; v++)
+                    if (nearest[v] == Double.POSITIVE_INFINITY) { farthest = v; break; }
+            }
+            landmark = farthest;
+        }
+    }
+
+    private static double[] distances(DijkstraSP sp, int V) {
+        double[] dist = new double[V];
+        for (int v = 0; v < V; v++)
+            dist[v] = sp.distTo(v);
+        return dist;
+    }
+
+    /**
+     * Returns the number of landmarks.
+     * @return the number of landmarks
+     */
+    public int size() {
+        return landmarks.length;
+    }
+
+    /**
+     * Returns landmark {@code i}.
+     * @param  i the index of the landmark
+     * @return the vertex that is landmark {@code i}
+     */
+    public int landmark(int i) {
+        return landmarks[i];
+    }
+
+    /**
+     * Returns a lower bound on the distance from {@code v} to {@code t} from the triangle
+     * inequality: for every landmark <em>L</em>, the distance is at least
+     * <em>d</em>(<em>L</em>, <em>t</em>) &minus; <em>d</em>(<em>L</em>, <em>v</em>) and
+     * <em>d</em>(<em>v</em>, <em>L</em>) &minus; <em>d</em>(<em>t</em>, <em>L</em>).
+     *
+     * @param  v the vertex
+     * @param  t the target vertex
+     * @return a lower bound on the distance from {@code v} to {@code t};
+     *         {@code Double.POSITIVE_INFINITY} if some landmark proves {@code t} unreachable
+     */
+    public double estimate(int v, int t) {
+        double bound = 0.0;
+        for (int i = 0; i < landmarks.length; i++) {
+            double[] from = fromL[i], to = toL[i];
+
+            // L reaches v but not t: then v cannot reach t either
+            if (from[t] == Double.POSITIVE_INFINITY) {
+                if (from[v] < Double.POSITIVE_INFINITY) return Double.POSITIVE_INFINITY;
+            }
+            else if (from[v] < Double.POSITIVE_INFINITY && from[t] - from[v] > bound)
+                bound = from[t] - from[v];
+
+            // t reaches L but v does not: then v cannot reach t either
+            if (to[t] < Double.POSITIVE_INFINITY) {
+                if (to[v] == Double.POSITIVE_INFINITY) return Double.POSITIVE_INFINITY;
+                if (to[v] - to[t] > bound) bound = to[v] - to[t];
+            }
+        }
+        return bound;
+    }
+}
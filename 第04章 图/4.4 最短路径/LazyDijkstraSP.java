@@ -1,19 +1,11 @@
 
-import java.util.Comparator;
-
 public class LazyDijkstraSP {
     private boolean[] marked;        // has vertex v been relaxed?
     private double[] distTo;         // distTo[v] = length of shortest s->v path
     private DirectedEdge[] edgeTo;   // edgeTo[v] = last edge on shortest s->v path
-    private MinPQ<DirectedEdge> pq;  // PQ of fringe edges
-
-    private class ByDistanceFromSource implements Comparator<DirectedEdge> {
-        public int compare(DirectedEdge e, DirectedEdge f) {
-            double dist1 = distTo[e.from()] + e.weight();
-            double dist2 = distTo[f.from()] + f.weight();
-            return Double.compare(dist1, dist2);
-        }
-    }
+    private IndexDoubleMinPQ pq;     // PQ of fringe edges, keyed by distTo[e.from()] + e.weight()
+    private DirectedEdge[] fringe;   // fringe[i] = edge with index i on pq
+    private int inserted;            // number of edges inserted on pq so far
 
     // single-source shortest path problem from s
     public LazyDijkstraSP(EdgeWeightedDigraph G, int s) {
@@ -22,7 +14,9 @@ public class LazyDijkstraSP {
                 throw new IllegalArgumentException("edge " + e + " has negative weight");
         }
 
-        pq = new MinPQ<DirectedEdge>(new ByDistanceFromSource());
+        // each vertex is relaxed at most once, so each edge is inserted at most once
+        pq = new IndexDoubleMinPQ(G.E());
+        fringe = new DirectedEdge[G.E()];
         marked = new boolean[G.V()];
         edgeTo = new DirectedEdge[G.V()];
         distTo = new double[G.V()];
@@ -35,7 +29,7 @@ public class LazyDijkstraSP {
 
         // run Dijkstra's algorithm
         while (!pq.isEmpty()) {
-            DirectedEdge e = pq.delMin();
+            DirectedEdge e = fringe[pq.delMin()];
             int v = e.from(), w = e.to();
             if (!marked[w]) relax(G, w);   // lazy, so w might already have been relaxed
         }
@@ -52,7 +46,8 @@ public class LazyDijkstraSP {
             if (distTo[w] > distTo[v] + e.weight()) {
                 distTo[w] = distTo[v] + e.weight();
                 edgeTo[w] = e;
-                pq.insert(e);
+                fringe[inserted] = e;
+                pq.insert(inserted++, distTo[w]);
             }
         }
     }
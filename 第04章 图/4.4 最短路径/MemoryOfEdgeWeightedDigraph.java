@@ -43,6 +43,25 @@ public class MemoryOfEdgeWeightedDigraph {
         StdOut.println("memory of an EdgeWeightedDigraph with V vertices and E edges:");
         StdOut.printf("%.2f + %.2f V + %.2f E bytes (R^2 = %.3f)\n",
                       regression.beta(0), regression.beta(1), regression.beta(2), regression.R2());
+
+        // same graphs, packed into parallel arrays
+        for (int i = 0; i < n; i++) {
+            int[] from = new int[E[i]];
+            int[] to = new int[E[i]];
+            double[] weight = new double[E[i]];
+            for (int j = 0; j < E[i]; j++) {
+                from[j] = StdRandom.uniform(V[i]);
+                to[j] = StdRandom.uniform(V[i]);
+                weight[j] = StdRandom.uniform(0.0, 1.0);
+            }
+            PackedEdgeWeightedDigraph G = new PackedEdgeWeightedDigraph(V[i], from, to, weight);
+            y[i] = MemoryUtil.deepMemoryUsageOf(G);
+        }
+
+        regression = new MultipleLinearRegression(x, y);
+        StdOut.println("memory of a PackedEdgeWeightedDigraph with V vertices and E edges:");
+        StdOut.printf("%.2f + %.2f V + %.2f E bytes (R^2 = %.3f)\n",
+                      regression.beta(0), regression.beta(1), regression.beta(2), regression.R2());
     }
                 
 }
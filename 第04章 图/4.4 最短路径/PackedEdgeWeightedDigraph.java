@@ -0,0 +1,297 @@
+import java.util.NoSuchElementException;
+
+public class PackedEdgeWeightedDigraph {
+    private static final String NEWLINE = System.getProperty("line.separator");
+
+    private final int V;               // number of vertices in this digraph
+    private final int E;               // number of edges in this digraph
+    private final int[] offsets;       // edges from v have indices offsets[v]..offsets[v+1]-1
+    private final int[] from;          // from[e]   = tail vertex of edge e
+    private final int[] to;            // to[e]     = head vertex of edge e
+    private final double[] weight;     // weight[e] = weight of edge e
+    private final int[] indegree;      // indegree[v] = indegree of vertex v
+
+    /**
+     * Initializes an edge-weighted digraph from the specified input stream.
+     * The format is the number of vertices <em>V</em>,
+     * followed by the number of edges <em>E</em>,
+     * followed by <em>E</em> pairs of vertices and edge weights,
+     * with each entry separated by whitespace.
+     *
+     * @param  in the input stream
+     * @throws IllegalArgumentException if {@code in} is {@code null}
+     * @throws IllegalArgumentException if the endpoints of any edge are not in prescribed range
+     * @throws IllegalArgumentException if the number of vertices or edges is negative
+     */
+    public PackedEdgeWeightedDigraph(In in) {
+        if (in == null) throw new IllegalArgumentException("argument is null");
+        int[] tails, heads;
+        double[] weights;
+        try {
+            this.V = in.readInt();
+            if (V < 0) throw new IllegalArgumentException("number of vertices in a Digraph must be non-negative");
+            this.E = in.readInt();
+            if (E < 0) throw new IllegalArgumentException("Number of edges must be non-negative");
+            tails   = new int[E];
+            heads   = new int[E];
+            weights = new double[E];
+            for (int i = 0; i < E; i++) {
+                tails[i]   = in.readInt();
+                heads[i]   = in.readInt();
+                weights[i] = in.readDouble();
+            }
+        }
+        catch (NoSuchElementException e) {
+            throw new IllegalArgumentException("invalid input format in PackedEdgeWeightedDigraph constructor", e);
+        }
+        offsets  = new int[V+1];
+        from     = new int[E];
+        to       = new int[E];
+        weight   = new double[E];
+        indegree = new int[V];
+        build(tails, heads, weights);
+    }
+
+    /**
+     * Initializes an edge-weighted digraph with {@code V} vertices from three
+     * parallel arrays: edge {@code i} is {@code tails[i]->heads[i]} with weight
+     * {@code weights[i]}. The arrays are not retained.
+     *
+     * @param  V the number of vertices
+     * @param  tails the tail vertex of each edge
+     * @param  heads the head vertex of each edge
+     * @param  weights the weight of each edge
+     * @throws IllegalArgumentException if {@code V < 0}
+     * @throws IllegalArgumentException if any array is {@code null}
+     *         or the arrays have different lengths
+     * @throws IllegalArgumentException if the endpoints of any edge are not in prescribed range
+     */
+    public PackedEdgeWeightedDigraph(int V, int[] tails, int[] heads, double[] weights) {
+        if (V < 0) throw new IllegalArgumentException("Number of vertices in a Digraph must be non-negative");
+        if (tails == null || heads == null || weights == null) throw new IllegalArgumentException("argument is null");
+        if (tails.length != heads.length || tails.length != weights.length)
+            throw new IllegalArgumentException("edge arrays have different lengths");
+        this.V = V;
+        this.E = tails.length;
+        offsets  = new int[V+1];
+        from     = new int[E];
+        to       = new int[E];
+        weight   = new double[E];
+        indegree = new int[V];
+        build(tails, heads, weights);
+    }
+
+    /**
+     * Initializes a new edge-weighted digraph that is a packed copy of {@code G}.
+     * The edges from each vertex are in the same order as in {@code G.adj(v)}.
+     *
+     * @param  G the edge-weighted digraph to copy
+     * @throws IllegalArgumentException if {@code G} is {@code null}
+     */
+    public PackedEdgeWeightedDigraph(EdgeWeightedDigraph G) {
+        if (G == null) throw new IllegalArgumentException("argument is null");
+        this.V = G.V();
+        this.E = G.E();
+        offsets  = new int[V+1];
+        from     = new int[E];
+        to       = new int[E];
+        weight   = new double[E];
+        indegree = new int[V];
+        for (int v = 0; v < V; v++) {
+            offsets[v+1] = offsets[v] + G.outdegree(v);
+            indegree[v] = G.indegree(v);
+        }
+        for (int v = 0; v < V; v++) {
+            int i = offsets[v];
+            for (DirectedEdge e : G.adj(v)) {
+                from[i]   = e.from();
+                to[i]     = e.to();
+                weight[i] = e.weight();
+                i++;
+            }
+        }
+    }
+
+    // fill the packed arrays from the edge arrays with a stable counting sort on the tails
+    private void build(int[] tails, int[] heads, double[] weights) {
+        for (int i = 0; i < E; i++) {
+            validateVertex(tails[i]);
+            validateVertex(heads[i]);
+            if (Double.isNaN(weights[i])) throw new IllegalArgumentException("Weight is NaN");
+            offsets[tails[i]+1]++;
+            indegree[heads[i]]++;
+        }
+        for (int v = 0; v < V; v++)
+            offsets[v+1] += offsets[v];
+
+        int[] next = new int[V];
+        System.arraycopy(offsets, 0, next, 0, V);
+        for (int i = 0; i < E; i++) {
+            int e = next[tails[i]]++;
+            from[e]   = tails[i];
+            to[e]     = heads[i];
+            weight[e] = weights[i];
+        }
+    }
+
+    /**
+     * Returns the number of vertices in this edge-weighted digraph.
+     *
+     * @return the number of vertices in this edge-weighted digraph
+     */
+    public int V() {
+        return V;
+    }
+
+    /**
+     * Returns the number of edges in this edge-weighted digraph.
+     *
+     * @return the number of edges in this edge-weighted digraph
+     */
+    public int E() {
+        return E;
+    }
+
+    // throw an IllegalArgumentException unless {@code 0 <= v < V}
+    private void validateVertex(int v) {
+        if (v < 0 || v >= V)
+            throw new IllegalArgumentException("vertex " + v + " is not between 0 and " + (V-1));
+    }
+
+    /**
+     * Returns the index of the first edge incident from vertex {@code v}.
+     * The edges incident from {@code v} have indices {@code begin(v)}
+     * through {@code end(v) - 1}.
+     *
+     * @param  v the vertex
+     * @return the index of the first edge incident from {@code v}
+     * @throws IllegalArgumentException unless {@code 0 <= v < V}
+     */
+    public int begin(int v) {
+        validateVertex(v);
+        return offsets[v];
+    }
+
+    /**
+     * Returns one past the index of the last edge incident from vertex {@code v}.
+     *
+     * @param  v the vertex
+     * @return one past the index of the last edge incident from {@code v}
+     * @throws IllegalArgumentException unless {@code 0 <= v < V}
+     */
+    public int end(int v) {
+        validateVertex(v);
+        return offsets[v+1];
+    }
+
+    /**
+     * Returns the tail vertex of edge {@code e}.
+     *
+     * @param  e the edge index, between {@code 0} and {@code E - 1}
+     * @return the tail vertex of edge {@code e}
+     */
+    public int from(int e) {
+        return from[e];
+    }
+
+    /**
+     * Returns the head vertex of edge {@code e}.
+     *
+     * @param  e the edge index, between {@code 0} and {@code E - 1}
+     * @return the head vertex of edge {@code e}
+     */
+    public int to(int e) {
+        return to[e];
+    }
+
+    /**
+     * Returns the weight of edge {@code e}.
+     *
+     * @param  e the edge index, between {@code 0} and {@code E - 1}
+     * @return the weight of edge {@code e}
+     */
+    public double weight(int e) {
+        return weight[e];
+    }
+
+    /**
+     * Returns edge {@code e} as a {@code DirectedEdge} object.
+     * This allocates, so it is meant for reporting paths rather than for inner loops.
+     *
+     * @param  e the edge index
+     * @return a directed edge with the endpoints and weight of edge {@code e}
+     * @throws IllegalArgumentException unless {@code 0 <= e < E}
+     */
+    public DirectedEdge edge(int e) {
+        if (e < 0 || e >= E)
+            throw new IllegalArgumentException("edge " + e + " is not between 0 and " + (E-1));
+        return new DirectedEdge(from[e], to[e], weight[e]);
+    }
+
+    /**
+     * Returns the number of directed edges incident from vertex {@code v}.
+     * This is known as the <em>outdegree</em> of vertex {@code v}.
+     *
+     * @param  v the vertex
+     * @return the outdegree of vertex {@code v}
+     * @throws IllegalArgumentException unless {@code 0 <= v < V}
+     */
+    public int outdegree(int v) {
+        validateVertex(v);
+        return offsets[v+1] - offsets[v];
+    }
+
+    /**
+     * Returns the number of directed edges incident to vertex {@code v}.
+     * This is known as the <em>indegree</em> of vertex {@code v}.
+     *
+     * @param  v the vertex
+     * @return the indegree of vertex {@code v}
+     * @throws IllegalArgumentException unless {@code 0 <= v < V}
+     */
+    public int indegree(int v) {
+        validateVertex(v);
+        return indegree[v];
+    }
+
+    /**
+     * Returns the reverse of this edge-weighted digraph: for each edge
+     * {@code v->w} of weight {@code x} it has an edge {@code w->v} of weight {@code x}.
+     *
+     * @return the reverse of this edge-weighted digraph
+     */
+    public PackedEdgeWeightedDigraph reverse() {
+        return new PackedEdgeWeightedDigraph(V, to, from, weight);
+    }
+
+    /**
+     * Returns a string representation of this edge-weighted digraph.
+     *
+     * @return the number of vertices <em>V</em>, followed by the number of edges <em>E</em>,
+     *         followed by the <em>V</em> adjacency lists of edges
+     */
+    public String toString() {
+        StringBuilder s = new StringBuilder();
+        s.append(V + " " + E + NEWLINE);
+        for (int v = 0; v < V; v++) {
+            s.append(v + ": ");
+            for (int e = offsets[v]; e < offsets[v+1]; e++) {
+                s.append(from[e] + "->" + to[e] + " " + String.format("%5.2f", weight[e]) + "  ");
+            }
+            s.append(NEWLINE);
+        }
+        return s.toString();
+    }
+
+    /**
+     * Unit tests the {@code PackedEdgeWeightedDigraph} data type.
+     *
+     * @param args the command-line arguments
+     */
+    public static void main(String[] args) {
+        In in = new In(args[0]);
+        PackedEdgeWeightedDigraph G = new PackedEdgeWeightedDigraph(in);
+        StdOut.println(G);
+    }
+
+}
@@ -0,0 +1,350 @@
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntFunction;
+import java.util.function.ToLongFunction;
+
+public class PathTreeCache<T> {
+    private final long budget;                          // estimated bytes the cached trees may take
+    private final ToLongFunction<T> sizeOf;             // sizeOf(t) = estimated bytes of tree t
+    private final LinkedHashMap<Key, Entry<T>> map;     // the entries, least recently used first
+    private long bytes;                                 // estimated bytes of the built trees in map
+    private long hits;                                  // number of calls to get() that found their key
+    private long misses;                                // number of calls to get() that built their tree
+    private long evictions;                             // number of built trees removed from map
+
+    // a graph version and a source vertex
+    private static final class Key {
+        private final long version;
+        private final int source;
+
+        Key(long version, int source) {
+            this.version = version;
+            this.source = source;
+        }
+
+        public boolean equals(Object other) {
+            if (!(other instanceof Key)) return false;
+            Key that = (Key) other;
+            return this.version == that.version && this.source == that.source;
+        }
+
+        public int hashCode() {
+            return Long.hashCode(version) * 31 + source;
+        }
+    }
+
+    // a tree, or the build of one in progress
+    private static final class Entry<T> {
+        private final FutureTask<T> task;   // builds the tree once, for every caller that waits on it
+        private long bytes = -1;            // estimated bytes of the tree, or -1 until it is built
+
+        Entry(FutureTask<T> task) {
+            this.task = task;
+        }
+    }
+
+    /**
+     * Initializes an empty cache of path trees that takes at most about {@code budget}
+     * bytes, as estimated by {@code sizeOf}, for example
+     * {@code t -> PathTreeCache.bytesOfDijkstraSP(G.V())}.
+     * @param  budget the estimated number of bytes the cached trees may take
+     * @param  sizeOf the estimated number of bytes of a tree
+     * @throws IllegalArgumentException if {@code budget < 0}
+     * @throws IllegalArgumentException if {@code sizeOf} is {@code null}
+     */
+    public PathTreeCache(long budget, ToLongFunction<T> sizeOf) {
+        if (budget < 0) throw new IllegalArgumentException("budget must be nonnegative");
+        if (sizeOf == null) throw new IllegalArgumentException("sizeOf is null");
+        this.budget = budget;
+        this.sizeOf = sizeOf;
+        this.map = new LinkedHashMap<Key, Entry<T>>(16, 0.75f, true);
+    }
+
+    /**
+     * Returns the path tree from {@code s} in version {@code version} of a graph,
+     * building it with {@code build} unless it is in the cache. Each tree is built
+     * once: callers that ask for a tree whose build is in progress wait for it, and
+     * count as hits. After a build, the least recently used trees are evicted until
+     * the cache is within its budget, which may evict the new tree itself if it is
+     * larger than the budget. A build that throws leaves nothing in the cache, and
+     * its exception is thrown to every caller that waited on it.
+     * <p>
+     * The cache does not know when a graph changes: the caller numbers the
+     * versions of its graph, and the trees of old versions are evicted as they
+     * become least recently used, or at once with {@link #evictBefore(long)}.
+     *
+     * @param  version the version of the graph
+     * @param  s the source vertex
+     * @param  build builds the tree from a source vertex, in this version of the graph
+     * @return the path tree from {@code s} in version {@code version}
+     * @throws IllegalArgumentException if {@code build} is {@code null}
+     * @throws IllegalStateException if this thread is interrupted while it waits
+     */
+    public T get(long version, int s, IntFunction<T> build) {
+        if (build == null) throw new IllegalArgumentException("build is null");
+        Key key = new Key(version, s);
+        Entry<T> entry;
+        boolean builder = false;
+        synchronized (map) {
+            entry = map.get(key);
+            if (entry != null) hits++;
+            else {
+                misses++;
+                entry = new Entry<T>(new FutureTask<T>(() -> build.apply(s)));
+                map.put(key, entry);
+                builder = true;
+            }
+        }
+
+        // build outside the lock, so other keys are not held up
+        if (builder) entry.task.run();
+        T tree;
+        try {
+            tree = entry.task.get();
+        }
+        catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("interrupted while waiting for the tree from " + s, e);
+        }
+        catch (ExecutionException e) {
+            synchronized (map) {
+                if (map.get(key) == entry) map.remove(key);
+            }
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) throw (RuntimeException) cause;
+            if (cause instanceof Error)            throw (Error) cause;
+            throw new IllegalStateException("could not build the tree from " + s, cause);
+        }
+
+        if (builder) {
+            long size = sizeOf.applyAsLong(tree);
+            synchronized (map) {
+                // the entry may have been evicted by evictBefore() or clear() while it was built
+                if (map.get(key) == entry) {
+                    entry.bytes = size;
+                    bytes += size;
+                    evict();
+                }
+            }
+        }
+        return tree;
+    }
+
+    // remove the least recently used built trees until the cache is within budget
+    private void evict() {
+        Iterator<Entry<T>> it = map.values().iterator();
+        while (bytes > budget && it.hasNext()) {
+            Entry<T> entry = it.next();
+            if (entry.bytes < 0) continue;
+            bytes -= entry.bytes;
+            evictions++;
+            it.remove();
+        }
+    }
+
+    /**
+     * Evicts the trees of every version of the graph before {@code version}.
+     * Builds in progress for those versions finish, but their trees are not cached.
+     * @param  version the oldest version of the graph whose trees are kept
+     */
+    public void evictBefore(long version) {
+        synchronized (map) {
+            Iterator<Map.Entry<Key, Entry<T>>> it = map.entrySet().iterator();
+            while (it.hasNext()) {
+                Map.Entry<Key, Entry<T>> e = it.next();
+                if (e.getKey().version >= version) continue;
+                if (e.getValue().bytes >= 0) {
+                    bytes -= e.getValue().bytes;
+                    evictions++;
+                }
+                it.remove();
+            }
+        }
+    }
+
+    /**
+     * Removes every tree from this cache. The counters are not reset.
+     */
+    public void clear() {
+        synchronized (map) {
+            for (Entry<T> entry : map.values())
+                if (entry.bytes >= 0) evictions++;
+            map.clear();
+            bytes = 0;
+        }
+    }
+
+    /**
+     * Returns the number of trees in this cache, including those being built.
+     * @return the number of trees in this cache
+     */
+    public int size() {
+        synchronized (map) {
+            return map.size();
+        }
+    }
+
+    /**
+     * Returns the estimated number of bytes of the trees in this cache.
+     * @return the estimated number of bytes of the trees in this cache
+     */
+    public long bytes() {
+        synchronized (map) {
+            return bytes;
+        }
+    }
+
+    /**
+     * Returns the number of calls to {@code get()} that found their tree in this
+     * cache, built or being built.
+     * @return the number of hits
+     */
+    public long hits() {
+        synchronized (map) {
+            return hits;
+        }
+    }
+
+    /**
+     * Returns the number of calls to {@code get()} that built their tree.
+     * @return the number of misses
+     */
+    public long misses() {
+        synchronized (map) {
+            return misses;
+        }
+    }
+
+    /**
+     * Returns the number of built trees removed from this cache, to keep it within
+     * its budget or by {@code evictBefore()} and {@code clear()}.
+     * @return the number of evictions
+     */
+    public long evictions() {
+        synchronized (map) {
+            return evictions;
+        }
+    }
+
+    /**
+     * Returns the estimated number of bytes of a {@code BreadthFirstPaths} in a graph
+     * with {@code V} vertices, on a 64-bit JVM with compressed references.
+     * @param  V the number of vertices
+     * @return the estimated number of bytes of a {@code BreadthFirstPaths}
+     */
+    public static long bytesOfBreadthFirstPaths(int V) {
+        // the object, boolean[] marked, int[] edgeTo and int[] distTo
+        return 24 + align(16 + V) + 2 * align(16 + 4L * V);
+    }
+
+    /**
+     * Returns the estimated number of bytes of a {@code DijkstraSP} in a digraph
+     * with {@code V} vertices, on a 64-bit JVM with compressed references. The edges
+     * of the tree belong to the digraph, and are not counted; the priority queue,
+     * which the tree keeps after its search, is.
+     * @param  V the number of vertices
+     * @return the estimated number of bytes of a {@code DijkstraSP}
+     */
+    public static long bytesOfDijkstraSP(int V) {
+        // the object, double[] distTo, and DirectedEdge[] edgeTo or int[] edgeIndexTo
+        long tree = 32 + align(16 + 8L * V) + align(16 + 4L * V);
+
+        // the IndexDoubleMinPQ, double[] keys, int[] pq and int[] qp
+        long pq = 40 + align(16 + 8L * V) + 2 * align(16 + 4L * V);
+        return tree + pq;
+    }
+
+    // round up to a multiple of 8 bytes
+    private static long align(long bytes) {
+        return (bytes + 7) & ~7L;
+    }
+
+    /**
+     * Unit tests the {@code PathTreeCache} data type: reads an edge-weighted digraph,
+     * has several threads ask for the same tree at once and checks that it is built
+     * once, then runs queries from skewed random sources through a cache that holds
+     * a given number of trees, checks every query against a fresh tree, and prints the
+     * counters and the time with and without the cache.
+     *
+     * @param args the command-line arguments: the digraph file, the number of queries,
+     *        the number of threads and the number of trees the budget allows
+     */
+    public static void main(String[] args) throws InterruptedException {
+        In in = new In(args[0]);
+        int queries = Integer.parseInt(args[1]);
+        int threads = Integer.parseInt(args[2]);
+        int trees = Integer.parseInt(args[3]);
+        EdgeWeightedDigraph G = new EdgeWeightedDigraph(in);
+        int V = G.V();
+        long version = 1;
+
+        PathTreeCache<DijkstraSP> cache =
+            new PathTreeCache<DijkstraSP>(trees * bytesOfDijkstraSP(V), t -> bytesOfDijkstraSP(V));
+
+        // every thread asks for the tree from 0 at once
+        AtomicInteger builds = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        Thread[] pool = new Thread[threads];
+        for (int i = 0; i < threads; i++) {
+            pool[i] = new Thread(() -> {
+                try {
+                    start.await();
+                }
+                catch (InterruptedException e) {
+                    return;
+                }
+                cache.get(version, 0, x -> {
+                    builds.incrementAndGet();
+                    return new DijkstraSP(G, x);
+                });
+            });
+            pool[i].start();
+        }
+        start.countDown();
+        for (Thread t : pool)
+            t.join();
+        StdOut.printf("%d threads asked for the tree from 0, which was built %d time(s)\n", threads, builds.get());
+
+        // skewed sources, from about twice as many vertices as the cache holds trees
+        int[] sources = new int[queries];
+        for (int i = 0; i < queries; i++)
+            sources[i] = Math.min(V - 1, (int) (2 * trees * Math.pow(StdRandom.uniformDouble(), 2)));
+        int[] targets = new int[queries];
+        for (int i = 0; i < queries; i++)
+            targets[i] = StdRandom.uniformInt(V);
+
+        double[] cached = new double[queries];
+        AtomicInteger next = new AtomicInteger();
+        Stopwatch sw = new Stopwatch();
+        for (int i = 0; i < threads; i++) {
+            pool[i] = new Thread(() -> {
+                for (int q = next.getAndIncrement(); q < queries; q = next.getAndIncrement())
+                    cached[q] = cache.get(version, sources[q], x -> new DijkstraSP(G, x)).distTo(targets[q]);
+            });
+            pool[i].start();
+        }
+        for (Thread t : pool)
+            t.join();
+        double t1 = sw.elapsedTime();
+
+        sw = new Stopwatch();
+        int errors = 0;
+        for (int q = 0; q < queries; q++) {
+            double d = new DijkstraSP(G, sources[q]).distTo(targets[q]);
+            if (Double.compare(d, cached[q]) != 0) errors++;
+        }
+        double t2 = sw.elapsedTime();
+
+        StdOut.printf("%d queries: %d hits, %d misses, %d evictions, %d trees in %d bytes\n",
+                      queries, cache.hits(), cache.misses(), cache.evictions(), cache.size(), cache.bytes());
+        StdOut.printf("cached %.3f s (%d threads), uncached %.3f s (1 thread), %d errors\n", t1, threads, t2, errors);
+
+        cache.evictBefore(version + 1);
+        StdOut.printf("after evictBefore(%d): %d trees in %d bytes\n", version + 1, cache.size(), cache.bytes());
+    }
+}
@@ -0,0 +1,346 @@
+public class PointToPointSP {
+    private final PackedEdgeWeightedDigraph G;   // the digraph
+    private final PackedEdgeWeightedDigraph R;   // its reverse, built once
+
+    // scratch space reused by every query; an entry is valid only if its stamp equals query
+    private int query;
+    private final double[] distF, distB;   // tentative distances from s, and to t
+    private final int[] edgeF, edgeB;      // last edge on the path found to (from) each vertex
+    private final int[] seenF, seenB;      // seenF[v] == query if distF[v] is set in this query
+    private final int[] doneF, doneB;      // doneF[v] == query if v was settled in this query
+    private final IndexDoubleMinPQ pqF, pqB;
+
+    /**
+     * A lower bound on the length of a shortest path from a vertex to the target,
+     * for the A* search in {@link PointToPointSP#aStar(int, int, Heuristic)}.
+     * The bound must be <em>consistent</em>: for every edge {@code v->w},
+     * {@code estimate(v, t) <= weight + estimate(w, t)}, and {@code estimate(t, t) == 0}.
+     */
+    public interface Heuristic {
+
+        /**
+         * Returns a lower bound on the length of a shortest path from {@code v} to {@code t}.
+         * @param  v the vertex
+         * @param  t the target vertex
+         * @return a lower bound on the distance from {@code v} to {@code t};
+         *         {@code Double.POSITIVE_INFINITY} if {@code t} is known to be unreachable
+         */
+        double estimate(int v, int t);
+    }
+
+    /**
+     * The result of one point-to-point query.
+     */
+    public static final class Path {
+        private final double distance;
+        private final Iterable<DirectedEdge> edges;
+        private final int settled;
+
+        private Path(double distance, Iterable<DirectedEdge> edges, int settled) {
+            this.distance = distance;
+            this.edges = edges;
+            this.settled = settled;
+        }
+
+        /**
+         * Returns the length of a shortest path from {@code s} to {@code t}.
+         * @return the length of a shortest path; {@code Double.POSITIVE_INFINITY} if no such path
+         */
+        public double distance() {
+            return distance;
+        }
+
+        /**
+         * Is there a path from {@code s} to {@code t}?
+         * @return {@code true} if there is a path; {@code false} otherwise
+         */
+        public boolean exists() {
+            return distance < Double.POSITIVE_INFINITY;
+        }
+
+        /**
+         * Returns a shortest path from {@code s} to {@code t}.
+         * @return the edges on a shortest path from {@code s} to {@code t}, in order,
+         *         and {@code null} if no such path
+         */
+        public Iterable<DirectedEdge> edges() {
+            return edges;
+        }
+
+        /**
+         * Returns the number of vertices the search settled before it stopped.
+         * @return the number of vertices settled
+         */
+        public int settled() {
+            return settled;
+        }
+    }
+
+    /**
+     * Prepares point-to-point queries over the edge-weighted digraph {@code G}.
+     *
+     * @param  G the edge-weighted digraph
+     * @throws IllegalArgumentException if an edge weight is negative
+     */
+    public PointToPointSP(EdgeWeightedDigraph G) {
+        this(new PackedEdgeWeightedDigraph(G));
+    }
+
+    /**
+     * Prepares point-to-point queries over the packed edge-weighted digraph {@code G}.
+     * The reverse digraph and the search state are built here, once, and reused by
+     * every query, so a query costs time proportional to the part of the digraph it
+     * explores. A {@code PointToPointSP} is not safe for use by more than one thread.
+     *
+     * @param  G the packed edge-weighted digraph
+     * @throws IllegalArgumentException if an edge weight is negative
+     */
+    public PointToPointSP(PackedEdgeWeightedDigraph G) {
+        for (int e = 0; e < G.E(); e++) {
+            if (G.weight(e) < 0)
+                throw new IllegalArgumentException("edge " + G.edge(e) + " has negative weight");
+        }
+        int V = G.V();
+        this.G = G;
+        this.R = G.reverse();
+        distF = new double[V];
+        distB = new double[V];
+        edgeF = new int[V];
+        edgeB = new int[V];
+        seenF = new int[V];
+        seenB = new int[V];
+        doneF = new int[V];
+        doneB = new int[V];
+        pqF = new IndexDoubleMinPQ(V);
+        pqB = new IndexDoubleMinPQ(V);
+    }
+
+    /**
+     * Returns the digraph these queries run on.
+     * @return the digraph
+     */
+    public PackedEdgeWeightedDigraph digraph() {
+        return G;
+    }
+
+    /**
+     * Returns the reverse of the digraph these queries run on.
+     * @return the reverse digraph
+     */
+    public PackedEdgeWeightedDigraph reverse() {
+        return R;
+    }
+
+    /**
+     * Finds a shortest path from {@code s} to {@code t} with Dijkstra's algorithm,
+     * stopping as soon as {@code t} is settled.
+     *
+     * @param  s the source vertex
+     * @param  t the target vertex
+     * @return a shortest path from {@code s} to {@code t}
+     * @throws IllegalArgumentException unless {@code 0 <= s < V} and {@code 0 <= t < V}
+     */
+    public Path dijkstra(int s, int t) {
+        return aStar(s, t, null);
+    }
+
+    /**
+     * Finds a shortest path from {@code s} to {@code t} with bidirectional Dijkstra:
+     * one search grows forward from {@code s} in the digraph and another grows backward
+     * from {@code t} in the reverse digraph, and it stops once the smallest keys of the
+     * two priority queues add up to at least the shortest path seen where they meet.
+     *
+     * @param  s the source vertex
+     * @param  t the target vertex
+     * @return a shortest path from {@code s} to {@code t}
+     * @throws IllegalArgumentException unless {@code 0 <= s < V} and {@code 0 <= t < V}
+     */
+    public Path bidirectional(int s, int t) {
+        validateVertex(s);
+        validateVertex(t);
+        start();
+        reach(distF, edgeF, seenF, pqF, s, 0.0, -1);
+        reach(distB, edgeB, seenB, pqB, t, 0.0, -1);
+
+        double best = (s == t) ? 0.0 : Double.POSITIVE_INFINITY;
+        int meet = (s == t) ? s : -1;
+        int settled = 0;
+        while (!pqF.isEmpty() && !pqB.isEmpty()) {
+            if (pqF.minKey() + pqB.minKey() >= best) break;
+            settled++;
+
+            // grow the side with fewer vertices on its priority queue
+            boolean forward = pqF.size() <= pqB.size();
+            PackedEdgeWeightedDigraph H = forward ? G     : R;
+            double[] dist  = forward ? distF : distB;
+            double[] other = forward ? distB : distF;
+            int[] edge     = forward ? edgeF : edgeB;
+            int[] seen     = forward ? seenF : seenB;
+            int[] seenO    = forward ? seenB : seenF;
+            int[] done     = forward ? doneF : doneB;
+            IndexDoubleMinPQ pq = forward ? pqF : pqB;
+
+            int v = pq.delMin();
+            done[v] = query;
+            for (int e = H.begin(v), end = H.end(v); e < end; e++) {
+                int w = H.to(e);
+                double d = dist[v] + H.weight(e);
+                if (seen[w] != query || d < dist[w]) reach(dist, edge, seen, pq, w, d, e);
+                if (seenO[w] == query && d + other[w] < best) {
+                    best = d + other[w];
+                    meet = w;
+                }
+            }
+        }
+        pqF.clear();
+        pqB.clear();
+
+        if (meet == -1) return new Path(Double.POSITIVE_INFINITY, null, settled);
+        Queue<DirectedEdge> path = new Queue<DirectedEdge>();
+        for (DirectedEdge e : forwardPath(meet))
+            path.enqueue(e);
+        for (int x = meet; x != t; ) {
+            int e = edgeB[x];                // reverse edge y->x stands for x->y
+            int y = R.from(e);
+            path.enqueue(new DirectedEdge(x, y, R.weight(e)));
+            x = y;
+        }
+        return new Path(best, path, settled);
+    }
+
+    /**
+     * Finds a shortest path from {@code s} to {@code t} with A* search, which settles
+     * vertices in order of distance from {@code s} plus the heuristic's estimate of the
+     * distance to {@code t}, stopping as soon as {@code t} is settled.
+     * With a {@code null} heuristic this is Dijkstra's algorithm.
+     *
+     * @param  s the source vertex
+     * @param  t the target vertex
+     * @param  h a consistent lower bound on the distance to {@code t}, or {@code null}
+     * @return a shortest path from {@code s} to {@code t}
+     * @throws IllegalArgumentException unless {@code 0 <= s < V} and {@code 0 <= t < V}
+     */
+    public Path aStar(int s, int t, Heuristic h) {
+        validateVertex(s);
+        validateVertex(t);
+        start();
+        reach(distF, edgeF, seenF, pqF, s, 0.0, -1);
+        if (h != null) pqF.changeKey(s, h.estimate(s, t));
+
+        int settled = 0;
+        while (!pqF.isEmpty()) {
+            int v = pqF.delMin();
+            doneF[v] = query;
+            settled++;
+            if (v == t) break;
+            for (int e = G.begin(v), end = G.end(v); e < end; e++) {
+                int w = G.to(e);
+                if (doneF[w] == query) continue;
+                double d = distF[v] + G.weight(e);
+                if (seenF[w] == query && d >= distF[w]) continue;
+                double estimate = (h == null) ? 0.0 : h.estimate(w, t);
+                if (estimate == Double.POSITIVE_INFINITY) continue;    // t unreachable from w
+                distF[w] = d;
+                edgeF[w] = e;
+                seenF[w] = query;
+                // a shorter d may round to the same key once the estimate is added
+                double key = d + estimate;
+                if (!pqF.contains(w))        pqF.insert(w, key);
+                else if (key < pqF.keyOf(w)) pqF.decreaseKey(w, key);
+            }
+        }
+        pqF.clear();
+
+        if (doneF[t] != query) return new Path(Double.POSITIVE_INFINITY, null, settled);
+        Queue<DirectedEdge> path = new Queue<DirectedEdge>();
+        for (DirectedEdge e : forwardPath(t))
+            path.enqueue(e);
+        return new Path(distF[t], path, settled);
+    }
+
+    // begin a new query; stamps from earlier queries become stale
+    private void start() {
+        query++;
+        if (query == Integer.MAX_VALUE) {
+            java.util.Arrays.fill(seenF, 0);
+            java.util.Arrays.fill(seenB, 0);
+            java.util.Arrays.fill(doneF, 0);
+            java.util.Arrays.fill(doneB, 0);
+            query = 1;
+        }
+    }
+
+    // record a (shorter) path of length d to w whose last edge is e, and update pq
+    private void reach(double[] dist, int[] edge, int[] seen, IndexDoubleMinPQ pq, int w, double d, int e) {
+        dist[w] = d;
+        edge[w] = e;
+        seen[w] = query;
+        if (!pq.contains(w))       pq.insert(w, d);
+        else if (d < pq.keyOf(w))  pq.decreaseKey(w, d);
+    }
+
+    // the edges of the forward search tree from s to v, in order
+    private Stack<DirectedEdge> forwardPath(int v) {
+        Stack<DirectedEdge> path = new Stack<DirectedEdge>();
+        for (int e = edgeF[v]; e != -1; e = edgeF[G.from(e)])
+            path.push(G.edge(e));
+        return path;
+    }
+
+    // throw an IllegalArgumentException unless {@code 0 <= v < V}
+    private void validateVertex(int v) {
+        int V = distF.length;
+        if (v < 0 || v >= V)
+            throw new IllegalArgumentException("vertex " + v + " is not between 0 and " + (V-1));
+    }
+
+    // answers the query with each search, prints it if one differs from DijkstraSP,
+    // and returns the vertices each search settled
+    private static long[] query(PointToPointSP sp, PackedEdgeWeightedDigraph G,
+                                int s, int t, Heuristic h) {
+        double expected = new DijkstraSP(G, s).distTo(t);
+        Path p1 = sp.dijkstra(s, t);
+        Path p2 = sp.bidirectional(s, t);
+        Path p3 = sp.aStar(s, t, h);
+        if (Math.abs(p1.distance() - expected) > 1E-9 || Math.abs(p2.distance() - expected) > 1E-9
+                                                      || Math.abs(p3.distance() - expected) > 1E-9)
+            StdOut.printf("%d to %d: expected %.2f, got %.2f %.2f %.2f\n",
+                          s, t, expected, p1.distance(), p2.distance(), p3.distance());
+        return new long[] { p1.settled(), p2.settled(), p3.settled() };
+    }
+
+    /**
+     * Unit tests the {@code PointToPointSP} data type: answers random queries with
+     * Dijkstra, bidirectional Dijkstra and A* with landmarks, and compares them
+     * against {@code DijkstraSP}. Then does the same on a small digraph where a
+     * shorter path to a vertex is found after a longer one, but with a key that rounds
+     * to the old key once the estimate of 1e6 is added.
+     *
+     * @param args the command-line arguments
+     */
+    public static void main(String[] args) {
+        In in = new In(args[0]);
+        int queries = Integer.parseInt(args[1]);
+        PackedEdgeWeightedDigraph G = new PackedEdgeWeightedDigraph(in);
+        PointToPointSP sp = new PointToPointSP(G);
+        LandmarkHeuristic alt = new LandmarkHeuristic(G, sp.reverse(), 8);
+
+        long settled1 = 0, settled2 = 0, settled3 = 0;
+        for (int i = 0; i < queries; i++) {
+            int s = StdRandom.uniform(G.V());
+            int t = StdRandom.uniform(G.V());
+            long[] settled = query(sp, G, s, t, alt);
+            settled1 += settled[0];
+            settled2 += settled[1];
+            settled3 += settled[2];
+        }
+        StdOut.printf("average vertices settled: Dijkstra %.1f, bidirectional %.1f, ALT %.1f\n",
+                      1.0 * settled1 / queries, 1.0 * settled2 / queries, 1.0 * settled3 / queries);
+
+        // 0->2->1 is shorter than 0->1 by one ulp, and 1->3 is far heavier than both
+        PackedEdgeWeightedDigraph tiny = new PackedEdgeWeightedDigraph(4,
+            new int[] { 0, 0, 2, 1 }, new int[] { 1, 2, 1, 3 },
+            new double[] { 1.0000000000000002, 0.5, 0.5, 1e6 });
+        query(new PointToPointSP(tiny), tiny, 0, 3, (v, t) -> (v == 3) ? 0.0 : 1e6);
+    }
+}
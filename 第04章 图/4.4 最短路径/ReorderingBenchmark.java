@@ -0,0 +1,113 @@
+public class ReorderingBenchmark {
+    // untimed runs of each traversal, so the JIT compiles it first
+    private static final int WARMUP = 2;
+
+    // timed runs of each traversal; the median is reported
+    private static final int TRIALS = 5;
+
+    // This class should not be instantiated.
+    private ReorderingBenchmark() { }
+
+    // one traversal from each source; returns a checksum of the results
+    private interface Traversal {
+        double run(int[] sources);
+    }
+
+    // the median time, in seconds, of TRIALS runs of traversal after WARMUP untimed ones;
+    // every run must give the checksum in checksum[0], which the first run sets if it is NaN,
+    // up to rounding: relabeling changes the order in which the distances are added
+    private static double time(Traversal traversal, int[] sources, double[] checksum) {
+        double[] times = new double[TRIALS];
+        for (int t = -WARMUP; t < TRIALS; t++) {
+            Stopwatch timer = new Stopwatch();
+            double sum = traversal.run(sources);
+            double time = timer.elapsedTime();
+            if (Double.isNaN(checksum[0])) checksum[0] = sum;
+            if (Math.abs(sum - checksum[0]) > 1.0E-9 * Math.max(1.0, Math.abs(checksum[0])))
+                throw new IllegalStateException("checksum " + sum + " instead of " + checksum[0]);
+            if (t >= 0) times[t] = time;
+        }
+        java.util.Arrays.sort(times);
+        return times[TRIALS / 2];
+    }
+
+    /**
+     * Reads an edge-weighted digraph from the file named on the command line, relabels
+     * it with each ordering of {@code GraphReordering}, and prints the median time of
+     * Dijkstra's algorithm from the same random sources in each, and the speedup over
+     * the original labels. A random relabeling shows what the searches cost with no
+     * locality at all.
+     *
+     * @param args the command-line arguments: the edge-weighted digraph file and the
+     *        number of sources
+     */
+    public static void main(String[] args) {
+        In in = new In(args[0]);
+        int k = Integer.parseInt(args[1]);
+        PackedEdgeWeightedDigraph P = new PackedEdgeWeightedDigraph(in);
+        int V = P.V();
+
+        // the digraph of its edges, to compute the orderings from
+        int[] tails = new int[P.E()];
+        int[] heads = new int[P.E()];
+        for (int e = 0; e < P.E(); e++) {
+            tails[e] = P.from(e);
+            heads[e] = P.to(e);
+        }
+        CSRDigraph G = new CSRDigraph(V, tails, heads);
+
+        int[] sources = new int[k];
+        for (int i = 0; i < k; i++)
+            sources[i] = StdRandom.uniformInt(V);
+
+        int[] shuffle = new int[V];
+        for (int v = 0; v < V; v++)
+            shuffle[v] = v;
+        StdRandom.shuffle(shuffle);
+
+        String[] names = {
+            "original", "random", "reverse Cuthill-McKee", "degree descending", "breadth-first", "depth-first"
+        };
+        Stopwatch sw = new Stopwatch();
+        GraphReordering[] orders = {
+            null,
+            GraphReordering.fromPermutation(shuffle),
+            GraphReordering.reverseCuthillMcKee(G),
+            GraphReordering.degreeDescending(G),
+            GraphReordering.breadthFirst(G),
+            GraphReordering.depthFirst(G)
+        };
+        StdOut.printf("V = %d, E = %d, %d sources, orderings computed in %.3f s\n", V, G.E(), k, sw.elapsedTime());
+        StdOut.printf("%-22s %9s %8s\n", "ordering", "Dijkstra", "speedup");
+
+        double base = 0.0;
+        // the searches must give the same distances, relabeled, in every ordering
+        double[] spSum = { Double.NaN };
+        for (int o = 0; o < names.length; o++) {
+            PackedEdgeWeightedDigraph Q;
+            int[] s = new int[k];
+            if (orders[o] == null) {
+                Q = P;
+                s = sources;
+            }
+            else {
+                GraphReordering order = orders[o];
+                Q = order.permute(P);
+                for (int i = 0; i < k; i++)
+                    s[i] = order.newIndex(sources[i]);
+            }
+
+            double t = time(x -> {
+                double sum = 0;
+                for (int v : x) {
+                    DijkstraSP sp = new DijkstraSP(Q, v);
+                    for (int w : x)
+                        if (sp.hasPathTo(w)) sum += sp.distTo(w);
+                }
+                return sum;
+            }, s, spSum);
+            if (o == 0) base = t;
+            StdOut.printf("%-22s %8.3fs %7.2fx\n", names[o], t, base / t);
+        }
+    }
+}
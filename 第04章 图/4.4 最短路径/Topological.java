@@ -32,6 +32,43 @@ public class Topological {
         }
     }
 
+    /**
+     * Determines whether the packed edge-weighted digraph {@code G} has a topological
+     * order and, if so, finds such an order. Uses a queue of vertices with zero
+     * remaining indegree over {@code int[]} arrays, so it does not recurse.
+     * @param G the packed edge-weighted digraph
+     */
+    public Topological(PackedEdgeWeightedDigraph G) {
+        int V = G.V();
+        int[] indegree = new int[V];
+        for (int v = 0; v < V; v++)
+            indegree[v] = G.indegree(v);
+
+        // queue[0..tail) holds the vertices in topological order
+        int[] queue = new int[V];
+        int head = 0, tail = 0;
+        for (int v = 0; v < V; v++)
+            if (indegree[v] == 0) queue[tail++] = v;
+        while (head < tail) {
+            int v = queue[head++];
+            for (int e = G.begin(v), end = G.end(v); e < end; e++) {
+                int w = G.to(e);
+                if (--indegree[w] == 0) queue[tail++] = w;
+            }
+        }
+
+        // some vertex never reached indegree 0, so there is a directed cycle
+        if (tail != V) return;
+
+        rank = new int[V];
+        Queue<Integer> topological = new Queue<Integer>();
+        for (int i = 0; i < V; i++) {
+            rank[queue[i]] = i;
+            topological.enqueue(queue[i]);
+        }
+        order = topological;
+    }
+
     /**
      * Returns a topological order if the digraph has a topologial order,
      * and {@code null} otherwise.
@@ -0,0 +1,465 @@
+public class Dinic {
+    private static final double FLOATING_POINT_EPSILON = 1.0E-11;
+
+    private final int V;            // number of vertices
+    private boolean[] cut;          // cut[v] = true iff s->v path in residual network
+    private double value;           // value of max flow
+
+    // level graph
+    private ResidualNetwork R;      // the residual network, while the flow is computed
+    private int[] level;            // level[v] = distance from s in the level graph, or -1
+    private int[] current;          // current[v] = index in R of the next arc out of v to try
+    private int[] queue;            // the queue of the breadth-first search
+    private int[] path;             // path[0..depth) = the arcs of the path from s being extended
+
+    /**
+     * Compute a maximum flow and minimum cut in the network {@code G}
+     * from vertex {@code s} to vertex {@code t}, with Dinic's algorithm.
+     *
+     * @param  G the flow network
+     * @param  s the source vertex
+     * @param  t the sink vertex
+     * @throws IllegalArgumentException unless {@code 0 <= s < V}
+     * @throws IllegalArgumentException unless {@code 0 <= t < V}
+     * @throws IllegalArgumentException if {@code s == t}
+     * @throws IllegalArgumentException if initial flow is infeasible
+     */
+    public Dinic(FlowNetwork G, int s, int t) {
+        this(G, s, t, false);
+    }
+
+    /**
+     * Compute a maximum flow and minimum cut in the network {@code G}
+     * from vertex {@code s} to vertex {@code t}, with Dinic's algorithm,
+     * and with capacity scaling if {@code scaling} is {@code true}.
+     *
+     * @param  G the flow network
+     * @param  s the source vertex
+     * @param  t the sink vertex
+     * @param  scaling use capacity scaling?
+     * @throws IllegalArgumentException unless {@code 0 <= s < V}
+     * @throws IllegalArgumentException unless {@code 0 <= t < V}
+     * @throws IllegalArgumentException if {@code s == t}
+     * @throws IllegalArgumentException if initial flow is infeasible
+     */
+    public Dinic(FlowNetwork G, int s, int t, boolean scaling) {
+        V = G.V();
+        validate(s);
+        validate(t);
+        if (s == t)               throw new IllegalArgumentException("Source equals sink");
+        if (!isFeasible(G, s, t)) throw new IllegalArgumentException("Initial flow is infeasible");
+
+        // compute on the residual network, and copy the flow back
+        ResidualNetwork R = new ResidualNetwork(G);
+        maxflow(R, s, t, scaling);
+        R.copyFlowsTo(G);
+
+        // check optimality conditions
+        assert check(G, s, t);
+    }
+
+    /**
+     * Compute a maximum flow and minimum cut in the residual network {@code R}
+     * from vertex {@code s} to vertex {@code t}, starting from its current flow,
+     * with Dinic's algorithm.
+     *
+     * @param  R the residual network
+     * @param  s the source vertex
+     * @param  t the sink vertex
+     * @throws IllegalArgumentException unless {@code 0 <= s < V}
+     * @throws IllegalArgumentException unless {@code 0 <= t < V}
+     * @throws IllegalArgumentException if {@code s == t}
+     * @throws IllegalArgumentException if initial flow is infeasible
+     */
+    public Dinic(ResidualNetwork R, int s, int t) {
+        this(R, s, t, false);
+    }
+
+    /**
+     * Compute a maximum flow and minimum cut in the residual network {@code R}
+     * from vertex {@code s} to vertex {@code t}, starting from its current flow,
+     * with Dinic's algorithm, and with capacity scaling if {@code scaling} is {@code true}.
+     * <p>
+     * Each phase builds the level graph, the arcs with residual capacity from
+     * each vertex to one a step further from {@code s}, by breadth-first search,
+     * and then augments along its paths until none is left: a blocking flow.
+     * The path is extended from the current arc of each vertex, which only
+     * moves forward in a phase, and a vertex that leads nowhere is taken out of
+     * the level graph, so a phase takes time proportional to <em>V</em> <em>E</em>
+     * and there are fewer than <em>V</em> phases; for unit capacities, as in
+     * bipartite matching, the bounds are much lower.
+     * <p>
+     * With capacity scaling, the level graphs first hold only the arcs with
+     * a residual capacity of at least <em>&Delta;</em>, for <em>&Delta;</em> the
+     * largest power of two no greater than the largest finite capacity, halved
+     * until it is below the smallest positive capacity, so the flow is sent
+     * in large amounts along few paths first. The last phases use every arc.
+     *
+     * @param  R the residual network
+     * @param  s the source vertex
+     * @param  t the sink vertex
+     * @param  scaling use capacity scaling?
+     * @throws IllegalArgumentException unless {@code 0 <= s < V}
+     * @throws IllegalArgumentException unless {@code 0 <= t < V}
+     * @throws IllegalArgumentException if {@code s == t}
+     * @throws IllegalArgumentException if initial flow is infeasible
+     */
+    public Dinic(ResidualNetwork R, int s, int t, boolean scaling) {
+        V = R.V();
+        validate(s);
+        validate(t);
+        if (s == t)               throw new IllegalArgumentException("Source equals sink");
+        value = R.excess(t);
+        if (!isFeasible(R, s, t)) throw new IllegalArgumentException("Initial flow is infeasible");
+        maxflow(R, s, t, scaling);
+
+        // check optimality conditions
+        assert check(R, s, t);
+    }
+
+    // blocking flows in level graphs with arcs of residual capacity at least delta,
+    // for each scale delta and then for delta = 0
+    private void maxflow(ResidualNetwork R, int s, int t, boolean scaling) {
+        this.R = R;
+        value = R.excess(t);
+        level = new int[V];
+        current = new int[V];
+        queue = new int[V];
+        path = new int[V];
+
+        if (scaling) {
+            double max = 0.0, min = Double.POSITIVE_INFINITY;
+            for (int a = 0; a < 2*R.E(); a += 2) {
+                double c = R.capacity(a);
+                if (c == Double.POSITIVE_INFINITY || c == 0.0) continue;
+                max = Math.max(max, c);
+                min = Math.min(min, c);
+            }
+            if (max > 0.0) {
+                for (double delta = Math.scalb(1.0, Math.getExponent(max)); delta >= min; delta /= 2)
+                    while (levels(s, t, delta))
+                        blockingFlow(s, t, delta);
+            }
+        }
+        while (levels(s, t, 0.0))
+            blockingFlow(s, t, 0.0);
+
+        // the last search found the vertices that s can reach
+        cut = new boolean[V];
+        for (int v = 0; v < V; v++)
+            cut[v] = level[v] >= 0;
+
+        this.R = null;
+        level = current = queue = path = null;
+    }
+
+    // can arc a be in the level graph for scale delta?
+    private boolean usable(int a, double delta) {
+        double residual = R.residualCapacity(a);
+        return residual > 0 && residual >= delta;
+    }
+
+    // the level of each vertex in the level graph for scale delta, by breadth-first
+    // search from s, with the current arc of each vertex at its first; is t in it?
+    private boolean levels(int s, int t, double delta) {
+        for (int v = 0; v < V; v++)
+            level[v] = -1;
+        int head = 0, tail = 0;
+        queue[tail++] = s;
+        level[s] = 0;
+        while (head < tail) {
+            int v = queue[head++];
+            current[v] = R.begin(v);
+
+            // no shortest path uses a vertex at the level of t or beyond
+            if (level[t] >= 0 && level[v] >= level[t]) continue;
+            for (int i = R.begin(v), end = R.end(v); i < end; i++) {
+                int a = R.arc(i);
+                int w = R.head(a);
+                if (level[w] == -1 && usable(a, delta)) {
+                    level[w] = level[v] + 1;
+                    queue[tail++] = w;
+                }
+            }
+        }
+        return level[t] >= 0;
+    }
+
+    // augment along paths from s to t in the level graph until there is none;
+    // the path is kept on a stack of arcs, so its length is not limited by the call stack
+    private void blockingFlow(int s, int t, double delta) {
+        int depth = 0;
+        int v = s;
+        while (true) {
+            if (v == t) {
+                // augment by the bottleneck, and go back to the tail of its first saturated arc
+                double bottle = Double.POSITIVE_INFINITY;
+                int back = 0;
+                for (int k = 0; k < depth; k++) {
+                    if (R.residualCapacity(path[k]) < bottle) {
+                        bottle = R.residualCapacity(path[k]);
+                        back = k;
+                    }
+                }
+                for (int k = 0; k < depth; k++)
+                    R.addFlow(path[k], bottle);
+                for (int k = 0; k < back; k++) {
+                    if (!usable(path[k], delta)) {
+                        back = k;
+                        break;
+                    }
+                }
+                value += bottle;
+                depth = back;
+                v = R.tail(path[back]);
+
+                // rounding may leave the bottleneck arc with a sliver of capacity
+                if (usable(path[back], delta)) current[v]++;
+                continue;
+            }
+
+            // advance along the current arc of v, if it is in the level graph
+            int end = R.end(v);
+            int i = current[v];
+            while (i < end) {
+                int a = R.arc(i);
+                if (level[R.head(a)] == level[v] + 1 && usable(a, delta)) break;
+                i++;
+            }
+            current[v] = i;
+            if (i < end) {
+                int a = R.arc(i);
+                path[depth++] = a;
+                v = R.head(a);
+                continue;
+            }
+
+            // retreat: no path to t goes through v any more
+            level[v] = -1;
+            if (depth == 0) return;
+            v = R.tail(path[--depth]);
+            current[v]++;
+        }
+    }
+
+    /**
+     * Returns the value of the maximum flow.
+     *
+     * @return the value of the maximum flow
+     */
+    public double value()  {
+        return value;
+    }
+
+    /**
+     * Returns true if the specified vertex is on the {@code s} side of the mincut.
+     *
+     * @param  v vertex
+     * @return {@code true} if vertex {@code v} is on the {@code s} side of the mincut;
+     *         {@code false} otherwise
+     * @throws IllegalArgumentException unless {@code 0 <= v < V}
+     */
+    public boolean inCut(int v)  {
+        validate(v);
+        return cut[v];
+    }
+
+    // throw an IllegalArgumentException if v is outside prescribed range
+    private void validate(int v)  {
+        if (v < 0 || v >= V)
+            throw new IllegalArgumentException("vertex " + v + " is not between 0 and " + (V-1));
+    }
+
+
+    // return excess flow at vertex v
+    private double excess(FlowNetwork G, int v) {
+        double excess = 0.0;
+        for (FlowEdge e : G.adj(v)) {
+            if (v == e.from()) excess -= e.flow();
+            else               excess += e.flow();
+        }
+        return excess;
+    }
+
+    // return excess flow at vertex v
+    private boolean isFeasible(FlowNetwork G, int s, int t) {
+
+        // check that capacity constraints are satisfied
+        for (int v = 0; v < G.V(); v++) {
+            for (FlowEdge e : G.adj(v)) {
+                if (e.flow() < -FLOATING_POINT_EPSILON || e.flow() > e.capacity() + FLOATING_POINT_EPSILON) {
+                    System.err.println("Edge does not satisfy capacity constraints: " + e);
+                    return false;
+                }
+            }
+        }
+
+        // check that net flow into a vertex equals zero, except at source and sink
+        if (Math.abs(value + excess(G, s)) > FLOATING_POINT_EPSILON) {
+            System.err.println("Excess at source = " + excess(G, s));
+            System.err.println("Max flow         = " + value);
+            return false;
+        }
+        if (Math.abs(value - excess(G, t)) > FLOATING_POINT_EPSILON) {
+            System.err.println("Excess at sink   = " + excess(G, t));
+            System.err.println("Max flow         = " + value);
+            return false;
+        }
+        for (int v = 0; v < G.V(); v++) {
+            if (v == s || v == t) continue;
+            else if (Math.abs(excess(G, v)) > FLOATING_POINT_EPSILON) {
+                System.err.println("Net flow out of " + v + " doesn't equal zero");
+                return false;
+            }
+        }
+        return true;
+    }
+
+
+
+    // check optimality conditions
+    private boolean check(FlowNetwork G, int s, int t) {
+
+        // check that flow is feasible
+        if (!isFeasible(G, s, t)) {
+            System.err.println("Flow is infeasible");
+            return false;
+        }
+
+        // check that s is on the source side of min cut and that t is not on source side
+        if (!inCut(s)) {
+            System.err.println("source " + s + " is not on source side of min cut");
+            return false;
+        }
+        if (inCut(t)) {
+            System.err.println("sink " + t + " is on source side of min cut");
+            return false;
+        }
+
+        // check that value of min cut = value of max flow
+        double mincutValue = 0.0;
+        for (int v = 0; v < G.V(); v++) {
+            for (FlowEdge e : G.adj(v)) {
+                if ((v == e.from()) && inCut(e.from()) && !inCut(e.to()))
+                    mincutValue += e.capacity();
+            }
+        }
+
+        if (Math.abs(mincutValue - value) > FLOATING_POINT_EPSILON) {
+            System.err.println("Max flow value = " + value + ", min cut value = " + mincutValue);
+            return false;
+        }
+
+        return true;
+    }
+
+    // the same checks on a residual network
+    private boolean isFeasible(ResidualNetwork R, int s, int t) {
+        for (int a = 0; a < 2*R.E(); a += 2) {
+            if (R.flow(a) < -FLOATING_POINT_EPSILON || R.flow(a) > R.capacity(a) + FLOATING_POINT_EPSILON) {
+                System.err.println("Edge does not satisfy capacity constraints: "
+                                   + R.tail(a) + "->" + R.head(a) + " " + R.flow(a) + "/" + R.capacity(a));
+                return false;
+            }
+        }
+        if (Math.abs(value + R.excess(s)) > FLOATING_POINT_EPSILON) {
+            System.err.println("Excess at source = " + R.excess(s));
+            System.err.println("Max flow         = " + value);
+            return false;
+        }
+        if (Math.abs(value - R.excess(t)) > FLOATING_POINT_EPSILON) {
+            System.err.println("Excess at sink   = " + R.excess(t));
+            System.err.println("Max flow         = " + value);
+            return false;
+        }
+        for (int v = 0; v < R.V(); v++) {
+            if (v == s || v == t) continue;
+            else if (Math.abs(R.excess(v)) > FLOATING_POINT_EPSILON) {
+                System.err.println("Net flow out of " + v + " doesn't equal zero");
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private boolean check(ResidualNetwork R, int s, int t) {
+        if (!isFeasible(R, s, t)) {
+            System.err.println("Flow is infeasible");
+            return false;
+        }
+        if (!inCut(s)) {
+            System.err.println("source " + s + " is not on source side of min cut");
+            return false;
+        }
+        if (inCut(t)) {
+            System.err.println("sink " + t + " is on source side of min cut");
+            return false;
+        }
+        double mincutValue = 0.0;
+        for (int a = 0; a < 2*R.E(); a += 2) {
+            if (inCut(R.tail(a)) && !inCut(R.head(a)))
+                mincutValue += R.capacity(a);
+        }
+        if (Math.abs(mincutValue - value) > FLOATING_POINT_EPSILON) {
+            System.err.println("Max flow value = " + value + ", min cut value = " + mincutValue);
+            return false;
+        }
+        return true;
+    }
+
+
+    /**
+     * Unit tests the {@code Dinic} data type: computes a maximum flow in a random
+     * network with and without capacity scaling, checks their values against
+     * {@code FordFulkerson} on a copy of the network, and prints the time of each.
+     *
+     * @param args the command-line arguments: <em>V</em> and <em>E</em>
+     */
+    public static void main(String[] args) {
+
+        // create flow network with V vertices and E edges
+        int V = Integer.parseInt(args[0]);
+        int E = Integer.parseInt(args[1]);
+        int s = 0, t = V-1;
+        FlowNetwork G = new FlowNetwork(V, E);
+        FlowNetwork H = new FlowNetwork(V);
+        FlowNetwork K = new FlowNetwork(V);
+        for (FlowEdge e : G.edges()) {
+            H.addEdge(new FlowEdge(e));
+            K.addEdge(new FlowEdge(e));
+        }
+        if (V <= 20) StdOut.println(G);
+
+        // compute maximum flow and minimum cut
+        Stopwatch sw = new Stopwatch();
+        Dinic maxflow = new Dinic(G, s, t);
+        double t1 = sw.elapsedTime();
+        if (V <= 20) {
+            StdOut.println("Max flow from " + s + " to " + t);
+            for (int v = 0; v < G.V(); v++) {
+                for (FlowEdge e : G.adj(v)) {
+                    if ((v == e.from()) && e.flow() > 0)
+                        StdOut.println("   " + e);
+                }
+            }
+
+            // print min-cut
+            StdOut.print("Min cut: ");
+            for (int v = 0; v < G.V(); v++) {
+                if (maxflow.inCut(v)) StdOut.print(v + " ");
+            }
+            StdOut.println();
+        }
+
+        sw = new Stopwatch();
+        Dinic scaled = new Dinic(K, s, t, true);
+        double t2 = sw.elapsedTime();
+        sw = new Stopwatch();
+        FordFulkerson ff = new FordFulkerson(H, s, t);
+        double t3 = sw.elapsedTime();
+        StdOut.println("Max flow value = " + maxflow.value() + " (with scaling " + scaled.value()
+                       + ", FordFulkerson " + ff.value() + ")");
+        StdOut.printf("Dinic %.3f s, with scaling %.3f s, FordFulkerson %.3f s\n", t1, t2, t3);
+    }
+
+}
@@ -3,7 +3,8 @@ public class FordFulkerson {
 
     private final int V;          // number of vertices
     private boolean[] marked;     // marked[v] = true iff s->v path in residual graph
-    private FlowEdge[] edgeTo;    // edgeTo[v] = last edge on shortest residual s->v path
+    private int[] arcTo;          // arcTo[v] = last arc on shortest residual s->v path
+    private int[] queue;          // the queue of the breadth-first search
     private double value;         // current value of max flow
 
     /**
@@ -24,27 +25,63 @@ public class FordFulkerson {
         validate(t);
         if (s == t)               throw new IllegalArgumentException("Source equals sink");
         if (!isFeasible(G, s, t)) throw new IllegalArgumentException("Initial flow is infeasible");
-
-        // while there exists an augmenting path, use it
         value = excess(G, t);
-        while (hasAugmentingPath(G, s, t)) {
+
+        // augment on the residual network, and copy the flow back
+        ResidualNetwork R = new ResidualNetwork(G);
+        augment(R, s, t);
+        R.copyFlowsTo(G);
+
+        // check optimality conditions
+        assert check(G, s, t);
+    }
+
+    /**
+     * Compute a maximum flow and minimum cut in the residual network {@code R}
+     * from vertex {@code s} to vertex {@code t}, starting from its current flow.
+     *
+     * @param  R the residual network
+     * @param  s the source vertex
+     * @param  t the sink vertex
+     * @throws IllegalArgumentException unless {@code 0 <= s < V}
+     * @throws IllegalArgumentException unless {@code 0 <= t < V}
+     * @throws IllegalArgumentException if {@code s == t}
+     * @throws IllegalArgumentException if initial flow is infeasible
+     */
+    public FordFulkerson(ResidualNetwork R, int s, int t) {
+        V = R.V();
+        validate(s);
+        validate(t);
+        if (s == t)               throw new IllegalArgumentException("Source equals sink");
+        value = R.excess(t);
+        if (!isFeasible(R, s, t)) throw new IllegalArgumentException("Initial flow is infeasible");
+        augment(R, s, t);
+
+        // check optimality conditions
+        assert check(R, s, t);
+    }
+
+    // while there exists an augmenting path, use it
+    private void augment(ResidualNetwork R, int s, int t) {
+        marked = new boolean[V];
+        arcTo = new int[V];
+        queue = new int[V];
+        while (hasAugmentingPath(R, s, t)) {
 
             // compute bottleneck capacity
             double bottle = Double.POSITIVE_INFINITY;
-            for (int v = t; v != s; v = edgeTo[v].other(v)) {
-                bottle = Math.min(bottle, edgeTo[v].residualCapacityTo(v));
+            for (int v = t; v != s; v = R.tail(arcTo[v])) {
+                bottle = Math.min(bottle, R.residualCapacity(arcTo[v]));
             }
 
             // augment flow
-            for (int v = t; v != s; v = edgeTo[v].other(v)) {
-                edgeTo[v].addResidualFlowTo(v, bottle);
+            for (int v = t; v != s; v = R.tail(arcTo[v])) {
+                R.addFlow(arcTo[v], bottle);
             }
 
             value += bottle;
         }
-
-        // check optimality conditions
-        assert check(G, s, t);
+        arcTo = queue = null;
     }
 
     /**
@@ -77,29 +114,29 @@ public class FordFulkerson {
 
 
     // is there an augmenting path?
-    // if so, upon termination edgeTo[] will contain a parent-link representation of such a path
+    // if so, upon termination arcTo[] will contain a parent-link representation of such a path
     // this implementation finds a shortest augmenting path (fewest number of edges),
     // which performs well both in theory and in practice
-    private boolean hasAugmentingPath(FlowNetwork G, int s, int t) {
-        edgeTo = new FlowEdge[G.V()];
-        marked = new boolean[G.V()];
+    private boolean hasAugmentingPath(ResidualNetwork R, int s, int t) {
+        java.util.Arrays.fill(marked, false);
 
         // breadth-first search
-        Queue<Integer> queue = new Queue<Integer>();
-        queue.enqueue(s);
+        int head = 0, tail = 0;
+        queue[tail++] = s;
         marked[s] = true;
-        while (!queue.isEmpty() && !marked[t]) {
-            int v = queue.dequeue();
+        while (head < tail && !marked[t]) {
+            int v = queue[head++];
 
-            for (FlowEdge e : G.adj(v)) {
-                int w = e.other(v);
+            for (int i = R.begin(v), end = R.end(v); i < end; i++) {
+                int a = R.arc(i);
+                int w = R.head(a);
 
                 // if residual capacity from v to w
-                if (e.residualCapacityTo(w) > 0) {
+                if (R.residualCapacity(a) > 0) {
                     if (!marked[w]) {
-                        edgeTo[w] = e;
+                        arcTo[w] = a;
                         marked[w] = true;
-                        queue.enqueue(w);
+                        queue[tail++] = w;
                     }
                 }
             }
@@ -193,6 +230,60 @@ public class FordFulkerson {
         return true;
     }
 
+    // the same checks on a residual network
+    private boolean isFeasible(ResidualNetwork R, int s, int t) {
+        for (int a = 0; a < 2*R.E(); a += 2) {
+            if (R.flow(a) < -FLOATING_POINT_EPSILON || R.flow(a) > R.capacity(a) + FLOATING_POINT_EPSILON) {
+                System.err.println("Edge does not satisfy capacity constraints: "
+                                   + R.tail(a) + "->" + R.head(a) + " " + R.flow(a) + "/" + R.capacity(a));
+                return false;
+            }
+        }
+        if (Math.abs(value + R.excess(s)) > FLOATING_POINT_EPSILON) {
+            System.err.println("Excess at source = " + R.excess(s));
+            System.err.println("Max flow         = " + value);
+            return false;
+        }
+        if (Math.abs(value - R.excess(t)) > FLOATING_POINT_EPSILON) {
+            System.err.println("Excess at sink   = " + R.excess(t));
+            System.err.println("Max flow         = " + value);
+            return false;
+        }
+        for (int v = 0; v < R.V(); v++) {
+            if (v == s || v == t) continue;
+            else if (Math.abs(R.excess(v)) > FLOATING_POINT_EPSILON) {
+                System.err.println("Net flow out of " + v + " doesn't equal zero");
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private boolean check(ResidualNetwork R, int s, int t) {
+        if (!isFeasible(R, s, t)) {
+            System.err.println("Flow is infeasible");
+            return false;
+        }
+        if (!inCut(s)) {
+            System.err.println("source " + s + " is not on source side of min cut");
+            return false;
+        }
+        if (inCut(t)) {
+            System.err.println("sink " + t + " is on source side of min cut");
+            return false;
+        }
+        double mincutValue = 0.0;
+        for (int a = 0; a < 2*R.E(); a += 2) {
+            if (inCut(R.tail(a)) && !inCut(R.head(a)))
+                mincutValue += R.capacity(a);
+        }
+        if (Math.abs(mincutValue - value) > FLOATING_POINT_EPSILON) {
+            System.err.println("Max flow value = " + value + ", min cut value = " + mincutValue);
+            return false;
+        }
+        return true;
+    }
+
 
     /**
      * Unit tests the {@code FordFulkerson} data type.
@@ -0,0 +1,160 @@
+public class MaxflowBenchmark {
+    // untimed runs of each engine, so the JIT compiles it first
+    private static final int WARMUP = 1;
+
+    // timed runs of each engine; the median is reported
+    private static final int TRIALS = 3;
+
+    // This class should not be instantiated.
+    private MaxflowBenchmark() { }
+
+    // one max-flow computation on a fresh residual network; returns the value
+    private interface Engine {
+        double run(ResidualNetwork R, int s, int t);
+    }
+
+    // a max-flow instance: edge i is tails[i]->heads[i] with capacity capacities[i]
+    private static class Instance {
+        private final String name;
+        private final int V, s, t;
+        private final int[] tails, heads;
+        private final double[] capacities;
+
+        Instance(String name, int V, int E, int s, int t) {
+            this.name = name;
+            this.V = V;
+            this.s = s;
+            this.t = t;
+            tails = new int[E];
+            heads = new int[E];
+            capacities = new double[E];
+        }
+
+        ResidualNetwork network() {
+            return new ResidualNetwork(V, tails, heads, capacities);
+        }
+    }
+
+    // V vertices and E random edges with integer capacities between 0 and 99, as in
+    // FlowNetwork(V, E), from 0 to V-1
+    private static Instance random(int V, int E) {
+        Instance x = new Instance("random", V, E, 0, V-1);
+        for (int i = 0; i < E; i++) {
+            x.tails[i] = StdRandom.uniformInt(V);
+            x.heads[i] = StdRandom.uniformInt(V);
+            x.capacities[i] = StdRandom.uniformInt(100);
+        }
+        return x;
+    }
+
+    // L layers of W vertices, each with d edges to random vertices of the next layer,
+    // and s and t joined to the first and last layers; integer capacities between 1 and 100,
+    // and 100 times more out of s and into t
+    private static Instance layered(int L, int W, int d) {
+        int V = L*W + 2;
+        Instance x = new Instance("layered", V, 2*W + (L-1)*W*d, V-2, V-1);
+        int i = 0;
+        for (int v = 0; v < W; v++) {
+            x.tails[i] = x.s;
+            x.heads[i] = v;
+            x.capacities[i++] = 100 * StdRandom.uniformInt(1, 101);
+            x.tails[i] = (L-1)*W + v;
+            x.heads[i] = x.t;
+            x.capacities[i++] = 100 * StdRandom.uniformInt(1, 101);
+        }
+        for (int layer = 0; layer < L-1; layer++) {
+            for (int v = layer*W; v < (layer+1)*W; v++) {
+                for (int k = 0; k < d; k++) {
+                    x.tails[i] = v;
+                    x.heads[i] = (layer+1)*W + StdRandom.uniformInt(W);
+                    x.capacities[i++] = StdRandom.uniformInt(1, 101);
+                }
+            }
+        }
+        return x;
+    }
+
+    // the reduction of bipartite matching with V1 + V2 vertices and E random edges,
+    // as in BipartiteMatchingToMaxflow: unit capacities from s and into t
+    private static Instance bipartite(int V1, int V2, int E) {
+        int V = V1 + V2 + 2;
+        Instance x = new Instance("bipartite", V, E + V1 + V2, V-2, V-1);
+        int i = 0;
+        for (int k = 0; k < E; k++) {
+            x.tails[i] = StdRandom.uniformInt(V1);
+            x.heads[i] = V1 + StdRandom.uniformInt(V2);
+            x.capacities[i++] = Double.POSITIVE_INFINITY;
+        }
+        for (int v = 0; v < V1; v++) {
+            x.tails[i] = x.s;
+            x.heads[i] = v;
+            x.capacities[i++] = 1.0;
+        }
+        for (int w = V1; w < V1 + V2; w++) {
+            x.tails[i] = w;
+            x.heads[i] = x.t;
+            x.capacities[i++] = 1.0;
+        }
+        return x;
+    }
+
+    // the median time, in seconds, of TRIALS runs of engine on instance x after WARMUP
+    // untimed ones; every run must give the value in expected[0], which the first run sets
+    // if it is NaN
+    private static double time(Engine engine, Instance x, double[] expected) {
+        double[] times = new double[TRIALS];
+        for (int t = -WARMUP; t < TRIALS; t++) {
+            ResidualNetwork R = x.network();
+            Stopwatch timer = new Stopwatch();
+            double value = engine.run(R, x.s, x.t);
+            double time = timer.elapsedTime();
+            if (Double.isNaN(expected[0])) expected[0] = value;
+            if (Math.abs(value - expected[0]) > 1.0E-9 * Math.max(1.0, expected[0]))
+                throw new IllegalStateException("max flow " + value + " instead of " + expected[0]);
+            if (t >= 0) times[t] = time;
+        }
+        java.util.Arrays.sort(times);
+        return times[TRIALS / 2];
+    }
+
+    /**
+     * Times {@code FordFulkerson}, {@code Dinic} with and without capacity scaling,
+     * and {@code PushRelabel} on a random network, a layered network and a bipartite
+     * matching network, each with about <em>n</em> vertices and 5<em>n</em> edges,
+     * and prints the max-flow value, the median time of each engine and its speedup
+     * over {@code FordFulkerson}. The networks are built before the clock starts.
+     *
+     * @param args the command-line arguments: <em>n</em>
+     */
+    public static void main(String[] args) {
+        int n = Integer.parseInt(args[0]);
+        Instance[] instances = {
+            random(n, 5*n),
+            layered(20, n/20, 5),
+            bipartite(n/2, n/2, 5*n)
+        };
+
+        String[] names = { "FordFulkerson", "Dinic", "Dinic (scaling)", "PushRelabel" };
+        Engine[] engines = {
+            (R, s, t) -> new FordFulkerson(R, s, t).value(),
+            (R, s, t) -> new Dinic(R, s, t).value(),
+            (R, s, t) -> new Dinic(R, s, t, true).value(),
+            (R, s, t) -> new PushRelabel(R, s, t).value()
+        };
+
+        StdOut.printf("%-10s %8s %8s %12s", "network", "V", "E", "max flow");
+        for (String name : names)
+            StdOut.printf(" %16s", name);
+        StdOut.println();
+        for (Instance x : instances) {
+            double[] expected = { Double.NaN };
+            double[] times = new double[engines.length];
+            for (int k = 0; k < engines.length; k++)
+                times[k] = time(engines[k], x, expected);
+            StdOut.printf("%-10s %8d %8d %12.1f", x.name, x.V, x.tails.length, expected[0]);
+            for (int k = 0; k < engines.length; k++)
+                StdOut.printf(" %7.3fs %6.1fx", times[k], times[0] / times[k]);
+            StdOut.println();
+        }
+    }
+}
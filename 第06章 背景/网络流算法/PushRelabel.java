@@ -0,0 +1,571 @@
+public class PushRelabel {
+    private static final double FLOATING_POINT_EPSILON = 1.0E-11;
+
+    // a global relabeling runs after relabels that scan about ALPHA*V + E arcs,
+    // where each relabel of a vertex counts its degree plus BETA
+    private static final int ALPHA = 6;
+    private static final int BETA = 12;
+
+    private final int V;            // number of vertices
+    private boolean[] cut;          // cut[v] = true iff v cannot reach t in the residual network
+    private double value;           // value of max flow
+
+    // preflow
+    private ResidualNetwork R;      // the residual network, while the flow is computed
+    private double[] excess;        // excess[v] = flow into v minus flow out of v
+    private int[] height;           // height[v] = distance label of v
+    private int[] current;          // current[v] = index in R of the next arc out of v to try
+
+    // buckets by height: the active vertices, and all vertices below V for the gap heuristic
+    private int[] activeFirst;      // activeFirst[h] = an active vertex at height h, or -1
+    private int[] activeNext;       // activeNext[v] = the next active vertex at the height of v
+    private int[] allFirst;         // allFirst[h] = a vertex at height h, or -1
+    private int[] allNext;          // allNext[v] = the next vertex at the height of v
+    private int[] allPrev;          // allPrev[v] = the previous vertex at the height of v
+    private int maxActive;          // no active vertex is higher than maxActive
+    private int maxHeight;          // no vertex below V is higher than maxHeight
+    private long work;              // arcs scanned by relabels since the last global relabeling
+
+    /**
+     * Compute a maximum flow and minimum cut in the network {@code G}
+     * from vertex {@code s} to vertex {@code t}, with the highest-label
+     * push-relabel algorithm, global relabeling and the gap heuristic.
+     * <p>
+     * The first phase pushes excess from the highest active vertex to a
+     * neighbor one level lower, and relabels a vertex that has no such
+     * neighbor; the heights are recomputed exactly from time to time by a
+     * breadth-first search back from {@code t}, and when no vertex is left at
+     * some height below <em>V</em>, every vertex above it is cut off from
+     * {@code t} and is lifted to <em>V</em> at once. It ends with a maximum
+     * preflow, whose value is the value of the max flow, and whose residual
+     * network gives the minimum cut: the vertices that cannot reach {@code t}.
+     * The second phase returns the excess left on that side to {@code s}, the
+     * same way, which turns the preflow into a flow.
+     *
+     * @param  G the flow network
+     * @param  s the source vertex
+     * @param  t the sink vertex
+     * @throws IllegalArgumentException unless {@code 0 <= s < V}
+     * @throws IllegalArgumentException unless {@code 0 <= t < V}
+     * @throws IllegalArgumentException if {@code s == t}
+     * @throws IllegalArgumentException if initial flow is infeasible
+     */
+    public PushRelabel(FlowNetwork G, int s, int t) {
+        V = G.V();
+        validate(s);
+        validate(t);
+        if (s == t)               throw new IllegalArgumentException("Source equals sink");
+        if (!isFeasible(G, s, t)) throw new IllegalArgumentException("Initial flow is infeasible");
+
+        // compute on the residual network, and copy the flow back
+        ResidualNetwork R = new ResidualNetwork(G);
+        maxflow(R, s, t);
+        R.copyFlowsTo(G);
+
+        // check optimality conditions
+        assert check(G, s, t);
+    }
+
+    /**
+     * Compute a maximum flow and minimum cut in the residual network {@code R}
+     * from vertex {@code s} to vertex {@code t}, starting from its current flow,
+     * as {@link #PushRelabel(FlowNetwork, int, int)} does.
+     *
+     * @param  R the residual network
+     * @param  s the source vertex
+     * @param  t the sink vertex
+     * @throws IllegalArgumentException unless {@code 0 <= s < V}
+     * @throws IllegalArgumentException unless {@code 0 <= t < V}
+     * @throws IllegalArgumentException if {@code s == t}
+     * @throws IllegalArgumentException if initial flow is infeasible
+     */
+    public PushRelabel(ResidualNetwork R, int s, int t) {
+        V = R.V();
+        validate(s);
+        validate(t);
+        if (s == t)               throw new IllegalArgumentException("Source equals sink");
+        value = R.excess(t);
+        if (!isFeasible(R, s, t)) throw new IllegalArgumentException("Initial flow is infeasible");
+        maxflow(R, s, t);
+
+        // check optimality conditions
+        assert check(R, s, t);
+    }
+
+    // the two phases, on the residual network R
+    private void maxflow(ResidualNetwork R, int s, int t) {
+        this.R = R;
+        excess = new double[V];
+        for (int v = 0; v < V; v++)
+            excess[v] = R.excess(v);
+        cut = new boolean[V];
+        cut[s] = true;
+
+        // an s->t path of arcs of infinite capacity makes the max flow infinite:
+        // send it along that path, as FordFulkerson does, and stop
+        int[] arcTo = new int[V];
+        if (hasInfinitePath(R, s, t, arcTo)) {
+            for (int v = t; v != s; v = R.tail(arcTo[v]))
+                R.addFlow(arcTo[v], Double.POSITIVE_INFINITY);
+            value = Double.POSITIVE_INFINITY;
+            this.R = null;
+            excess = null;
+            return;
+        }
+
+        // otherwise every finite cut is within the total finite residual capacity, so
+        // no arc out of s needs more than that, and no excess becomes infinite
+        double bound = 0.0;
+        for (int a = 0; a < 2*R.E(); a++)
+            if (R.residualCapacity(a) < Double.POSITIVE_INFINITY) bound += R.residualCapacity(a);
+
+        // saturate the arcs out of s, up to bound
+        for (int i = R.begin(s); i < R.end(s); i++) {
+            int a = R.arc(i);
+            if (R.residualCapacity(a) > 0 && R.head(a) != s) push(s, a, Math.min(R.residualCapacity(a), bound));
+        }
+
+        // phase 1: a maximum preflow
+        height = new int[V];
+        current = new int[V];
+        activeFirst = new int[2*V + 1];
+        activeNext = new int[V];
+        allFirst = new int[V];
+        allNext = new int[V];
+        allPrev = new int[V];
+        globalRelabel(s, t);
+        while (maxActive >= 0) {
+            int v = activeFirst[maxActive];
+            if (v == -1) {
+                maxActive--;
+                continue;
+            }
+            activeFirst[maxActive] = activeNext[v];
+
+            // skip a vertex lifted to V by the gap heuristic
+            if (height[v] != maxActive) continue;
+            discharge(v, s, t, true);
+            if (work > (long) ALPHA * V + 2L * R.E()) globalRelabel(s, t);
+        }
+
+        // the minimum cut, from the residual network of the preflow
+        value = excess[t];
+        globalRelabel(s, t);
+        for (int v = 0; v < V; v++)
+            cut[v] = height[v] == V;
+
+        // phase 2: return the excess on the source side to s
+        returnExcess(s, t);
+
+        this.R = null;
+        height = current = null;
+        activeFirst = activeNext = allFirst = allNext = allPrev = null;
+        excess = null;
+    }
+
+    // is there a path from s to t of arcs with infinite residual capacity?
+    // if so, upon termination arcTo[] holds a parent-link representation of one
+    private static boolean hasInfinitePath(ResidualNetwork R, int s, int t, int[] arcTo) {
+        boolean[] marked = new boolean[R.V()];
+        Queue<Integer> queue = new Queue<Integer>();
+        marked[s] = true;
+        queue.enqueue(s);
+        while (!queue.isEmpty()) {
+            int v = queue.dequeue();
+            for (int i = R.begin(v); i < R.end(v); i++) {
+                int a = R.arc(i);
+                int w = R.head(a);
+                if (!marked[w] && R.residualCapacity(a) == Double.POSITIVE_INFINITY) {
+                    arcTo[w] = a;
+                    if (w == t) return true;
+                    marked[w] = true;
+                    queue.enqueue(w);
+                }
+            }
+        }
+        return false;
+    }
+
+    // push delta units of flow from v along arc a
+    private void push(int v, int a, double delta) {
+        R.addFlow(a, delta);
+        excess[v] -= delta;
+        excess[R.head(a)] += delta;
+    }
+
+    // push the excess of v along admissible arcs, relabeling v when it has none,
+    // until v has no excess or is no longer active; sink is the vertex the excess
+    // is going to, and the gap heuristic is used iff gap is true
+    private void discharge(int v, int s, int t, boolean gap) {
+        int limit = gap ? V : 2*V;
+        while (excess[v] > 0) {
+            int end = R.end(v);
+            for (int i = current[v]; i < end; i++) {
+                int a = R.arc(i);
+                int w = R.head(a);
+                if (height[v] == height[w] + 1 && R.residualCapacity(a) > 0) {
+                    boolean idle = excess[w] <= 0;
+                    push(v, a, Math.min(excess[v], R.residualCapacity(a)));
+                    if (idle && w != s && w != t) activate(w);
+                    if (excess[v] <= 0) {
+                        current[v] = i;
+                        return;
+                    }
+                }
+            }
+
+            // no admissible arc is left: relabel v
+            int h = height[v];
+            int min = 2*V;
+            work += BETA + end - R.begin(v);
+            for (int i = R.begin(v); i < end; i++) {
+                int a = R.arc(i);
+                if (R.residualCapacity(a) > 0 && height[R.head(a)] + 1 < min) {
+                    min = height[R.head(a)] + 1;
+                    current[v] = i;
+                }
+            }
+            if (gap) {
+                unlink(v);
+                if (allFirst[h] == -1) {
+                    // no vertex is left at height h, so none above it can reach t
+                    for (int g = h + 1; g <= maxHeight; g++) {
+                        for (int u = allFirst[g]; u != -1; u = allNext[u])
+                            height[u] = V;
+                        allFirst[g] = -1;
+                    }
+                    maxHeight = h - 1;
+                    min = V;
+                }
+            }
+            height[v] = Math.min(min, limit);
+            if (height[v] >= limit) return;
+            if (gap) link(v);
+        }
+    }
+
+    // make v active at its height
+    private void activate(int v) {
+        int h = height[v];
+        activeNext[v] = activeFirst[h];
+        activeFirst[h] = v;
+        if (h > maxActive) maxActive = h;
+    }
+
+    // add v to the vertices at its height, which is less than V
+    private void link(int v) {
+        int h = height[v];
+        allNext[v] = allFirst[h];
+        allPrev[v] = -1;
+        if (allFirst[h] != -1) allPrev[allFirst[h]] = v;
+        allFirst[h] = v;
+        if (h > maxHeight) maxHeight = h;
+    }
+
+    // remove v from the vertices at its height, which is less than V
+    private void unlink(int v) {
+        int h = height[v];
+        if (allPrev[v] != -1) allNext[allPrev[v]] = allNext[v];
+        else                  allFirst[h] = allNext[v];
+        if (allNext[v] != -1) allPrev[allNext[v]] = allPrev[v];
+    }
+
+    // set each height to the distance to t in the residual network, or to V
+    // if there is no path, and rebuild the buckets
+    private void globalRelabel(int s, int t) {
+        work = 0;
+        for (int v = 0; v < V; v++)
+            height[v] = V;
+        height[t] = 0;
+        int[] queue = new int[V];
+        int tail = 0;
+        queue[tail++] = t;
+        for (int q = 0; q < tail; q++) {
+            int w = queue[q];
+            for (int i = R.begin(w); i < R.end(w); i++) {
+                int a = R.arc(i);
+                int u = R.head(a);
+                // arc a^1 is u->w
+                if (R.residualCapacity(a ^ 1) > 0 && height[u] == V && u != s) {
+                    height[u] = height[w] + 1;
+                    queue[tail++] = u;
+                }
+            }
+        }
+
+        java.util.Arrays.fill(activeFirst, -1);
+        java.util.Arrays.fill(allFirst, -1);
+        maxActive = -1;
+        maxHeight = -1;
+        for (int v = 0; v < V; v++) {
+            current[v] = R.begin(v);
+            if (v == s || height[v] == V) continue;
+            link(v);
+            if (excess[v] > 0 && v != t) activate(v);
+        }
+    }
+
+    // the second phase: with heights V plus the distance to s in the residual network,
+    // discharge the active vertices on the source side of the cut, highest first
+    private void returnExcess(int s, int t) {
+        java.util.Arrays.fill(activeFirst, -1);
+        maxActive = -1;
+        for (int v = 0; v < V; v++)
+            height[v] = 2*V;
+        height[s] = V;
+        int[] queue = new int[V];
+        int tail = 0;
+        queue[tail++] = s;
+        for (int q = 0; q < tail; q++) {
+            int w = queue[q];
+            for (int i = R.begin(w); i < R.end(w); i++) {
+                int a = R.arc(i);
+                int u = R.head(a);
+                if (R.residualCapacity(a ^ 1) > 0 && height[u] == 2*V && cut[u]) {
+                    height[u] = height[w] + 1;
+                    queue[tail++] = u;
+                }
+            }
+        }
+        for (int v = 0; v < V; v++) {
+            current[v] = R.begin(v);
+            if (cut[v] && v != s && excess[v] > 0 && height[v] < 2*V) activate(v);
+        }
+
+        while (maxActive >= 0) {
+            int v = activeFirst[maxActive];
+            if (v == -1) {
+                maxActive--;
+                continue;
+            }
+            activeFirst[maxActive] = activeNext[v];
+            discharge(v, s, t, false);
+        }
+    }
+
+    /**
+     * Returns the value of the maximum flow.
+     *
+     * @return the value of the maximum flow
+     */
+    public double value()  {
+        return value;
+    }
+
+    /**
+     * Returns true if the specified vertex is on the {@code s} side of the mincut.
+     * This is the side of the vertices that cannot reach {@code t} in the residual
+     * network, which may be larger than the side that {@code FordFulkerson} finds.
+     *
+     * @param  v vertex
+     * @return {@code true} if vertex {@code v} is on the {@code s} side of the mincut;
+     *         {@code false} otherwise
+     * @throws IllegalArgumentException unless {@code 0 <= v < V}
+     */
+    public boolean inCut(int v)  {
+        validate(v);
+        return cut[v];
+    }
+
+    // throw an IllegalArgumentException if v is outside prescribed range
+    private void validate(int v)  {
+        if (v < 0 || v >= V)
+            throw new IllegalArgumentException("vertex " + v + " is not between 0 and " + (V-1));
+    }
+
+
+    // return excess flow at vertex v
+    private double excess(FlowNetwork G, int v) {
+        double excess = 0.0;
+        for (FlowEdge e : G.adj(v)) {
+            if (v == e.from()) excess -= e.flow();
+            else               excess += e.flow();
+        }
+        return excess;
+    }
+
+    // return excess flow at vertex v
+    private boolean isFeasible(FlowNetwork G, int s, int t) {
+
+        // check that capacity constraints are satisfied
+        for (int v = 0; v < G.V(); v++) {
+            for (FlowEdge e : G.adj(v)) {
+                if (e.flow() < -FLOATING_POINT_EPSILON || e.flow() > e.capacity() + FLOATING_POINT_EPSILON) {
+                    System.err.println("Edge does not satisfy capacity constraints: " + e);
+                    return false;
+                }
+            }
+        }
+
+        // check that net flow into a vertex equals zero, except at source and sink
+        if (Math.abs(value + excess(G, s)) > FLOATING_POINT_EPSILON) {
+            System.err.println("Excess at source = " + excess(G, s));
+            System.err.println("Max flow         = " + value);
+            return false;
+        }
+        if (Math.abs(value - excess(G, t)) > FLOATING_POINT_EPSILON) {
+            System.err.println("Excess at sink   = " + excess(G, t));
+            System.err.println("Max flow         = " + value);
+            return false;
+        }
+        for (int v = 0; v < G.V(); v++) {
+            if (v == s || v == t) continue;
+            else if (Math.abs(excess(G, v)) > FLOATING_POINT_EPSILON) {
+                System.err.println("Net flow out of " + v + " doesn't equal zero");
+                return false;
+            }
+        }
+        return true;
+    }
+
+
+
+    // check optimality conditions
+    private boolean check(FlowNetwork G, int s, int t) {
+
+        // check that flow is feasible
+        if (!isFeasible(G, s, t)) {
+            System.err.println("Flow is infeasible");
+            return false;
+        }
+
+        // check that s is on the source side of min cut and that t is not on source side
+        if (!inCut(s)) {
+            System.err.println("source " + s + " is not on source side of min cut");
+            return false;
+        }
+        if (inCut(t)) {
+            System.err.println("sink " + t + " is on source side of min cut");
+            return false;
+        }
+
+        // check that value of min cut = value of max flow
+        double mincutValue = 0.0;
+        for (int v = 0; v < G.V(); v++) {
+            for (FlowEdge e : G.adj(v)) {
+                if ((v == e.from()) && inCut(e.from()) && !inCut(e.to()))
+                    mincutValue += e.capacity();
+            }
+        }
+
+        if (Math.abs(mincutValue - value) > FLOATING_POINT_EPSILON) {
+            System.err.println("Max flow value = " + value + ", min cut value = " + mincutValue);
+            return false;
+        }
+
+        return true;
+    }
+
+
+    // the same checks on a residual network
+    private boolean isFeasible(ResidualNetwork R, int s, int t) {
+        for (int a = 0; a < 2*R.E(); a += 2) {
+            if (R.flow(a) < -FLOATING_POINT_EPSILON || R.flow(a) > R.capacity(a) + FLOATING_POINT_EPSILON) {
+                System.err.println("Edge does not satisfy capacity constraints: "
+                                   + R.tail(a) + "->" + R.head(a) + " " + R.flow(a) + "/" + R.capacity(a));
+                return false;
+            }
+        }
+        if (Math.abs(value + R.excess(s)) > FLOATING_POINT_EPSILON) {
+            System.err.println("Excess at source = " + R.excess(s));
+            System.err.println("Max flow         = " + value);
+            return false;
+        }
+        if (Math.abs(value - R.excess(t)) > FLOATING_POINT_EPSILON) {
+            System.err.println("Excess at sink   = " + R.excess(t));
+            System.err.println("Max flow         = " + value);
+            return false;
+        }
+        for (int v = 0; v < R.V(); v++) {
+            if (v == s || v == t) continue;
+            else if (Math.abs(R.excess(v)) > FLOATING_POINT_EPSILON) {
+                System.err.println("Net flow out of " + v + " doesn't equal zero");
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private boolean check(ResidualNetwork R, int s, int t) {
+        if (!isFeasible(R, s, t)) {
+            System.err.println("Flow is infeasible");
+            return false;
+        }
+        if (!inCut(s)) {
+            System.err.println("source " + s + " is not on source side of min cut");
+            return false;
+        }
+        if (inCut(t)) {
+            System.err.println("sink " + t + " is on source side of min cut");
+            return false;
+        }
+        double mincutValue = 0.0;
+        for (int a = 0; a < 2*R.E(); a += 2) {
+            if (inCut(R.tail(a)) && !inCut(R.head(a)))
+                mincutValue += R.capacity(a);
+        }
+        if (Math.abs(mincutValue - value) > FLOATING_POINT_EPSILON) {
+            System.err.println("Max flow value = " + value + ", min cut value = " + mincutValue);
+            return false;
+        }
+        return true;
+    }
+
+
+    /**
+     * Unit tests the {@code PushRelabel} data type: computes a maximum flow in a
+     * random network, checks its value against {@code FordFulkerson} on a copy
+     * of the network, and prints the time of each.
+     *
+     * @param args the command-line arguments: <em>V</em> and <em>E</em>
+     */
+    public static void main(String[] args) {
+
+        // create flow network with V vertices and E edges
+        int V = Integer.parseInt(args[0]);
+        int E = Integer.parseInt(args[1]);
+        int s = 0, t = V-1;
+        FlowNetwork G = new FlowNetwork(V, E);
+        FlowNetwork H = new FlowNetwork(V);
+        for (FlowEdge e : G.edges())
+            H.addEdge(new FlowEdge(e));
+        if (V <= 20) StdOut.println(G);
+
+        // infinite capacities out of s, but a finite max flow of 11
+        FlowNetwork F = new FlowNetwork(10);
+        F.addEdge(new FlowEdge(0, 5, Double.POSITIVE_INFINITY));
+        F.addEdge(new FlowEdge(5, 4, Double.POSITIVE_INFINITY));
+        F.addEdge(new FlowEdge(4, 9, 7.0));
+        F.addEdge(new FlowEdge(4, 9, 4.0));
+        PushRelabel infinite = new PushRelabel(F, 0, 9);
+        StdOut.println("Max flow value with infinite capacities = " + infinite.value() + " (expected 11.0)");
+
+        // compute maximum flow and minimum cut
+        Stopwatch sw = new Stopwatch();
+        PushRelabel maxflow = new PushRelabel(G, s, t);
+        double t1 = sw.elapsedTime();
+        if (V <= 20) {
+            StdOut.println("Max flow from " + s + " to " + t);
+            for (int v = 0; v < G.V(); v++) {
+                for (FlowEdge e : G.adj(v)) {
+                    if ((v == e.from()) && e.flow() > 0)
+                        StdOut.println("   " + e);
+                }
+            }
+
+            // print min-cut
+            StdOut.print("Min cut: ");
+            for (int v = 0; v < G.V(); v++) {
+                if (maxflow.inCut(v)) StdOut.print(v + " ");
+            }
+            StdOut.println();
+        }
+
+        sw = new Stopwatch();
+        FordFulkerson ff = new FordFulkerson(H, s, t);
+        double t2 = sw.elapsedTime();
+        StdOut.println("Max flow value = " + maxflow.value() + " (FordFulkerson " + ff.value() + ")");
+        StdOut.printf("PushRelabel %.3f s, FordFulkerson %.3f s\n", t1, t2);
+    }
+
+}
@@ -24,21 +24,33 @@ public class BipartiteMatchingToMaxflow {
         this.V = G.V();
         int s = V;
         int t = V + 1;
-        FlowNetwork H = new FlowNetwork(V + 2);
+        // each edge of G once, from the colored side, then an edge from s or to t
+        // for each vertex, in a residual network with no object per edge
+        int n = G.E() + V;
+        int[] tails = new int[n];
+        int[] heads = new int[n];
+        double[] capacities = new double[n];
+        int i = 0;
         for (int v = 0; v < V; v++) {
+            if (!bipartite.color(v)) continue;
             for (int w : G.adj(v)) {
-                if (bipartite.color(v))
-                    H.addEdge(new FlowEdge(v, w, Double.POSITIVE_INFINITY));
-                else
-                    H.addEdge(new FlowEdge(w, v, Double.POSITIVE_INFINITY));
+                tails[i] = v;
+                heads[i] = w;
+                capacities[i++] = Double.POSITIVE_INFINITY;
             }
         }
         for (int v = 0; v < V; v++) {
-            if (bipartite.color(v))
-                H.addEdge(new FlowEdge(s, v, 1.0));
-            else
-                H.addEdge(new FlowEdge(v, t, 1.0));
+            if (bipartite.color(v)) {
+                tails[i] = s;
+                heads[i] = v;
+            }
+            else {
+                tails[i] = v;
+                heads[i] = t;
+            }
+            capacities[i++] = 1.0;
         }
+        ResidualNetwork H = new ResidualNetwork(V + 2, tails, heads, capacities);
 
         // solve the maximum flow problem
         FordFulkerson maxflow = new FordFulkerson(H, s, t);
@@ -50,13 +62,11 @@ public class BipartiteMatchingToMaxflow {
         mate = new int[V];
         for (int v = 0; v < V; v++)
             mate[v] = UNMATCHED;
-        for (int v = 0; v < V; v++) {
-            for (FlowEdge e : H.adj(v)) {
-                if (e.from() == v && e.flow() > 0 && e.to() != t) {
-                    int w = e.to();
-                    mate[v] = w;
-                    mate[w] = v;
-                }
+        for (int a = 0; a < 2 * G.E(); a += 2) {
+            if (H.flow(a) > 0) {
+                int v = H.tail(a), w = H.head(a);
+                mate[v] = w;
+                mate[w] = v;
             }
         }
 
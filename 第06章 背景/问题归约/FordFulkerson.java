@@ -0,0 +1,322 @@
+public class FordFulkerson {
+    private static final double FLOATING_POINT_EPSILON = 1.0E-11;
+
+    private final int V;          // number of vertices
+    private boolean[] marked;     // marked[v] = true iff s->v path in residual graph
+    private int[] arcTo;          // arcTo[v] = last arc on shortest residual s->v path
+    private int[] queue;          // the queue of the breadth-first search
+    private double value;         // current value of max flow
+
+    /**
+     * Compute a maximum flow and minimum cut in the network {@code G}
+     * from vertex {@code s} to vertex {@code t}.
+     *
+     * @param  G the flow network
+     * @param  s the source vertex
+     * @param  t the sink vertex
+     * @throws IllegalArgumentException unless {@code 0 <= s < V}
+     * @throws IllegalArgumentException unless {@code 0 <= t < V}
+     * @throws IllegalArgumentException if {@code s == t}
+     * @throws IllegalArgumentException if initial flow is infeasible
+     */
+    public FordFulkerson(FlowNetwork G, int s, int t) {
+        V = G.V();
+        validate(s);
+        validate(t);
+        if (s == t)               throw new IllegalArgumentException("Source equals sink");
+        if (!isFeasible(G, s, t)) throw new IllegalArgumentException("Initial flow is infeasible");
+        value = excess(G, t);
+
+        // augment on the residual network, and copy the flow back
+        ResidualNetwork R = new ResidualNetwork(G);
+        augment(R, s, t);
+        R.copyFlowsTo(G);
+
+        // check optimality conditions
+        assert check(G, s, t);
+    }
+
+    /**
+     * Compute a maximum flow and minimum cut in the residual network {@code R}
+     * from vertex {@code s} to vertex {@code t}, starting from its current flow.
+     *
+     * @param  R the residual network
+     * @param  s the source vertex
+     * @param  t the sink vertex
+     * @throws IllegalArgumentException unless {@code 0 <= s < V}
+     * @throws IllegalArgumentException unless {@code 0 <= t < V}
+     * @throws IllegalArgumentException if {@code s == t}
+     * @throws IllegalArgumentException if initial flow is infeasible
+     */
+    public FordFulkerson(ResidualNetwork R, int s, int t) {
+        V = R.V();
+        validate(s);
+        validate(t);
+        if (s == t)               throw new IllegalArgumentException("Source equals sink");
+        value = R.excess(t);
+        if (!isFeasible(R, s, t)) throw new IllegalArgumentException("Initial flow is infeasible");
+        augment(R, s, t);
+
+        // check optimality conditions
+        assert check(R, s, t);
+    }
+
+    // while there exists an augmenting path, use it
+    private void augment(ResidualNetwork R, int s, int t) {
+        marked = new boolean[V];
+        arcTo = new int[V];
+        queue = new int[V];
+        while (hasAugmentingPath(R, s, t)) {
+
+            // compute bottleneck capacity
+            double bottle = Double.POSITIVE_INFINITY;
+            for (int v = t; v != s; v = R.tail(arcTo[v])) {
+                bottle = Math.min(bottle, R.residualCapacity(arcTo[v]));
+            }
+
+            // augment flow
+            for (int v = t; v != s; v = R.tail(arcTo[v])) {
+                R.addFlow(arcTo[v], bottle);
+            }
+
+            value += bottle;
+        }
+        arcTo = queue = null;
+    }
+
+    /**
+     * Returns the value of the maximum flow.
+     *
+     * @return the value of the maximum flow
+     */
+    public double value()  {
+        return value;
+    }
+
+    /**
+     * Returns true if the specified vertex is on the {@code s} side of the mincut.
+     *
+     * @param  v vertex
+     * @return {@code true} if vertex {@code v} is on the {@code s} side of the mincut;
+     *         {@code false} otherwise
+     * @throws IllegalArgumentException unless {@code 0 <= v < V}
+     */
+    public boolean inCut(int v)  {
+        validate(v);
+        return marked[v];
+    }
+
+    // throw an IllegalArgumentException if v is outside prescribed range
+    private void validate(int v)  {
+        if (v < 0 || v >= V)
+            throw new IllegalArgumentException("vertex " + v + " is not between 0 and " + (V-1));
+    }
+
+
+    // is there an augmenting path?
+    // if so, upon termination arcTo[] will contain a parent-link representation of such a path
+    // this implementation finds a shortest augmenting path (fewest number of edges),
+    // which performs well both in theory and in practice
+    private boolean hasAugmentingPath(ResidualNetwork R, int s, int t) {
+        java.util.Arrays.fill(marked, false);
+
+        // breadth-first search
+        int head = 0, tail = 0;
+        queue[tail++] = s;
+        marked[s] = true;
+        while (head < tail && !marked[t]) {
+            int v = queue[head++];
+
+            for (int i = R.begin(v), end = R.end(v); i < end; i++) {
+                int a = R.arc(i);
+                int w = R.head(a);
+
+                // if residual capacity from v to w
+                if (R.residualCapacity(a) > 0) {
+                    if (!marked[w]) {
+                        arcTo[w] = a;
+                        marked[w] = true;
+                        queue[tail++] = w;
+                    }
+                }
+            }
+        }
+
+        // is there an augmenting path?
+        return marked[t];
+    }
+
+
+
+    // return excess flow at vertex v
+    private double excess(FlowNetwork G, int v) {
+        double excess = 0.0;
+        for (FlowEdge e : G.adj(v)) {
+            if (v == e.from()) excess -= e.flow();
+            else               excess += e.flow();
+        }
+        return excess;
+    }
+
+    // return excess flow at vertex v
+    private boolean isFeasible(FlowNetwork G, int s, int t) {
+
+        // check that capacity constraints are satisfied
+        for (int v = 0; v < G.V(); v++) {
+            for (FlowEdge e : G.adj(v)) {
+                if (e.flow() < -FLOATING_POINT_EPSILON || e.flow() > e.capacity() + FLOATING_POINT_EPSILON) {
+                    System.err.println("Edge does not satisfy capacity constraints: " + e);
+                    return false;
+                }
+            }
+        }
+
+        // check that net flow into a vertex equals zero, except at source and sink
+        if (Math.abs(value + excess(G, s)) > FLOATING_POINT_EPSILON) {
+            System.err.println("Excess at source = " + excess(G, s));
+            System.err.println("Max flow         = " + value);
+            return false;
+        }
+        if (Math.abs(value - excess(G, t)) > FLOATING_POINT_EPSILON) {
+            System.err.println("Excess at sink   = " + excess(G, t));
+            System.err.println("Max flow         = " + value);
+            return false;
+        }
+        for (int v = 0; v < G.V(); v++) {
+            if (v == s || v == t) continue;
+            else if (Math.abs(excess(G, v)) > FLOATING_POINT_EPSILON) {
+                System.err.println("Net flow out of " + v + " doesn't equal zero");
+                return false;
+            }
+        }
+        return true;
+    }
+
+
+
+    // check optimality conditions
+    private boolean check(FlowNetwork G, int s, int t) {
+
+        // check that flow is feasible
+        if (!isFeasible(G, s, t)) {
+            System.err.println("Flow is infeasible");
+            return false;
+        }
+
+        // check that s is on the source side of min cut and that t is not on source side
+        if (!inCut(s)) {
+            System.err.println("source " + s + " is not on source side of min cut");
+            return false;
+        }
+        if (inCut(t)) {
+            System.err.println("sink " + t + " is on source side of min cut");
+            return false;
+        }
+
+        // check that value of min cut = value of max flow
+        double mincutValue = 0.0;
+        for (int v = 0; v < G.V(); v++) {
+            for (FlowEdge e : G.adj(v)) {
+                if ((v == e.from()) && inCut(e.from()) && !inCut(e.to()))
+                    mincutValue += e.capacity();
+            }
+        }
+
+        if (Math.abs(mincutValue - value) > FLOATING_POINT_EPSILON) {
+            System.err.println("Max flow value = " + value + ", min cut value = " + mincutValue);
+            return false;
+        }
+
+        return true;
+    }
+
+    // the same checks on a residual network
+    private boolean isFeasible(ResidualNetwork R, int s, int t) {
+        for (int a = 0; a < 2*R.E(); a += 2) {
+            if (R.flow(a) < -FLOATING_POINT_EPSILON || R.flow(a) > R.capacity(a) + FLOATING_POINT_EPSILON) {
+                System.err.println("Edge does not satisfy capacity constraints: "
+                                   + R.tail(a) + "->" + R.head(a) + " " + R.flow(a) + "/" + R.capacity(a));
+                return false;
+            }
+        }
+        if (Math.abs(value + R.excess(s)) > FLOATING_POINT_EPSILON) {
+            System.err.println("Excess at source = " + R.excess(s));
+            System.err.println("Max flow         = " + value);
+            return false;
+        }
+        if (Math.abs(value - R.excess(t)) > FLOATING_POINT_EPSILON) {
+            System.err.println("Excess at sink   = " + R.excess(t));
+            System.err.println("Max flow         = " + value);
+            return false;
+        }
+        for (int v = 0; v < R.V(); v++) {
+            if (v == s || v == t) continue;
+            else if (Math.abs(R.excess(v)) > FLOATING_POINT_EPSILON) {
+                System.err.println("Net flow out of " + v + " doesn't equal zero");
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private boolean check(ResidualNetwork R, int s, int t) {
+        if (!isFeasible(R, s, t)) {
+            System.err.println("Flow is infeasible");
+            return false;
+        }
+        if (!inCut(s)) {
+            System.err.println("source " + s + " is not on source side of min cut");
+            return false;
+        }
+        if (inCut(t)) {
+            System.err.println("sink " + t + " is on source side of min cut");
+            return false;
+        }
+        double mincutValue = 0.0;
+        for (int a = 0; a < 2*R.E(); a += 2) {
+            if (inCut(R.tail(a)) && !inCut(R.head(a)))
+                mincutValue += R.capacity(a);
+        }
+        if (Math.abs(mincutValue - value) > FLOATING_POINT_EPSILON) {
+            System.err.println("Max flow value = " + value + ", min cut value = " + mincutValue);
+            return false;
+        }
+        return true;
+    }
+
+
+    /**
+     * Unit tests the {@code FordFulkerson} data type.
+     *
+     * @param args the command-line arguments
+     */
+    public static void main(String[] args) {
+
+        // create flow network with V vertices and E edges
+        int V = Integer.parseInt(args[0]);
+        int E = Integer.parseInt(args[1]);
+        int s = 0, t = V-1;
+        FlowNetwork G = new FlowNetwork(V, E);
+        StdOut.println(G);
+
+        // compute maximum flow and minimum cut
+        FordFulkerson maxflow = new FordFulkerson(G, s, t);
+        StdOut.println("Max flow from " + s + " to " + t);
+        for (int v = 0; v < G.V(); v++) {
+            for (FlowEdge e : G.adj(v)) {
+                if ((v == e.from()) && e.flow() > 0)
+                    StdOut.println("   " + e);
+            }
+        }
+
+        // print min-cut
+        StdOut.print("Min cut: ");
+        for (int v = 0; v < G.V(); v++) {
+            if (maxflow.inCut(v)) StdOut.print(v + " ");
+        }
+        StdOut.println();
+
+        StdOut.println("Max flow value = " +  maxflow.value());
+    }
+
+}
\ No newline at end of file
@@ -0,0 +1,291 @@
+public class ResidualNetwork {
+    private static final String NEWLINE = System.getProperty("line.separator");
+
+    private final int V;                // number of vertices
+    private final int E;                // number of edges
+    private final int[] first;          // the arcs out of v are out[first[v]..first[v+1])
+    private final int[] out;            // the arcs, grouped by tail
+    private final int[] head;           // head[a] = the vertex arc a points to
+    private final double[] capacity;    // capacity[a] = capacity of arc a; 0 for a reverse arc
+    private final double[] flow;        // flow[a] = flow on arc a; flow[a^1] = -flow[a]
+
+    /**
+     * Initializes a residual network with {@code V} vertices and no flow from three
+     * parallel arrays: edge {@code i} is {@code tails[i]->heads[i]} with capacity
+     * {@code capacities[i]}. The arrays are not retained.
+     * <p>
+     * Edge {@code i} becomes arc {@code 2i}, and its reverse becomes arc {@code 2i+1},
+     * so arc {@code a^1} is the reverse of arc {@code a}. A reverse arc has capacity 0
+     * and carries the negated flow of its edge, so the residual capacity of every arc
+     * is its capacity minus its flow, and pushing flow along any arc is one
+     * {@code addFlow()}, with no test of its direction.
+     *
+     * @param  V the number of vertices
+     * @param  tails the tail vertex of each edge
+     * @param  heads the head vertex of each edge
+     * @param  capacities the capacity of each edge
+     * @throws IllegalArgumentException if {@code V < 0}
+     * @throws IllegalArgumentException if any array is {@code null}
+     *         or the arrays have different lengths
+     * @throws IllegalArgumentException if the endpoints of any edge are not in prescribed range
+     * @throws IllegalArgumentException if any capacity is negative or NaN
+     */
+    public ResidualNetwork(int V, int[] tails, int[] heads, double[] capacities) {
+        if (V < 0) throw new IllegalArgumentException("Number of vertices in a Graph must be non-negative");
+        if (tails == null || heads == null || capacities == null) throw new IllegalArgumentException("argument is null");
+        if (tails.length != heads.length || tails.length != capacities.length)
+            throw new IllegalArgumentException("edge arrays have different lengths");
+        if (tails.length > Integer.MAX_VALUE / 2)
+            throw new IllegalArgumentException("too many edges: " + tails.length);
+        this.V = V;
+        this.E = tails.length;
+        first    = new int[V+1];
+        out      = new int[2*E];
+        head     = new int[2*E];
+        capacity = new double[2*E];
+        flow     = new double[2*E];
+        for (int i = 0; i < E; i++) {
+            validateVertex(tails[i]);
+            validateVertex(heads[i]);
+            if (!(capacities[i] >= 0.0))
+                throw new IllegalArgumentException("Edge capacity must be non-negative");
+            head[2*i] = heads[i];
+            head[2*i+1] = tails[i];
+            capacity[2*i] = capacities[i];
+        }
+        build();
+    }
+
+    /**
+     * Initializes a residual network from the edges of {@code G} and their flow,
+     * in the order of {@code G.edges()}, which leaves out self-loops.
+     * The network does not refer to {@code G}: copy its flow back to {@code G}
+     * with {@link #copyFlowsTo(FlowNetwork)}.
+     *
+     * @param  G the flow network
+     */
+    public ResidualNetwork(FlowNetwork G) {
+        int n = 0;
+        for (FlowEdge e : G.edges())
+            n++;
+        this.V = G.V();
+        this.E = n;
+        first    = new int[V+1];
+        out      = new int[2*E];
+        head     = new int[2*E];
+        capacity = new double[2*E];
+        flow     = new double[2*E];
+        int i = 0;
+        for (FlowEdge e : G.edges()) {
+            head[2*i] = e.to();
+            head[2*i+1] = e.from();
+            capacity[2*i] = e.capacity();
+            flow[2*i] = e.flow();
+            flow[2*i+1] = -e.flow();
+            i++;
+        }
+        build();
+    }
+
+    // group the arcs by tail, which is the head of the reverse arc
+    private void build() {
+        for (int a = 0; a < 2*E; a++)
+            first[head[a ^ 1] + 1]++;
+        for (int v = 0; v < V; v++)
+            first[v+1] += first[v];
+        int[] next = first.clone();
+        for (int a = 0; a < 2*E; a++)
+            out[next[head[a ^ 1]]++] = a;
+    }
+
+    /**
+     * Returns the number of vertices in this network.
+     * @return the number of vertices in this network
+     */
+    public int V() {
+        return V;
+    }
+
+    /**
+     * Returns the number of edges in this network; it has twice as many arcs.
+     * @return the number of edges in this network
+     */
+    public int E() {
+        return E;
+    }
+
+    // throw an IllegalArgumentException unless {@code 0 <= v < V}
+    private void validateVertex(int v) {
+        if (v < 0 || v >= V)
+            throw new IllegalArgumentException("vertex " + v + " is not between 0 and " + (V-1));
+    }
+
+    /**
+     * Returns the index of the first arc out of vertex {@code v}. The arcs out of
+     * {@code v}, including the reverse arcs of the edges into {@code v}, are
+     * {@code arc(i)} for {@code begin(v) <= i < end(v)}.
+     *
+     * @param  v the vertex
+     * @return the index of the first arc out of {@code v}
+     * @throws IllegalArgumentException unless {@code 0 <= v < V}
+     */
+    public int begin(int v) {
+        validateVertex(v);
+        return first[v];
+    }
+
+    /**
+     * Returns one past the index of the last arc out of vertex {@code v}.
+     *
+     * @param  v the vertex
+     * @return one past the index of the last arc out of {@code v}
+     * @throws IllegalArgumentException unless {@code 0 <= v < V}
+     */
+    public int end(int v) {
+        validateVertex(v);
+        return first[v+1];
+    }
+
+    /**
+     * Returns the arc with index {@code i} in the arcs grouped by tail.
+     *
+     * @param  i the index, between {@code 0} and {@code 2E - 1}
+     * @return the arc with index {@code i}
+     */
+    public int arc(int i) {
+        return out[i];
+    }
+
+    /**
+     * Returns the vertex arc {@code a} points to.
+     *
+     * @param  a the arc, between {@code 0} and {@code 2E - 1}
+     * @return the head of arc {@code a}
+     */
+    public int head(int a) {
+        return head[a];
+    }
+
+    /**
+     * Returns the vertex arc {@code a} points from.
+     *
+     * @param  a the arc, between {@code 0} and {@code 2E - 1}
+     * @return the tail of arc {@code a}
+     */
+    public int tail(int a) {
+        return head[a ^ 1];
+    }
+
+    /**
+     * Returns the capacity of arc {@code a}: the capacity of its edge if {@code a}
+     * is even, and 0 if it is the reverse arc of an edge.
+     *
+     * @param  a the arc, between {@code 0} and {@code 2E - 1}
+     * @return the capacity of arc {@code a}
+     */
+    public double capacity(int a) {
+        return capacity[a];
+    }
+
+    /**
+     * Returns the flow on arc {@code a}: the flow on its edge if {@code a} is even,
+     * and minus that flow if it is the reverse arc of an edge.
+     *
+     * @param  a the arc, between {@code 0} and {@code 2E - 1}
+     * @return the flow on arc {@code a}
+     */
+    public double flow(int a) {
+        return flow[a];
+    }
+
+    /**
+     * Returns the residual capacity of arc {@code a}.
+     *
+     * @param  a the arc, between {@code 0} and {@code 2E - 1}
+     * @return the capacity of arc {@code a} minus its flow
+     */
+    public double residualCapacity(int a) {
+        return capacity[a] - flow[a];
+    }
+
+    /**
+     * Adds {@code delta} units of flow to arc {@code a}, and so takes them off its reverse.
+     * It does not check that the flow stays within the capacity.
+     *
+     * @param  a the arc, between {@code 0} and {@code 2E - 1}
+     * @param  delta the amount of flow
+     */
+    public void addFlow(int a, double delta) {
+        flow[a] += delta;
+        flow[a ^ 1] -= delta;
+    }
+
+    /**
+     * Returns the flow into vertex {@code v} minus the flow out of it.
+     * This method takes time proportional to the degree of {@code v}.
+     *
+     * @param  v the vertex
+     * @return the excess flow at {@code v}
+     * @throws IllegalArgumentException unless {@code 0 <= v < V}
+     */
+    public double excess(int v) {
+        validateVertex(v);
+        double excess = 0.0;
+        for (int i = first[v]; i < first[v+1]; i++)
+            excess -= flow[out[i]];
+        return excess;
+    }
+
+    /**
+     * Sets the flow on each edge of {@code G} to the flow on the same edge of this
+     * network, which must have been built from {@code G}, unchanged since.
+     *
+     * @param  G the flow network this network was built from
+     * @throws IllegalArgumentException if the edges of {@code G} are not those of this network
+     */
+    public void copyFlowsTo(FlowNetwork G) {
+        if (G.V() != V) throw new IllegalArgumentException("flow network has " + G.V() + " vertices, not " + V);
+        int i = 0;
+        for (FlowEdge e : G.edges()) {
+            if (i >= E || e.from() != head[2*i+1] || e.to() != head[2*i])
+                throw new IllegalArgumentException("edge " + e + " is not edge " + i + " of the residual network");
+            double delta = flow[2*i] - e.flow();
+            if      (delta > 0) e.addResidualFlowTo(e.to(), delta);
+            else if (delta < 0) e.addResidualFlowTo(e.from(), -delta);
+            i++;
+        }
+        if (i != E) throw new IllegalArgumentException("flow network has " + i + " edges, not " + E);
+    }
+
+    /**
+     * Returns a string representation of this residual network.
+     * @return the number of vertices <em>V</em>, followed by the number of edges <em>E</em>,
+     *         followed by the edges out of each vertex, with their flow and capacity
+     */
+    public String toString() {
+        StringBuilder s = new StringBuilder();
+        s.append(V + " " + E + NEWLINE);
+        for (int v = 0; v < V; v++) {
+            s.append(v + ":  ");
+            for (int i = first[v]; i < first[v+1]; i++) {
+                int a = out[i];
+                if ((a & 1) == 0) s.append(v + "->" + head[a] + " " + flow[a] + "/" + capacity[a] + "  ");
+            }
+            s.append(NEWLINE);
+        }
+        return s.toString();
+    }
+
+    /**
+     * Unit tests the {@code ResidualNetwork} data type.
+     *
+     * @param args the command-line arguments
+     */
+    public static void main(String[] args) {
+        In in = new In(args[0]);
+        FlowNetwork G = new FlowNetwork(in);
+        ResidualNetwork R = new ResidualNetwork(G);
+        StdOut.println(R);
+    }
+
+}